@@ -0,0 +1,230 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.grizzly;
+
+import static org.forgerock.opendj.ldap.requests.Requests.*;
+import static org.forgerock.opendj.ldap.responses.Responses.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.opendj.io.ASN1;
+import org.forgerock.opendj.io.ASN1Reader;
+import org.forgerock.opendj.io.ASN1Writer;
+import org.forgerock.opendj.io.AbstractLDAPMessageHandler;
+import org.forgerock.opendj.io.LDAP;
+import org.forgerock.opendj.io.LDAPWriter;
+import org.forgerock.opendj.ldap.ByteStringBuilder;
+import org.forgerock.opendj.ldap.DecodeException;
+import org.forgerock.opendj.ldap.DecodeOptions;
+import org.forgerock.opendj.ldap.ModificationType;
+import org.forgerock.opendj.ldap.SearchScope;
+import org.forgerock.opendj.ldap.requests.ModifyRequest;
+import org.forgerock.opendj.ldap.requests.SearchRequest;
+import org.forgerock.opendj.ldap.responses.SearchResultEntry;
+import org.glassfish.grizzly.Buffer;
+import org.glassfish.grizzly.memory.ByteBufferWrapper;
+import org.glassfish.grizzly.memory.MemoryManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the encoding and decoding of typical LDAP messages, both with the
+ * Grizzly {@link ASN1BufferWriter}/{@link ASN1BufferReader} used by the
+ * network transport and with the byte string based ASN.1 streams of the SDK.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LDAPCodecBenchmark {
+    /** The LDAP messages which are encoded and decoded. */
+    public enum Message {
+        /** A search request for a user, with an equality filter and a list of attributes. */
+        SEARCH_REQUEST {
+            @Override
+            void write(final LDAPWriter<? extends ASN1Writer> writer) throws IOException {
+                writer.writeSearchRequest(MESSAGE_ID, SEARCH);
+            }
+        },
+        /** A search result entry for a user, with Unicode values. */
+        SEARCH_RESULT_ENTRY {
+            @Override
+            void write(final LDAPWriter<? extends ASN1Writer> writer) throws IOException {
+                writer.writeSearchResultEntry(MESSAGE_ID, ENTRY);
+            }
+        },
+        /** A modify request replacing two attributes of a user. */
+        MODIFY_REQUEST {
+            @Override
+            void write(final LDAPWriter<? extends ASN1Writer> writer) throws IOException {
+                writer.writeModifyRequest(MESSAGE_ID, MODIFY);
+            }
+        };
+
+        abstract void write(LDAPWriter<? extends ASN1Writer> writer) throws IOException;
+    }
+
+    /** Keeps the last decoded message, so that decoding cannot be optimized away. */
+    private static final class MessageHolder extends AbstractLDAPMessageHandler {
+        private Object message;
+
+        @Override
+        public void modifyRequest(final int messageID, final ModifyRequest request) {
+            message = request;
+        }
+
+        @Override
+        public void searchRequest(final int messageID, final SearchRequest request) {
+            message = request;
+        }
+
+        @Override
+        public void searchResultEntry(final int messageID, final SearchResultEntry entry) {
+            message = entry;
+        }
+    }
+
+    private static final int MESSAGE_ID = 42;
+    private static final int MAX_ELEMENT_SIZE = 0;
+
+    private static final SearchRequest SEARCH = newSearchRequest("ou=people,dc=example,dc=com",
+            SearchScope.WHOLE_SUBTREE, "(&(objectClass=inetOrgPerson)(uid=user.12345))",
+            "cn", "sn", "mail", "telephoneNumber", "description");
+
+    private static final SearchResultEntry ENTRY = newSearchResultEntry(
+            "dn: uid=user.12345,ou=people,dc=example,dc=com",
+            "objectClass: top",
+            "objectClass: person",
+            "objectClass: organizationalPerson",
+            "objectClass: inetOrgPerson",
+            "uid: user.12345",
+            "cn: Józef Gałązka-Müller",
+            "cn: 山田 太郎",
+            "sn: Gałązka-Müller",
+            "givenName: Józef",
+            "mail: user.12345@example.com",
+            "telephoneNumber: +1 408 555 1234",
+            "description: Ελληνικά, русский, 日本語 and français in the same value",
+            "street: 1 Straße der Einheit",
+            "employeeNumber: 12345");
+
+    private static final ModifyRequest MODIFY = newModifyRequest("uid=user.12345,ou=people,dc=example,dc=com")
+            .addModification(ModificationType.REPLACE, "description", "Ünïcödé description 12345")
+            .addModification(ModificationType.REPLACE, "telephoneNumber", "+1 408 555 4321");
+
+    private static final MemoryManager<?> MEMORY_MANAGER = MemoryManager.DEFAULT_MEMORY_MANAGER;
+
+    @Param
+    private Message message;
+
+    private final DecodeOptions decodeOptions = new DecodeOptions();
+    private final MessageHolder holder = new MessageHolder();
+    private final ByteStringBuilder builder = new ByteStringBuilder();
+    private final LDAPWriter<ASN1Writer> byteStringWriter = LDAP.getWriter(ASN1.getWriter(builder), 3);
+    private byte[] encodedMessage;
+
+    /**
+     * Encodes the message which is decoded by the benchmarks.
+     *
+     * @throws IOException
+     *             Never thrown.
+     */
+    @Setup
+    public void encodeMessage() throws IOException {
+        message.write(byteStringWriter);
+        encodedMessage = builder.toByteArray();
+        builder.clear();
+    }
+
+    /**
+     * Encodes the message with an {@link ASN1BufferWriter}.
+     *
+     * @return The length of the encoded message.
+     * @throws IOException
+     *             Never thrown.
+     */
+    @Benchmark
+    public int encodeWithASN1BufferWriter() throws IOException {
+        final LDAPWriter<ASN1BufferWriter> writer = GrizzlyUtils.getWriter(MEMORY_MANAGER, 3);
+        try {
+            message.write(writer);
+            final Buffer buffer = writer.getASN1Writer().getBuffer();
+            final int length = buffer.remaining();
+            buffer.tryDispose();
+            return length;
+        } finally {
+            GrizzlyUtils.recycleWriter(writer);
+        }
+    }
+
+    /**
+     * Decodes the message with an {@link ASN1BufferReader}.
+     *
+     * @return The decoded message.
+     * @throws IOException
+     *             If the message cannot be decoded.
+     */
+    @Benchmark
+    public Object decodeWithASN1BufferReader() throws IOException {
+        final ASN1BufferReader reader =
+                new ASN1BufferReader(MAX_ELEMENT_SIZE, new ByteBufferWrapper(ByteBuffer.wrap(encodedMessage)));
+        return decode(reader);
+    }
+
+    /**
+     * Encodes the message in a {@link ByteStringBuilder}.
+     *
+     * @return The length of the encoded message.
+     * @throws IOException
+     *             Never thrown.
+     */
+    @Benchmark
+    public int encodeWithByteStringBuilder() throws IOException {
+        builder.clear();
+        message.write(byteStringWriter);
+        return builder.length();
+    }
+
+    /**
+     * Decodes the message from a byte array.
+     *
+     * @return The decoded message.
+     * @throws IOException
+     *             If the message cannot be decoded.
+     */
+    @Benchmark
+    public Object decodeWithByteSequenceReader() throws IOException {
+        return decode(ASN1.getReader(encodedMessage));
+    }
+
+    private Object decode(final ASN1Reader reader) throws DecodeException, IOException {
+        LDAP.getReader(reader, decodeOptions).readMessage(holder);
+        return holder.message;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.ldap;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the conversions between strings and {@link ByteString}s, the
+ * {@link ByteStringBuilder} and the comparison of byte strings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ByteStringBenchmark {
+    /** The kinds of values which are converted. */
+    public enum Value {
+        /** A short ASCII value, like a uid. */
+        SHORT_ASCII("user.12345"),
+        /** A longer ASCII value, like a description. */
+        LONG_ASCII("This is the description of user.12345, who works in the sales department of Example, Inc."),
+        /** A value mixing Latin, Greek, Cyrillic and CJK characters. */
+        UNICODE("Józef Gałązka-Müller, Ελληνικά, русский, 日本語の説明 and français in the same value");
+
+        private final String string;
+
+        Value(final String string) {
+            this.string = string;
+        }
+    }
+
+    @Param
+    private Value value;
+
+    private String string;
+    private ByteString byteString;
+    private ByteString otherByteString;
+    private final ByteStringBuilder builder = new ByteStringBuilder();
+
+    /** Encodes the value which is decoded and compared by the benchmarks. */
+    @Setup
+    public void encodeValue() {
+        string = value.string;
+        byteString = ByteString.valueOfUtf8(string);
+        otherByteString = ByteString.valueOfUtf8(string + "!");
+    }
+
+    /**
+     * Encodes the value in UTF-8.
+     *
+     * @return The encoded value.
+     */
+    @Benchmark
+    public ByteString valueOfUtf8() {
+        return ByteString.valueOfUtf8(string);
+    }
+
+    /**
+     * Decodes the UTF-8 value.
+     *
+     * @return The decoded value.
+     */
+    @Benchmark
+    public String toStringOfByteString() {
+        return byteString.toString();
+    }
+
+    /**
+     * Appends the value to a reused {@link ByteStringBuilder} then copies its content.
+     *
+     * @return The content of the builder.
+     */
+    @Benchmark
+    public ByteString appendUtf8AndToByteString() {
+        builder.clear();
+        return builder.appendUtf8(string).appendInt(12345).toByteString();
+    }
+
+    /**
+     * Compares the value with a longer value having the same prefix.
+     *
+     * @return The result of the comparison.
+     */
+    @Benchmark
+    public int compareTo() {
+        return byteString.compareTo(otherByteString);
+    }
+
+    /**
+     * Encodes the value in base64.
+     *
+     * @return The base64 encoded value.
+     */
+    @Benchmark
+    public String toBase64String() {
+        return byteString.toBase64String();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.ldap;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.opendj.ldap.responses.SearchResultEntry;
+import org.forgerock.opendj.ldif.LDIFEntryReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of a connection pool shared by many threads, each
+ * checking out a connection, optionally using it, and releasing it.
+ * <p>
+ * The pooled connections are internal connections to an in-memory backend, so
+ * that the cost of the pool itself dominates. Use {@code -t} to change the
+ * number of threads: the README of this module describes a sweep from 1 to 256
+ * threads, and how to run it against the pool synchronized on a single lock.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class CachedConnectionPoolBenchmark {
+    private static final String USER_DN = "uid=user.0,ou=people,dc=example,dc=com";
+
+    @Param({ "1", "8", "64" })
+    private int poolSize;
+
+    private ConnectionPool pool;
+
+    /**
+     * Creates the connection pool and fills it.
+     *
+     * @throws Exception
+     *             If the pool cannot be filled.
+     */
+    @Setup
+    public void createPool() throws Exception {
+        final MemoryBackend backend = new MemoryBackend(new LDIFEntryReader(
+                "dn: " + USER_DN,
+                "objectClass: top",
+                "objectClass: person",
+                "uid: user.0",
+                "cn: user.0",
+                "sn: 0"));
+        pool = Connections.newCachedConnectionPool(Connections.newInternalConnectionFactory(backend),
+                poolSize, poolSize, 0, null);
+        final Connection[] connections = new Connection[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            connections[i] = pool.getConnection();
+        }
+        for (final Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    /** Closes the connection pool. */
+    @TearDown
+    public void closePool() {
+        pool.close();
+    }
+
+    /**
+     * Checks out a connection and releases it.
+     *
+     * @return The connection.
+     * @throws LdapException
+     *             If no connection could be obtained.
+     */
+    @Benchmark
+    public Connection checkoutAndRelease() throws LdapException {
+        final Connection connection = pool.getConnection();
+        connection.close();
+        return connection;
+    }
+
+    /**
+     * Checks out a connection, reads an entry with it and releases it.
+     *
+     * @return The entry.
+     * @throws LdapException
+     *             If no connection could be obtained or the entry could not be read.
+     */
+    @Benchmark
+    public SearchResultEntry checkoutReadEntryAndRelease() throws LdapException {
+        try (Connection connection = pool.getConnection()) {
+            return connection.readEntry(USER_DN);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.ldap;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the decoding, normalization and comparison of realistic DNs.
+ * <p>
+ * {@link DN#valueOf(String)} keeps the parents of the most recently decoded DNs
+ * in a small thread local cache. One benchmark decodes DNs sharing the same
+ * parent, which is served from the cache, while the others decode DNs which
+ * all have a different parent, many more than the cache can hold.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DNBenchmark {
+    /**
+     * The kinds of DNs which are decoded. The first argument of their format is the user number, the second one is
+     * the number of the organizational unit containing the user.
+     */
+    public enum DNType {
+        /** DNs of users with ASCII values. */
+        ASCII("uid=user.%1$d,ou=unit.%2$d,ou=people,dc=example,dc=com"),
+        /** DNs of users with accented and CJK values. */
+        UNICODE("cn=Józef Gałązka-Müller %1$d,ou=Développement %2$d,o=株式会社サンプル,c=JP"),
+        /** DNs of users with escaped characters and multi-valued RDNs. */
+        ESCAPED("cn=Smith\\, John %1$d+employeeNumber=%1$d,ou=Sales \\+ Marketing %2$d,dc=example,dc=com");
+
+        private final String format;
+
+        DNType(final String format) {
+            this.format = format;
+        }
+    }
+
+    private static final int NB_DNS = 4096;
+
+    @Param
+    private DNType dnType;
+
+    /** DNs of users in the same organizational unit. */
+    private String[] dnStringsWithSameParent;
+    /** DNs of users each in a different organizational unit. */
+    private String[] dnStringsWithDistinctParents;
+    private DN[] dns;
+    private int index;
+
+    /** Creates DNs having more distinct parents than the thread local cache of {@link DN} can hold. */
+    @Setup
+    public void createDNs() {
+        dnStringsWithSameParent = new String[NB_DNS];
+        dnStringsWithDistinctParents = new String[NB_DNS];
+        dns = new DN[NB_DNS];
+        for (int i = 0; i < NB_DNS; i++) {
+            dnStringsWithSameParent[i] = String.format(dnType.format, i, 0);
+            dnStringsWithDistinctParents[i] = String.format(dnType.format, i, i);
+            dns[i] = DN.valueOf(dnStringsWithDistinctParents[i]);
+        }
+    }
+
+    private int nextIndex() {
+        index = (index + 1) & (NB_DNS - 1);
+        return index;
+    }
+
+    /**
+     * Decodes a DN whose parent is served from the thread local cache.
+     *
+     * @return The decoded DN.
+     */
+    @Benchmark
+    public DN valueOfWithCachedParent() {
+        return DN.valueOf(dnStringsWithSameParent[nextIndex()]);
+    }
+
+    /**
+     * Decodes a DN whose parent is not in the thread local cache.
+     *
+     * @return The decoded DN.
+     */
+    @Benchmark
+    public DN valueOfWithUncachedParent() {
+        return DN.valueOf(dnStringsWithDistinctParents[nextIndex()]);
+    }
+
+    /**
+     * Decodes and normalizes a DN whose parent is not in the thread local cache.
+     *
+     * @return The normalized DN.
+     */
+    @Benchmark
+    public ByteString valueOfWithUncachedParentAndNormalize() {
+        return DN.valueOf(dnStringsWithDistinctParents[nextIndex()]).toNormalizedByteString();
+    }
+
+    /**
+     * Compares two different DNs.
+     *
+     * @return The result of the comparison.
+     */
+    @Benchmark
+    public int compareTo() {
+        final int i = nextIndex();
+        return dns[i].compareTo(dns[(i + 1) & (NB_DNS - 1)]);
+    }
+
+    /**
+     * Checks whether a DN is subordinate to its parent.
+     *
+     * @return {@code true}.
+     */
+    @Benchmark
+    public boolean isSubordinateOrEqualTo() {
+        final DN dn = dns[nextIndex()];
+        return dn.isSubordinateOrEqualTo(dn.parent());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.ldap;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures the parsing of typical search filters and their evaluation against an entry. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FilterBenchmark {
+    /** The filters which are parsed. */
+    public enum FilterType {
+        /** An equality filter on the uid. */
+        EQUALITY("(uid=user.12345)"),
+        /** The kind of filter sent by applications looking up a user. */
+        COMPLEX("(&(objectClass=inetOrgPerson)(|(uid=user.12345)(mail=user.12345@example.com))(!(cn=admin)))"),
+        /** A substring filter. */
+        SUBSTRING("(cn=Józef*Müller*)"),
+        /** An equality filter with Unicode and escaped characters. */
+        UNICODE_ESCAPED("(description=日本語 \\28説明\\29 \\2a and français)");
+
+        private final String string;
+
+        FilterType(final String string) {
+            this.string = string;
+        }
+    }
+
+    private static final Entry ENTRY = new LinkedHashMapEntry(
+            "dn: uid=user.12345,ou=people,dc=example,dc=com",
+            "objectClass: top",
+            "objectClass: person",
+            "objectClass: organizationalPerson",
+            "objectClass: inetOrgPerson",
+            "uid: user.12345",
+            "cn: Józef Gałązka-Müller",
+            "sn: Gałązka-Müller",
+            "mail: user.12345@example.com",
+            "description: 日本語 (説明) * and français");
+
+    @Param
+    private FilterType filterType;
+
+    private Filter filter;
+    private Matcher matcher;
+
+    /** Parses the filter which is formatted and evaluated by the benchmarks. */
+    @Setup
+    public void parseFilter() {
+        filter = Filter.valueOf(filterType.string);
+        matcher = filter.matcher();
+    }
+
+    /**
+     * Parses the filter.
+     *
+     * @return The parsed filter.
+     */
+    @Benchmark
+    public Filter valueOf() {
+        return Filter.valueOf(filterType.string);
+    }
+
+    /**
+     * Returns the string representation of the filter.
+     *
+     * @return The string representation of the filter.
+     */
+    @Benchmark
+    public String toStringOfFilter() {
+        return filter.toString();
+    }
+
+    /**
+     * Creates a matcher for the filter then evaluates it against an entry.
+     *
+     * @return The result of the evaluation.
+     */
+    @Benchmark
+    public ConditionResult matcherAndMatches() {
+        return filter.matcher().matches(ENTRY);
+    }
+
+    /**
+     * Evaluates the filter against an entry with a reused matcher.
+     *
+     * @return The result of the evaluation.
+     */
+    @Benchmark
+    public ConditionResult matches() {
+        return matcher.matches(ENTRY);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.ldap.schema;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.opendj.ldap.Assertion;
+import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.ConditionResult;
+import org.forgerock.opendj.ldap.DecodeException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the normalization of attribute values by the matching rules of the
+ * core schema, and the evaluation of equality assertions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatchingRuleBenchmark {
+    /** The matching rules and the values they normalize. */
+    public enum RuleAndValue {
+        /** Case ignore match on an ASCII common name. */
+        CASE_IGNORE_ASCII("caseIgnoreMatch", "  John   SMITH-Jones  "),
+        /** Case ignore match on a value with accented and CJK characters, requiring Unicode normalization. */
+        CASE_IGNORE_UNICODE("caseIgnoreMatch", "  Józef   GAŁĄZKA-Müller 山田 ﾀﾛｳ  "),
+        /** Case exact match on a value with accented characters. */
+        CASE_EXACT_UNICODE("caseExactMatch", "Ελληνικά, русский and Français"),
+        /** Case ignore IA5 match on an email address. */
+        CASE_IGNORE_IA5("caseIgnoreIA5Match", "John.Smith@Example.COM"),
+        /** Distinguished name match on a user DN. */
+        DISTINGUISHED_NAME("distinguishedNameMatch", "UID=user.12345, OU=People, DC=Example, DC=com"),
+        /** Telephone number match on an international number. */
+        TELEPHONE_NUMBER("telephoneNumberMatch", "+1 (408) 555-1234"),
+        /** Generalized time match on a time with a time zone. */
+        GENERALIZED_TIME("generalizedTimeMatch", "20261019123456.789+0200"),
+        /** Integer match on a large number. */
+        INTEGER("integerMatch", "-1234567890123");
+
+        private final String rule;
+        private final String value;
+
+        RuleAndValue(final String rule, final String value) {
+            this.rule = rule;
+            this.value = value;
+        }
+    }
+
+    @Param
+    private RuleAndValue ruleAndValue;
+
+    private MatchingRule rule;
+    private ByteString value;
+    private ByteString normalizedValue;
+    private Assertion assertion;
+
+    /**
+     * Retrieves the matching rule and normalizes the value.
+     *
+     * @throws DecodeException
+     *             If the value is not valid for the matching rule.
+     */
+    @Setup
+    public void getMatchingRule() throws DecodeException {
+        rule = Schema.getCoreSchema().getMatchingRule(ruleAndValue.rule);
+        value = ByteString.valueOfUtf8(ruleAndValue.value);
+        normalizedValue = rule.normalizeAttributeValue(value);
+        assertion = rule.getAssertion(value);
+    }
+
+    /**
+     * Normalizes the attribute value.
+     *
+     * @return The normalized value.
+     * @throws DecodeException
+     *             If the value is not valid for the matching rule.
+     */
+    @Benchmark
+    public ByteString normalizeAttributeValue() throws DecodeException {
+        return rule.normalizeAttributeValue(value);
+    }
+
+    /**
+     * Creates an assertion for the value, as done when evaluating a filter.
+     *
+     * @return The assertion.
+     * @throws DecodeException
+     *             If the value is not valid for the matching rule.
+     */
+    @Benchmark
+    public Assertion getAssertion() throws DecodeException {
+        return rule.getAssertion(value);
+    }
+
+    /**
+     * Evaluates the assertion against the normalized value.
+     *
+     * @return {@link ConditionResult#TRUE}.
+     */
+    @Benchmark
+    public ConditionResult assertionMatches() {
+        return assertion.matches(normalizedValue);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.ldif;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.opendj.ldap.Entry;
+import org.forgerock.opendj.ldap.LinkedHashMapEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the computation of the differences between two LDIF files generated
+ * with the default MakeLDIF template, either sorting the entries in memory or
+ * with the external merge sort of {@link SortingEntryReader}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LDIFDiffBenchmark {
+    /** The LDIF files which are compared. */
+    @State(Scope.Benchmark)
+    public static class LDIFFiles {
+        @Param({ "10000" })
+        private int numUsers;
+
+        private byte[] source;
+        private byte[] target;
+
+        /**
+         * Generates the source LDIF file, and a target LDIF file where every
+         * third user has been deleted and every fifth user has been modified.
+         *
+         * @throws IOException
+         *             If the entries cannot be generated.
+         */
+        @Setup
+        public void generateLDIFFiles() throws IOException {
+            final ByteArrayOutputStream sourceBytes = new ByteArrayOutputStream();
+            final ByteArrayOutputStream targetBytes = new ByteArrayOutputStream();
+            try (EntryGenerator generator =
+                    new EntryGenerator().setConstant("numusers", numUsers).setRandomSeed(0);
+                    LDIFEntryWriter sourceWriter = new LDIFEntryWriter(sourceBytes);
+                    LDIFEntryWriter targetWriter = new LDIFEntryWriter(targetBytes)) {
+                for (int i = 0; generator.hasNext(); i++) {
+                    final Entry entry = generator.readEntry();
+                    sourceWriter.writeEntry(entry);
+                    if (i % 3 == 2) {
+                        continue;
+                    }
+                    if (i % 5 == 4) {
+                        final Entry modifiedEntry = new LinkedHashMapEntry(entry);
+                        modifiedEntry.replaceAttribute("description", "modified " + i);
+                        targetWriter.writeEntry(modifiedEntry);
+                    } else {
+                        targetWriter.writeEntry(entry);
+                    }
+                }
+            }
+            source = sourceBytes.toByteArray();
+            target = targetBytes.toByteArray();
+        }
+
+        private EntryReader newSourceReader() {
+            return new LDIFEntryReader(new ByteArrayInputStream(source));
+        }
+
+        private EntryReader newTargetReader() {
+            return new LDIFEntryReader(new ByteArrayInputStream(target));
+        }
+    }
+
+    /** The settings of the external merge sort. */
+    @State(Scope.Benchmark)
+    public static class SortSettings {
+        @Param({ "1000", "100000" })
+        private int maxEntriesPerRun;
+
+        @Param({ "1", "4" })
+        private int parallelism;
+
+        private EntryReader sort(final EntryReader reader) {
+            return new SortingEntryReader(reader).setMaxEntriesPerRun(maxEntriesPerRun).setParallelism(parallelism);
+        }
+    }
+
+    /**
+     * Computes the differences after sorting both files in memory.
+     *
+     * @param files
+     *            The LDIF files to compare.
+     * @return The number of change records.
+     * @throws IOException
+     *             If the LDIF files cannot be read.
+     */
+    @Benchmark
+    public int diffInMemory(final LDIFFiles files) throws IOException {
+        try (EntryReader source = files.newSourceReader();
+                EntryReader target = files.newTargetReader()) {
+            return countChanges(LDIF.diff(source, target));
+        }
+    }
+
+    /**
+     * Computes the differences after sorting both files with an external merge sort.
+     *
+     * @param files
+     *            The LDIF files to compare.
+     * @param settings
+     *            The settings of the external merge sort.
+     * @return The number of change records.
+     * @throws IOException
+     *             If the LDIF files cannot be read or the temporary files cannot be written.
+     */
+    @Benchmark
+    public int diffWithExternalSort(final LDIFFiles files, final SortSettings settings) throws IOException {
+        try (EntryReader source = settings.sort(files.newSourceReader());
+                EntryReader target = settings.sort(files.newTargetReader())) {
+            return countChanges(LDIF.diffSorted(source, target));
+        }
+    }
+
+    private static int countChanges(final ChangeRecordReader changes) throws IOException {
+        try {
+            int count = 0;
+            while (changes.hasNext()) {
+                changes.readChangeRecord();
+                count++;
+            }
+            return count;
+        } finally {
+            changes.close();
+        }
+    }
+}
@@ -130,6 +130,9 @@ public final class ConnectionFactoryProvider {
     /** The bind request to connect with. */
     private BindRequest bindRequest;
 
+    /** The connection factory options which are not set from the connection arguments. */
+    private Options connectionFactoryOptions = Options.defaultOptions();
+
     /** The console application linked to this connection in interactive mode. */
     private final ConsoleApplication app;
 
@@ -404,6 +407,17 @@ public final class ConnectionFactoryProvider {
         return getConnectionFactory(false);
     }
 
+    /**
+     * Sets the connection factory options which are not set from the connection arguments, such as request
+     * pipelining. This method must be called before the connection factory is built.
+     *
+     * @param options
+     *            The connection factory options.
+     */
+    public void setConnectionFactoryOptions(final Options options) {
+        this.connectionFactoryOptions = options;
+    }
+
     private ConnectionFactory getConnectionFactory(boolean usePreAuthentication) throws ArgumentException {
         if (connFactory == null) {
             checkForConflictingArguments();
@@ -457,7 +471,7 @@ public final class ConnectionFactoryProvider {
                         e);
             }
 
-            Options options = Options.defaultOptions();
+            Options options = Options.copyOf(connectionFactoryOptions);
             if (sslContext != null) {
                 try {
                     options.set(SSL_CONTEXT, sslContext)
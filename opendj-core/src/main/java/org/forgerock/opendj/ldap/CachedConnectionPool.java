@@ -25,6 +25,8 @@ import static com.forgerock.opendj.util.StaticUtils.*;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -67,6 +69,12 @@ import com.forgerock.opendj.util.ReferenceCountedObject;
  * A connection pool implementation which maintains a cache of pooled
  * connections with a configurable core pool size, maximum size, and expiration
  * policy.
+ * <p>
+ * Idle connections and pending connection requests are kept in non-blocking
+ * queues, so that obtaining and releasing connections never holds a lock. Idle
+ * connections are reused first in first out: taking and adding them at
+ * opposite ends of the queue keeps the threads which obtain connections and the
+ * threads which release them from updating the same nodes.
  */
 final class CachedConnectionPool implements ConnectionPool {
 
@@ -111,14 +119,8 @@ final class CachedConnectionPool implements ConnectionPool {
              * attempts succeed, which is unlikely (if one fails, then they are
              * all likely to fail).
              */
-            final List<QueueElement> waitingPromises = new LinkedList<>();
-            synchronized (queue) {
-                while (hasWaitingPromises()) {
-                    waitingPromises.add(queue.removeFirst());
-                }
-            }
-            for (QueueElement waitingPromise : waitingPromises) {
-                waitingPromise.getWaitingPromise().handleException(exception);
+            for (QueueElement holder = waitingPromises.poll(); holder != null; holder = waitingPromises.poll()) {
+                holder.getWaitingPromise().handleException(exception);
             }
         }
     }
@@ -570,41 +572,40 @@ final class CachedConnectionPool implements ConnectionPool {
     private final class PurgeIdleConnectionsTask implements Runnable {
         @Override
         public void run() {
-            final List<Connection> idleConnections;
-            synchronized (queue) {
-                if (isClosed) {
-                    return;
-                }
+            if (isClosed.get()) {
+                return;
+            }
 
-                /*
-                 * Obtain a list of expired connections but don't close them yet
-                 * since we don't want to hold the lock too long.
-                 */
-                idleConnections = new LinkedList<>();
-                final long timeoutMillis = timeService.now() - idleTimeoutMillis;
-                int nonCoreConnectionCount = currentPoolSize() - corePoolSize;
-                for (QueueElement holder = queue.peek(); nonCoreConnectionCount > 0
-                        && isTimedOutQueuedConnection(holder, timeoutMillis); holder = queue.peek()) {
-                    idleConnections.add(holder.getWaitingConnection());
-                    queue.poll();
+            /*
+             * The least recently used idle connections are at the head of the
+             * queue. Another thread may take them concurrently: only remove
+             * those which are still there.
+             */
+            final List<Connection> expiredConnections = new LinkedList<>();
+            final long timeoutMillis = timeService.now() - idleTimeoutMillis;
+            int nonCoreConnectionCount = currentPoolSize() - corePoolSize;
+            for (QueueElement holder = idleConnections.peek(); nonCoreConnectionCount > 0
+                    && isTimedOutQueuedConnection(holder, timeoutMillis); holder = idleConnections.peek()) {
+                if (idleConnections.remove(holder)) {
+                    expiredConnections.add(holder.getWaitingConnection());
                     availableConnections.release();
                     nonCoreConnectionCount--;
                 }
             }
 
             // Close the idle connections.
-            if (!idleConnections.isEmpty()) {
+            if (!expiredConnections.isEmpty()) {
                 logger.debug(LocalizableMessage.raw(
                         "Closing %d idle pooled connections: availableConnections=%d, maxPoolSize=%d",
-                        idleConnections.size(), currentPoolSize(), maxPoolSize));
-                for (final Connection connection : idleConnections) {
+                        expiredConnections.size(), currentPoolSize(), maxPoolSize));
+                for (final Connection connection : expiredConnections) {
                     connection.close();
                 }
             }
         }
 
         private boolean isTimedOutQueuedConnection(final QueueElement holder, final long timeoutMillis) {
-            return holder != null && !holder.isWaitingPromise() && holder.hasTimedOut(timeoutMillis);
+            return holder != null && holder.hasTimedOut(timeoutMillis);
         }
     }
 
@@ -672,10 +673,6 @@ final class CachedConnectionPool implements ConnectionPool {
         boolean hasTimedOut(final long timeLimitMillis) {
             return timestampMillis < timeLimitMillis;
         }
-
-        boolean isWaitingPromise() {
-            return value instanceof PromiseImpl;
-        }
     }
 
     private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
@@ -691,11 +688,14 @@ final class CachedConnectionPool implements ConnectionPool {
     private final ExceptionHandler<LdapException> connectionFailureHandler = new ConnectionFailureHandler();
     private final int corePoolSize;
     private final ConnectionFactory factory;
-    private boolean isClosed;
+    private final AtomicBoolean isClosed = new AtomicBoolean();
     private final ScheduledFuture<?> idleTimeoutFuture;
     private final long idleTimeoutMillis;
     private final int maxPoolSize;
-    private final LinkedList<QueueElement> queue = new LinkedList<>();
+    /** The idle connections, the least recently used first. */
+    private final Queue<QueueElement> idleConnections = new ConcurrentLinkedQueue<>();
+    /** The connection requests waiting for a connection, the oldest first. */
+    private final Queue<QueueElement> waitingPromises = new ConcurrentLinkedQueue<>();
     private final ReferenceCountedObject<ScheduledExecutorService>.Reference scheduler;
 
     /**
@@ -736,23 +736,8 @@ final class CachedConnectionPool implements ConnectionPool {
 
     @Override
     public void close() {
-        final LinkedList<Connection> idleConnections;
-        synchronized (queue) {
-            if (isClosed) {
-                return;
-            }
-            isClosed = true;
-
-            /*
-             * Remove any connections which are waiting in the queue as these
-             * can be closed immediately.
-             */
-            idleConnections = new LinkedList<>();
-            while (hasWaitingConnections()) {
-                final QueueElement holder = queue.removeFirst();
-                idleConnections.add(holder.getWaitingConnection());
-                availableConnections.release();
-            }
+        if (!isClosed.compareAndSet(false, true)) {
+            return;
         }
 
         logger.debug(LocalizableMessage.raw(
@@ -765,9 +750,7 @@ final class CachedConnectionPool implements ConnectionPool {
         }
 
         // Close all idle connections.
-        for (final Connection connection : idleConnections) {
-            connection.close();
-        }
+        closeIdleConnections();
 
         // Close the underlying factory.
         factory.close();
@@ -786,27 +769,32 @@ final class CachedConnectionPool implements ConnectionPool {
     public Promise<Connection, LdapException> getConnectionAsync() {
         // Loop while iterating through stale connections (see OPENDJ-590).
         for (;;) {
-            final QueueElement holder;
-            synchronized (queue) {
-                if (isClosed) {
-                    throw new IllegalStateException("CachedConnectionPool is already closed");
-                } else if (hasWaitingConnections()) {
-                    holder = queue.removeFirst();
-                } else {
-                    holder = new QueueElement(timeService.now(), getStackTraceIfDebugEnabled());
-                    queue.add(holder);
-                }
+            if (isClosed.get()) {
+                throw new IllegalStateException("CachedConnectionPool is already closed");
             }
-
-            if (holder.isWaitingPromise()) {
-                // Grow the pool if needed.
-                final Promise<Connection, LdapException> promise = holder.getWaitingPromise();
-                if (!promise.isDone() && availableConnections.tryAcquire()) {
-                    pendingConnectionAttempts.incrementAndGet();
-                    factory.getConnectionAsync().thenOnResult(connectionResultHandler)
-                                                .thenOnException(connectionFailureHandler);
+            QueueElement holder = idleConnections.poll();
+            if (holder == null) {
+                final QueueElement waitingPromise =
+                        new QueueElement(timeService.now(), getStackTraceIfDebugEnabled());
+                waitingPromises.add(waitingPromise);
+
+                // A connection may have been released before the request was queued.
+                holder = idleConnections.poll();
+                if (holder != null && !waitingPromises.remove(waitingPromise)) {
+                    // Another thread is completing the request: give the connection back.
+                    publishConnection(holder.getWaitingConnection());
+                    holder = null;
+                }
+                if (holder == null) {
+                    // Grow the pool if needed.
+                    final Promise<Connection, LdapException> promise = waitingPromise.getWaitingPromise();
+                    if (!promise.isDone() && availableConnections.tryAcquire()) {
+                        pendingConnectionAttempts.incrementAndGet();
+                        factory.getConnectionAsync().thenOnResult(connectionResultHandler)
+                                                    .thenOnException(connectionFailureHandler);
+                    }
+                    return promise;
                 }
-                return promise;
             }
 
             // There was a completed connection attempt.
@@ -829,17 +817,8 @@ final class CachedConnectionPool implements ConnectionPool {
     public String toString() {
         final int size = currentPoolSize();
         final int pending = pendingConnectionAttempts.get();
-        int in = 0;
-        int blocked = 0;
-        synchronized (queue) {
-            for (QueueElement qe : queue) {
-                if (qe.isWaitingPromise()) {
-                    blocked++;
-                } else {
-                    in++;
-                }
-            }
-        }
+        final int in = idleConnections.size();
+        final int blocked = waitingPromises.size();
         final int out = size - in - pending;
         return String.format("CachedConnectionPool(size=%d[in:%d + out:%d + "
                 + "pending:%d], maxSize=%d, blocked=%d, factory=%s)", size, in, out, pending,
@@ -861,34 +840,44 @@ final class CachedConnectionPool implements ConnectionPool {
         return maxPoolSize - availableConnections.availablePermits();
     }
 
-    private boolean hasWaitingConnections() {
-        return !queue.isEmpty() && !queue.getFirst().isWaitingPromise();
-    }
-
-    private boolean hasWaitingPromises() {
-        return !queue.isEmpty() && queue.getFirst().isWaitingPromise();
+    private void closeIdleConnections() {
+        for (QueueElement holder = idleConnections.poll(); holder != null; holder = idleConnections.poll()) {
+            holder.getWaitingConnection().close();
+            availableConnections.release();
+        }
     }
 
     private void publishConnection(final Connection connection) {
-        final QueueElement holder;
-        boolean connectionPoolIsClosing = false;
-
-        synchronized (queue) {
-            if (hasWaitingPromises()) {
-                connectionPoolIsClosing = isClosed;
-                holder = queue.removeFirst();
-            } else if (isClosed) {
-                connectionPoolIsClosing = true;
-                holder = null;
-            } else {
-                holder = new QueueElement(connection, timeService.now());
-                queue.add(holder);
+        Connection idleConnection = connection;
+        for (;;) {
+            final QueueElement holder = waitingPromises.poll();
+            if (holder != null || isClosed.get()) {
+                completeWaitingPromise(holder, idleConnection);
+                return;
+            }
+
+            idleConnections.offer(new QueueElement(idleConnection, timeService.now()));
+            if (isClosed.get()) {
+                // The pool may have been closed before the connection was made idle.
+                closeIdleConnections();
+                return;
+            } else if (waitingPromises.isEmpty()) {
                 return;
             }
+
+            // A request may have been queued before the connection was made idle: try to complete it.
+            final QueueElement idleHolder = idleConnections.poll();
+            if (idleHolder == null) {
+                // Another thread has taken the connection.
+                return;
+            }
+            idleConnection = idleHolder.getWaitingConnection();
         }
+    }
 
-        // There was waiting promise, so complete it.
-        if (connectionPoolIsClosing) {
+    /** Completes the waiting promise, if any, with the connection, unless the pool is closing. */
+    private void completeWaitingPromise(final QueueElement holder, final Connection connection) {
+        if (isClosed.get()) {
             // The connection will be closed, so decrease the pool size.
             availableConnections.release();
             connection.close();
@@ -0,0 +1,59 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.ldap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The statistics which a load balancer keeps about one of its connection factories. The statistics are a live view:
+ * they are updated as requests are processed.
+ *
+ * @see LoadBalancerEventListener#handleConnectionFactoryStatistics(ConnectionFactory, ConnectionFactoryStatistics)
+ */
+public interface ConnectionFactoryStatistics {
+    /**
+     * Returns the number of requests which have been sent to the connection factory and are not yet completed.
+     *
+     * @return The number of requests which have been sent to the connection factory and are not yet completed.
+     */
+    int getActiveRequests();
+
+    /**
+     * Returns the number of requests which have been completed by the connection factory.
+     *
+     * @return The number of requests which have been completed by the connection factory.
+     */
+    long getCompletedRequests();
+
+    /**
+     * Returns the moving average of the response times of the connection factory, which gives more weight to the
+     * recent responses.
+     *
+     * @param unit
+     *            The unit of the returned response time.
+     * @return The moving average of the response times of the connection factory, or zero if no request has been
+     *         completed yet.
+     */
+    long getAverageResponseTime(TimeUnit unit);
+
+    /**
+     * Returns {@code true} if the connection factory has been ejected from the load balancer because of its response
+     * times, and does not receive requests.
+     *
+     * @return {@code true} if the connection factory has been ejected from the load balancer.
+     */
+    boolean isEjected();
+}
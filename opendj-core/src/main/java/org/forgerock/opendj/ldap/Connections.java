@@ -82,6 +82,39 @@ public final class Connections {
     public static final Option<ScheduledExecutorService> LOAD_BALANCER_SCHEDULER =
             Option.of(ScheduledExecutorService.class, null);
 
+    /**
+     * Specifies how fast the average response time of a connection factory forgets older responses, for the load
+     * balancers which take response times into account. The weight of a response in the average is divided by e each
+     * time this duration elapses. The default is ten seconds.
+     *
+     * @see #newLatencyAwareLoadBalancer(Collection, Options)
+     */
+    public static final Option<Duration> LOAD_BALANCER_LATENCY_DECAY = Option.withDefault(duration("10 seconds"));
+
+    /**
+     * Specifies the ratio between the average response time of a connection factory and the one of the fastest
+     * connection factory above which the connection factory is ejected from the load balancer. The default is five.
+     *
+     * @see #newLatencyAwareLoadBalancer(Collection, Options)
+     */
+    public static final Option<Double> LOAD_BALANCER_EJECTION_THRESHOLD = Option.withDefault(5.0);
+
+    /**
+     * Specifies how long a connection factory which has been ejected because of its response time does not receive
+     * any request. The default is thirty seconds.
+     *
+     * @see #newLatencyAwareLoadBalancer(Collection, Options)
+     */
+    public static final Option<Duration> LOAD_BALANCER_EJECTION_DURATION = Option.withDefault(duration("30 seconds"));
+
+    /**
+     * Specifies how long a connection factory which has been readmitted after an ejection receives a reduced, but
+     * growing, share of the requests. The default is thirty seconds.
+     *
+     * @see #newLatencyAwareLoadBalancer(Collection, Options)
+     */
+    public static final Option<Duration> LOAD_BALANCER_WARM_UP_DURATION = Option.withDefault(duration("30 seconds"));
+
     /**
      * Creates a new connection pool which creates new connections as needed
      * using the provided connection factory, but will reuse previously
@@ -732,6 +765,7 @@ public final class Connections {
      * @see #newRoundRobinLoadBalancer(Collection, Options)
      * @see #newFailoverLoadBalancer(Collection, Options)
      * @see #newAffinityRequestLoadBalancer(Collection, Options)
+     * @see #newLatencyAwareLoadBalancer(Collection, Options)
      * @see #LOAD_BALANCER_EVENT_LISTENER
      * @see #LOAD_BALANCER_MONITORING_INTERVAL
      * @see #LOAD_BALANCER_SCHEDULER
@@ -775,26 +809,105 @@ public final class Connections {
         };
     }
 
-    static Function<Integer, Void, NeverThrowsException> newLeastRequestsLoadBalancerEndOfRequestFunction(
+    static Function<PartitionedRequest, Void, NeverThrowsException> newLeastRequestsLoadBalancerEndOfRequestFunction(
             final LeastRequestsDispatcher dispatcher) {
-        return new Function<Integer, Void, NeverThrowsException>() {
+        return new Function<PartitionedRequest, Void, NeverThrowsException>() {
             @Override
-            public Void apply(final Integer index) {
-                dispatcher.terminatedRequest(index);
+            public Void apply(final PartitionedRequest request) {
+                dispatcher.terminatedRequest(request.getServerIndex());
                 return null;
             }
         };
     }
 
     /** No-op "end of request" function for the saturation-based request load balancer. */
-    static final Function<Integer, Void, NeverThrowsException> NOOP_END_OF_REQUEST_FUNCTION =
-            new Function<Integer, Void, NeverThrowsException>() {
+    static final Function<PartitionedRequest, Void, NeverThrowsException> NOOP_END_OF_REQUEST_FUNCTION =
+            new Function<PartitionedRequest, Void, NeverThrowsException>() {
                 @Override
-                public Void apply(Integer index) {
+                public Void apply(PartitionedRequest request) {
                     return null;
                 }
             };
 
+    /**
+     * Creates a new "latency aware" load-balancer which will load-balance individual requests across the provided set
+     * of connection factories, each typically representing a single replica, using an algorithm that steers requests
+     * away from the replicas which respond slowly.
+     * <p>
+     * The load-balancer keeps, for each replica, its number of active requests and a moving average of its response
+     * times, which gives more weight to recent responses. Each request is routed using the "power of two choices"
+     * algorithm: two replicas are picked at random, and the request is sent to the replica having the lowest product
+     * of its average response time by its number of active requests. Picking between two random replicas, rather than
+     * always picking the best one, avoids sending bursts of requests to the replica that happened to look best.
+     * <p>
+     * A replica whose average response time is much higher than the one of the fastest replica is ejected for a
+     * while: it does not receive any request. It is then readmitted, and receives a growing share of the requests
+     * during a warm-up period. No more than half of the replicas are ejected at the same time.
+     * <p>
+     * The statistics kept for each replica can be obtained by registering a {@link LoadBalancerEventListener} with
+     * the {@link #LOAD_BALANCER_EVENT_LISTENER} option, which will also be notified of the ejections and readmissions.
+     * <p/>
+     * <b>NOTE:</b> this connection factory returns fake connections, since real connections are obtained for each
+     * request. Therefore, the returned fake connections have certain limitations: abandon requests will be ignored
+     * since they cannot be routed; connection event listeners can be registered, but will only be notified when the
+     * fake connection is closed or when all of the connection factories are unavailable.
+     * <p/>
+     * <b>NOTE:</b>Server selection is only based on information which is local to the client application. If other
+     * applications are accessing the same servers then their additional load is only taken into account through the
+     * response times.
+     * <p/>
+     * The implementation periodically attempts to connect to failed connection factories in order to determine if they
+     * have become available again.
+     *
+     * @param factories
+     *            The connection factories.
+     * @param options
+     *            This configuration options for the load-balancer.
+     * @return The new latency aware load balancer.
+     * @see #newLeastRequestsLoadBalancer(Collection, Options)
+     * @see #LOAD_BALANCER_EVENT_LISTENER
+     * @see #LOAD_BALANCER_MONITORING_INTERVAL
+     * @see #LOAD_BALANCER_SCHEDULER
+     * @see #LOAD_BALANCER_LATENCY_DECAY
+     * @see #LOAD_BALANCER_EJECTION_THRESHOLD
+     * @see #LOAD_BALANCER_EJECTION_DURATION
+     * @see #LOAD_BALANCER_WARM_UP_DURATION
+     */
+    public static ConnectionFactory newLatencyAwareLoadBalancer(
+            final Collection<? extends ConnectionFactory> factories, final Options options) {
+        final Object listenerLock = new Object();
+        final LatencyAwareDispatcher dispatcher = new LatencyAwareDispatcher(factories, options, listenerLock);
+        return new RequestLoadBalancer("LatencyAwareRequestLoadBalancer", factories, options,
+                newLatencyAwareLoadBalancerNextFunction(dispatcher),
+                newLatencyAwareLoadBalancerEndOfRequestFunction(dispatcher), listenerLock);
+    }
+
+    static Function<Request, PartitionedRequest, NeverThrowsException> newLatencyAwareLoadBalancerNextFunction(
+            final LatencyAwareDispatcher dispatcher) {
+        return new Function<Request, PartitionedRequest, NeverThrowsException>() {
+            @Override
+            public PartitionedRequest apply(final Request request) {
+                return new PartitionedRequest(request, dispatcher.selectServer());
+            }
+        };
+    }
+
+    static Function<PartitionedRequest, Void, NeverThrowsException> newLatencyAwareLoadBalancerEndOfRequestFunction(
+            final LatencyAwareDispatcher dispatcher) {
+        return new Function<PartitionedRequest, Void, NeverThrowsException>() {
+            @Override
+            public Void apply(final PartitionedRequest request) {
+                dispatcher.terminatedRequest(request.getServerIndex());
+                // Failures are often faster than responses: they must not make a server look faster than it is
+                final int successfulServerIndex = request.getSuccessfulServerIndex();
+                if (successfulServerIndex != -1) {
+                    dispatcher.recordResponseTime(successfulServerIndex, request.getResponseTimeNanos());
+                }
+                return null;
+            }
+        };
+    }
+
     /**
      * Dispatch requests to the server index which has the least active requests.
      * <p>
@@ -215,6 +215,47 @@ public final class LDAPConnectionFactory extends CommonLDAPOptions implements Co
                                                        getIntProperty(TIMEOUT_PROPERTY, 0)),
                                         MILLISECONDS));
 
+    /**
+     * Specifies whether requests are pipelined on the connections created by the connection factory (default is
+     * {@code false}). Rather than being written one at a time, pipelined requests are queued and written together:
+     * the requests sent while a previous write is in progress, or during the {@link #REQUEST_PIPELINING_FLUSH_DELAY
+     * flush delay}, are written to the network with a single gathering write. Pipelining reduces the number of system
+     * calls and network packets when many threads send small requests over the same connection.
+     *
+     * @see #REQUEST_PIPELINING_FLUSH_DELAY
+     * @see #REQUEST_PIPELINING_MAX_BATCH_SIZE
+     * @see #REQUEST_PIPELINING_MAX_IN_FLIGHT_REQUESTS
+     */
+    public static final Option<Boolean> REQUEST_PIPELINING_ENABLED = Option.withDefault(false);
+
+    /**
+     * Specifies how long a pipelined request may be held back, waiting for other requests to be written with it
+     * (default is 0). With no delay, requests are written as soon as no other write is in progress on the connection.
+     * Requests will only be pipelined if {@link #REQUEST_PIPELINING_ENABLED} is set to {@code true}.
+     *
+     * @see #REQUEST_PIPELINING_ENABLED
+     */
+    public static final Option<Duration> REQUEST_PIPELINING_FLUSH_DELAY = Option.withDefault(duration(0, MILLISECONDS));
+
+    /**
+     * Specifies the number of queued requests which causes pipelined requests to be written without waiting for the
+     * {@link #REQUEST_PIPELINING_FLUSH_DELAY flush delay} (default is 32). Requests will only be pipelined if
+     * {@link #REQUEST_PIPELINING_ENABLED} is set to {@code true}.
+     *
+     * @see #REQUEST_PIPELINING_ENABLED
+     */
+    public static final Option<Integer> REQUEST_PIPELINING_MAX_BATCH_SIZE = Option.withDefault(32);
+
+    /**
+     * Specifies the maximum number of pipelined requests which may be waiting for a response from the Directory
+     * Server (default is 0, meaning no limit). Once the limit is reached, further requests are queued and only written
+     * when responses are received, so that a client cannot overwhelm the server. Requests will only be pipelined if
+     * {@link #REQUEST_PIPELINING_ENABLED} is set to {@code true}.
+     *
+     * @see #REQUEST_PIPELINING_ENABLED
+     */
+    public static final Option<Integer> REQUEST_PIPELINING_MAX_IN_FLIGHT_REQUESTS = Option.withDefault(0);
+
     /**
      * Specifies the SSL context which will be used when initiating connections with the Directory Server.
      * <p>
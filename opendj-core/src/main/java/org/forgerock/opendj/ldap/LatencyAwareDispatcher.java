@@ -0,0 +1,311 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.ldap;
+
+import static com.forgerock.opendj.ldap.CoreMessages.ERR_LOAD_BALANCER_EVENT_LISTENER_FAILURE;
+import static org.forgerock.opendj.ldap.Connections.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.forgerock.i18n.slf4j.LocalizedLogger;
+import org.forgerock.util.Options;
+import org.forgerock.util.Reject;
+import org.forgerock.util.time.TimeService;
+
+/**
+ * Dispatch requests to the server index which responds the fastest, taking into account the active requests of each
+ * server.
+ * <p>
+ * A server is actually represented only by its index. The response time of a server is a moving average of the
+ * response times, where the weight of each response decays exponentially with time. Requests are dispatched with the
+ * "power of two choices" algorithm: two servers are picked at random and the request is dispatched to the one which
+ * has the lowest cost, the product of its response time by its number of active requests.
+ * <p>
+ * A server whose response time exceeds the response time of the fastest server by the ejection threshold is ejected
+ * for the ejection duration. It is then readmitted with the response time of the fastest server, and its cost is
+ * inflated during the warm-up duration, so that it receives a growing share of the requests.
+ */
+final class LatencyAwareDispatcher {
+    private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
+
+    /** The share of the requests dispatched to a server at the start of its warm-up, compared to the other servers. */
+    private static final double MIN_WARM_UP_WEIGHT = 0.1;
+    /** The number of responses which must be received from a server since its admission before ejecting it. */
+    private static final int MIN_RESPONSES_BEFORE_EJECTION = 10;
+
+    private final List<ServerStatistics> servers;
+    private final LoadBalancerEventListener listener;
+    /** Shared with the load balancer, so that events are notified one at a time. */
+    private final Object listenerLock;
+    private final double decayNanos;
+    private final double ejectionThreshold;
+    private final long ejectionMillis;
+    private final long warmUpMillis;
+    /** No more than half of the servers can be ejected at the same time. */
+    private final int maxEjectedServers;
+    /** Guarded by this. */
+    private int ejectedServers;
+
+    /** The time service used for ejections and warm-ups, which may be replaced by unit tests. */
+    TimeService timeService = TimeService.SYSTEM;
+
+    LatencyAwareDispatcher(final Collection<? extends ConnectionFactory> factories, final Options options,
+            final Object listenerLock) {
+        Reject.ifTrue(factories.isEmpty(), "At least one connection factory must be provided");
+        this.listenerLock = listenerLock;
+        this.servers = new ArrayList<>(factories.size());
+        for (final ConnectionFactory factory : factories) {
+            this.servers.add(new ServerStatistics(factory));
+        }
+        this.listener = options.get(LOAD_BALANCER_EVENT_LISTENER);
+        this.decayNanos = options.get(LOAD_BALANCER_LATENCY_DECAY).to(TimeUnit.NANOSECONDS);
+        this.ejectionThreshold = options.get(LOAD_BALANCER_EJECTION_THRESHOLD);
+        this.ejectionMillis = options.get(LOAD_BALANCER_EJECTION_DURATION).to(TimeUnit.MILLISECONDS);
+        this.warmUpMillis = options.get(LOAD_BALANCER_WARM_UP_DURATION).to(TimeUnit.MILLISECONDS);
+        this.maxEjectedServers = servers.size() / 2;
+        for (final ServerStatistics server : servers) {
+            synchronized (listenerLock) {
+                try {
+                    listener.handleConnectionFactoryStatistics(server.factory, server);
+                } catch (RuntimeException e) {
+                    handleListenerException(e);
+                }
+            }
+        }
+    }
+
+    int size() {
+        return servers.size();
+    }
+
+    ConnectionFactoryStatistics getStatistics(final int index) {
+        return servers.get(index);
+    }
+
+    /**
+     * Returns the server index to use.
+     *
+     * @return the server index
+     */
+    int selectServer() {
+        final long now = timeService.now();
+        final int[] candidates = new int[servers.size()];
+        int nbCandidates = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            final ServerStatistics server = servers.get(i);
+            if (!server.ejected || readmitIfEjectionIsOver(server, now)) {
+                candidates[nbCandidates++] = i;
+            }
+        }
+
+        final int index;
+        if (nbCandidates <= 1) {
+            // Ejections can race: fall back to the first server if all of them have been ejected
+            index = candidates[0];
+        } else {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final int first = random.nextInt(nbCandidates);
+            int second = random.nextInt(nbCandidates - 1);
+            if (second >= first) {
+                second++;
+            }
+            final int firstIndex = candidates[first];
+            final int secondIndex = candidates[second];
+            index = costOf(firstIndex, now) <= costOf(secondIndex, now) ? firstIndex : secondIndex;
+        }
+        servers.get(index).activeRequests.incrementAndGet();
+        return index;
+    }
+
+    /**
+     * Signals to this dispatcher that a request has been finished for the provided server index, whether it succeeded
+     * or not.
+     *
+     * @param index
+     *            The index of server returned by {@link #selectServer()} for the request.
+     */
+    void terminatedRequest(final int index) {
+        servers.get(index).activeRequests.decrementAndGet();
+    }
+
+    /**
+     * Records the response time of a successful request.
+     *
+     * @param index
+     *            The index of server that actually processed the request.
+     * @param responseTimeNanos
+     *            The time taken by the server to process the request, in nanoseconds.
+     */
+    void recordResponseTime(final int index, final long responseTimeNanos) {
+        final ServerStatistics server = servers.get(index);
+        final int responses = server.recordResponse(responseTimeNanos, System.nanoTime(), decayNanos);
+        if (responses >= MIN_RESPONSES_BEFORE_EJECTION && !server.ejected) {
+            ejectIfTooSlow(server);
+        }
+    }
+
+    private double costOf(final int index, final long now) {
+        final ServerStatistics server = servers.get(index);
+        final double cost = (server.responseTimeNanos + 1) * (server.activeRequests.get() + 1);
+        final long warmUpEndMillis = server.warmUpEndMillis;
+        if (now >= warmUpEndMillis) {
+            return cost;
+        }
+        final double weight = 1 - (double) (warmUpEndMillis - now) / warmUpMillis;
+        return cost / Math.max(weight, MIN_WARM_UP_WEIGHT);
+    }
+
+    private void ejectIfTooSlow(final ServerStatistics server) {
+        synchronized (this) {
+            if (server.ejected || ejectedServers >= maxEjectedServers) {
+                return;
+            }
+            final double lowestResponseTimeNanos = lowestResponseTimeNanos(server);
+            if (lowestResponseTimeNanos < 0 || server.responseTimeNanos <= ejectionThreshold * lowestResponseTimeNanos) {
+                return;
+            }
+            server.eject(timeService.now() + ejectionMillis);
+            ejectedServers++;
+        }
+        synchronized (listenerLock) {
+            try {
+                listener.handleConnectionFactoryEjected(server.factory, server);
+            } catch (RuntimeException e) {
+                handleListenerException(e);
+            }
+        }
+    }
+
+    private boolean readmitIfEjectionIsOver(final ServerStatistics server, final long now) {
+        if (now < server.ejectedUntilMillis) {
+            return false;
+        }
+        synchronized (this) {
+            if (!server.ejected) {
+                // Already readmitted by another thread
+                return true;
+            }
+            // Be optimistic: the first response will replace this response time
+            server.readmit(now + warmUpMillis, Math.max(lowestResponseTimeNanos(server), 0));
+            ejectedServers--;
+        }
+        synchronized (listenerLock) {
+            try {
+                listener.handleConnectionFactoryReadmitted(server.factory, server);
+            } catch (RuntimeException e) {
+                handleListenerException(e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the lowest response time of the admitted servers other than the provided one, or -1 if none of them has
+     * responded yet.
+     */
+    private double lowestResponseTimeNanos(final ServerStatistics excludedServer) {
+        double lowest = -1;
+        for (final ServerStatistics server : servers) {
+            if (server != excludedServer && !server.ejected && server.completedRequests > 0
+                    && (lowest < 0 || server.responseTimeNanos < lowest)) {
+                lowest = server.responseTimeNanos;
+            }
+        }
+        return lowest;
+    }
+
+    private void handleListenerException(RuntimeException e) {
+        logger.error(ERR_LOAD_BALANCER_EVENT_LISTENER_FAILURE.get(), e);
+    }
+
+    /** The statistics of a server. */
+    private static final class ServerStatistics implements ConnectionFactoryStatistics {
+        private final ConnectionFactory factory;
+        private final AtomicInteger activeRequests = new AtomicInteger();
+        /** Written while holding the lock of this object. */
+        private volatile double responseTimeNanos;
+        /** Written while holding the lock of this object. */
+        private volatile long completedRequests;
+        /** Guarded by this. */
+        private long lastResponseNanos;
+        /** Guarded by this. */
+        private int responsesSinceAdmission;
+        /** Written while holding the lock of the dispatcher. */
+        private volatile boolean ejected;
+        private volatile long ejectedUntilMillis;
+        private volatile long warmUpEndMillis;
+
+        private ServerStatistics(final ConnectionFactory factory) {
+            this.factory = factory;
+        }
+
+        /** Returns the number of responses received since the admission of the server. */
+        private synchronized int recordResponse(final long responseTimeNanos, final long nowNanos,
+                final double decayNanos) {
+            if (completedRequests == 0) {
+                this.responseTimeNanos = responseTimeNanos;
+            } else {
+                final double weight = Math.exp(-(nowNanos - lastResponseNanos) / decayNanos);
+                this.responseTimeNanos = this.responseTimeNanos * weight + responseTimeNanos * (1 - weight);
+            }
+            lastResponseNanos = nowNanos;
+            completedRequests++;
+            return ++responsesSinceAdmission;
+        }
+
+        private void eject(final long untilMillis) {
+            ejectedUntilMillis = untilMillis;
+            ejected = true;
+        }
+
+        private synchronized void readmit(final long warmUpEndMillis, final double responseTimeNanos) {
+            this.responseTimeNanos = responseTimeNanos;
+            this.responsesSinceAdmission = 0;
+            this.warmUpEndMillis = warmUpEndMillis;
+            this.ejected = false;
+        }
+
+        @Override
+        public int getActiveRequests() {
+            return activeRequests.get();
+        }
+
+        @Override
+        public long getCompletedRequests() {
+            return completedRequests;
+        }
+
+        @Override
+        public long getAverageResponseTime(final TimeUnit unit) {
+            return unit.convert((long) responseTimeNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public boolean isEjected() {
+            return ejected;
+        }
+
+        @Override
+        public String toString() {
+            return factory.toString();
+        }
+    }
+}
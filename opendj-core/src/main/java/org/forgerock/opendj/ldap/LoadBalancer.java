@@ -23,6 +23,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.i18n.slf4j.LocalizedLogger;
@@ -40,6 +41,7 @@ import static org.forgerock.util.Utils.closeSilently;
 import static org.forgerock.util.Utils.joinAsString;
 import static org.forgerock.util.promise.Promises.*;
 
+import static com.forgerock.opendj.ldap.CoreMessages.ERR_LOAD_BALANCER_EVENT_LISTENER_FAILURE;
 import static com.forgerock.opendj.util.StaticUtils.*;
 
 /**
@@ -54,7 +56,14 @@ abstract class LoadBalancer implements ConnectionFactory {
     LoadBalancer(final String loadBalancerName,
                  final Collection<? extends ConnectionFactory> factories,
                  final Options options) {
-        Reject.ifNull(loadBalancerName, factories, options);
+        this(loadBalancerName, factories, options, new Object());
+    }
+
+    LoadBalancer(final String loadBalancerName,
+                 final Collection<? extends ConnectionFactory> factories,
+                 final Options options,
+                 final Object listenerLock) {
+        Reject.ifNull(loadBalancerName, factories, options, listenerLock);
 
         this.loadBalancerName = loadBalancerName;
         this.monitoredFactories = new ArrayList<>(factories.size());
@@ -65,6 +74,7 @@ abstract class LoadBalancer implements ConnectionFactory {
         this.scheduler = DEFAULT_SCHEDULER.acquireIfNull(options.get(LOAD_BALANCER_SCHEDULER));
         this.monitoringIntervalMS = options.get(LOAD_BALANCER_MONITORING_INTERVAL).to(TimeUnit.MILLISECONDS);
         this.listener = options.get(LOAD_BALANCER_EVENT_LISTENER);
+        this.listenerLock = listenerLock;
     }
 
     @Override
@@ -125,11 +135,18 @@ abstract class LoadBalancer implements ConnectionFactory {
 
         @Override
         public Promise<Connection, LdapException> getConnectionAsync() {
+            return getConnectionAsync(null);
+        }
+
+        private Promise<Connection, LdapException> getConnectionAsync(final AtomicInteger servingIndex) {
             return factory.getConnectionAsync().thenAsync(
                 new AsyncFunction<Connection, Connection, LdapException>() {
                     @Override
                     public Promise<Connection, LdapException> apply(Connection value) throws LdapException {
                         notifyOnline();
+                        if (servingIndex != null) {
+                            servingIndex.set(index);
+                        }
                         return newResultPromise(value);
                     }
                 },
@@ -139,7 +156,7 @@ abstract class LoadBalancer implements ConnectionFactory {
                         // Attempt failed - try next factory.
                         notifyOffline(error);
                         final int nextIndex = (index + 1) % monitoredFactories.size();
-                        return getMonitoredConnectionFactory(nextIndex).getConnectionAsync();
+                        return getMonitoredFactory(nextIndex).getConnectionAsync(servingIndex);
                     }
                 });
         }
@@ -218,9 +235,7 @@ abstract class LoadBalancer implements ConnectionFactory {
         }
 
         private void handleListenerException(RuntimeException e) {
-            // TODO: I18N
-            logger.error(LocalizableMessage.raw(
-                    "A run-time error occurred while processing a load-balancer event", e));
+            logger.error(ERR_LOAD_BALANCER_EVENT_LISTENER_FAILURE.get(), e);
         }
     }
 
@@ -255,7 +270,7 @@ abstract class LoadBalancer implements ConnectionFactory {
     private final LoadBalancerEventListener listener;
 
     /** Ensures that events are notified one at a time. */
-    private final Object listenerLock = new Object();
+    private final Object listenerLock;
 
     /** Guarded by stateLock. */
     private int offlineFactoriesCount;
@@ -273,6 +288,24 @@ abstract class LoadBalancer implements ConnectionFactory {
      * @throws LdapException If no connection factories are available.
      */
     final ConnectionFactory getMonitoredConnectionFactory(final int initialIndex) throws LdapException {
+        return getMonitoredFactory(initialIndex);
+    }
+
+    /**
+     * Return a connection from the first available connection factory starting from {@code initialIndex}, trying the
+     * next available connection factories if the connection attempt fails.
+     *
+     * @param initialIndex The index of the connection factory to be used if operational.
+     * @param servingIndex Set to the index of the connection factory which provided the connection.
+     * @return A promise of a connection from the first connection factory which could provide one.
+     * @throws LdapException If no connection factories are available.
+     */
+    final Promise<Connection, LdapException> getMonitoredConnectionAsync(final int initialIndex,
+            final AtomicInteger servingIndex) throws LdapException {
+        return getMonitoredFactory(initialIndex).getConnectionAsync(servingIndex);
+    }
+
+    private MonitoredConnectionFactory getMonitoredFactory(final int initialIndex) throws LdapException {
         final int maxIndex = monitoredFactories.size();
         int index = initialIndex;
         do {
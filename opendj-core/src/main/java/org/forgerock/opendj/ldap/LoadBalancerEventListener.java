@@ -16,10 +16,13 @@
 
 package org.forgerock.opendj.ldap;
 
+import static com.forgerock.opendj.ldap.CoreMessages.LOAD_BALANCER_EVENT_LISTENER_LOG_EJECTED;
 import static com.forgerock.opendj.ldap.CoreMessages.LOAD_BALANCER_EVENT_LISTENER_LOG_OFFLINE;
 import static com.forgerock.opendj.ldap.CoreMessages.LOAD_BALANCER_EVENT_LISTENER_LOG_ONLINE;
+import static com.forgerock.opendj.ldap.CoreMessages.LOAD_BALANCER_EVENT_LISTENER_LOG_READMITTED;
 
 import java.util.EventListener;
+import java.util.concurrent.TimeUnit;
 
 import org.forgerock.i18n.slf4j.LocalizedLogger;
 
@@ -51,6 +54,19 @@ public interface LoadBalancerEventListener extends EventListener {
         public void handleConnectionFactoryOffline(final ConnectionFactory factory, final LdapException error) {
             logger.warn(LOAD_BALANCER_EVENT_LISTENER_LOG_OFFLINE.get(factory, error.getMessage()));
         }
+
+        @Override
+        public void handleConnectionFactoryEjected(final ConnectionFactory factory,
+                final ConnectionFactoryStatistics statistics) {
+            logger.warn(LOAD_BALANCER_EVENT_LISTENER_LOG_EJECTED.get(
+                    factory, statistics.getAverageResponseTime(TimeUnit.MICROSECONDS)));
+        }
+
+        @Override
+        public void handleConnectionFactoryReadmitted(final ConnectionFactory factory,
+                final ConnectionFactoryStatistics statistics) {
+            logger.info(LOAD_BALANCER_EVENT_LISTENER_LOG_READMITTED.get(factory));
+        }
     };
 
     /** An event listener implementation which ignores all events. */
@@ -88,4 +104,50 @@ public interface LoadBalancerEventListener extends EventListener {
      *            The connection factory which is now available for use.
      */
     void handleConnectionFactoryOnline(ConnectionFactory factory);
+
+    /**
+     * Invoked once for each connection factory when a load-balancer which keeps statistics about its connection
+     * factories is created. The statistics are updated as requests are processed, so that listeners may keep them in
+     * order to query them later.
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param factory
+     *            The connection factory.
+     * @param statistics
+     *            The statistics of the connection factory.
+     */
+    default void handleConnectionFactoryStatistics(ConnectionFactory factory, ConnectionFactoryStatistics statistics) {
+        // Do nothing.
+    }
+
+    /**
+     * Invoked when the load-balancer stops sending requests to the specified connection factory because its response
+     * times are too high compared to the other connection factories. The connection factory will be readmitted later,
+     * at which point a readmission event will occur.
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param factory
+     *            The connection factory which has been ejected.
+     * @param statistics
+     *            The statistics of the connection factory.
+     */
+    default void handleConnectionFactoryEjected(ConnectionFactory factory, ConnectionFactoryStatistics statistics) {
+        // Do nothing.
+    }
+
+    /**
+     * Invoked when the load-balancer starts sending requests again to a previously ejected connection factory.
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param factory
+     *            The connection factory which has been readmitted.
+     * @param statistics
+     *            The statistics of the connection factory.
+     */
+    default void handleConnectionFactoryReadmitted(ConnectionFactory factory, ConnectionFactoryStatistics statistics) {
+        // Do nothing.
+    }
 }
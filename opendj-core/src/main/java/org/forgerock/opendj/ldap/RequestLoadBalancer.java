@@ -20,6 +20,7 @@ import static org.forgerock.util.Utils.closeSilently;
 import static org.forgerock.util.promise.Promises.newResultPromise;
 
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.forgerock.opendj.ldap.requests.AbandonRequest;
@@ -65,14 +66,23 @@ final class RequestLoadBalancer extends LoadBalancer {
      */
     private final Function<Request, PartitionedRequest, NeverThrowsException> nextFactoryFunction;
     /** A function which is called after a request is terminated. */
-    private final Function<Integer, Void, NeverThrowsException> endOfRequestFunction;
+    private final Function<PartitionedRequest, Void, NeverThrowsException> endOfRequestFunction;
 
     RequestLoadBalancer(final String loadBalancerName,
                         final Collection<? extends ConnectionFactory> factories,
                         final Options options,
                         final Function<Request, PartitionedRequest, NeverThrowsException> nextFactoryFunction,
-                        final Function<Integer, Void, NeverThrowsException> endOfRequestFunction) {
-        super(loadBalancerName, factories, options);
+                        final Function<PartitionedRequest, Void, NeverThrowsException> endOfRequestFunction) {
+        this(loadBalancerName, factories, options, nextFactoryFunction, endOfRequestFunction, new Object());
+    }
+
+    RequestLoadBalancer(final String loadBalancerName,
+                        final Collection<? extends ConnectionFactory> factories,
+                        final Options options,
+                        final Function<Request, PartitionedRequest, NeverThrowsException> nextFactoryFunction,
+                        final Function<PartitionedRequest, Void, NeverThrowsException> endOfRequestFunction,
+                        final Object listenerLock) {
+        super(loadBalancerName, factories, options, listenerLock);
         this.nextFactoryFunction = nextFactoryFunction;
         this.endOfRequestFunction = endOfRequestFunction;
     }
@@ -246,21 +256,22 @@ final class RequestLoadBalancer extends LoadBalancer {
             if (state.isClosed()) {
                 throw new IllegalStateException();
             }
+            final PartitionedRequest partitionedRequest = nextFactoryFunction.apply(request);
+            final AtomicInteger servingIndex = new AtomicInteger(-1);
             try {
-                final PartitionedRequest partitionedRequest = nextFactoryFunction.apply(request);
-                final ConnectionFactory factory = getMonitoredConnectionFactory(partitionedRequest.getServerIndex());
                 return new ConnectionContext(
-                        LdapPromises.asPromise(factory.getConnectionAsync()
+                        LdapPromises.asPromise(
+                                getMonitoredConnectionAsync(partitionedRequest.getServerIndex(), servingIndex)
                                 .thenOnException(new ExceptionHandler<LdapException>() {
                                     @Override
                                     public void handleException(final LdapException e) {
                                         state.notifyConnectionError(false, e);
                                     }
-                                })), partitionedRequest);
+                                })), partitionedRequest, servingIndex);
             } catch (final LdapException e) {
                 state.notifyConnectionError(false, e);
                 LdapPromise<Connection> failedLdapPromise = newFailedLdapPromise(e);
-                return new ConnectionContext(failedLdapPromise, new PartitionedRequest(request, -1));
+                return new ConnectionContext(failedLdapPromise, partitionedRequest, servingIndex);
             }
         }
 
@@ -274,11 +285,17 @@ final class RequestLoadBalancer extends LoadBalancer {
                         }
                     })
                     .thenAsync(requestSender)
+                    .thenOnResult(new ResultHandler<R>() {
+                        @Override
+                        public void handleResult(final R result) {
+                            connectionContext.getPartitionedRequest().succeeded(connectionContext.getServingIndex());
+                        }
+                    })
                     .thenFinally(new Runnable() {
                         @Override
                         public void run() {
                             closeSilently(connectionContext.getConnection());
-                            endOfRequestFunction.apply(connectionContext.getServerIndex());
+                            endOfRequestFunction.apply(connectionContext.getPartitionedRequest());
                         }
                     });
         }
@@ -289,6 +306,12 @@ final class RequestLoadBalancer extends LoadBalancer {
         private final Request request;
         /** The index of server chosen for the connection. */
         private final int serverIndex;
+        /** The time at which the server was chosen, in nanoseconds. */
+        private final long startNanos = System.nanoTime();
+        /** The index of the server which returned a successful result, or -1 if the request did not succeed. */
+        private volatile int successfulServerIndex = -1;
+        /** The time taken to obtain the successful result, in nanoseconds. */
+        private volatile long responseTimeNanos;
 
         PartitionedRequest(Request request, int serverIndex) {
             this.serverIndex = serverIndex;
@@ -302,6 +325,23 @@ final class RequestLoadBalancer extends LoadBalancer {
         int getServerIndex() {
             return serverIndex;
         }
+
+        /**
+         * Returns the index of the server which returned a successful result, which may differ from the chosen server
+         * if the chosen server was unavailable, or -1 if the request did not succeed.
+         */
+        int getSuccessfulServerIndex() {
+            return successfulServerIndex;
+        }
+
+        long getResponseTimeNanos() {
+            return responseTimeNanos;
+        }
+
+        void succeeded(final int serverIndex) {
+            responseTimeNanos = System.nanoTime() - startNanos;
+            successfulServerIndex = serverIndex;
+        }
     }
 
     /** Utility class to hold together parameters for a request and the connection used to perform it. */
@@ -309,10 +349,18 @@ final class RequestLoadBalancer extends LoadBalancer {
         private final AtomicReference<Connection> connectionHolder = new AtomicReference<>();
         private final LdapPromise<Connection> connectionPromise;
         private final PartitionedRequest partitionedRequest;
+        /** The index of the connection factory which provided the connection. */
+        private final AtomicInteger servingIndex;
 
-        ConnectionContext(LdapPromise<Connection> connectionPromise, PartitionedRequest partitionedRequest) {
+        ConnectionContext(LdapPromise<Connection> connectionPromise, PartitionedRequest partitionedRequest,
+                AtomicInteger servingIndex) {
             this.partitionedRequest = partitionedRequest;
             this.connectionPromise = connectionPromise;
+            this.servingIndex = servingIndex;
+        }
+
+        int getServingIndex() {
+            return servingIndex.get();
         }
 
         Connection getConnection() {
@@ -327,8 +375,8 @@ final class RequestLoadBalancer extends LoadBalancer {
             return connectionPromise;
         }
 
-        int getServerIndex() {
-            return partitionedRequest.getServerIndex();
+        PartitionedRequest getPartitionedRequest() {
+            return partitionedRequest;
         }
 
         Request getRequest() {
@@ -34,11 +34,17 @@ import static com.forgerock.opendj.ldap.CoreMessages.ERR_LDIF_URL_IO_ERROR;
 import static com.forgerock.opendj.ldap.CoreMessages.WARN_LDIF_DUPLICATE_ATTRIBUTE_VALUE;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -166,12 +172,103 @@ abstract class AbstractLDIFReader extends AbstractLDIFStream {
         }
     }
 
+    /**
+     * LDIF reader implementation reading a memory-mapped file. The file is
+     * mapped one region at a time, and lines are decoded as UTF-8.
+     */
+    private static final class LDIFReaderMappedFileImpl implements LDIFReaderImpl {
+        private static final int REGION_SIZE = 64 * 1024 * 1024;
+
+        private FileChannel channel;
+        private final long fileSize;
+        private MappedByteBuffer region;
+        /** The position in the file of the first byte of the mapped region. */
+        private long regionPosition;
+        private byte[] lineBytes = new byte[1024];
+
+        LDIFReaderMappedFileImpl(final File file) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            this.fileSize = channel.size();
+            map(0, REGION_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+                region = null;
+            }
+        }
+
+        @Override
+        public String readLine() throws IOException {
+            if (channel == null) {
+                return null;
+            }
+            if (!region.hasRemaining()) {
+                final long nextRegionPosition = regionPosition + region.limit();
+                if (nextRegionPosition >= fileSize) {
+                    // Automatically close.
+                    close();
+                    return null;
+                }
+                map(nextRegionPosition, REGION_SIZE);
+            }
+
+            int lineStart = region.position();
+            int lineEnd = indexOfNewLine(lineStart);
+            while (lineEnd < 0 && regionPosition + region.limit() < fileSize) {
+                // The line spans beyond the mapped region: map a new region starting with the line.
+                final int searched = region.limit() - lineStart;
+                map(regionPosition + lineStart, Math.min(Math.max(REGION_SIZE, 2L * searched), Integer.MAX_VALUE));
+                lineStart = 0;
+                lineEnd = indexOfNewLine(searched);
+            }
+
+            final int nextLineStart = lineEnd >= 0 ? lineEnd + 1 : region.limit();
+            if (lineEnd < 0) {
+                lineEnd = region.limit();
+            }
+            if (lineEnd > lineStart && region.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            final int length = lineEnd - lineStart;
+            if (lineBytes.length < length) {
+                lineBytes = new byte[Math.max(length, 2 * lineBytes.length)];
+            }
+            region.position(lineStart);
+            region.get(lineBytes, 0, length);
+            region.position(nextLineStart);
+            return new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private void map(final long position, final long size) throws IOException {
+            regionPosition = position;
+            region = channel.map(MapMode.READ_ONLY, position, Math.min(size, fileSize - position));
+        }
+
+        private int indexOfNewLine(final int fromIndex) {
+            for (int i = fromIndex; i < region.limit(); i++) {
+                if (region.get(i) == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
     RejectedLDIFListener rejectedRecordListener = RejectedLDIFListener.FAIL_FAST;
     Schema schema = Schema.getDefaultSchema().asNonStrictSchema();
     SchemaValidationPolicy schemaValidationPolicy = SchemaValidationPolicy.ignoreAll();
     private final LDIFReaderImpl impl;
     private long lineNumber;
 
+    AbstractLDIFReader(final File file) throws IOException {
+        Reject.ifNull(file);
+        this.impl = new LDIFReaderMappedFileImpl(file);
+    }
+
     AbstractLDIFReader(final InputStream in) {
         this(new InputStreamReader(in));
     }
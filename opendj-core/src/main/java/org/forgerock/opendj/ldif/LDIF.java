@@ -82,7 +82,7 @@ public final class LDIF {
     /**
      * Comparator ordering the DN ASC.
      */
-    private static final Comparator<byte[][]> DN_ORDER2 = new Comparator<byte[][]>() {
+    static final Comparator<byte[][]> DN_ORDER2 = new Comparator<byte[][]>() {
         @Override
         public int compare(byte[][] b1, byte[][] b2) {
             return DN_ORDER.compare(b1[0], b2[0]);
@@ -150,7 +150,9 @@ public final class LDIF {
      * <b>NOTE:</b> this method reads the content of {@code source} and
      * {@code target} into memory before calculating the differences, and is
      * therefore not suited for use in cases where a very large number of
-     * entries are to be compared.
+     * entries are to be compared. Such entries should be sorted with a
+     * {@link SortingEntryReader} and compared with
+     * {@link #diffSorted(EntryReader, EntryReader)} instead.
      *
      * @param source
      *            The entry reader containing the source entries to be compared.
@@ -162,78 +164,121 @@ public final class LDIF {
      */
     public static ChangeRecordReader diff(final EntryReader source, final EntryReader target)
             throws IOException {
+        final EntryReader sortedSource = newEncodedEntryReader(readEntriesAsList(source), source);
+        final EntryReader sortedTarget = newEncodedEntryReader(readEntriesAsList(target), target);
+        return new SortedEntriesDiffReader(sortedSource, sortedTarget);
+    }
 
-        final List<byte[][]> source2 = readEntriesAsList(source);
-        final List<byte[][]> target2 = readEntriesAsList(target);
-        final Iterator<byte[][]> sourceIterator = source2.iterator();
-        final Iterator<byte[][]> targetIterator = target2.iterator();
+    /**
+     * Compares the content of {@code sortedSource} to the content of
+     * {@code sortedTarget}, both of which must return their entries in DN
+     * order, and returns the differences in a change record reader. Closing
+     * the returned reader will cause {@code sortedSource} and
+     * {@code sortedTarget} to be closed as well.
+     * <p>
+     * Unlike {@link #diff(EntryReader, EntryReader)}, this method holds only
+     * one entry of each reader in memory at a time, and is therefore suited
+     * for comparing a very large number of entries. Entries can be sorted by
+     * DN with a {@link SortingEntryReader}.
+     *
+     * @param sortedSource
+     *            The entry reader containing the source entries to be
+     *            compared, in DN order.
+     * @param sortedTarget
+     *            The entry reader containing the target entries to be
+     *            compared, in DN order.
+     * @return A change record reader containing the differences. Reading
+     *         from it fails with a {@link DecodeException} if an entry is
+     *         returned out of DN order.
+     * @throws IOException
+     *             If an unexpected IO error occurred.
+     * @see SortingEntryReader
+     */
+    public static ChangeRecordReader diffSorted(final EntryReader sortedSource, final EntryReader sortedTarget)
+            throws IOException {
+        return new SortedEntriesDiffReader(sortedSource, sortedTarget);
+    }
 
-        return new ChangeRecordReader() {
-            private Entry sourceEntry = nextEntry(sourceIterator);
-            private Entry targetEntry = nextEntry(targetIterator);
+    /** Computes the differences between two readers returning their entries in DN order. */
+    private static final class SortedEntriesDiffReader implements ChangeRecordReader {
+        private final EntryReader source;
+        private final EntryReader target;
+        private Entry sourceEntry;
+        private Entry targetEntry;
+
+        private SortedEntriesDiffReader(final EntryReader source, final EntryReader target) throws IOException {
+            this.source = source;
+            this.target = target;
+            this.sourceEntry = nextEntry(source, null);
+            this.targetEntry = nextEntry(target, null);
+        }
 
-            @Override
-            public void close() throws IOException {
-                try {
-                    source.close();
-                } finally {
-                    target.close();
-                }
+        @Override
+        public void close() throws IOException {
+            try {
+                source.close();
+            } finally {
+                target.close();
             }
+        }
 
-            @Override
-            public boolean hasNext() {
-                return sourceEntry != null || targetEntry != null;
-            }
+        @Override
+        public boolean hasNext() {
+            return sourceEntry != null || targetEntry != null;
+        }
 
-            @Override
-            public ChangeRecord readChangeRecord() throws IOException {
-                if (sourceEntry != null && targetEntry != null) {
-                    final DN sourceDN = sourceEntry.getName();
-                    final DN targetDN = targetEntry.getName();
-                    final int cmp = sourceDN.compareTo(targetDN);
-
-                    if (cmp == 0) {
-                        // Modify record: entry in both source and target.
-                        final ModifyRequest request =
-                                Requests.newModifyRequest(sourceEntry, targetEntry);
-                        sourceEntry = nextEntry(sourceIterator);
-                        targetEntry = nextEntry(targetIterator);
-                        return request;
-                    } else if (cmp < 0) {
-                        // Delete record: entry in source but not in target.
-                        final DeleteRequest request =
-                                Requests.newDeleteRequest(sourceEntry.getName());
-                        sourceEntry = nextEntry(sourceIterator);
-                        return request;
-                    } else {
-                        // Add record: entry in target but not in source.
-                        final AddRequest request = Requests.newAddRequest(targetEntry);
-                        targetEntry = nextEntry(targetIterator);
-                        return request;
-                    }
-                } else if (sourceEntry != null) {
-                    // Delete remaining source records.
-                    final DeleteRequest request = Requests.newDeleteRequest(sourceEntry.getName());
-                    sourceEntry = nextEntry(sourceIterator);
+        @Override
+        public ChangeRecord readChangeRecord() throws IOException {
+            if (sourceEntry != null && targetEntry != null) {
+                final DN sourceDN = sourceEntry.getName();
+                final DN targetDN = targetEntry.getName();
+                final int cmp = sourceDN.compareTo(targetDN);
+
+                if (cmp == 0) {
+                    // Modify record: entry in both source and target.
+                    final ModifyRequest request =
+                            Requests.newModifyRequest(sourceEntry, targetEntry);
+                    sourceEntry = nextEntry(source, sourceEntry);
+                    targetEntry = nextEntry(target, targetEntry);
                     return request;
-                } else if (targetEntry != null) {
-                    // Add remaining target records.
-                    final AddRequest request = Requests.newAddRequest(targetEntry);
-                    targetEntry = nextEntry(targetIterator);
+                } else if (cmp < 0) {
+                    // Delete record: entry in source but not in target.
+                    final DeleteRequest request =
+                            Requests.newDeleteRequest(sourceEntry.getName());
+                    sourceEntry = nextEntry(source, sourceEntry);
                     return request;
                 } else {
-                    throw new NoSuchElementException();
+                    // Add record: entry in target but not in source.
+                    final AddRequest request = Requests.newAddRequest(targetEntry);
+                    targetEntry = nextEntry(target, targetEntry);
+                    return request;
                 }
+            } else if (sourceEntry != null) {
+                // Delete remaining source records.
+                final DeleteRequest request = Requests.newDeleteRequest(sourceEntry.getName());
+                sourceEntry = nextEntry(source, sourceEntry);
+                return request;
+            } else if (targetEntry != null) {
+                // Add remaining target records.
+                final AddRequest request = Requests.newAddRequest(targetEntry);
+                targetEntry = nextEntry(target, targetEntry);
+                return request;
+            } else {
+                throw new NoSuchElementException();
             }
+        }
 
-            private Entry nextEntry(final Iterator<byte[][]> i) {
-                if (i.hasNext()) {
-                    return decodeEntry(i.next()[1]);
-                }
+        private static Entry nextEntry(final EntryReader reader, final Entry previousEntry) throws IOException {
+            if (!reader.hasNext()) {
                 return null;
             }
-        };
+            final Entry entry = reader.readEntry();
+            if (previousEntry != null && entry.getName().compareTo(previousEntry.getName()) < 0) {
+                throw DecodeException.fatalError(
+                        ERR_LDIF_DIFF_ENTRIES_NOT_SORTED.get(entry.getName(), previousEntry.getName()));
+            }
+            return entry;
+        }
     }
 
     /**
@@ -842,6 +887,30 @@ public final class LDIF {
         return entries;
     }
 
+    /**
+     * Returns an entry reader over entries encoded by {@link #encodeEntry}.
+     * Closing the returned reader will cause {@code reader} to be closed.
+     */
+    private static EntryReader newEncodedEntryReader(final List<byte[][]> entries, final EntryReader reader) {
+        final Iterator<byte[][]> iterator = entries.iterator();
+        return new EntryReader() {
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Entry readEntry() {
+                return decodeEntry(iterator.next()[1]);
+            }
+        };
+    }
+
     private static TreeMap<byte[], byte[]> readEntriesAsMap(final EntryReader reader)
             throws IOException {
         final TreeMap<byte[], byte[]> entries = new TreeMap<>(DN_ORDER);
@@ -855,7 +924,7 @@ public final class LDIF {
         return entries;
     }
 
-    private static Entry decodeEntry(final byte[] asn1EntryFormat) {
+    static Entry decodeEntry(final byte[] asn1EntryFormat) {
         try {
             return LDAP.readEntry(ASN1.getReader(asn1EntryFormat), new DecodeOptions());
         } catch (IOException ex) {
@@ -867,7 +936,7 @@ public final class LDIF {
         return dn.toNormalizedByteString().toByteArray();
     }
 
-    private static byte[][] encodeEntry(final Entry entry) {
+    static byte[][] encodeEntry(final Entry entry) {
         final byte[][] bEntry = new byte[2][];
         // Store normalized DN
         bEntry[0] = toNormalizedByteArray(entry.getName());
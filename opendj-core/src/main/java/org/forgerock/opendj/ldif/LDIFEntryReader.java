@@ -18,6 +18,7 @@ package org.forgerock.opendj.ldif;
 
 import static com.forgerock.opendj.ldap.CoreMessages.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -93,6 +94,26 @@ public final class LDIFEntryReader extends AbstractLDIFReader implements EntryRe
     }
 
     private Entry nextEntry;
+    private int nbParserThreads = 1;
+    private boolean preserveRecordOrder = true;
+    /** Parses the records when they are parsed by several threads, created when the first entry is read. */
+    private ParallelLDIFParser<Entry> parallelParser;
+
+    /**
+     * Creates a new LDIF entry reader whose source is the provided local file.
+     * The file is memory-mapped, and decoded as UTF-8, which saves copying its
+     * content through the buffers of an input stream.
+     *
+     * @param file
+     *            The LDIF file to read.
+     * @throws IOException
+     *             If the file could not be opened.
+     * @throws NullPointerException
+     *             If {@code file} was {@code null}.
+     */
+    public LDIFEntryReader(final File file) throws IOException {
+        super(file);
+    }
 
     /**
      * Creates a new LDIF entry reader whose source is the provided input
@@ -148,6 +169,9 @@ public final class LDIFEntryReader extends AbstractLDIFReader implements EntryRe
 
     @Override
     public void close() throws IOException {
+        if (parallelParser != null) {
+            parallelParser.close();
+        }
         close0();
     }
 
@@ -298,6 +322,45 @@ public final class LDIFEntryReader extends AbstractLDIFReader implements EntryRe
         return this;
     }
 
+    /**
+     * Specifies the number of threads parsing the entries read from LDIF. The
+     * default is {@code 1}, meaning that entries are parsed by the thread
+     * reading them.
+     * <p>
+     * With several threads, a dedicated thread reads the records from the LDIF
+     * source while the parser threads decode their DNs and attributes and
+     * validate them against the schema. The threads are created when the first
+     * entry is read, and stopped when this reader is closed. The
+     * {@link #setRejectedLDIFListener rejected record listener} is invoked by
+     * the parser threads, therefore it must be thread-safe.
+     *
+     * @param nbParserThreads
+     *            The number of threads parsing the entries.
+     * @return A reference to this {@code LDIFEntryReader}.
+     */
+    public LDIFEntryReader setParallelism(final int nbParserThreads) {
+        Reject.ifFalse(nbParserThreads > 0, "The number of parser threads must be positive");
+        this.nbParserThreads = nbParserThreads;
+        return this;
+    }
+
+    /**
+     * Specifies whether entries parsed by several threads are returned in the
+     * order of the LDIF source, or as soon as they have been parsed. The
+     * default is {@code true}. Relaxing the order improves throughput when
+     * entries have very different sizes. This setting has no effect unless
+     * {@link #setParallelism parallel parsing} is enabled.
+     *
+     * @param preserveRecordOrder
+     *            {@code true} if entries must be returned in the order of the
+     *            LDIF source, or {@code false} otherwise.
+     * @return A reference to this {@code LDIFEntryReader}.
+     */
+    public LDIFEntryReader setPreserveRecordOrder(final boolean preserveRecordOrder) {
+        this.preserveRecordOrder = preserveRecordOrder;
+        return this;
+    }
+
     /**
      * Sets the rejected record listener which should be notified whenever an
      * LDIF record is skipped, malformed, or fails schema validation.
@@ -350,6 +413,22 @@ public final class LDIFEntryReader extends AbstractLDIFReader implements EntryRe
     }
 
     private Entry getNextEntry() throws DecodeException, IOException {
+        if (nextEntry != null) {
+            return nextEntry;
+        }
+        if (nbParserThreads > 1) {
+            if (parallelParser == null) {
+                parallelParser = new ParallelLDIFParser<>(this, new ParallelLDIFParser.RecordParser<Entry>() {
+                    @Override
+                    public Entry parseRecord(final LDIFRecord record) throws DecodeException {
+                        return parseEntry(record);
+                    }
+                }, nbParserThreads, preserveRecordOrder);
+            }
+            final Entry entry = parallelParser.next();
+            nextEntry = entry != null ? entry : EOF;
+            return nextEntry;
+        }
         while (nextEntry == null) {
             // Read the set of lines that make up the next entry.
             final LDIFRecord record = readLDIFRecord();
@@ -357,64 +436,67 @@ public final class LDIFEntryReader extends AbstractLDIFReader implements EntryRe
                 nextEntry = EOF;
                 break;
             }
+            nextEntry = parseEntry(record);
+        }
+        return nextEntry;
+    }
 
-            try {
-                /* Read the DN of the entry and see if it is one that should be included in the import. */
-                final DN entryDN = readLDIFRecordDN(record);
-                if (entryDN == null) {
-                    // Skip version record.
-                    continue;
-                }
-
-                // Skip if branch containing the entry DN is excluded.
-                if (isBranchExcluded(entryDN)) {
-                    final LocalizableMessage message =
-                            ERR_LDIF_ENTRY_EXCLUDED_BY_DN
-                                    .get(record.lineNumber, entryDN.toString());
-                    handleSkippedRecord(record, message);
-                    continue;
-                }
-
-                // Use an Entry for the AttributeSequence.
-                final Entry entry = new LinkedHashMapEntry(entryDN);
-                boolean schemaValidationFailure = false;
-                final List<LocalizableMessage> schemaErrors = new LinkedList<>();
-                while (record.iterator.hasNext()) {
-                    final String ldifLine = record.iterator.next();
-                    if (!readLDIFRecordAttributeValue(record, ldifLine, entry, schemaErrors)) {
-                        schemaValidationFailure = true;
-                    }
-                }
+    /** Returns the entry read from the provided record, or {@code null} if the record must be skipped. */
+    private Entry parseEntry(final LDIFRecord record) throws DecodeException {
+        try {
+            /* Read the DN of the entry and see if it is one that should be included in the import. */
+            final DN entryDN = readLDIFRecordDN(record);
+            if (entryDN == null) {
+                // Skip version record.
+                return null;
+            }
 
-                // Skip if the entry is excluded by any filters.
-                if (isEntryExcluded(entry)) {
-                    final LocalizableMessage message =
-                            ERR_LDIF_ENTRY_EXCLUDED_BY_FILTER.get(record.lineNumber, entryDN
-                                    .toString());
-                    handleSkippedRecord(record, message);
-                    continue;
-                }
+            // Skip if branch containing the entry DN is excluded.
+            if (isBranchExcluded(entryDN)) {
+                final LocalizableMessage message =
+                        ERR_LDIF_ENTRY_EXCLUDED_BY_DN
+                                .get(record.lineNumber, entryDN.toString());
+                handleSkippedRecord(record, message);
+                return null;
+            }
 
-                if (!schema.validateEntry(entry, schemaValidationPolicy, schemaErrors)) {
+            // Use an Entry for the AttributeSequence.
+            final Entry entry = new LinkedHashMapEntry(entryDN);
+            boolean schemaValidationFailure = false;
+            final List<LocalizableMessage> schemaErrors = new LinkedList<>();
+            while (record.iterator.hasNext()) {
+                final String ldifLine = record.iterator.next();
+                if (!readLDIFRecordAttributeValue(record, ldifLine, entry, schemaErrors)) {
                     schemaValidationFailure = true;
                 }
+            }
 
-                if (schemaValidationFailure) {
-                    handleSchemaValidationFailure(record, schemaErrors);
-                    continue;
-                }
+            // Skip if the entry is excluded by any filters.
+            if (isEntryExcluded(entry)) {
+                final LocalizableMessage message =
+                        ERR_LDIF_ENTRY_EXCLUDED_BY_FILTER.get(record.lineNumber, entryDN
+                                .toString());
+                handleSkippedRecord(record, message);
+                return null;
+            }
 
-                if (!schemaErrors.isEmpty()) {
-                    handleSchemaValidationWarning(record, schemaErrors);
-                }
+            if (!schema.validateEntry(entry, schemaValidationPolicy, schemaErrors)) {
+                schemaValidationFailure = true;
+            }
 
-                nextEntry = entry;
-            } catch (final DecodeException e) {
-                handleMalformedRecord(record, e.getMessageObject());
-                continue;
+            if (schemaValidationFailure) {
+                handleSchemaValidationFailure(record, schemaErrors);
+                return null;
             }
-        }
 
-        return nextEntry;
+            if (!schemaErrors.isEmpty()) {
+                handleSchemaValidationWarning(record, schemaErrors);
+            }
+
+            return entry;
+        } catch (final DecodeException e) {
+            handleMalformedRecord(record, e.getMessageObject());
+            return null;
+        }
     }
 }
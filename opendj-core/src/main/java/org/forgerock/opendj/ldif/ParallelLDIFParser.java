@@ -0,0 +1,273 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.ldif;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.forgerock.opendj.ldap.DecodeException;
+import org.forgerock.opendj.ldif.AbstractLDIFReader.LDIFRecord;
+import org.forgerock.util.Utils;
+
+/**
+ * Parses the records of an LDIF reader in parallel. A splitter thread reads
+ * the records from the LDIF source and hands them out in batches to a pool of
+ * parser threads. Parsed records are returned either in the order of the LDIF
+ * source, or in the order in which they have been parsed.
+ * <p>
+ * The number of batches read ahead of the consumer is bounded, so that a slow
+ * consumer does not cause the whole LDIF source to be held in memory.
+ *
+ * @param <R>
+ *            The type of the parsed records.
+ */
+final class ParallelLDIFParser<R> {
+    /**
+     * Parses an LDIF record. Implementations are invoked concurrently by the
+     * parser threads.
+     *
+     * @param <R>
+     *            The type of the parsed records.
+     */
+    interface RecordParser<R> {
+        /**
+         * Parses an LDIF record.
+         *
+         * @param record
+         *            The LDIF record.
+         * @return The parsed record, or {@code null} if the record must be
+         *         skipped.
+         * @throws DecodeException
+         *             If the record is malformed and must not be skipped.
+         */
+        R parseRecord(LDIFRecord record) throws DecodeException;
+    }
+
+    /** The number of records parsed by each task of the parser threads. */
+    private static final int BATCH_SIZE = 64;
+    /** The number of batches which may be read ahead of the consumer, per parser thread. */
+    private static final int BATCHES_PER_THREAD = 4;
+
+    /** A batch of records, parsed by one of the parser threads. */
+    private final class Batch implements Runnable {
+        private List<LDIFRecord> records;
+        private final List<R> results;
+        private final CountDownLatch parsed = new CountDownLatch(1);
+        /** The error which interrupted the parsing or the reading of the records. */
+        private Exception error;
+        private int nextResult;
+        /** For the last batch, the number of batches read before it. */
+        private final int nbBatchesBefore;
+
+        private Batch(final List<LDIFRecord> records) {
+            this.records = records;
+            this.results = new ArrayList<>(records.size());
+            this.nbBatchesBefore = -1;
+        }
+
+        private Batch(final int nbBatchesBefore, final Exception error) {
+            this.results = new ArrayList<>(0);
+            this.nbBatchesBefore = nbBatchesBefore;
+            this.error = error;
+        }
+
+        private boolean isLast() {
+            return nbBatchesBefore >= 0;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (final LDIFRecord record : records) {
+                    final R result = parser.parseRecord(record);
+                    if (result != null) {
+                        results.add(result);
+                    }
+                }
+            } catch (final IOException | RuntimeException e) {
+                error = e;
+            }
+            records = null;
+            parsed.countDown();
+            if (!preserveOrder) {
+                batches.add(this);
+            }
+        }
+    }
+
+    private final AbstractLDIFReader reader;
+    private final RecordParser<R> parser;
+    private final boolean preserveOrder;
+    private final ExecutorService parserThreads;
+    private final Thread splitterThread;
+    private final Semaphore readAheadPermits;
+    /**
+     * The batches which have been read, in the order of the LDIF source if the
+     * order is preserved, or else in the order in which they have been parsed.
+     */
+    private final BlockingQueue<Batch> batches = new LinkedBlockingQueue<>();
+
+    /** Only accessed by the consumer thread. */
+    private Batch currentBatch;
+    private Batch lastBatch;
+    private int nbBatchesConsumed;
+    private boolean isLastBatchConsumed;
+    private Exception failure;
+
+    /**
+     * Starts parsing the records of the provided LDIF reader in parallel.
+     *
+     * @param reader
+     *            The LDIF reader whose records must be parsed.
+     * @param parser
+     *            The parser of the records.
+     * @param nbParserThreads
+     *            The number of threads parsing the records.
+     * @param preserveOrder
+     *            Whether the parsed records must be returned in the order of
+     *            the LDIF source.
+     */
+    ParallelLDIFParser(final AbstractLDIFReader reader, final RecordParser<R> parser, final int nbParserThreads,
+            final boolean preserveOrder) {
+        this.reader = reader;
+        this.parser = parser;
+        this.preserveOrder = preserveOrder;
+        this.readAheadPermits = new Semaphore(nbParserThreads * BATCHES_PER_THREAD);
+        this.parserThreads =
+                Executors.newFixedThreadPool(nbParserThreads, Utils.newThreadFactory(null, "LDIF parser %d", true));
+        this.splitterThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                splitRecords();
+            }
+        }, "LDIF splitter");
+        this.splitterThread.setDaemon(true);
+        this.splitterThread.start();
+    }
+
+    /**
+     * Returns the next parsed record.
+     *
+     * @return The next parsed record, or {@code null} if all the records have
+     *         been returned.
+     * @throws IOException
+     *             If an error occurred while reading from the LDIF source, or
+     *             if a record was malformed.
+     */
+    R next() throws IOException {
+        for (;;) {
+            if (currentBatch != null) {
+                if (currentBatch.nextResult < currentBatch.results.size()) {
+                    return currentBatch.results.get(currentBatch.nextResult++);
+                }
+                if (currentBatch.error != null) {
+                    failure = currentBatch.error;
+                }
+                currentBatch = null;
+            }
+            if (failure != null) {
+                if (failure instanceof IOException) {
+                    throw (IOException) failure;
+                }
+                throw (RuntimeException) failure;
+            }
+            currentBatch = nextBatch();
+            if (currentBatch == null) {
+                return null;
+            }
+        }
+    }
+
+    /** Stops reading and parsing the records. */
+    void close() {
+        splitterThread.interrupt();
+        parserThreads.shutdownNow();
+    }
+
+    /**
+     * Returns the next parsed batch, then the last batch once all the others
+     * have been returned, then {@code null}.
+     */
+    private Batch nextBatch() throws InterruptedIOException {
+        try {
+            while (!isLastBatchConsumed) {
+                if (lastBatch != null && nbBatchesConsumed == lastBatch.nbBatchesBefore) {
+                    isLastBatchConsumed = true;
+                    return lastBatch;
+                }
+                final Batch batch = batches.take();
+                if (batch.isLast()) {
+                    // In parsing order, the last batch may overtake batches which are still being parsed
+                    lastBatch = batch;
+                    continue;
+                }
+                batch.parsed.await();
+                nbBatchesConsumed++;
+                readAheadPermits.release();
+                return batch;
+            }
+            return null;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    /** Reads the records from the LDIF source, and hands them out to the parser threads. */
+    private void splitRecords() {
+        int nbBatches = 0;
+        Exception error = null;
+        try {
+            List<LDIFRecord> records = new ArrayList<>(BATCH_SIZE);
+            LDIFRecord record;
+            while ((record = reader.readLDIFRecord()) != null) {
+                records.add(record);
+                if (records.size() == BATCH_SIZE) {
+                    submit(new Batch(records));
+                    nbBatches++;
+                    records = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!records.isEmpty()) {
+                submit(new Batch(records));
+                nbBatches++;
+            }
+        } catch (final InterruptedException | RejectedExecutionException e) {
+            // Closed
+            return;
+        } catch (final IOException | RuntimeException e) {
+            error = e;
+        }
+        batches.add(new Batch(nbBatches, error));
+    }
+
+    private void submit(final Batch batch) throws InterruptedException {
+        readAheadPermits.acquire();
+        if (preserveOrder) {
+            batches.add(batch);
+        }
+        parserThreads.execute(batch);
+    }
+}
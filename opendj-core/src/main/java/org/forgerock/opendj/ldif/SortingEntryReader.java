@@ -0,0 +1,371 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.ldif;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+
+import org.forgerock.opendj.ldap.Entry;
+import org.forgerock.util.Reject;
+import org.forgerock.util.Utils;
+
+/**
+ * An entry reader which returns the entries of another entry reader sorted by
+ * DN, in the order expected by {@link LDIF#diffSorted(EntryReader, EntryReader)}.
+ * <p>
+ * Entries are sorted with an external merge sort, so that the number of
+ * entries which can be sorted is not bounded by the size of the heap: the
+ * entries of the underlying reader are read in runs of a bounded number of
+ * entries, each run is sorted in memory and spilled to a temporary file, and
+ * the runs are merged when the sorted entries are read. The runs may be sorted
+ * and spilled by several threads while the next run is being read.
+ * <p>
+ * The entries are sorted when {@link #hasNext()} or {@link #readEntry()} is
+ * first called. Closing this reader closes the underlying reader and deletes
+ * the temporary files.
+ */
+public final class SortingEntryReader implements EntryReader {
+    /** The default maximum number of entries in a run. */
+    private static final int DEFAULT_MAX_ENTRIES_PER_RUN = 100000;
+    /** The size of the buffer of each temporary file. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Entries read from a sorted run. */
+    private interface RunCursor {
+        /** Returns the current encoded entry of this run. */
+        byte[][] current();
+
+        /** Moves to the next entry of this run, returning {@code false} if there are no more entries. */
+        boolean next() throws IOException;
+
+        /** Releases the resources held by this run. */
+        void close();
+    }
+
+    /** A sorted run held in memory. */
+    private static final class MemoryRunCursor implements RunCursor {
+        private final Iterator<byte[][]> entries;
+        private byte[][] current;
+
+        private MemoryRunCursor(final List<byte[][]> entries) {
+            this.entries = entries.iterator();
+        }
+
+        @Override
+        public byte[][] current() {
+            return current;
+        }
+
+        @Override
+        public boolean next() {
+            current = entries.hasNext() ? entries.next() : null;
+            return current != null;
+        }
+
+        @Override
+        public void close() {
+            current = null;
+        }
+    }
+
+    /** A sorted run spilled to a temporary file. */
+    private static final class FileRunCursor implements RunCursor {
+        private final File file;
+        private int remainingEntries;
+        private DataInputStream in;
+        private byte[][] current;
+
+        private FileRunCursor(final File file, final int nbEntries) {
+            this.file = file;
+            this.remainingEntries = nbEntries;
+        }
+
+        @Override
+        public byte[][] current() {
+            return current;
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            if (remainingEntries == 0) {
+                close();
+                return false;
+            }
+            if (in == null) {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+            }
+            current = new byte[][] { readBytes(in), readBytes(in) };
+            remainingEntries--;
+            return true;
+        }
+
+        @Override
+        public void close() {
+            Utils.closeSilently(in);
+            in = null;
+            current = null;
+            remainingEntries = 0;
+            file.delete();
+        }
+
+        private static byte[] readBytes(final DataInputStream in) throws IOException {
+            final byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    private static final Comparator<RunCursor> CURSOR_ORDER = new Comparator<RunCursor>() {
+        @Override
+        public int compare(final RunCursor c1, final RunCursor c2) {
+            return LDIF.DN_ORDER2.compare(c1.current(), c2.current());
+        }
+    };
+
+    private final EntryReader reader;
+    private File temporaryDirectory = new File(System.getProperty("java.io.tmpdir"));
+    private int maxEntriesPerRun = DEFAULT_MAX_ENTRIES_PER_RUN;
+    private int nbSortThreads = 1;
+
+    /** The runs ordered by their current entry, {@code null} until the entries have been sorted. */
+    private PriorityQueue<RunCursor> cursors;
+    /** All the runs, including the exhausted ones, so that they are all released on close. */
+    private final List<RunCursor> runs = new ArrayList<>();
+
+    /**
+     * Creates a new entry reader which returns the entries of the provided
+     * entry reader sorted by DN.
+     *
+     * @param reader
+     *            The entry reader whose entries must be sorted.
+     */
+    public SortingEntryReader(final EntryReader reader) {
+        Reject.ifNull(reader);
+        this.reader = reader;
+    }
+
+    /**
+     * Specifies the directory in which the sorted runs are spilled. The
+     * default is the directory named by the {@code java.io.tmpdir} system
+     * property.
+     *
+     * @param directory
+     *            The directory in which the sorted runs are spilled.
+     * @return A reference to this {@code SortingEntryReader}.
+     */
+    public SortingEntryReader setTemporaryDirectory(final File directory) {
+        Reject.ifNull(directory);
+        this.temporaryDirectory = directory;
+        return this;
+    }
+
+    /**
+     * Specifies the maximum number of entries held in memory in each run. The
+     * default is {@code 100000}. At most one run more than the number of sort
+     * threads is held in memory at a time.
+     *
+     * @param maxEntries
+     *            The maximum number of entries in each run.
+     * @return A reference to this {@code SortingEntryReader}.
+     */
+    public SortingEntryReader setMaxEntriesPerRun(final int maxEntries) {
+        Reject.ifFalse(maxEntries > 0, "The maximum number of entries per run must be positive");
+        this.maxEntriesPerRun = maxEntries;
+        return this;
+    }
+
+    /**
+     * Specifies the number of threads sorting and spilling the runs. The
+     * default is {@code 1}, meaning that runs are sorted and spilled by the
+     * thread reading the entries. With several threads, the next run is read
+     * while the previous ones are being sorted and spilled.
+     *
+     * @param nbSortThreads
+     *            The number of threads sorting and spilling the runs.
+     * @return A reference to this {@code SortingEntryReader}.
+     */
+    public SortingEntryReader setParallelism(final int nbSortThreads) {
+        Reject.ifFalse(nbSortThreads > 0, "The number of sort threads must be positive");
+        this.nbSortThreads = nbSortThreads;
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (final RunCursor run : runs) {
+            run.close();
+        }
+        runs.clear();
+        cursors = new PriorityQueue<>(1, CURSOR_ORDER);
+        reader.close();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        if (cursors == null) {
+            sortEntries();
+        }
+        return !cursors.isEmpty();
+    }
+
+    @Override
+    public Entry readEntry() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final RunCursor cursor = cursors.poll();
+        final Entry entry = LDIF.decodeEntry(cursor.current()[1]);
+        if (cursor.next()) {
+            cursors.add(cursor);
+        }
+        return entry;
+    }
+
+    private void sortEntries() throws IOException {
+        final ExecutorService sortThreads = nbSortThreads > 1
+                ? Executors.newFixedThreadPool(nbSortThreads, Utils.newThreadFactory(null, "LDIF sorter %d", true))
+                : null;
+        // Bounds the number of runs sorted concurrently, hence the number of runs held in memory
+        final Semaphore sortPermits = new Semaphore(nbSortThreads);
+        final List<Future<RunCursor>> spilledRuns = new ArrayList<>();
+        final IOException error;
+        try {
+            List<byte[][]> entries = new ArrayList<>();
+            while (reader.hasNext()) {
+                entries.add(LDIF.encodeEntry(reader.readEntry()));
+                if (entries.size() == maxEntriesPerRun) {
+                    spilledRuns.add(spillRun(entries, sortThreads, sortPermits));
+                    entries = new ArrayList<>();
+                }
+            }
+            // The last run is small enough to be kept in memory
+            Collections.sort(entries, LDIF.DN_ORDER2);
+            runs.add(new MemoryRunCursor(entries));
+        } finally {
+            // Wait for all the runs, even on failure, so that all the temporary files are deleted on close
+            error = waitForRuns(spilledRuns);
+            if (sortThreads != null) {
+                sortThreads.shutdown();
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        cursors = new PriorityQueue<>(runs.size(), CURSOR_ORDER);
+        for (final RunCursor run : runs) {
+            if (run.next()) {
+                cursors.add(run);
+            }
+        }
+    }
+
+    private Future<RunCursor> spillRun(final List<byte[][]> entries, final ExecutorService sortThreads,
+            final Semaphore sortPermits) throws IOException {
+        try {
+            sortPermits.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+        final FutureTask<RunCursor> task = new FutureTask<>(new Callable<RunCursor>() {
+            @Override
+            public RunCursor call() throws IOException {
+                try {
+                    return sortAndSpill(entries);
+                } finally {
+                    sortPermits.release();
+                }
+            }
+        });
+        if (sortThreads != null) {
+            sortThreads.execute(task);
+        } else {
+            task.run();
+        }
+        return task;
+    }
+
+    private RunCursor sortAndSpill(final List<byte[][]> entries) throws IOException {
+        Collections.sort(entries, LDIF.DN_ORDER2);
+        final File file = File.createTempFile("sorted-entries", ".run", temporaryDirectory);
+        boolean spilled = false;
+        try (DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE))) {
+            for (final byte[][] entry : entries) {
+                out.writeInt(entry[0].length);
+                out.write(entry[0]);
+                out.writeInt(entry[1].length);
+                out.write(entry[1]);
+            }
+            spilled = true;
+        } finally {
+            if (!spilled) {
+                file.delete();
+            }
+        }
+        return new FileRunCursor(file, entries.size());
+    }
+
+    /**
+     * Waits for the provided runs to be spilled and adds them to the runs of
+     * this reader, returning the first error which occurred, if any.
+     */
+    private IOException waitForRuns(final List<Future<RunCursor>> spilledRuns) {
+        IOException error = null;
+        boolean interrupted = false;
+        for (final Future<RunCursor> spilledRun : spilledRuns) {
+            while (true) {
+                try {
+                    runs.add(spilledRun.get());
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                    continue;
+                } catch (final ExecutionException e) {
+                    if (error == null) {
+                        final Throwable cause = e.getCause();
+                        error = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                    }
+                }
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return error;
+    }
+}
@@ -20,7 +20,10 @@ package org.forgerock.opendj.ldap;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.forgerock.opendj.ldap.requests.BindRequest;
 import org.forgerock.opendj.ldap.requests.Requests;
@@ -31,12 +34,14 @@ import org.forgerock.util.promise.PromiseImpl;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import static org.fest.assertions.Assertions.*;
 import static org.forgerock.opendj.ldap.Connections.*;
 import static org.forgerock.opendj.ldap.LdapException.*;
 import static org.forgerock.opendj.ldap.TestCaseUtils.*;
+import static org.forgerock.opendj.ldap.spi.LdapPromises.*;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
@@ -497,6 +502,69 @@ public class ConnectionPoolTestCase extends SdkTestCase {
         assertThat(scheduler.isScheduled()).isFalse();
     }
 
+    @DataProvider
+    public Object[][] concurrentThreadsAndPoolSizes() {
+        return new Object[][] { { 4, 1 }, { 16, 4 }, { 64, 8 }, { 256, 16 } };
+    }
+
+    /**
+     * Test that threads competing for the connections of a pool all obtain
+     * connections, that no more than the pool size connections are in use at
+     * the same time, and that all the connections are back in the pool
+     * afterwards.
+     */
+    @Test(dataProvider = "concurrentThreadsAndPoolSizes", timeOut = 60000)
+    public void testConcurrentGetAndReleaseConnections(final int nbThreads, final int poolSize) throws Exception {
+        final Connection connection = mock(Connection.class, withSettings().stubOnly());
+        when(connection.isValid()).thenReturn(true);
+        final ConnectionFactory factory = mock(ConnectionFactory.class, withSettings().stubOnly());
+        when(factory.getConnectionAsync()).thenReturn(newSuccessfulLdapPromise(connection));
+        final CachedConnectionPool pool = (CachedConnectionPool) newFixedConnectionPool(factory, poolSize);
+
+        final AtomicInteger connectionsInUse = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        final List<Throwable> errors = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < nbThreads; i++) {
+            final Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < 1000; j++) {
+                            final Connection pooledConnection = pool.getConnectionAsync().getOrThrow();
+                            if (connectionsInUse.incrementAndGet() > poolSize) {
+                                errors.add(new AssertionError("More than " + poolSize + " connections in use"));
+                            }
+                            connectionsInUse.decrementAndGet();
+                            pooledConnection.close();
+                        }
+                    } catch (Throwable t) {
+                        errors.add(t);
+                    }
+                }
+            };
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(errors).isEmpty();
+        assertThat(pool.currentPoolSize()).isEqualTo(poolSize);
+        final List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < poolSize; i++) {
+            connections.add(pool.getConnection());
+        }
+        assertThat(pool.toString()).contains("in:0 + out:" + poolSize).contains("blocked=0");
+        for (Connection pooledConnection : connections) {
+            pooledConnection.close();
+        }
+        pool.close();
+    }
+
     /**
      * Test that all outstanding pending connection promises are completed when a
      * connection request fails.
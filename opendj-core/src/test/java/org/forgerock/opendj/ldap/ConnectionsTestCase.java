@@ -16,8 +16,12 @@
 package org.forgerock.opendj.ldap;
 
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.forgerock.opendj.ldap.Connections.*;
+import static org.forgerock.util.time.Duration.duration;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -41,13 +45,17 @@ import org.forgerock.opendj.ldap.requests.Requests;
 import org.forgerock.opendj.ldap.requests.SearchRequest;
 import org.forgerock.opendj.ldap.requests.SimpleBindRequest;
 import org.forgerock.util.Function;
+import org.forgerock.util.Options;
 import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.time.TimeService;
 import org.testng.annotations.Test;
 
 import com.forgerock.opendj.ldap.controls.AffinityControl;
 
 @SuppressWarnings("javadoc")
 public class ConnectionsTestCase extends SdkTestCase {
+    private final ConnectionFactory[] factories = {
+        mock(ConnectionFactory.class), mock(ConnectionFactory.class), mock(ConnectionFactory.class) };
 
     @Test
     public void testUncloseableConnectionClose() throws Exception {
@@ -148,7 +156,7 @@ public class ConnectionsTestCase extends SdkTestCase {
         LeastRequestsDispatcher dispatcher = new Connections.LeastRequestsDispatcher(3);
         Function<Request, PartitionedRequest, NeverThrowsException> next =
                 newLeastRequestsLoadBalancerNextFunction(dispatcher);
-        Function<Integer, Void, NeverThrowsException> end =
+        Function<PartitionedRequest, Void, NeverThrowsException> end =
                 newLeastRequestsLoadBalancerEndOfRequestFunction(dispatcher);
 
         final SearchRequest[] reqs = new SearchRequest[11];
@@ -158,15 +166,15 @@ public class ConnectionsTestCase extends SdkTestCase {
         assertThat(next.apply(reqs[0]).getServerIndex()).isEqualTo(0);  // number of reqs = [1, 0, 0]
         assertThat(next.apply(reqs[1]).getServerIndex()).isEqualTo(1);  // number of reqs = [1, 1, 0]
         assertThat(next.apply(reqs[2]).getServerIndex()).isEqualTo(2);  // number of reqs = [1, 1, 1]
-        end.apply(1);                                                   // number of reqs = [1, 0, 1]
+        end.apply(new PartitionedRequest(reqs[1], 1));                  // number of reqs = [1, 0, 1]
         assertThat(next.apply(reqs[3]).getServerIndex()).isEqualTo(1);  // number of reqs = [1, 1, 1]
-        end.apply(1);                                                   // number of reqs = [1, 0, 1]
+        end.apply(new PartitionedRequest(reqs[3], 1));                  // number of reqs = [1, 0, 1]
         assertThat(next.apply(reqs[5]).getServerIndex()).isEqualTo(1);  // number of reqs = [1, 1, 1]
         assertThat(next.apply(reqs[6]).getServerIndex()).isEqualTo(0);  // number of reqs = [2, 1, 1]
         assertThat(next.apply(reqs[7]).getServerIndex()).isEqualTo(1);  // number of reqs = [2, 2, 1]
         assertThat(next.apply(reqs[8]).getServerIndex()).isEqualTo(2);  // number of reqs = [2, 2, 2]
         assertThat(next.apply(reqs[9]).getServerIndex()).isEqualTo(0);  // number of reqs = [3, 2, 2]
-        end.apply(2);                                                   // number of reqs = [3, 2, 1]
+        end.apply(new PartitionedRequest(reqs[8], 2));                  // number of reqs = [3, 2, 1]
         assertThat(next.apply(reqs[10]).getServerIndex()).isEqualTo(2); // number of reqs = [3, 2, 2]
     }
 
@@ -211,6 +219,99 @@ public class ConnectionsTestCase extends SdkTestCase {
         assertThat(next.apply(reqs[9]).getServerIndex()).isEqualTo(2); // number of reqs = [4, 3, 3]
     }
 
+    @Test
+    public void latencyAwareDispatcherMustChooseTheFastestServer() {
+        final LatencyAwareDispatcher dispatcher = newLatencyAwareDispatcher(2, mock(LoadBalancerEventListener.class));
+        respond(dispatcher, 0, 1, MILLISECONDS.toNanos(1));
+        respond(dispatcher, 1, 1, MILLISECONDS.toNanos(3));
+
+        assertThat(dispatcher.selectServer()).isEqualTo(0); // cost = [1 * 1, 3 * 1]
+        assertThat(dispatcher.selectServer()).isEqualTo(0); // cost = [1 * 2, 3 * 1]
+        assertThat(dispatcher.selectServer()).isEqualTo(1); // cost = [1 * 3, 3 * 1]
+        assertThat(dispatcher.getStatistics(0).getActiveRequests()).isEqualTo(2);
+        assertThat(dispatcher.getStatistics(0).getCompletedRequests()).isEqualTo(1);
+        assertThat(dispatcher.getStatistics(1).getAverageResponseTime(MILLISECONDS)).isEqualTo(3);
+    }
+
+    @Test
+    public void latencyAwareDispatcherMustEjectAndReadmitSlowServers() {
+        final LoadBalancerEventListener listener = mock(LoadBalancerEventListener.class);
+        final LatencyAwareDispatcher dispatcher = newLatencyAwareDispatcher(3, listener);
+        final TimeService timeService = mock(TimeService.class);
+        dispatcher.timeService = timeService;
+        when(timeService.now()).thenReturn(0L);
+        for (int i = 0; i < 3; i++) {
+            verify(listener).handleConnectionFactoryStatistics(factories[i], dispatcher.getStatistics(i));
+        }
+
+        respond(dispatcher, 0, 10, MILLISECONDS.toNanos(1));
+        respond(dispatcher, 1, 10, MILLISECONDS.toNanos(2));
+        respond(dispatcher, 2, 9, MILLISECONDS.toNanos(20));
+        assertThat(dispatcher.getStatistics(2).isEjected()).isFalse();
+        respond(dispatcher, 2, 1, MILLISECONDS.toNanos(20));
+        assertThat(dispatcher.getStatistics(2).isEjected()).isTrue();
+        verify(listener).handleConnectionFactoryEjected(factories[2], dispatcher.getStatistics(2));
+
+        // Only one server out of three can be ejected
+        respond(dispatcher, 1, 10, MILLISECONDS.toNanos(20));
+        assertThat(dispatcher.getStatistics(1).isEjected()).isFalse();
+
+        for (int i = 0; i < 100; i++) {
+            final int index = dispatcher.selectServer();
+            assertThat(index).isNotEqualTo(2);
+            dispatcher.terminatedRequest(index);
+            dispatcher.recordResponseTime(index, MILLISECONDS.toNanos(1));
+        }
+
+        when(timeService.now()).thenReturn(SECONDS.toMillis(31));
+        dispatcher.terminatedRequest(dispatcher.selectServer());
+        assertThat(dispatcher.getStatistics(2).isEjected()).isFalse();
+        verify(listener).handleConnectionFactoryReadmitted(factories[2], dispatcher.getStatistics(2));
+    }
+
+    @Test
+    public void latencyAwareDispatcherMustOnlyRecordTheResponseTimeOfSuccessfulRequests() {
+        final LatencyAwareDispatcher dispatcher = newLatencyAwareDispatcher(2, mock(LoadBalancerEventListener.class));
+        final Function<Request, PartitionedRequest, NeverThrowsException> next =
+                newLatencyAwareLoadBalancerNextFunction(dispatcher);
+        final Function<PartitionedRequest, Void, NeverThrowsException> end =
+                newLatencyAwareLoadBalancerEndOfRequestFunction(dispatcher);
+        respond(dispatcher, 0, 1, MILLISECONDS.toNanos(1));
+        respond(dispatcher, 1, 1, MILLISECONDS.toNanos(3));
+
+        final PartitionedRequest failedRequest = next.apply(mock(SearchRequest.class));
+        assertThat(failedRequest.getServerIndex()).isEqualTo(0);
+        end.apply(failedRequest);
+        assertThat(dispatcher.getStatistics(0).getActiveRequests()).isEqualTo(0);
+        assertThat(dispatcher.getStatistics(0).getCompletedRequests()).isEqualTo(1);
+
+        // The chosen server was unavailable, so the request has been served by the other one
+        final PartitionedRequest failedOverRequest = next.apply(mock(SearchRequest.class));
+        assertThat(failedOverRequest.getServerIndex()).isEqualTo(0);
+        failedOverRequest.succeeded(1);
+        end.apply(failedOverRequest);
+        assertThat(dispatcher.getStatistics(0).getActiveRequests()).isEqualTo(0);
+        assertThat(dispatcher.getStatistics(0).getCompletedRequests()).isEqualTo(1);
+        assertThat(dispatcher.getStatistics(1).getActiveRequests()).isEqualTo(0);
+        assertThat(dispatcher.getStatistics(1).getCompletedRequests()).isEqualTo(2);
+    }
+
+    private LatencyAwareDispatcher newLatencyAwareDispatcher(final int size,
+            final LoadBalancerEventListener listener) {
+        // Only the latest response time is taken into account
+        final Options options = Options.defaultOptions()
+                                       .set(LOAD_BALANCER_EVENT_LISTENER, listener)
+                                       .set(LOAD_BALANCER_LATENCY_DECAY, duration(1, NANOSECONDS));
+        return new LatencyAwareDispatcher(asList(factories).subList(0, size), options, new Object());
+    }
+
+    private void respond(final LatencyAwareDispatcher dispatcher, final int index, final int times,
+            final long responseTimeNanos) {
+        for (int i = 0; i < times; i++) {
+            dispatcher.recordResponseTime(index, responseTimeNanos);
+        }
+    }
+
     private void assertRequestsAreRoutedConsistently(
             final Function<Request, PartitionedRequest, NeverThrowsException> f, final Request r,
             final int firstExpectedIndex, final int secondExpectedIndex) {
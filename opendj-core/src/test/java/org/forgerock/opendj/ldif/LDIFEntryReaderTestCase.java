@@ -22,12 +22,18 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.i18n.LocalizedIllegalArgumentException;
 import org.forgerock.opendj.ldap.AttributeDescription;
+import org.forgerock.opendj.ldap.ByteString;
 import org.forgerock.opendj.ldap.DN;
 import org.forgerock.opendj.ldap.DecodeException;
 import org.forgerock.opendj.ldap.Entry;
@@ -1614,4 +1620,107 @@ public final class LDIFEntryReaderTestCase extends AbstractLDIFTestCase {
     public void testValueOfLDIFEntryDoesntAllowNull() throws Exception {
         LDIFEntryReader.valueOfLDIFEntry((String[]) null);
     }
+
+    /** Returns LDIF lines containing the provided number of entries, with folded lines and base64 values. */
+    private static List<String> generateLDIF(final int nbEntries) {
+        final List<String> lines = new ArrayList<>();
+        lines.add("version: 1");
+        lines.add("");
+        for (int i = 0; i < nbEntries; i++) {
+            lines.add("dn: uid=user." + i + ",ou=People,dc=example,dc=com");
+            lines.add("objectClass: top");
+            lines.add("objectClass: person");
+            lines.add("uid: user." + i);
+            lines.add("cn: User " + i);
+            lines.add("sn:: " + ByteString.valueOfUtf8("S\u00f8rensen " + i).toBase64String());
+            lines.add("description: a description long enough to be");
+            lines.add("  folded on several lines " + i);
+            lines.add("");
+        }
+        return lines;
+    }
+
+    private static List<Entry> readAll(final LDIFEntryReader reader) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        try {
+            while (reader.hasNext()) {
+                entries.add(reader.readEntry());
+            }
+        } finally {
+            reader.close();
+        }
+        return entries;
+    }
+
+    @Test
+    public void testParallelismPreservesRecordOrder() throws Exception {
+        final List<String> ldif = generateLDIF(1000);
+        final List<Entry> expected = readAll(new LDIFEntryReader(ldif));
+
+        final List<Entry> entries = readAll(new LDIFEntryReader(ldif).setParallelism(4));
+
+        assertThat(expected).hasSize(1000);
+        assertThat(entries).isEqualTo(expected);
+        assertThat(entries.get(1).getAttribute("description").firstValueAsString())
+                .isEqualTo("a description long enough to be folded on several lines 1");
+    }
+
+    @Test
+    public void testParallelismWithoutRecordOrder() throws Exception {
+        final List<String> ldif = generateLDIF(1000);
+        final List<Entry> expected = readAll(new LDIFEntryReader(ldif));
+
+        final List<Entry> entries =
+                readAll(new LDIFEntryReader(ldif).setParallelism(4).setPreserveRecordOrder(false));
+
+        assertThat(entries).hasSize(expected.size());
+        assertThat(new HashSet<>(entries)).isEqualTo(new HashSet<>(expected));
+    }
+
+    @Test
+    public void testParallelismReturnsEntriesBeforeMalformedRecord() throws Exception {
+        final List<String> ldif = generateLDIF(200);
+        // Break the DN of the 151st entry
+        ldif.set(2 + 150 * 9, "dn: invalid");
+
+        final LDIFEntryReader reader = new LDIFEntryReader(ldif).setParallelism(3);
+        try {
+            int nbEntries = 0;
+            try {
+                while (reader.hasNext()) {
+                    reader.readEntry();
+                    nbEntries++;
+                }
+                Assert.fail("Expected a DecodeException");
+            } catch (final DecodeException e) {
+                assertThat(nbEntries).isEqualTo(150);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testMemoryMappedFile() throws Exception {
+        final List<String> ldif = generateLDIF(100);
+        final List<Entry> expected = readAll(new LDIFEntryReader(ldif));
+
+        final File file = File.createTempFile("ldif", ".ldif");
+        try {
+            // Windows line separators and no trailing line separator
+            final StringBuilder content = new StringBuilder();
+            for (final String line : ldif) {
+                if (content.length() > 0) {
+                    content.append("\r\n");
+                }
+                content.append(line);
+            }
+            Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+            assertThat(readAll(new LDIFEntryReader(file))).isEqualTo(expected);
+            assertThat(readAll(new LDIFEntryReader(file).setParallelism(2))).isEqualTo(expected);
+        } finally {
+            file.delete();
+        }
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.ldif;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.DecodeException;
+import org.forgerock.opendj.ldap.Entry;
+import org.forgerock.opendj.ldap.LinkedHashMapEntry;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/** This class tests the sorting of entries and the diff of sorted entries. */
+@SuppressWarnings("javadoc")
+public class SortingEntryReaderTestCase extends AbstractLDIFTestCase {
+    private static final int NB_USERS = 500;
+
+    private File temporaryDirectory;
+
+    @BeforeMethod
+    public void createTemporaryDirectory() throws IOException {
+        temporaryDirectory = Files.createTempDirectory("sorted-runs").toFile();
+    }
+
+    @AfterMethod
+    public void deleteTemporaryDirectory() {
+        temporaryDirectory.delete();
+    }
+
+    @DataProvider
+    public Object[][] runSizesAndParallelism() {
+        return new Object[][] {
+            // Everything fits in memory
+            { 100000, 1 },
+            { 1, 1 },
+            { 37, 1 },
+            { 37, 4 },
+        };
+    }
+
+    @Test(dataProvider = "runSizesAndParallelism")
+    public void testEntriesAreSortedByDN(final int maxEntriesPerRun, final int nbSortThreads) throws Exception {
+        final List<DN> expectedDNs = new ArrayList<>();
+        try (EntryGenerator generator = newGenerator()) {
+            while (generator.hasNext()) {
+                expectedDNs.add(generator.readEntry().getName());
+            }
+        }
+        Collections.sort(expectedDNs);
+
+        final List<DN> dns = new ArrayList<>();
+        try (SortingEntryReader reader = newSortingReader(newGenerator(), maxEntriesPerRun, nbSortThreads)) {
+            while (reader.hasNext()) {
+                dns.add(reader.readEntry().getName());
+            }
+            assertThat(dns).isEqualTo(expectedDNs);
+        }
+        assertThat(temporaryDirectory.list()).isEmpty();
+    }
+
+    @Test
+    public void testCloseDeletesRunsBeforeAllEntriesAreRead() throws Exception {
+        try (SortingEntryReader reader = newSortingReader(newGenerator(), 10, 2)) {
+            reader.readEntry();
+            assertThat(temporaryDirectory.list()).isNotEmpty();
+        }
+        assertThat(temporaryDirectory.list()).isEmpty();
+    }
+
+    @Test(dataProvider = "runSizesAndParallelism")
+    public void testDiffSortedMatchesDiff(final int maxEntriesPerRun, final int nbSortThreads) throws Exception {
+        final List<String> expectedChanges = toLDIF(LDIF.diff(newGenerator(), newModifiedEntries()));
+
+        final ChangeRecordReader changes = LDIF.diffSorted(
+                newSortingReader(newGenerator(), maxEntriesPerRun, nbSortThreads),
+                newSortingReader(newModifiedEntries(), maxEntriesPerRun, nbSortThreads));
+        assertThat(toLDIF(changes)).isEqualTo(expectedChanges);
+        assertThat(temporaryDirectory.list()).isEmpty();
+    }
+
+    @Test(expectedExceptions = DecodeException.class)
+    public void testDiffSortedRejectsUnsortedEntries() throws Exception {
+        final EntryReader source = new LDIFEntryReader(
+            "dn: uid=user.1,dc=example,dc=com",
+            "",
+            "dn: dc=example,dc=com"
+        );
+        try (ChangeRecordReader changes = LDIF.diffSorted(source, new LDIFEntryReader())) {
+            while (changes.hasNext()) {
+                changes.readChangeRecord();
+            }
+        }
+    }
+
+    private EntryGenerator newGenerator() {
+        return new EntryGenerator().setConstant("numusers", NB_USERS).setRandomSeed(0);
+    }
+
+    /** Returns the generated entries, with every third user deleted and every fifth user modified. */
+    private EntryReader newModifiedEntries() throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        try (EntryGenerator generator = newGenerator()) {
+            for (int i = 0; generator.hasNext(); i++) {
+                final Entry entry = new LinkedHashMapEntry(generator.readEntry());
+                if (i % 3 == 2) {
+                    continue;
+                }
+                if (i % 5 == 4) {
+                    entry.replaceAttribute("description", "modified " + i);
+                }
+                entries.add(entry);
+            }
+        }
+        entries.add(new LinkedHashMapEntry("uid=added,ou=People,dc=example,dc=com")
+                .addAttribute("objectClass", "top", "person")
+                .addAttribute("cn", "added")
+                .addAttribute("sn", "added"));
+        Collections.reverse(entries);
+        return LDIF.newEntryCollectionReader(entries);
+    }
+
+    private SortingEntryReader newSortingReader(final EntryReader reader, final int maxEntriesPerRun,
+            final int nbSortThreads) {
+        return new SortingEntryReader(reader)
+                .setTemporaryDirectory(temporaryDirectory)
+                .setMaxEntriesPerRun(maxEntriesPerRun)
+                .setParallelism(nbSortThreads);
+    }
+
+    private static List<String> toLDIF(final ChangeRecordReader changes) throws IOException {
+        final List<String> ldif = new ArrayList<>();
+        try {
+            while (changes.hasNext()) {
+                ldif.add(LDIF.toLDIF(changes.readChangeRecord()));
+            }
+        } finally {
+            changes.close();
+        }
+        return ldif;
+    }
+}
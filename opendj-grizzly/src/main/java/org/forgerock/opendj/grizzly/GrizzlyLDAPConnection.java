@@ -19,6 +19,7 @@ package org.forgerock.opendj.grizzly;
 import static com.forgerock.opendj.grizzly.GrizzlyMessages.LDAP_CONNECTION_BIND_OR_START_TLS_CONNECTION_TIMEOUT;
 import static com.forgerock.opendj.grizzly.GrizzlyMessages.LDAP_CONNECTION_BIND_OR_START_TLS_REQUEST_TIMEOUT;
 import static com.forgerock.opendj.grizzly.GrizzlyMessages.LDAP_CONNECTION_REQUEST_TIMEOUT;
+import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_PIPELINING_ENABLED;
 import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_TIMEOUT;
 import static org.forgerock.opendj.ldap.LdapException.newLdapException;
 import static org.forgerock.opendj.ldap.ResultCode.CLIENT_SIDE_LOCAL_ERROR;
@@ -113,6 +114,8 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
     private final GrizzlyLDAPConnectionFactory factory;
     private final ConcurrentHashMap<Integer, ResultLdapPromiseImpl<?, ?>> pendingRequests = new ConcurrentHashMap<>();
     private final long requestTimeoutMS;
+    /** The pipeline of the requests, or {@code null} if requests are not pipelined. */
+    private final RequestPipeline pipeline;
     private final Object stateLock = new Object();
     /** Guarded by stateLock. */
     private Result connectionInvalidReason;
@@ -134,8 +137,10 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
             final GrizzlyLDAPConnectionFactory factory) {
         this.connection = connection;
         this.factory = factory;
-        final Duration requestTimeout = factory.getLDAPOptions().get(REQUEST_TIMEOUT);
+        final Options options = factory.getLDAPOptions();
+        final Duration requestTimeout = options.get(REQUEST_TIMEOUT);
         this.requestTimeoutMS = requestTimeout.isUnlimited() ? 0 : requestTimeout.to(TimeUnit.MILLISECONDS);
+        this.pipeline = options.get(REQUEST_PIPELINING_ENABLED) ? new RequestPipeline(connection, options) : null;
     }
 
     @Override
@@ -186,12 +191,28 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
         return sendAbandonRequest(request);
     }
 
+    /**
+     * Writes an encoded request to the connection, through the pipeline if requests are pipelined.
+     *
+     * @param writer
+     *            The writer containing the encoded request.
+     * @param promise
+     *            The promise completed by the response to the request, or {@code null} if the request has no response.
+     */
+    private void write(final LDAPWriter<ASN1BufferWriter> writer, final Promise<?, ?> promise) {
+        if (pipeline != null) {
+            pipeline.write(writer.getASN1Writer().getBuffer(), promise);
+        } else {
+            connection.write(writer.getASN1Writer().getBuffer(), null);
+        }
+    }
+
     private LdapPromise<Void> sendAbandonRequest(final AbandonRequest request) {
         final LDAPWriter<ASN1BufferWriter> writer = GrizzlyUtils.getWriter(connection.getMemoryManager(), LDAP_V3);
         try {
             final int messageID = nextMsgID.getAndIncrement();
             writer.writeAbandonRequest(messageID, request);
-            connection.write(writer.getASN1Writer().getBuffer(), null);
+            write(writer, null);
             return newSuccessfulLdapPromise((Void) null, messageID);
         } catch (final IOException e) {
             return newFailedLdapPromise(adaptRequestIOException(e));
@@ -217,7 +238,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
                         GrizzlyUtils.getWriter(connection.getMemoryManager(), LDAP_V3);
                 try {
                     writer.writeAddRequest(messageID, request);
-                    connection.write(writer.getASN1Writer().getBuffer(), null);
+                    write(writer, promise);
                 } finally {
                     GrizzlyUtils.recycleWriter(writer);
                 }
@@ -294,7 +315,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
                     // using the bind request passed to this method.
                     final GenericBindRequest initialRequest = context.nextBindRequest();
                     writer.writeBindRequest(messageID, 3, initialRequest);
-                    connection.write(writer.getASN1Writer().getBuffer(), null);
+                    write(writer, promise);
                 } finally {
                     GrizzlyUtils.recycleWriter(writer);
                 }
@@ -340,7 +361,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
                         GrizzlyUtils.getWriter(connection.getMemoryManager(), LDAP_V3);
                 try {
                     writer.writeCompareRequest(messageID, request);
-                    connection.write(writer.getASN1Writer().getBuffer(), null);
+                    write(writer, promise);
                 } finally {
                     GrizzlyUtils.recycleWriter(writer);
                 }
@@ -371,7 +392,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
                         GrizzlyUtils.getWriter(connection.getMemoryManager(), LDAP_V3);
                 try {
                     writer.writeDeleteRequest(messageID, request);
-                    connection.write(writer.getASN1Writer().getBuffer(), null);
+                    write(writer, promise);
                 } finally {
                     GrizzlyUtils.recycleWriter(writer);
                 }
@@ -418,7 +439,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
                         GrizzlyUtils.getWriter(connection.getMemoryManager(), LDAP_V3);
                 try {
                     writer.writeExtendedRequest(messageID, request);
-                    connection.write(writer.getASN1Writer().getBuffer(), null);
+                    write(writer, promise);
                 } finally {
                     GrizzlyUtils.recycleWriter(writer);
                 }
@@ -464,7 +485,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
                         GrizzlyUtils.getWriter(connection.getMemoryManager(), LDAP_V3);
                 try {
                     writer.writeModifyRequest(messageID, request);
-                    connection.write(writer.getASN1Writer().getBuffer(), null);
+                    write(writer, promise);
                 } finally {
                     GrizzlyUtils.recycleWriter(writer);
                 }
@@ -495,7 +516,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
                         GrizzlyUtils.getWriter(connection.getMemoryManager(), LDAP_V3);
                 try {
                     writer.writeModifyDNRequest(messageID, request);
-                    connection.write(writer.getASN1Writer().getBuffer(), null);
+                    write(writer, promise);
                 } finally {
                     GrizzlyUtils.recycleWriter(writer);
                 }
@@ -536,7 +557,7 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
                         GrizzlyUtils.getWriter(connection.getMemoryManager(), LDAP_V3);
                 try {
                     writer.writeSearchRequest(messageID, request);
-                    connection.write(writer.getASN1Writer().getBuffer(), null);
+                    write(writer, promise);
                 } finally {
                     GrizzlyUtils.recycleWriter(writer);
                 }
@@ -680,7 +701,11 @@ final class GrizzlyLDAPConnection implements LDAPConnectionImpl, TimeoutEventLis
             final LDAPWriter<ASN1BufferWriter> writer = GrizzlyUtils.getWriter(connection.getMemoryManager(), LDAP_V3);
             try {
                 writer.writeUnbindRequest(nextMsgID.getAndIncrement(), unbindRequest);
-                connection.write(writer.getASN1Writer().getBuffer(), null);
+                if (pipeline != null) {
+                    pipeline.writeLastAndClose(writer.getASN1Writer().getBuffer());
+                } else {
+                    connection.write(writer.getASN1Writer().getBuffer(), null);
+                }
             } catch (final Exception ignore) {
                 /*
                  * Underlying channel probably blown up. Ignore all errors,
@@ -0,0 +1,249 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.grizzly;
+
+import static com.forgerock.opendj.util.StaticUtils.DEFAULT_SCHEDULER;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_PIPELINING_FLUSH_DELAY;
+import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_PIPELINING_MAX_BATCH_SIZE;
+import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_PIPELINING_MAX_IN_FLIGHT_REQUESTS;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.forgerock.util.Options;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.time.Duration;
+import org.glassfish.grizzly.Buffer;
+import org.glassfish.grizzly.memory.Buffers;
+
+import com.forgerock.opendj.util.ReferenceCountedObject;
+
+/**
+ * Pipelines the requests written to a Grizzly connection.
+ * <p>
+ * Requests are queued in a batch, which is written to the connection with a single gathering write: the requests
+ * queued while a batch is being written, or during the flush delay, are written together with the next batch. A
+ * single thread writes batches at any time, which preserves the order of the requests.
+ * <p>
+ * The number of requests waiting for a response may be limited: once the limit is reached, further requests are held
+ * back, and queued in the batch when responses are received. Requests are never held back by blocking the calling
+ * thread, which may be a Grizzly worker thread.
+ */
+final class RequestPipeline {
+    /** A request which is held back until enough responses have been received. */
+    private static final class HeldBackRequest {
+        private final Buffer buffer;
+        private final Promise<?, ?> promise;
+
+        private HeldBackRequest(final Buffer buffer, final Promise<?, ?> promise) {
+            this.buffer = buffer;
+            this.promise = promise;
+        }
+    }
+
+    private final org.glassfish.grizzly.Connection<?> connection;
+    private final int maxBatchSize;
+    private final long flushDelayMicros;
+    private final int maxInFlightRequests;
+    /** The scheduler of the delayed flushes, or {@code null} if requests are not delayed. */
+    private final ReferenceCountedObject<ScheduledExecutorService>.Reference scheduler;
+
+    private final Runnable delayedFlush = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (lock) {
+                isFlushScheduled = false;
+                if (isFlushing || batch == null) {
+                    return;
+                }
+                isFlushing = true;
+            }
+            flushBatches();
+        }
+    };
+    private final Runnable responseReceived = new Runnable() {
+        @Override
+        public void run() {
+            responseReceived();
+        }
+    };
+
+    private final Object lock = new Object();
+    /** Guarded by lock. */
+    private Buffer batch;
+    private int batchSize;
+    private boolean isFlushing;
+    private boolean isFlushScheduled;
+    private int inFlightRequests;
+    private final Queue<HeldBackRequest> heldBackRequests = new ArrayDeque<>();
+
+    RequestPipeline(final org.glassfish.grizzly.Connection<?> connection, final Options options) {
+        this.connection = connection;
+        this.maxBatchSize = Math.max(options.get(REQUEST_PIPELINING_MAX_BATCH_SIZE), 1);
+        final Duration flushDelay = options.get(REQUEST_PIPELINING_FLUSH_DELAY);
+        this.flushDelayMicros = flushDelay.isUnlimited() ? 0 : flushDelay.to(MICROSECONDS);
+        this.maxInFlightRequests = Math.max(options.get(REQUEST_PIPELINING_MAX_IN_FLIGHT_REQUESTS), 0);
+        this.scheduler = flushDelayMicros > 0 ? DEFAULT_SCHEDULER.acquire() : null;
+    }
+
+    /**
+     * Queues a request for writing.
+     *
+     * @param buffer
+     *            The encoded request.
+     * @param promise
+     *            The promise completed by the response to the request, or {@code null} if the request has no response.
+     */
+    void write(final Buffer buffer, final Promise<?, ?> promise) {
+        final boolean mustFlush;
+        synchronized (lock) {
+            // Requests without response are held back too when other requests are, so that the order is preserved
+            if (!heldBackRequests.isEmpty() || (promise != null && isInFlightWindowFull())) {
+                heldBackRequests.add(new HeldBackRequest(buffer, promise));
+                return;
+            }
+            if (promise != null && maxInFlightRequests > 0) {
+                inFlightRequests++;
+            }
+            mustFlush = appendToBatch(buffer);
+        }
+        if (promise != null && maxInFlightRequests > 0) {
+            promise.thenAlways(responseReceived);
+        }
+        if (mustFlush) {
+            flushBatches();
+        }
+    }
+
+    /**
+     * Writes the last request sent on the connection, along with the queued requests, and releases the resources of
+     * this pipeline. The requests which are held back are discarded.
+     *
+     * @param buffer
+     *            The encoded request, typically an unbind request.
+     */
+    void writeLastAndClose(final Buffer buffer) {
+        final boolean mustFlush;
+        synchronized (lock) {
+            for (final HeldBackRequest request : heldBackRequests) {
+                request.buffer.tryDispose();
+            }
+            heldBackRequests.clear();
+            batch = batch == null ? buffer : Buffers.appendBuffers(connection.getMemoryManager(), batch, buffer, true);
+            batchSize++;
+            mustFlush = !isFlushing;
+            isFlushing = true;
+        }
+        if (mustFlush) {
+            flushBatches();
+        }
+        if (scheduler != null) {
+            scheduler.release();
+        }
+    }
+
+    /** Guarded by lock. */
+    private boolean isInFlightWindowFull() {
+        return maxInFlightRequests > 0 && inFlightRequests >= maxInFlightRequests;
+    }
+
+    /**
+     * Appends a request to the batch. Guarded by lock.
+     *
+     * @return {@code true} if the calling thread must flush the batch
+     */
+    private boolean appendToBatch(final Buffer buffer) {
+        batch = batch == null ? buffer : Buffers.appendBuffers(connection.getMemoryManager(), batch, buffer, true);
+        batchSize++;
+        if (isFlushing) {
+            // The flushing thread will write the request with the next batch
+            return false;
+        }
+        if (scheduler != null && batchSize < maxBatchSize) {
+            if (!isFlushScheduled) {
+                isFlushScheduled = true;
+                scheduler.get().schedule(delayedFlush, flushDelayMicros, MICROSECONDS);
+            }
+            return false;
+        }
+        isFlushing = true;
+        return true;
+    }
+
+    private void responseReceived() {
+        List<Promise<?, ?>> admittedPromises = null;
+        boolean mustFlush = false;
+        synchronized (lock) {
+            inFlightRequests--;
+            while (!heldBackRequests.isEmpty()) {
+                final HeldBackRequest request = heldBackRequests.peek();
+                if (request.promise != null) {
+                    if (request.promise.isDone()) {
+                        // Cancelled or timed out while held back: no need to send it
+                        heldBackRequests.poll();
+                        request.buffer.tryDispose();
+                        continue;
+                    } else if (isInFlightWindowFull()) {
+                        break;
+                    }
+                    inFlightRequests++;
+                    if (admittedPromises == null) {
+                        admittedPromises = new ArrayList<>();
+                    }
+                    admittedPromises.add(request.promise);
+                }
+                heldBackRequests.poll();
+                mustFlush |= appendToBatch(request.buffer);
+            }
+        }
+        if (admittedPromises != null) {
+            for (final Promise<?, ?> promise : admittedPromises) {
+                promise.thenAlways(responseReceived);
+            }
+        }
+        if (mustFlush) {
+            flushBatches();
+        }
+    }
+
+    /** Writes the batches until there is none left. Only invoked by the thread which has set isFlushing. */
+    private void flushBatches() {
+        for (;;) {
+            final Buffer buffer;
+            synchronized (lock) {
+                if (batch == null) {
+                    isFlushing = false;
+                    return;
+                }
+                buffer = batch;
+                batch = null;
+                batchSize = 0;
+            }
+            try {
+                connection.write(buffer, null);
+            } catch (final RuntimeException e) {
+                synchronized (lock) {
+                    isFlushing = false;
+                }
+                throw e;
+            }
+        }
+    }
+}
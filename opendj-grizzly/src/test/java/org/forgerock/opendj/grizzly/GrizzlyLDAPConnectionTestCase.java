@@ -18,16 +18,26 @@ package org.forgerock.opendj.grizzly;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.forgerock.opendj.ldap.LDAPListener.LDAP_DECODE_OPTIONS;
+import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_PIPELINING_ENABLED;
+import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_PIPELINING_FLUSH_DELAY;
+import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_PIPELINING_MAX_BATCH_SIZE;
+import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_PIPELINING_MAX_IN_FLIGHT_REQUESTS;
 import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_TIMEOUT;
 import static org.forgerock.util.time.Duration.duration;
 import static org.mockito.Mockito.*;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
+import org.forgerock.opendj.ldap.Connection;
 import org.forgerock.opendj.ldap.Connections;
+import org.forgerock.opendj.ldap.LDAPConnectionFactory;
 import org.forgerock.opendj.ldap.LDAPListener;
 import org.forgerock.opendj.ldap.LdapException;
+import org.forgerock.opendj.ldap.LdapPromise;
+import org.forgerock.opendj.ldap.MemoryBackend;
 import org.forgerock.opendj.ldap.RequestHandler;
 import org.forgerock.opendj.ldap.ResultCode;
 import org.forgerock.opendj.ldap.SdkTestCase;
@@ -38,9 +48,13 @@ import org.forgerock.opendj.ldap.TimeoutResultException;
 import org.forgerock.opendj.ldap.controls.PersistentSearchRequestControl;
 import org.forgerock.opendj.ldap.requests.Requests;
 import org.forgerock.opendj.ldap.requests.SearchRequest;
+import org.forgerock.opendj.ldap.responses.Result;
+import org.forgerock.opendj.ldap.responses.SearchResultEntry;
+import org.forgerock.opendj.ldif.LDIFEntryReader;
 import org.forgerock.util.Options;
 import org.forgerock.util.promise.ExceptionHandler;
 import org.mockito.ArgumentCaptor;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import com.forgerock.reactive.ServerConnectionFactoryAdapter;
@@ -116,4 +130,59 @@ public class GrizzlyLDAPConnectionTestCase extends SdkTestCase {
         }
     }
 
+    @DataProvider
+    public Object[][] pipeliningOptions() {
+        // flush delay, max batch size, max in-flight requests
+        return new Object[][] {
+            { "0 ms", 32, 0 },
+            { "0 ms", 32, 1 },
+            { "5 ms", 8, 0 },
+            { "5 ms", 8, 4 },
+        };
+    }
+
+    /** Tests that pipelined requests are all written, whatever the flush policy and in-flight limit. */
+    @Test(dataProvider = "pipeliningOptions")
+    public void testRequestPipelining(String flushDelay, int maxBatchSize, int maxInFlightRequests)
+            throws Exception {
+        final int nbEntries = 100;
+        InetSocketAddress address = TestCaseUtils.findFreeSocketAddress();
+        MemoryBackend backend = new MemoryBackend(new LDIFEntryReader(
+                "dn: dc=test",
+                "objectClass: top",
+                "objectClass: domain",
+                "dc: test"));
+        LDAPListener listener = new LDAPListener(Collections.singleton(address),
+                new ServerConnectionFactoryAdapter(Options.defaultOptions().get(LDAP_DECODE_OPTIONS),
+                        Connections.newServerConnectionFactory(backend)));
+        LDAPConnectionFactory factory = new LDAPConnectionFactory(address.getHostName(),
+                address.getPort(),
+                Options.defaultOptions()
+                       .set(REQUEST_PIPELINING_ENABLED, true)
+                       .set(REQUEST_PIPELINING_FLUSH_DELAY, duration(flushDelay))
+                       .set(REQUEST_PIPELINING_MAX_BATCH_SIZE, maxBatchSize)
+                       .set(REQUEST_PIPELINING_MAX_IN_FLIGHT_REQUESTS, maxInFlightRequests));
+        try (Connection connection = factory.getConnection()) {
+            // Send all the requests before waiting for any response
+            List<LdapPromise<Result>> promises = new ArrayList<>();
+            for (int i = 0; i < nbEntries; i++) {
+                promises.add(connection.addAsync(Requests.newAddRequest("cn=user." + i + ",dc=test")
+                        .addAttribute("objectClass", "top", "person")
+                        .addAttribute("cn", "user." + i)
+                        .addAttribute("sn", "user")
+                        .addAttribute("description", "entry " + i)));
+            }
+            for (LdapPromise<Result> promise : promises) {
+                assertThat(promise.getOrThrow().getResultCode()).isEqualTo(ResultCode.SUCCESS);
+            }
+
+            List<SearchResultEntry> entries = new ArrayList<>();
+            connection.search(Requests.newSearchRequest("dc=test", SearchScope.SINGLE_LEVEL, "(description=*)"),
+                    entries);
+            assertThat(entries).hasSize(nbEntries);
+        } finally {
+            listener.close();
+            factory.close();
+        }
+    }
 }
@@ -424,6 +424,7 @@ public class AddRate extends ConsoleApplication {
             Utils.setDefaultPerfToolProperties();
             final PerformanceRunnerOptions options = new PerformanceRunnerOptions(argParser, this);
             options.setSupportsGeneratorArgument(false);
+            options.setSupportsRequestPipelining(true);
 
             connectionFactoryProvider = new ConnectionFactoryProvider(argParser, this);
             runner = new AddPerformanceRunner(options);
@@ -499,6 +500,7 @@ public class AddRate extends ConsoleApplication {
                 return EXIT_CODE_SUCCESS;
             }
 
+            connectionFactoryProvider.setConnectionFactoryOptions(runner.getConnectionFactoryOptions());
             connectionFactory = connectionFactoryProvider.getAuthenticatedConnectionFactory();
             runner.setBindRequest(connectionFactoryProvider.getBindRequest());
             runner.validate(deleteMode, deleteSizeThreshold, deleteAgeThreshold, noPurgeArgument);
@@ -30,6 +30,7 @@ import static com.forgerock.opendj.ldap.tools.Utils.runTool;
 import static com.forgerock.opendj.ldap.tools.Utils.runToolAndExit;
 import static org.forgerock.util.Utils.closeSilently;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -40,9 +41,11 @@ import com.forgerock.opendj.cli.IntegerArgument;
 import org.forgerock.i18n.LocalizableException;
 import org.forgerock.opendj.ldap.ResultCode;
 import org.forgerock.opendj.ldif.ChangeRecordReader;
+import org.forgerock.opendj.ldif.EntryReader;
 import org.forgerock.opendj.ldif.LDIF;
 import org.forgerock.opendj.ldif.LDIFChangeRecordWriter;
 import org.forgerock.opendj.ldif.LDIFEntryReader;
+import org.forgerock.opendj.ldif.SortingEntryReader;
 
 import com.forgerock.opendj.cli.ArgumentException;
 import com.forgerock.opendj.cli.ArgumentParser;
@@ -53,12 +56,19 @@ import org.forgerock.util.annotations.VisibleForTesting;
 /**
  * This utility can be used to compare two LDIF files and report the differences
  * in LDIF format.
+ * <p>
+ * By default the entries of both files are loaded into memory. With the
+ * {@code --externalSort} option, the entries are sorted in temporary files and
+ * the differences are computed while streaming both sorted files, so that
+ * files larger than the available memory can be compared.
  */
 public final class LDIFDiff extends ToolConsoleApplication {
 
     static final int NO_DIFFERENCES_FOUND = 0;
     static final int DIFFERENCES_FOUND = 1;
 
+    private static final int DEFAULT_SORT_RUN_SIZE = 100000;
+
     /**
      * The main method for ldifdiff tool.
      *
@@ -107,6 +117,9 @@ public final class LDIFDiff extends ToolConsoleApplication {
         final BooleanArgument showUsage;
         final StringArgument outputFilename;
         final IntegerArgument wrapColumn;
+        final BooleanArgument externalSort;
+        final IntegerArgument sortRunSize;
+        final StringArgument tmpDirectory;
         try {
             outputFilename =
                     StringArgument.builder(OPTION_LONG_OUTPUT_LDIF_FILENAME)
@@ -119,6 +132,24 @@ public final class LDIFDiff extends ToolConsoleApplication {
             wrapColumn = wrapColumnArgument();
             argParser.addArgument(wrapColumn);
 
+            externalSort =
+                    BooleanArgument.builder("externalSort")
+                            .description(INFO_LDIFDIFF_DESCRIPTION_EXTERNAL_SORT.get())
+                            .buildAndAddToParser(argParser);
+            sortRunSize =
+                    IntegerArgument.builder("sortRunSize")
+                            .description(INFO_LDIFDIFF_DESCRIPTION_SORT_RUN_SIZE.get())
+                            .lowerBound(1)
+                            .defaultValue(DEFAULT_SORT_RUN_SIZE)
+                            .valuePlaceholder(INFO_NUM_ENTRIES_PLACEHOLDER.get())
+                            .buildAndAddToParser(argParser);
+            tmpDirectory =
+                    StringArgument.builder("tmpDirectory")
+                            .description(INFO_LDIFDIFF_DESCRIPTION_TMP_DIRECTORY.get())
+                            .defaultValue(System.getProperty("java.io.tmpdir"))
+                            .valuePlaceholder(INFO_PATH_PLACEHOLDER.get())
+                            .buildAndAddToParser(argParser);
+
             showUsage = showUsageArgument();
             argParser.addArgument(showUsage);
             argParser.setUsageArgument(showUsage, getOutputStream());
@@ -145,11 +176,14 @@ public final class LDIFDiff extends ToolConsoleApplication {
                 throw newToolParamException(ERR_LDIFDIFF_MULTIPLE_USES_OF_STDIN.get());
             }
 
-            try (LDIFEntryReader sourceReader = new LDIFEntryReader(sourceInputStream);
-                 LDIFEntryReader targetReader = new LDIFEntryReader(targetInputStream);
+            final File sortDirectory = externalSort.isPresent() ? new File(tmpDirectory.getValue()) : null;
+            final int runSize = sortRunSize.getIntValue();
+            try (EntryReader sourceReader = newEntryReader(sourceInputStream, sortDirectory, runSize);
+                 EntryReader targetReader = newEntryReader(targetInputStream, sortDirectory, runSize);
                  LDIFChangeRecordWriter outputWriter = new LDIFChangeRecordWriter(outputStream)) {
                 outputWriter.setWrapColumn(computeWrapColumn(wrapColumn));
-                final ChangeRecordReader changes = LDIF.diff(sourceReader, targetReader);
+                final ChangeRecordReader changes = sortDirectory != null ? LDIF.diffSorted(sourceReader, targetReader)
+                                                                         : LDIF.diff(sourceReader, targetReader);
                 LDIF.copyTo(changes, outputWriter);
                 if (outputWriter.containsChanges()) {
                     return DIFFERENCES_FOUND;
@@ -171,4 +205,24 @@ public final class LDIFDiff extends ToolConsoleApplication {
             closeSilently(sourceInputStream, targetInputStream, outputStream);
         }
     }
+
+    /**
+     * Returns a reader of the entries of an LDIF file. If a sort directory is
+     * provided, the entries are sorted by DN in temporary files of this
+     * directory, and they are parsed and sorted using all the available
+     * processors.
+     */
+    private static EntryReader newEntryReader(final InputStream ldif, final File sortDirectory, final int runSize) {
+        if (sortDirectory == null) {
+            return new LDIFEntryReader(ldif);
+        }
+        final int nbThreads = Runtime.getRuntime().availableProcessors();
+        final LDIFEntryReader reader = new LDIFEntryReader(ldif)
+                .setParallelism(nbThreads)
+                .setPreserveRecordOrder(false);
+        return new SortingEntryReader(reader)
+                .setTemporaryDirectory(sortDirectory)
+                .setMaxEntriesPerRun(runSize)
+                .setParallelism(nbThreads);
+    }
 }
@@ -187,7 +187,8 @@ public final class LDIFSearch extends ToolConsoleApplication {
         }
 
         try (final LDIFEntryReader sourceReader =
-                     new LDIFEntryReader(getLDIFToolInputStream(this, trailingArguments.get(0)));
+                     new LDIFEntryReader(getLDIFToolInputStream(this, trailingArguments.get(0)))
+                             .setParallelism(Runtime.getRuntime().availableProcessors());
              final LDIFEntryWriter outputWriter = new LDIFEntryWriter(getLDIFToolOutputStream(this, outputFilename))) {
             outputWriter.setWrapColumn(computeWrapColumn(wrapColumn));
             LDIF.copyTo(LDIF.search(sourceReader, search), outputWriter);
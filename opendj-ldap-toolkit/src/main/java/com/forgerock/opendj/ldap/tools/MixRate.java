@@ -0,0 +1,518 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.forgerock.opendj.ldap.tools;
+
+import static com.forgerock.opendj.cli.ArgumentConstants.*;
+import static com.forgerock.opendj.cli.MultiColumnPrinter.column;
+import static com.forgerock.opendj.cli.ToolVersionHandler.newSdkVersionHandler;
+import static com.forgerock.opendj.cli.Utils.*;
+import static com.forgerock.opendj.ldap.tools.ToolsMessages.*;
+import static com.forgerock.opendj.cli.CommonArguments.*;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.forgerock.opendj.ldap.Connection;
+import org.forgerock.opendj.ldap.ConnectionFactory;
+import org.forgerock.opendj.ldap.LdapException;
+import org.forgerock.opendj.ldap.ModificationType;
+import org.forgerock.opendj.ldap.ResultCode;
+import org.forgerock.opendj.ldap.SearchResultHandler;
+import org.forgerock.opendj.ldap.SearchScope;
+import org.forgerock.opendj.ldap.requests.ModifyRequest;
+import org.forgerock.opendj.ldap.requests.Requests;
+import org.forgerock.opendj.ldap.requests.SimpleBindRequest;
+import org.forgerock.opendj.ldap.responses.BindResult;
+import org.forgerock.opendj.ldap.responses.Result;
+import org.forgerock.opendj.ldap.responses.SearchResultEntry;
+import org.forgerock.opendj.ldap.responses.SearchResultReference;
+import org.forgerock.util.AsyncFunction;
+import org.forgerock.util.promise.Promise;
+
+import com.codahale.metrics.RatioGauge;
+import com.forgerock.opendj.cli.ArgumentException;
+import com.forgerock.opendj.cli.ArgumentParser;
+import com.forgerock.opendj.cli.BooleanArgument;
+import com.forgerock.opendj.cli.ConnectionFactoryProvider;
+import com.forgerock.opendj.cli.ConsoleApplication;
+import com.forgerock.opendj.cli.IntegerArgument;
+import com.forgerock.opendj.cli.MultiChoiceArgument;
+import com.forgerock.opendj.cli.MultiColumnPrinter;
+import com.forgerock.opendj.cli.StringArgument;
+
+/**
+ * A load generation tool that can be used to load a Directory Server with a
+ * weighted mix of Search, Modify and Bind requests using one or more LDAP
+ * connections.
+ */
+public final class MixRate extends ConsoleApplication {
+    /** The types of operations of the mix. */
+    private enum OperationType {
+        SEARCH("srch"), MODIFY("mod"), BIND("bind");
+
+        private final String columnTitle;
+
+        OperationType(final String columnTitle) {
+            this.columnTitle = columnTitle;
+        }
+    }
+
+    private final class MixPerformanceRunner extends PerformanceRunner {
+        /** Updates the statistics of a type of operations in addition to the general statistics. */
+        private class MixStatsHandler<S extends Result> extends UpdateStatsResultHandler<S> {
+            private final OperationType type;
+
+            private MixStatsHandler(final long startTimeNs, final OperationType type) {
+                super(startTimeNs);
+                this.type = type;
+            }
+
+            @Override
+            void updateAdditionalStatsOnResult() {
+                operationCounts[type.ordinal()].inc();
+                operationDurationsNs[type.ordinal()].inc(System.nanoTime() - operationStartTimeNs);
+            }
+        }
+
+        private final class SearchStatsHandler extends MixStatsHandler<Result> implements SearchResultHandler {
+            private SearchStatsHandler(final long startTimeNs) {
+                super(startTimeNs, OperationType.SEARCH);
+            }
+
+            @Override
+            public boolean handleEntry(final SearchResultEntry entry) {
+                return true;
+            }
+
+            @Override
+            public boolean handleReference(final SearchResultReference reference) {
+                return true;
+            }
+        }
+
+        private final class MixStatsThread extends StatsThread {
+            private static final int RESPONSE_TIME_COLUMN_WIDTH = 8;
+            private static final String RESPONSE_TIME = STAT_ID_PREFIX + "response_time_";
+
+            private MixStatsThread(final PerformanceRunner performanceRunner, final ConsoleApplication app) {
+                super(performanceRunner, app);
+            }
+
+            @Override
+            void resetAdditionalStats() {
+                for (final OperationType type : OperationType.values()) {
+                    operationCounts[type.ordinal()] = newIntervalCounter();
+                    operationDurationsNs[type.ordinal()] = newIntervalCounter();
+                }
+            }
+
+            @Override
+            List<MultiColumnPrinter.Column> registerAdditionalColumns() {
+                final List<MultiColumnPrinter.Column> columns = new ArrayList<>();
+                for (final OperationType type : OperationType.values()) {
+                    if (weights[type.ordinal()] == 0) {
+                        continue;
+                    }
+                    final String statKey = RESPONSE_TIME + type.columnTitle;
+                    registry.register(statKey, new RatioGauge() {
+                        @Override
+                        protected Ratio getRatio() {
+                            final int i = type.ordinal();
+                            return Ratio.of(operationDurationsNs[i].refreshIntervalCount() / NS_IN_MS,
+                                            operationCounts[i].refreshIntervalCount());
+                        }
+                    });
+                    columns.add(column(statKey, type.columnTitle + " ms", RESPONSE_TIME_COLUMN_WIDTH, 3));
+                }
+                return columns;
+            }
+        }
+
+        private final class MixWorkerThread extends WorkerThread {
+            private final ConnectionFactory bindConnectionFactory;
+            /** The connection of the bind requests, which must not change the identity of the other requests. */
+            private volatile Connection bindConnection;
+            private Object[] data;
+
+            private MixWorkerThread(final Connection connection, final ConnectionFactory connectionFactory,
+                    final ConnectionFactory bindConnectionFactory) {
+                super(connection, connectionFactory);
+                this.bindConnectionFactory = bindConnectionFactory;
+            }
+
+            @Override
+            public void run() {
+                try {
+                    super.run();
+                } finally {
+                    if (bindConnection != null) {
+                        bindConnection.close();
+                    }
+                }
+            }
+
+            @Override
+            public Promise<?, LdapException> performOperation(final Connection connection,
+                    final DataSource[] dataSources, final long currentTimeNs) {
+                if (dataSources != null) {
+                    data = DataSource.generateData(dataSources, data);
+                }
+                incrementIterationCount();
+                switch (nextOperationType()) {
+                case MODIFY:
+                    final MixStatsHandler<Result> modifyHandler =
+                            new MixStatsHandler<>(currentTimeNs, OperationType.MODIFY);
+                    return connection.modifyAsync(newModifyRequest())
+                                     .thenOnResult(modifyHandler).thenOnException(modifyHandler);
+                case BIND:
+                    final MixStatsHandler<BindResult> bindHandler =
+                            new MixStatsHandler<>(currentTimeNs, OperationType.BIND);
+                    return bind(Requests.newSimpleBindRequest(format(authDN), authPassword.toCharArray()))
+                            .thenOnResult(bindHandler).thenOnException(bindHandler);
+                default:
+                    final SearchStatsHandler searchHandler = new SearchStatsHandler(currentTimeNs);
+                    return connection.searchAsync(
+                            Requests.newSearchRequest(format(baseDN), scope, format(filter), attributes),
+                            searchHandler).thenOnResult(searchHandler).thenOnException(searchHandler);
+                }
+            }
+
+            private OperationType nextOperationType() {
+                int weight = ThreadLocalRandom.current().nextInt(totalWeight);
+                for (final OperationType type : OperationType.values()) {
+                    weight -= weights[type.ordinal()];
+                    if (weight < 0) {
+                        return type;
+                    }
+                }
+                throw new IllegalStateException();
+            }
+
+            private String format(final String formatString) {
+                return data != null ? String.format(formatString, data) : formatString;
+            }
+
+            private ModifyRequest newModifyRequest() {
+                final ModifyRequest mr = Requests.newModifyRequest(format(targetDN));
+                for (final String modString : modStrings) {
+                    final String formattedString = format(modString);
+                    final int colonPos = formattedString.indexOf(':');
+                    if (colonPos > 0) {
+                        mr.addModification(ModificationType.REPLACE, formattedString.substring(0, colonPos),
+                                formattedString.substring(colonPos + 1));
+                    }
+                }
+                return mr;
+            }
+
+            private Promise<BindResult, LdapException> bind(final SimpleBindRequest request) {
+                if (bindConnection != null) {
+                    return bindConnection.bindAsync(request);
+                }
+                return bindConnectionFactory.getConnectionAsync().thenAsync(
+                        new AsyncFunction<Connection, BindResult, LdapException>() {
+                            @Override
+                            public Promise<BindResult, LdapException> apply(final Connection connection) {
+                                bindConnection = connection;
+                                return connection.bindAsync(request);
+                            }
+                        });
+            }
+        }
+
+        private final int[] weights = new int[OperationType.values().length];
+        private int totalWeight;
+        private final StatsThread.IntervalCounter[] operationCounts =
+                new StatsThread.IntervalCounter[OperationType.values().length];
+        private final StatsThread.IntervalCounter[] operationDurationsNs =
+                new StatsThread.IntervalCounter[OperationType.values().length];
+        private ConnectionFactory bindConnectionFactory;
+        private String baseDN;
+        private SearchScope scope;
+        private String filter;
+        private String[] attributes;
+        private String targetDN;
+        private String[] modStrings;
+        private String authDN;
+        private String authPassword;
+
+        private MixPerformanceRunner(final PerformanceRunnerOptions options) throws ArgumentException {
+            super(options);
+        }
+
+        private void setWeight(final OperationType type, final int weight) {
+            weights[type.ordinal()] = weight;
+            totalWeight += weight;
+        }
+
+        @Override
+        WorkerThread newWorkerThread(final Connection connection, final ConnectionFactory connectionFactory) {
+            return new MixWorkerThread(connection, connectionFactory, bindConnectionFactory);
+        }
+
+        @Override
+        StatsThread newStatsThread(final PerformanceRunner performanceRunner, final ConsoleApplication app) {
+            return new MixStatsThread(performanceRunner, app);
+        }
+    }
+
+    /**
+     * The main method for MixRate tool.
+     *
+     * @param args
+     *            The command-line arguments provided to this program.
+     */
+    public static void main(final String[] args) {
+        final int retCode = new MixRate().run(args);
+        System.exit(filterExitCode(retCode));
+    }
+
+    private BooleanArgument verbose;
+    private BooleanArgument scriptFriendly;
+
+    private MixRate() {
+        // Nothing to do.
+    }
+
+    /**
+     * Constructor to allow tests.
+     *
+     * @param out
+     *            output stream of console application
+     * @param err
+     *            error stream of console application
+     */
+    MixRate(final PrintStream out, final PrintStream err) {
+        super(out, err);
+    }
+
+    @Override
+    public boolean isInteractive() {
+        return false;
+    }
+
+    @Override
+    public boolean isScriptFriendly() {
+        return scriptFriendly.isPresent();
+    }
+
+    @Override
+    public boolean isVerbose() {
+        return verbose.isPresent();
+    }
+
+    int run(final String[] args) {
+        // Create the command-line argument parser for use with this program.
+        final LocalizableMessage toolDescription = INFO_MIXRATE_TOOL_DESCRIPTION.get();
+        final ArgumentParser argParser = LDAPToolArgumentParser.builder(MixRate.class.getName())
+                .toolDescription(toolDescription)
+                .trailingArgumentsUnbounded(1, "[filter format string] [attributes ...]")
+                .build();
+        argParser.setVersionHandler(newSdkVersionHandler());
+        argParser.setShortToolDescription(REF_SHORT_DESC_MIXRATE.get());
+        argParser.setDocToolDescriptionSupplement(SUPPLEMENT_DESCRIPTION_RATE_TOOLS.get());
+
+        ConnectionFactoryProvider connectionFactoryProvider;
+        ConnectionFactory connectionFactory;
+        MixPerformanceRunner runner;
+
+        StringArgument baseDN;
+        MultiChoiceArgument<SearchScope> searchScope;
+        IntegerArgument searchWeight;
+        StringArgument targetDN;
+        StringArgument modifications;
+        IntegerArgument modifyWeight;
+        StringArgument authDN;
+        StringArgument authPassword;
+        IntegerArgument bindWeight;
+        BooleanArgument showUsage;
+        StringArgument propertiesFileArgument;
+        BooleanArgument noPropertiesFileArgument;
+        try {
+            Utils.setDefaultPerfToolProperties();
+
+            connectionFactoryProvider = new ConnectionFactoryProvider(argParser, this);
+            final PerformanceRunnerOptions options = new PerformanceRunnerOptions(argParser, this);
+            options.setSupportsRequestPipelining(true);
+            runner = new MixPerformanceRunner(options);
+
+            propertiesFileArgument = propertiesFileArgument();
+            argParser.addArgument(propertiesFileArgument);
+            argParser.setFilePropertiesArgument(propertiesFileArgument);
+
+            noPropertiesFileArgument = noPropertiesFileArgument();
+            argParser.addArgument(noPropertiesFileArgument);
+            argParser.setNoPropertiesFileArgument(noPropertiesFileArgument);
+
+            showUsage = showUsageArgument();
+            argParser.addArgument(showUsage);
+            argParser.setUsageArgument(showUsage, getOutputStream());
+
+            baseDN =
+                    StringArgument.builder(OPTION_LONG_BASEDN)
+                            .shortIdentifier(OPTION_SHORT_BASEDN)
+                            .description(INFO_SEARCHRATE_TOOL_DESCRIPTION_BASEDN.get())
+                            .required()
+                            .valuePlaceholder(INFO_BASEDN_PLACEHOLDER.get())
+                            .buildAndAddToParser(argParser);
+
+            searchScope = searchScopeArgument();
+            argParser.addArgument(searchScope);
+
+            searchWeight =
+                    IntegerArgument.builder("searchWeight")
+                            .description(INFO_MIXRATE_DESCRIPTION_SEARCH_WEIGHT.get())
+                            .lowerBound(0)
+                            .defaultValue(1)
+                            .valuePlaceholder(LocalizableMessage.raw("{searchWeight}"))
+                            .buildAndAddToParser(argParser);
+
+            targetDN =
+                    StringArgument.builder(OPTION_LONG_TARGETDN)
+                            .description(INFO_MODRATE_TOOL_DESCRIPTION_TARGETDN.get())
+                            .valuePlaceholder(INFO_TARGETDN_PLACEHOLDER.get())
+                            .buildAndAddToParser(argParser);
+
+            modifications =
+                    StringArgument.builder("modification")
+                            .description(INFO_MIXRATE_DESCRIPTION_MODIFICATION.get())
+                            .multiValued()
+                            .valuePlaceholder(LocalizableMessage.raw("{attribute:value format string}"))
+                            .buildAndAddToParser(argParser);
+
+            modifyWeight =
+                    IntegerArgument.builder("modifyWeight")
+                            .description(INFO_MIXRATE_DESCRIPTION_MODIFY_WEIGHT.get())
+                            .lowerBound(0)
+                            .defaultValue(0)
+                            .valuePlaceholder(LocalizableMessage.raw("{modifyWeight}"))
+                            .buildAndAddToParser(argParser);
+
+            authDN =
+                    StringArgument.builder("authDN")
+                            .description(INFO_MIXRATE_DESCRIPTION_AUTH_DN.get())
+                            .valuePlaceholder(LocalizableMessage.raw("{authDN}"))
+                            .buildAndAddToParser(argParser);
+
+            authPassword =
+                    StringArgument.builder("authPassword")
+                            .description(INFO_MIXRATE_DESCRIPTION_AUTH_PASSWORD.get())
+                            .valuePlaceholder(LocalizableMessage.raw("{authPassword}"))
+                            .buildAndAddToParser(argParser);
+
+            bindWeight =
+                    IntegerArgument.builder("bindWeight")
+                            .description(INFO_MIXRATE_DESCRIPTION_BIND_WEIGHT.get())
+                            .lowerBound(0)
+                            .defaultValue(0)
+                            .valuePlaceholder(LocalizableMessage.raw("{bindWeight}"))
+                            .buildAndAddToParser(argParser);
+
+            verbose = verboseArgument();
+            argParser.addArgument(verbose);
+
+            scriptFriendly = scriptFriendlySdkArgument();
+            argParser.addArgument(scriptFriendly);
+        } catch (final ArgumentException ae) {
+            final LocalizableMessage message = ERR_CANNOT_INITIALIZE_ARGS.get(ae.getMessage());
+            errPrintln(message);
+            return ResultCode.CLIENT_SIDE_PARAM_ERROR.intValue();
+        }
+
+        // Parse the command-line arguments provided to this program.
+        try {
+            argParser.parseArguments(args);
+
+            /* If we should just display usage or version information, then print it and exit. */
+            if (argParser.usageOrVersionDisplayed()) {
+                return 0;
+            }
+
+            runner.setWeight(OperationType.SEARCH, searchWeight.getIntValue());
+            runner.setWeight(OperationType.MODIFY, modifyWeight.getIntValue());
+            runner.setWeight(OperationType.BIND, bindWeight.getIntValue());
+            if (runner.totalWeight == 0) {
+                throw new ArgumentException(ERR_MIXRATE_NO_OPERATION.get());
+            }
+            if (modifyWeight.getIntValue() > 0) {
+                checkArgumentIsPresent(targetDN, modifyWeight);
+                checkArgumentIsPresent(modifications, modifyWeight);
+            }
+            if (bindWeight.getIntValue() > 0) {
+                checkArgumentIsPresent(authDN, bindWeight);
+                checkArgumentIsPresent(authPassword, bindWeight);
+                // Binds must not change the identity of the connections used by searches and modifications
+                runner.bindConnectionFactory = connectionFactoryProvider.getUnauthenticatedConnectionFactory();
+            }
+
+            connectionFactoryProvider.setConnectionFactoryOptions(runner.getConnectionFactoryOptions());
+            connectionFactory = connectionFactoryProvider.getAuthenticatedConnectionFactory();
+            runner.setBindRequest(connectionFactoryProvider.getBindRequest());
+            runner.validate();
+        } catch (final ArgumentException ae) {
+            argParser.displayMessageAndUsageReference(getErrStream(), ERR_ERROR_PARSING_ARGS.get(ae.getMessage()));
+            return ResultCode.CLIENT_SIDE_PARAM_ERROR.intValue();
+        }
+
+        final List<String> filterAndAttributeStrings = argParser.getTrailingArguments();
+        /* The first trailing argument is considered the filter, the other as attributes. */
+        runner.filter = filterAndAttributeStrings.remove(0);
+        runner.attributes = filterAndAttributeStrings.toArray(new String[filterAndAttributeStrings.size()]);
+        runner.baseDN = baseDN.getValue();
+        runner.targetDN = targetDN.getValue();
+        runner.modStrings = modifications.getValues().toArray(new String[modifications.getValues().size()]);
+        runner.authDN = authDN.getValue();
+        runner.authPassword = authPassword.getValue();
+        try {
+            runner.scope = searchScope.getTypedValue();
+        } catch (final ArgumentException ex1) {
+            errPrintln(ex1.getMessageObject());
+            return ResultCode.CLIENT_SIDE_PARAM_ERROR.intValue();
+        }
+
+        try {
+            /* Try it out to make sure the format strings and data sources match. */
+            final Object[] data = DataSource.generateData(runner.getDataSources(), null);
+            String.format(runner.filter, data);
+            String.format(runner.baseDN, data);
+            if (runner.targetDN != null) {
+                String.format(runner.targetDN, data);
+            }
+            for (final String modString : runner.modStrings) {
+                String.format(modString, data);
+            }
+            if (runner.authDN != null) {
+                String.format(runner.authDN, data);
+            }
+        } catch (final Exception ex1) {
+            errPrintln(LocalizableMessage.raw("Error formatting filter or DN: " + ex1));
+            return ResultCode.CLIENT_SIDE_PARAM_ERROR.intValue();
+        }
+
+        return runner.run(connectionFactory);
+    }
+
+    private static void checkArgumentIsPresent(final StringArgument argument, final IntegerArgument weight)
+            throws ArgumentException {
+        if (!argument.isPresent()) {
+            throw new ArgumentException(ERR_TOOL_ARG_MUST_BE_USED_WHEN_ARG_CONDITION.get(
+                    "--" + argument.getLongIdentifier(), "--" + weight.getLongIdentifier(), "> 0"));
+        }
+    }
+}
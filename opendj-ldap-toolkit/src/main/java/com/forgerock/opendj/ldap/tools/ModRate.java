@@ -170,7 +170,9 @@ public final class ModRate extends ConsoleApplication {
             Utils.setDefaultPerfToolProperties();
 
             connectionFactoryProvider = new ConnectionFactoryProvider(argParser, this);
-            runner = new ModifyPerformanceRunner(new PerformanceRunnerOptions(argParser, this));
+            final PerformanceRunnerOptions options = new PerformanceRunnerOptions(argParser, this);
+            options.setSupportsRequestPipelining(true);
+            runner = new ModifyPerformanceRunner(options);
 
             propertiesFileArgument = propertiesFileArgument();
             argParser.addArgument(propertiesFileArgument);
@@ -212,6 +214,7 @@ public final class ModRate extends ConsoleApplication {
                 return 0;
             }
 
+            connectionFactoryProvider.setConnectionFactoryOptions(runner.getConnectionFactoryOptions());
             connectionFactory = connectionFactoryProvider.getAuthenticatedConnectionFactory();
             runner.setBindRequest(connectionFactoryProvider.getBindRequest());
             runner.validate();
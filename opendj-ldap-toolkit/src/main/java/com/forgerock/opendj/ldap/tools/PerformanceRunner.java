@@ -16,10 +16,16 @@
  */
 package com.forgerock.opendj.ldap.tools;
 
+import static com.forgerock.opendj.ldap.tools.StatsThread.NS_IN_MS;
 import static com.forgerock.opendj.ldap.tools.Utils.printErrorMessage;
 import static java.util.concurrent.TimeUnit.*;
 
+import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_PIPELINING_ENABLED;
+import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_PIPELINING_FLUSH_DELAY;
+import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_PIPELINING_MAX_BATCH_SIZE;
+import static org.forgerock.opendj.ldap.LDAPConnectionFactory.REQUEST_PIPELINING_MAX_IN_FLIGHT_REQUESTS;
 import static org.forgerock.util.Utils.*;
+import static org.forgerock.util.time.Duration.duration;
 
 import static com.forgerock.opendj.ldap.tools.ToolsMessages.*;
 
@@ -27,6 +33,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
 
 import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.opendj.ldap.Connection;
@@ -37,6 +45,7 @@ import org.forgerock.opendj.ldap.LdapResultHandler;
 import org.forgerock.opendj.ldap.requests.BindRequest;
 import org.forgerock.opendj.ldap.responses.ExtendedResult;
 import org.forgerock.opendj.ldap.responses.Result;
+import org.forgerock.util.Options;
 import org.forgerock.util.promise.Promise;
 
 import com.forgerock.opendj.cli.ArgumentException;
@@ -131,9 +140,21 @@ abstract class PerformanceRunner implements ConnectionEventListener {
             Connection connection;
             final double targetTimeMs = 1000.0 / (targetThroughput / (double) (numThreads * numConnections));
             double sleepTimeMs = 0;
+            final long scheduleIntervalNs = Math.max((long) (targetTimeMs * NS_IN_MS), 1);
+            // Spread the schedules of the worker threads over the interval
+            long intendedStartTimeNs =
+                    System.nanoTime() + (openLoop ? ThreadLocalRandom.current().nextLong(scheduleIntervalNs) : 0);
 
             while (!stopRequested && !localStopRequested
                     && (maxIterations <= 0 || count < maxIterations)) {
+                if (openLoop) {
+                    final long delayNs = intendedStartTimeNs - System.nanoTime();
+                    if (delayNs > 0) {
+                        LockSupport.parkNanos(delayNs);
+                        // Check stop requested
+                        continue;
+                    }
+                }
                 try {
                     connection = getConnectionToUse();
                 } catch (final InterruptedException e) {
@@ -145,6 +166,11 @@ abstract class PerformanceRunner implements ConnectionEventListener {
                 }
 
                 long startTimeNs = System.nanoTime();
+                if (openLoop) {
+                    // Response times include the time spent waiting for the previous requests to complete
+                    startTimeNs = intendedStartTimeNs;
+                    intendedStartTimeNs += scheduleIntervalNs;
+                }
                 promise = performOperation(connection, dataSources.get(), startTimeNs);
                 statsThread.incrementOperationCount();
                 try {
@@ -165,7 +191,7 @@ abstract class PerformanceRunner implements ConnectionEventListener {
                     }
                 }
 
-                if (targetThroughput > 0) {
+                if (targetThroughput > 0 && !openLoop) {
                     try {
                         if (sleepTimeMs > 1) {
                             sleep((long) Math.floor(sleepTimeMs));
@@ -224,6 +250,7 @@ abstract class PerformanceRunner implements ConnectionEventListener {
     private boolean stopRequested;
 
     private int targetThroughput;
+    private boolean openLoop;
     private int maxIterations;
     /** Warm-up duration time in ms. */
     private long warmUpDurationMs;
@@ -236,11 +263,17 @@ abstract class PerformanceRunner implements ConnectionEventListener {
     private final IntegerArgument maxDurationArgument;
     private final IntegerArgument statsIntervalArgument;
     private final IntegerArgument targetThroughputArgument;
+    private final BooleanArgument openLoopArgument;
+    private final StringArgument hdrLogFileArgument;
     private final IntegerArgument numConnectionsArgument;
     private final IntegerArgument percentilesArgument;
     private final BooleanArgument keepConnectionsOpen;
     private final BooleanArgument noRebindArgument;
     private final StringArgument arguments;
+    private final BooleanArgument pipeliningArgument;
+    private final IntegerArgument pipeliningFlushDelayArgument;
+    private final IntegerArgument pipeliningMaxBatchSizeArgument;
+    private final IntegerArgument maxInFlightRequestsArgument;
     protected final IntegerArgument maxIterationsArgument;
     protected final IntegerArgument warmUpArgument;
 
@@ -311,6 +344,19 @@ abstract class PerformanceRunner implements ConnectionEventListener {
                         .defaultValue(0)
                         .valuePlaceholder(LocalizableMessage.raw("{targetThroughput}"))
                         .buildAndAddToParser(argParser);
+        openLoopArgument =
+                BooleanArgument.builder("openLoop")
+                        .description(LocalizableMessage.raw("Send the requests of each worker thread on a fixed "
+                                + "schedule derived from the target throughput, and measure response times from "
+                                + "the time each request was scheduled, so that the time spent waiting for the "
+                                + "previous requests to complete is included when the server stalls"))
+                        .buildAndAddToParser(argParser);
+        hdrLogFileArgument =
+                StringArgument.builder("hdrLogFile")
+                        .description(LocalizableMessage.raw("Write the response times of each statistics interval "
+                                + "to the specified file in the HdrHistogram log format, in nanoseconds"))
+                        .valuePlaceholder(LocalizableMessage.raw("{file}"))
+                        .buildAndAddToParser(argParser);
         percentilesArgument =
                 IntegerArgument.builder("percentile")
                         .shortIdentifier('e')
@@ -351,6 +397,43 @@ abstract class PerformanceRunner implements ConnectionEventListener {
         if (options.supportsGeneratorArgument()) {
             argParser.addArgument(arguments);
         }
+
+        pipeliningArgument =
+                BooleanArgument.builder("pipelining")
+                        .description(LocalizableMessage.raw("Pipeline the requests sent over each connection: the "
+                                + "requests of the worker threads sharing a connection are written together"))
+                        .buildArgument();
+        pipeliningFlushDelayArgument =
+                IntegerArgument.builder("pipeliningFlushDelay")
+                        .description(LocalizableMessage.raw("Maximum time in microseconds a pipelined request "
+                                + "waits for other requests before being written, 0 to write it as soon as "
+                                + "possible"))
+                        .lowerBound(0)
+                        .defaultValue(0)
+                        .valuePlaceholder(LocalizableMessage.raw("{pipeliningFlushDelay}"))
+                        .buildArgument();
+        pipeliningMaxBatchSizeArgument =
+                IntegerArgument.builder("pipeliningMaxBatchSize")
+                        .description(LocalizableMessage.raw("Number of pipelined requests which are written "
+                                + "without waiting for the flush delay"))
+                        .lowerBound(1)
+                        .defaultValue(32)
+                        .valuePlaceholder(LocalizableMessage.raw("{pipeliningMaxBatchSize}"))
+                        .buildArgument();
+        maxInFlightRequestsArgument =
+                IntegerArgument.builder("maxInFlightRequests")
+                        .description(LocalizableMessage.raw("Maximum number of pipelined requests waiting for a "
+                                + "response on each connection, 0 for unlimited"))
+                        .lowerBound(0)
+                        .defaultValue(0)
+                        .valuePlaceholder(LocalizableMessage.raw("{maxInFlightRequests}"))
+                        .buildArgument();
+        if (options.supportsRequestPipelining()) {
+            argParser.addArgument(pipeliningArgument);
+            argParser.addArgument(pipeliningFlushDelayArgument);
+            argParser.addArgument(pipeliningMaxBatchSizeArgument);
+            argParser.addArgument(maxInFlightRequestsArgument);
+        }
     }
 
     @Override
@@ -382,6 +465,7 @@ abstract class PerformanceRunner implements ConnectionEventListener {
         maxDurationTimeMs = maxDurationArgument.getIntValue() * 1000L;
         statsIntervalMs = statsIntervalArgument.getIntValue() * 1000;
         targetThroughput = targetThroughputArgument.getIntValue();
+        openLoop = openLoopArgument.isPresent();
 
         noRebind = noRebindArgument.isPresent();
 
@@ -390,6 +474,12 @@ abstract class PerformanceRunner implements ConnectionEventListener {
                 "--" + noRebindArgument.getLongIdentifier(), "--" + numThreadsArgument.getLongIdentifier(), "> 1"));
         }
 
+        if (openLoop && targetThroughput <= 0) {
+            throw new ArgumentException(ERR_TOOL_ARG_MUST_BE_USED_WHEN_ARG_CONDITION.get(
+                "--" + targetThroughputArgument.getLongIdentifier(), "--" + openLoopArgument.getLongIdentifier(),
+                "used"));
+        }
+
         if (maxIterationsArgument.isPresent() && maxIterations <= 0) {
             throw new ArgumentException(ERR_TOOL_NOT_ENOUGH_ITERATIONS.get(
                 "--" + maxIterationsArgument.getLongIdentifier(), numConnections * numThreads,
@@ -399,6 +489,25 @@ abstract class PerformanceRunner implements ConnectionEventListener {
         dataSourcePrototypes = DataSource.parse(arguments.getValues());
     }
 
+    /**
+     * Returns the options of the connection factory derived from the arguments of the tool.
+     *
+     * @return the options of the connection factory
+     * @throws ArgumentException
+     *             If the value of an argument is not valid
+     */
+    final Options getConnectionFactoryOptions() throws ArgumentException {
+        final Options options = Options.defaultOptions();
+        if (pipeliningArgument.isPresent()) {
+            final long flushDelayMicros = pipeliningFlushDelayArgument.getIntValue();
+            options.set(REQUEST_PIPELINING_ENABLED, true)
+                   .set(REQUEST_PIPELINING_FLUSH_DELAY, duration(flushDelayMicros, MICROSECONDS))
+                   .set(REQUEST_PIPELINING_MAX_BATCH_SIZE, pipeliningMaxBatchSizeArgument.getIntValue())
+                   .set(REQUEST_PIPELINING_MAX_IN_FLIGHT_REQUESTS, maxInFlightRequestsArgument.getIntValue());
+        }
+        return options;
+    }
+
     final DataSource[] getDataSources() {
         if (dataSourcePrototypes == null) {
             throw new IllegalStateException("dataSources are null - validate() must be called first");
@@ -500,4 +609,8 @@ abstract class PerformanceRunner implements ConnectionEventListener {
     long getStatsInterval() {
         return statsIntervalMs;
     }
+
+    String getHdrLogFile() {
+        return hdrLogFileArgument.getValue();
+    }
 }
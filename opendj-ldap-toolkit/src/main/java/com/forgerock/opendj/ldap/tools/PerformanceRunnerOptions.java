@@ -29,6 +29,7 @@ class PerformanceRunnerOptions {
     private boolean supportsRebind = true;
     private boolean supportsMultipleThreadsPerConnection = true;
     private boolean supportsGeneratorArgument = true;
+    private boolean supportsRequestPipelining;
 
     PerformanceRunnerOptions(ArgumentParser argParser, ConsoleApplication app) {
         this.argParser = argParser;
@@ -59,6 +60,14 @@ class PerformanceRunnerOptions {
         this.supportsGeneratorArgument = supportsGeneratorArgument;
     }
 
+    boolean supportsRequestPipelining() {
+        return supportsRequestPipelining;
+    }
+
+    void setSupportsRequestPipelining(boolean supportsRequestPipelining) {
+        this.supportsRequestPipelining = supportsRequestPipelining;
+    }
+
     ArgumentParser getArgumentParser() {
         return argParser;
     }
@@ -20,6 +20,8 @@ import static com.forgerock.opendj.cli.MultiColumnPrinter.separatorColumn;
 import static com.forgerock.opendj.ldap.tools.ToolsMessages.INFO_TOOL_WARMING_UP;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
@@ -30,6 +32,10 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.forgerock.i18n.LocalizableMessage;
+
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
@@ -227,8 +233,53 @@ class StatsThread extends Thread {
     }
 
 
+    /** Writes the response times of each statistics interval in the HdrHistogram log format. */
+    private static final class HdrLog {
+        private static final int SIGNIFICANT_DIGITS = 3;
+        /** The maximum response times are logged in milliseconds. */
+        private static final double MAX_VALUE_UNIT_RATIO = NS_IN_MS;
+
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        private final PrintStream out;
+        private final HistogramLogWriter writer;
+        private org.HdrHistogram.Histogram intervalHistogram;
+
+        private HdrLog(final String fileName) throws FileNotFoundException {
+            out = new PrintStream(fileName);
+            writer = new HistogramLogWriter(out);
+        }
+
+        private void start(final String toolName) {
+            recorder.reset();
+            final long startTimeMs = System.currentTimeMillis();
+            writer.outputLogFormatVersion();
+            writer.outputComment("Response times of " + toolName + " in nanoseconds");
+            writer.outputStartTime(startTimeMs);
+            writer.setBaseTime(startTimeMs);
+            writer.outputLegend();
+        }
+
+        private void recordResponseTime(final long responseTimeNs) {
+            recorder.recordValue(responseTimeNs);
+        }
+
+        private void logInterval() {
+            intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+            final long baseTimeMs = writer.getBaseTime();
+            writer.outputIntervalHistogram((intervalHistogram.getStartTimeStamp() - baseTimeMs) / MS_IN_S,
+                                           (intervalHistogram.getEndTimeStamp() - baseTimeMs) / MS_IN_S,
+                                           intervalHistogram, MAX_VALUE_UNIT_RATIO);
+            out.flush();
+        }
+
+        private void close() {
+            out.close();
+        }
+    }
+
     final MetricRegistry registry = new MetricRegistry();
     private final Histogram responseTimes = new Histogram(new HdrHistogramReservoir());
+    private final HdrLog hdrLog;
 
     private final StatsTimer gcTimerMs = new StatsTimer() {
         private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
@@ -273,9 +324,22 @@ class StatsThread extends Thread {
         this.percentiles = performanceRunner.getPercentiles();
         this.reporter = app.isScriptFriendly() ? new CsvRateReporter()
                                                : new ConsoleRateReporter();
+        this.hdrLog = newHdrLog(performanceRunner.getHdrLogFile());
         registerStats();
     }
 
+    private HdrLog newHdrLog(final String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        try {
+            return new HdrLog(fileName);
+        } catch (final FileNotFoundException e) {
+            app.errPrintln(LocalizableMessage.raw("Unable to write the HdrHistogram log: " + e.getMessage()));
+            return null;
+        }
+    }
+
     /** Resets both general and recent statistic indicators. */
     final void resetStats() {
         errorCount = newIntervalCounter();
@@ -357,6 +421,9 @@ class StatsThread extends Thread {
     }
 
     private void init() {
+        if (hdrLog != null) {
+            hdrLog.start(app.getClass().getSimpleName());
+        }
         reporter.printTitle();
         timerMs.start();
         gcTimerMs.start();
@@ -374,6 +441,9 @@ class StatsThread extends Thread {
             }
             run();
         }
+        if (hdrLog != null) {
+            hdrLog.close();
+        }
     }
 
     /** Performs stat snapshots and reports results to application. */
@@ -387,6 +457,9 @@ class StatsThread extends Thread {
         waitDurationNsCount.refreshIntervalCount();
 
         reporter.report();
+        if (hdrLog != null) {
+            hdrLog.logInterval();
+        }
     }
 
     void addResponseTime(final long responseTimeNs) {
@@ -396,6 +469,9 @@ class StatsThread extends Thread {
         if (!warmingUp && responseTimeNs >= 0) {
             responseTimes.update(responseTimeNs);
             waitDurationNsCount.inc(responseTimeNs);
+            if (hdrLog != null) {
+                hdrLog.recordResponseTime(responseTimeNs);
+            }
         }
     }
 
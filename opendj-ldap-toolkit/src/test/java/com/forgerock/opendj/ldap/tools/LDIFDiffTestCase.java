@@ -57,7 +57,7 @@ public class LDIFDiffTestCase extends ToolsTestCase {
         reasonList.add(ERR_ARGPARSER_TOO_FEW_TRAILING_ARGUMENTS.get(2));
 
         addValueNeededShortArgs(argLists, reasonList, "o");
-        addValueNeededLongArgs(argLists, reasonList, "outputLdif");
+        addValueNeededLongArgs(argLists, reasonList, "outputLdif", "sortRunSize", "tmpDirectory");
 
         return toDataProviderArray(argLists, reasonList);
     }
@@ -179,6 +179,21 @@ public class LDIFDiffTestCase extends ToolsTestCase {
         return ldifDiffOutputFilePath;
     }
 
+    @Test(dataProvider = "testDataWithDiffs")
+    public void testLdifDiffWithExternalSort(final String sourceFileName,
+                                             final String targetFileName,
+                                             final String expectedResultFileName) throws Exception {
+        final String ldifDiffOutputFilePath = ToolsTestUtils.createTempFile();
+        final int res = runTool("-o", ldifDiffOutputFilePath,
+                                "--externalSort",
+                                "--sortRunSize", "1",
+                                absolutePath(sourceFileName),
+                                absolutePath(targetFileName));
+        assertThat(res).isEqualTo(DIFFERENCES_FOUND);
+        assertThat(calcChecksum(ldifDiffOutputFilePath)).isEqualTo(
+                   calcChecksum(absolutePath(expectedResultFileName)));
+    }
+
     @Test
     public void testLdifDiffWithoutWrapping() throws Exception {
         final String ldifDiffOutputFilePath = ToolsTestUtils.createTempFile();
@@ -0,0 +1,127 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.forgerock.opendj.ldap.tools;
+
+import static com.forgerock.opendj.cli.CliMessages.*;
+import static com.forgerock.opendj.ldap.tools.ToolsMessages.*;
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.forgerock.opendj.ldap.ByteStringBuilder;
+import org.forgerock.opendj.ldap.TestCaseUtils;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class MixRateITCase extends ToolsITCase {
+
+    private static final String THROUGHPUT_TEXT = "Recent throughput (ops/second)";
+    private static final String ERRORS_TEXT = "Errors/second";
+
+    @DataProvider
+    public Object[][] mixRateArgs() throws Exception {
+        final String hostName = TestCaseUtils.getServerSocketAddress().getHostName();
+        final String port = Integer.toString(TestCaseUtils.getServerSocketAddress().getPort());
+        return new Object[][] {
+            { args(""), "", ERR_ERROR_PARSING_ARGS.get("") },
+            { args("-42"), "", INFO_GLOBAL_HELP_REFERENCE.get("java " + MixRate.class.getCanonicalName()) },
+            {
+                args("-h", hostName, "-p", port, "-b", "o=test", "--searchWeight", "0", "(objectclass=*)"),
+                "", ERR_MIXRATE_NO_OPERATION.get() },
+            {
+                args("-h", hostName, "-p", port, "-b", "o=test", "--bindWeight", "1", "(objectclass=*)"),
+                "", ERR_TOOL_ARG_MUST_BE_USED_WHEN_ARG_CONDITION.get("--authDN", "--bindWeight", "> 0") },
+            {
+                args("-h", hostName, "-p", port, "-b", "o=test", "--openLoop", "(objectclass=*)"),
+                "", ERR_TOOL_ARG_MUST_BE_USED_WHEN_ARG_CONDITION.get("--targetThroughput", "--openLoop", "used") },
+
+            // Correct test case
+            {
+                args("-h", hostName, "-p", port, "-g", "rand(0,999)",
+                     "-b", "uid=user.%d,ou=people,o=test", "-s", "base",
+                     "--searchWeight", "3", "--authDN", "uid=user.%d,ou=people,o=test",
+                     "--authPassword", "password", "--bindWeight", "1",
+                     "-i", "1", "-c", "1", "-m", "40", "-f", "-S", "-B", "0", "(objectclass=*)"),
+                THROUGHPUT_TEXT, "" },
+
+            // Open loop test case
+            {
+                args("-h", hostName, "-p", port, "-g", "rand(0,999)",
+                     "-b", "uid=user.%d,ou=people,o=test", "-s", "base",
+                     "-i", "1", "-c", "1", "-M", "100", "--openLoop",
+                     "-m", "20", "-f", "-S", "-B", "0", "(objectclass=*)"),
+                THROUGHPUT_TEXT, "" },
+        };
+    }
+
+    @Test(dataProvider = "mixRateArgs")
+    public void testITMixRate(String[] arguments, Object expectedOut, Object expectedErr) throws Exception {
+        ByteStringBuilder out = new ByteStringBuilder();
+        ByteStringBuilder err = new ByteStringBuilder();
+
+        try (PrintStream outStream = new PrintStream(out.asOutputStream());
+            PrintStream errStream = new PrintStream(err.asOutputStream())) {
+            MixRate mixRate = new MixRate(outStream, errStream);
+
+            mixRate.run(arguments);
+            checkOuputStreams(out, err, expectedOut, expectedErr);
+
+            if (expectedOut.toString().contains(THROUGHPUT_TEXT)) {
+                assertNoErrors(out.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testITMixRateWritesHdrLog() throws Exception {
+        final File hdrLog = File.createTempFile("mixrate", ".hlog");
+        hdrLog.deleteOnExit();
+        ByteStringBuilder out = new ByteStringBuilder();
+        ByteStringBuilder err = new ByteStringBuilder();
+
+        try (PrintStream outStream = new PrintStream(out.asOutputStream());
+            PrintStream errStream = new PrintStream(err.asOutputStream())) {
+            new MixRate(outStream, errStream).run(args(
+                    "-h", TestCaseUtils.getServerSocketAddress().getHostName(),
+                    "-p", Integer.toString(TestCaseUtils.getServerSocketAddress().getPort()),
+                    "-g", "rand(0,999)", "-b", "uid=user.%d,ou=people,o=test", "-s", "base",
+                    "-i", "1", "-c", "1", "-m", "20", "-f", "-S", "-B", "0",
+                    "--hdrLogFile", hdrLog.getPath(), "(objectclass=*)"));
+            checkOuputStreams(out, err, THROUGHPUT_TEXT, "");
+        }
+
+        final List<String> lines = Files.readAllLines(hdrLog.toPath(), StandardCharsets.UTF_8);
+        assertThat(lines).isNotEmpty();
+        assertThat(lines.get(0)).startsWith("#[Histogram log format version");
+        assertThat(lines.get(lines.size() - 1)).doesNotMatch("^[#\"].*");
+    }
+
+    private static void assertNoErrors(final String outContent) {
+        final String[] lines = outContent.split(System.getProperty("line.separator"));
+        final int errorsColumn = Arrays.asList(lines[0].split(",")).indexOf(ERRORS_TEXT);
+        assertThat(errorsColumn).isGreaterThan(0);
+        // Skip header line
+        for (int i = 1; i < lines.length; i++) {
+            assertThat(lines[i].split(",")[errorsColumn].trim()).isEqualTo("0.0");
+        }
+    }
+}
@@ -24,6 +24,7 @@ import static org.forgerock.opendj.rest2ldap.Rest2Ldap.asResourceException;
 import static org.forgerock.opendj.rest2ldap.Rest2ldapMessages.*;
 import static org.forgerock.opendj.rest2ldap.Utils.connectionFrom;
 import static org.forgerock.opendj.rest2ldap.Utils.newBadRequestException;
+import static org.forgerock.opendj.rest2ldap.Utils.referenceResolverFrom;
 import static org.forgerock.util.Reject.checkNotNull;
 import static org.forgerock.util.promise.Promises.newResultPromise;
 
@@ -294,9 +295,16 @@ public final class ReferencePropertyMapper extends AbstractLdapPropertyMapper<Re
             // Fall-though: unexpectedly got multiple values. It's probably best to just return them.
         default:
             try {
+                // Read all the referenced entries together
+                final ReferenceResolver referenceResolver = referenceResolverFrom(context);
                 final List<Promise<JsonValue, ResourceException>> promises = new ArrayList<>(dns.size());
-                for (final DN dn : dns) {
-                    promises.add(readEntry(context, resource, path, dn));
+                referenceResolver.openBatch();
+                try {
+                    for (final DN dn : dns) {
+                        promises.add(readEntry(context, resource, path, dn));
+                    }
+                } finally {
+                    referenceResolver.closeBatch();
                 }
                 return Promises.when(promises)
                                .then(new Function<List<JsonValue>, JsonValue, ResourceException>() {
@@ -337,10 +345,9 @@ public final class ReferencePropertyMapper extends AbstractLdapPropertyMapper<Re
 
         final Filter searchFilter = filter != null ? filter : Filter.alwaysTrue();
         final String[] attributes = requestedLDAPAttributes.toArray(new String[requestedLDAPAttributes.size()]);
-        final SearchRequest request = newSearchRequest(dn, SearchScope.BASE_OBJECT, searchFilter, attributes);
 
-        return connectionFrom(context)
-                .searchSingleEntryAsync(request)
+        return referenceResolverFrom(context)
+                .read(dn, searchFilter, attributes)
                 .thenAsync(new AsyncFunction<SearchResultEntry, JsonValue, ResourceException>() {
                     @Override
                     public Promise<JsonValue, ResourceException> apply(final SearchResultEntry result) {
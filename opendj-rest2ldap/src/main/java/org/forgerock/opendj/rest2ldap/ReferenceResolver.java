@@ -0,0 +1,408 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.rest2ldap;
+
+import static org.forgerock.opendj.ldap.LdapException.newLdapException;
+import static org.forgerock.opendj.ldap.ResultCode.CLIENT_SIDE_NO_RESULTS_RETURNED;
+import static org.forgerock.opendj.ldap.requests.Requests.newSearchRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.opendj.ldap.AVA;
+import org.forgerock.opendj.ldap.Connection;
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.EntryNotFoundException;
+import org.forgerock.opendj.ldap.Filter;
+import org.forgerock.opendj.ldap.LdapException;
+import org.forgerock.opendj.ldap.RDN;
+import org.forgerock.opendj.ldap.SearchResultHandler;
+import org.forgerock.opendj.ldap.SearchScope;
+import org.forgerock.opendj.ldap.requests.SearchRequest;
+import org.forgerock.opendj.ldap.responses.Result;
+import org.forgerock.opendj.ldap.responses.SearchResultEntry;
+import org.forgerock.opendj.ldap.responses.SearchResultReference;
+import org.forgerock.util.promise.ExceptionHandler;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
+import org.forgerock.util.promise.Promises;
+import org.forgerock.util.promise.ResultHandler;
+import org.forgerock.util.time.Duration;
+
+/**
+ * Reads the LDAP entries referenced by {@link ReferencePropertyMapper reference properties} on behalf of a single
+ * REST request.
+ * <p>
+ * Rather than reading each referenced entry with its own base object search, the reads requested while a batch is
+ * open are grouped by parent DN and resolved with a single level search whose filter is a disjunction of the RDNs of
+ * the referenced entries. For example, the members of all the groups returned by a query are resolved once the
+ * query's LDAP search has completed, with one search per {@link Rest2Ldap#REFERENCE_BATCH_SIZE batch size}
+ * references. Reads requested outside a batch are performed immediately. If such a search fails, for example because
+ * it exceeds a size limit, the entries which it did not return are read one by one.
+ * <p>
+ * Each referenced entry is normally read once per request. Entries may also be read from a cache shared by all the
+ * requests, if {@link Rest2Ldap#REFERENCE_CACHE_TTL enabled}.
+ */
+final class ReferenceResolver {
+    /** Identifies a read of a referenced entry. */
+    private static final class ReadKey {
+        private final DN dn;
+        private final GroupKey group;
+
+        private ReadKey(final DN dn, final GroupKey group) {
+            this.dn = dn;
+            this.group = group;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj instanceof ReadKey) {
+                final ReadKey that = (ReadKey) obj;
+                return dn.equals(that.dn) && group.equals(that.group);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return dn.hashCode() * 31 + group.hashCode();
+        }
+    }
+
+    /** Identifies the reads which can be performed by the same search: same parent, filter and attributes. */
+    private static final class GroupKey {
+        private final DN parentDn;
+        private final Filter filter;
+        private final String filterString;
+        private final List<String> attributes;
+
+        private GroupKey(final DN parentDn, final Filter filter, final String[] attributes) {
+            this.parentDn = parentDn;
+            this.filter = filter;
+            this.filterString = filter.toString();
+            this.attributes = Arrays.asList(attributes);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj instanceof GroupKey) {
+                final GroupKey that = (GroupKey) obj;
+                return parentDn.equals(that.parentDn) && filterString.equals(that.filterString)
+                        && attributes.equals(that.attributes);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return (parentDn.hashCode() * 31 + filterString.hashCode()) * 31 + attributes.hashCode();
+        }
+    }
+
+    /**
+     * A cache of referenced entries shared by all the requests. Entries are evicted once their time to live has
+     * elapsed or, when the cache is full, in least recently used order.
+     * <p>
+     * Entries are cached regardless of the identity of the user which read them: this cache should only be enabled
+     * when all the users are allowed to read the referenced entries.
+     */
+    static final class SharedCache {
+        private final long ttlNanos;
+        private final Map<ReadKey, CachedEntry> entries;
+
+        /** A referenced entry and its expiration time. */
+        private static final class CachedEntry {
+            private final SearchResultEntry entry;
+            private final long expirationNanos;
+
+            private CachedEntry(final SearchResultEntry entry, final long expirationNanos) {
+                this.entry = entry;
+                this.expirationNanos = expirationNanos;
+            }
+        }
+
+        @SuppressWarnings("serial")
+        SharedCache(final Duration ttl, final int maxEntries) {
+            this.ttlNanos = ttl.to(TimeUnit.NANOSECONDS);
+            this.entries = new LinkedHashMap<ReadKey, CachedEntry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<ReadKey, CachedEntry> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        private SearchResultEntry get(final ReadKey key) {
+            synchronized (entries) {
+                final CachedEntry cachedEntry = entries.get(key);
+                if (cachedEntry == null) {
+                    return null;
+                } else if (System.nanoTime() - cachedEntry.expirationNanos > 0) {
+                    entries.remove(key);
+                    return null;
+                }
+                return cachedEntry.entry;
+            }
+        }
+
+        private void put(final ReadKey key, final SearchResultEntry entry) {
+            synchronized (entries) {
+                entries.put(key, new CachedEntry(entry, System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    /** The maximum number of reads remembered by a request in order to read each referenced entry once. */
+    private static final int MAX_REMEMBERED_READS = 10000;
+
+    private final Connection connection;
+    private final int batchSize;
+    private final SharedCache sharedCache;
+
+    /**
+     * The most recent reads performed or pending for this request. The number of reads remembered is bounded so that
+     * the memory used by large queries does not depend on the number of resources they return. @GuardedBy("this").
+     */
+    @SuppressWarnings("serial")
+    private final Map<ReadKey, Promise<SearchResultEntry, LdapException>> reads =
+            new LinkedHashMap<ReadKey, Promise<SearchResultEntry, LdapException>>() {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<ReadKey, Promise<SearchResultEntry, LdapException>> eldest) {
+                    return size() > MAX_REMEMBERED_READS;
+                }
+            };
+    /** The reads waiting for the batch to be closed, by group. @GuardedBy("this"). */
+    private final Map<GroupKey, Map<DN, PromiseImpl<SearchResultEntry, LdapException>>> pendingReads =
+            new LinkedHashMap<>();
+    /** The number of batches currently opened. @GuardedBy("this"). */
+    private int openBatches;
+
+    ReferenceResolver(final Connection connection, final int batchSize, final SharedCache sharedCache) {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        this.sharedCache = sharedCache;
+    }
+
+    /**
+     * Opens a batch: the reads requested until the batch is {@link #closeBatch() closed} are deferred, so that they
+     * can be performed with a small number of searches. Batches can be nested.
+     */
+    void openBatch() {
+        synchronized (this) {
+            openBatches++;
+        }
+    }
+
+    /** Closes a batch, performing the deferred reads once all the batches are closed. */
+    void closeBatch() {
+        final Map<GroupKey, Map<DN, PromiseImpl<SearchResultEntry, LdapException>>> groups;
+        synchronized (this) {
+            if (--openBatches > 0 || pendingReads.isEmpty()) {
+                return;
+            }
+            groups = new LinkedHashMap<>(pendingReads);
+            pendingReads.clear();
+        }
+        for (final Map.Entry<GroupKey, Map<DN, PromiseImpl<SearchResultEntry, LdapException>>> group
+                : groups.entrySet()) {
+            search(group.getKey(), group.getValue());
+        }
+    }
+
+    /**
+     * Reads a referenced entry.
+     *
+     * @param dn
+     *         The DN of the referenced entry.
+     * @param filter
+     *         The filter which the referenced entry must match.
+     * @param attributes
+     *         The attributes to read.
+     * @return A promise completed with the referenced entry, or with an {@link EntryNotFoundException} if the entry
+     *         does not exist or does not match the filter.
+     */
+    Promise<SearchResultEntry, LdapException> read(final DN dn, final Filter filter, final String[] attributes) {
+        // Entries immediately below the root DSE cannot be searched for with a single level search
+        final DN parentDn = dn.size() > 1 ? dn.parent() : null;
+        final ReadKey key = new ReadKey(dn, new GroupKey(parentDn != null ? parentDn : dn, filter, attributes));
+        final SearchResultEntry cachedEntry = sharedCache != null ? sharedCache.get(key) : null;
+        if (cachedEntry != null) {
+            return Promises.newResultPromise(cachedEntry);
+        }
+
+        final PromiseImpl<SearchResultEntry, LdapException> promise;
+        Map<DN, PromiseImpl<SearchResultEntry, LdapException>> fullGroup = null;
+        synchronized (this) {
+            final Promise<SearchResultEntry, LdapException> pendingRead = reads.get(key);
+            if (pendingRead != null) {
+                return pendingRead;
+            }
+            promise = PromiseImpl.create();
+            reads.put(key, promise);
+            if (openBatches > 0 && batchSize > 1 && parentDn != null) {
+                Map<DN, PromiseImpl<SearchResultEntry, LdapException>> group = pendingReads.get(key.group);
+                if (group == null) {
+                    group = new LinkedHashMap<>();
+                    pendingReads.put(key.group, group);
+                }
+                final PromiseImpl<SearchResultEntry, LdapException> pendingGroupRead = group.get(dn);
+                if (pendingGroupRead != null) {
+                    // The read has been forgotten, but is still pending.
+                    reads.put(key, pendingGroupRead);
+                    return pendingGroupRead;
+                }
+                group.put(dn, promise);
+                if (group.size() < batchSize) {
+                    return promise;
+                }
+                fullGroup = pendingReads.remove(key.group);
+            }
+        }
+
+        if (fullGroup != null) {
+            search(key.group, fullGroup);
+        } else {
+            readEntry(key, promise);
+        }
+        return promise;
+    }
+
+    private void readEntry(final ReadKey key, final PromiseImpl<SearchResultEntry, LdapException> promise) {
+        final SearchRequest request = newSearchRequest(key.dn, SearchScope.BASE_OBJECT, key.group.filter,
+                                                       key.group.attributes.toArray(new String[0]));
+        connection.searchSingleEntryAsync(request)
+                  .thenOnResult(new ResultHandler<SearchResultEntry>() {
+                      @Override
+                      public void handleResult(final SearchResultEntry entry) {
+                          cache(key, entry);
+                          promise.handleResult(entry);
+                      }
+                  })
+                  .thenOnException(new ExceptionHandler<LdapException>() {
+                      @Override
+                      public void handleException(final LdapException exception) {
+                          promise.handleException(exception);
+                      }
+                  });
+    }
+
+    private void search(final GroupKey group, final Map<DN, PromiseImpl<SearchResultEntry, LdapException>> dns) {
+        if (dns.size() == 1) {
+            final Map.Entry<DN, PromiseImpl<SearchResultEntry, LdapException>> read = dns.entrySet().iterator().next();
+            readEntry(new ReadKey(read.getKey(), group), read.getValue());
+            return;
+        }
+
+        final List<Filter> rdnFilters = new ArrayList<>(dns.size());
+        for (final DN dn : dns.keySet()) {
+            rdnFilters.add(toFilter(dn.rdn()));
+        }
+        final Filter rdnFilter = Filter.or(rdnFilters);
+        final Filter searchFilter = group.filter == Filter.alwaysTrue() ? rdnFilter : Filter.and(group.filter, rdnFilter);
+        final SearchRequest request = newSearchRequest(group.parentDn, SearchScope.SINGLE_LEVEL, searchFilter,
+                                                       group.attributes.toArray(new String[0]));
+        final Map<DN, SearchResultEntry> entries = new HashMap<>();
+        connection.searchAsync(request, new SearchResultHandler() {
+            @Override
+            public boolean handleEntry(final SearchResultEntry entry) {
+                synchronized (entries) {
+                    entries.put(entry.getName(), entry);
+                }
+                return true;
+            }
+
+            @Override
+            public boolean handleReference(final SearchResultReference reference) {
+                // Ignore references.
+                return true;
+            }
+        }).thenOnResult(new ResultHandler<Result>() {
+            @Override
+            public void handleResult(final Result result) {
+                for (final Map.Entry<DN, PromiseImpl<SearchResultEntry, LdapException>> read : dns.entrySet()) {
+                    if (!handleSearchedEntry(group, read, entries)) {
+                        read.getValue().handleException(newLdapException(CLIENT_SIDE_NO_RESULTS_RETURNED));
+                    }
+                }
+            }
+        }).thenOnException(new ExceptionHandler<LdapException>() {
+            @Override
+            public void handleException(final LdapException exception) {
+                if (exception instanceof EntryNotFoundException) {
+                    // The parent entry does not exist, so neither do the referenced entries.
+                    for (final PromiseImpl<SearchResultEntry, LdapException> promise : dns.values()) {
+                        promise.handleException(exception);
+                    }
+                    return;
+                }
+                /*
+                 * The search may have been stopped by a size, time or lookthrough limit, or refused because it is
+                 * unindexed or not allowed, whereas reading each entry may still succeed: read the entries which
+                 * have not been returned one by one.
+                 */
+                for (final Map.Entry<DN, PromiseImpl<SearchResultEntry, LdapException>> read : dns.entrySet()) {
+                    if (!handleSearchedEntry(group, read, entries)) {
+                        readEntry(new ReadKey(read.getKey(), group), read.getValue());
+                    }
+                }
+            }
+        });
+    }
+
+    /** Completes a read with the entry returned by a search, if any, and returns whether there was one. */
+    private boolean handleSearchedEntry(final GroupKey group,
+            final Map.Entry<DN, PromiseImpl<SearchResultEntry, LdapException>> read,
+            final Map<DN, SearchResultEntry> entries) {
+        final SearchResultEntry entry;
+        synchronized (entries) {
+            entry = entries.get(read.getKey());
+        }
+        if (entry == null) {
+            return false;
+        }
+        cache(new ReadKey(read.getKey(), group), entry);
+        read.getValue().handleResult(entry);
+        return true;
+    }
+
+    private void cache(final ReadKey key, final SearchResultEntry entry) {
+        if (sharedCache != null) {
+            sharedCache.put(key, entry);
+        }
+    }
+
+    private static Filter toFilter(final RDN rdn) {
+        if (rdn.size() == 1) {
+            final AVA ava = rdn.getFirstAVA();
+            return Filter.equality(ava.getAttributeName(), ava.getAttributeValue());
+        }
+        final List<Filter> avaFilters = new ArrayList<>(rdn.size());
+        for (final AVA ava : rdn) {
+            avaFilters.add(Filter.equality(ava.getAttributeName(), ava.getAttributeValue()));
+        }
+        return Filter.and(avaFilters);
+    }
+}
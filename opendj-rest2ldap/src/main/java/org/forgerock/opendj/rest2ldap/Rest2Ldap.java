@@ -54,6 +54,7 @@ import org.forgerock.services.context.Context;
 import org.forgerock.util.Option;
 import org.forgerock.util.Options;
 import org.forgerock.util.Reject;
+import org.forgerock.util.time.Duration;
 
 /**
  * Provides methods for constructing Rest2Ldap protocol gateways. Applications construct a new Rest2Ldap
@@ -128,6 +129,35 @@ public final class Rest2Ldap {
      * default Rest2Ldap will use the subtree delete control and use of the control is strongly recommended.
      */
     public static final Option<Boolean> USE_SUBTREE_DELETE = Option.withDefault(true);
+    /**
+     * Specifies the maximum number of referenced LDAP entries which Rest2Ldap should read with a single LDAP search
+     * when resolving {@link #reference reference} properties. The entries referenced by all the resources returned by
+     * a query or by a single resource are read together, with one search per parent entry. A value of 1 disables
+     * batching, so that each referenced entry is read separately. By default Rest2Ldap will read up to 100 referenced
+     * entries with a single search.
+     */
+    public static final Option<Integer> REFERENCE_BATCH_SIZE = Option.withDefault(100);
+    /**
+     * Specifies for how long the referenced LDAP entries read when resolving {@link #reference reference} properties
+     * should be cached and shared between requests. Cached entries are shared regardless of the identity of the
+     * user on behalf of which they were read, so the cache should only be enabled when all the users are allowed to
+     * read the referenced entries. By default Rest2Ldap will not share referenced entries between requests.
+     */
+    public static final Option<Duration> REFERENCE_CACHE_TTL = Option.withDefault(Duration.ZERO);
+    /**
+     * Specifies the maximum number of referenced LDAP entries which should be cached when the {@link
+     * #REFERENCE_CACHE_TTL reference cache} is enabled. By default Rest2Ldap will cache up to 10000 entries.
+     */
+    public static final Option<Integer> REFERENCE_CACHE_SIZE = Option.withDefault(10000);
+    /**
+     * Specifies the number of LDAP entries which Rest2Ldap should read at once when performing queries which do not
+     * request paged results. Such queries are performed as a sequence of LDAP searches using the simple paged results
+     * control, the next page being read only once the resources of the current page have been returned to the client,
+     * so that the memory used by a query does not depend on the number of resources it returns. A value of 0 disables
+     * paging, so that all the entries are read with a single LDAP search. By default Rest2Ldap will read 1000 entries
+     * at once.
+     */
+    public static final Option<Integer> QUERY_PAGE_SIZE = Option.withDefault(1000);
 
     /**
      * Creates a new {@link Rest2Ldap} instance using the provided options and {@link Resource resources}.
@@ -364,9 +394,14 @@ public final class Rest2Ldap {
 
     private final Map<String, Resource> resources = new LinkedHashMap<>();
     private final Options options;
+    /** The cache of referenced entries shared by all the requests, or {@code null} if disabled. */
+    private final ReferenceResolver.SharedCache referenceCache;
 
     private Rest2Ldap(final Options options, final Collection<Resource> resources) {
         this.options = options;
+        final Duration referenceCacheTtl = options.get(REFERENCE_CACHE_TTL);
+        this.referenceCache = referenceCacheTtl.isZero() ? null
+                : new ReferenceResolver.SharedCache(referenceCacheTtl, options.get(REFERENCE_CACHE_SIZE));
         for (final Resource resource : resources) {
             this.resources.put(resource.getResourceId(), resource);
         }
@@ -403,6 +438,10 @@ public final class Rest2Ldap {
         return options;
     }
 
+    ReferenceResolver.SharedCache getReferenceCache() {
+        return referenceCache;
+    }
+
     Resource getResource(final String resourceId) {
         return resources.get(resourceId);
     }
@@ -15,6 +15,8 @@
  */
 package org.forgerock.opendj.rest2ldap;
 
+import static org.forgerock.opendj.rest2ldap.Utils.connectionFrom;
+
 import org.forgerock.services.context.AbstractContext;
 import org.forgerock.services.context.Context;
 
@@ -23,6 +25,8 @@ import org.forgerock.services.context.Context;
  */
 final class Rest2LdapContext extends AbstractContext {
     private final Rest2Ldap rest2ldap;
+    /** Resolves the references of the resources of this request, lazily created. */
+    private ReferenceResolver referenceResolver;
 
     Rest2LdapContext(final Context parent, final Rest2Ldap rest2ldap) {
         super(parent, "rest2ldap context");
@@ -32,4 +36,13 @@ final class Rest2LdapContext extends AbstractContext {
     Rest2Ldap getRest2ldap() {
         return rest2ldap;
     }
+
+    synchronized ReferenceResolver getReferenceResolver() {
+        if (referenceResolver == null) {
+            referenceResolver = new ReferenceResolver(connectionFrom(this),
+                                                      rest2ldap.getOptions().get(Rest2Ldap.REFERENCE_BATCH_SIZE),
+                                                      rest2ldap.getReferenceCache());
+        }
+        return referenceResolver;
+    }
 }
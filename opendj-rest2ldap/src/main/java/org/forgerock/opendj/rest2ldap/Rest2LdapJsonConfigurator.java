@@ -97,7 +97,11 @@ public final class Rest2LdapJsonConfigurator {
      *      "useSubtreeDelete": true,
      *      "usePermissiveModify": true,
      *      "useMvcc": true
-     *      "mvccAttribute": "etag"
+     *      "mvccAttribute": "etag",
+     *      "referenceBatchSize": 100,
+     *      "referenceCacheTtl": "0 seconds",
+     *      "referenceCacheSize": 10000,
+     *      "queryPageSize": 1000
      * }
      * </pre>
      * <p>
@@ -124,6 +128,11 @@ public final class Rest2LdapJsonConfigurator {
         options.set(USE_MVCC, config.get("useMvcc").defaultTo(true).asBoolean());
         options.set(MVCC_ATTRIBUTE, config.get("mvccAttribute").defaultTo("etag").asString());
 
+        options.set(REFERENCE_BATCH_SIZE, Math.max(config.get("referenceBatchSize").defaultTo(100).asInteger(), 1));
+        options.set(REFERENCE_CACHE_TTL, duration(config.get("referenceCacheTtl").defaultTo("0 seconds").asString()));
+        options.set(REFERENCE_CACHE_SIZE, config.get("referenceCacheSize").defaultTo(10000).asInteger());
+        options.set(QUERY_PAGE_SIZE, Math.max(config.get("queryPageSize").defaultTo(1000).asInteger(), 0));
+
         return options;
     }
 
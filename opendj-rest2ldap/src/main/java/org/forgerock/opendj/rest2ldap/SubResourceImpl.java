@@ -37,6 +37,7 @@ import static org.forgerock.opendj.rest2ldap.ReadOnUpdatePolicy.CONTROLS;
 import static org.forgerock.opendj.rest2ldap.RoutingContext.newCollectionRoutingContext;
 import static org.forgerock.opendj.rest2ldap.RoutingContext.newRoutingContext;
 import static org.forgerock.opendj.rest2ldap.Utils.connectionFrom;
+import static org.forgerock.opendj.rest2ldap.Utils.referenceResolverFrom;
 import static org.forgerock.opendj.rest2ldap.Utils.newBadRequestException;
 import static org.forgerock.opendj.rest2ldap.Utils.newNotSupportedException;
 import static org.forgerock.opendj.rest2ldap.Utils.toFilter;
@@ -142,6 +143,7 @@ final class SubResourceImpl {
     private final Attribute glueObjectClasses;
     private final boolean flattenSubtree;
     private final Filter baseSearchFilter;
+    private final int queryPageSize;
 
     SubResourceImpl(final Rest2Ldap rest2Ldap, final DN baseDn, final Attribute glueObjectClasses,
                     final NamingStrategy namingStrategy, final Resource resource) {
@@ -157,6 +159,7 @@ final class SubResourceImpl {
         this.etagAttribute = rest2Ldap.getOptions().get(USE_MVCC)
                 ? AttributeDescription.valueOf(rest2Ldap.getOptions().get(MVCC_ATTRIBUTE)) : null;
         this.decodeOptions = rest2Ldap.getOptions().get(DECODE_OPTIONS);
+        this.queryPageSize = rest2Ldap.getOptions().get(QUERY_PAGE_SIZE);
         this.baseDn = baseDn;
         this.glueObjectClasses = glueObjectClasses;
         this.namingStrategy = namingStrategy;
@@ -724,6 +727,7 @@ final class SubResourceImpl {
             // we send one JSON resource at a time back to the client.
             private final Object sequenceLock = new Object();
             private String cookie;
+            private ByteString nextPageCookie;
             private ResourceException pendingResult;
             private int pendingResourceCount;
             private boolean resultSent;
@@ -764,7 +768,33 @@ final class SubResourceImpl {
                     pageResultStartIndex = 0;
                 }
 
-                connectionFrom(context).searchAsync(searchRequest, new SearchResultHandler() {
+                searchPage(context, searchRequest, ByteString.empty(), pageResultStartIndex, promise);
+                return promise;
+            }
+
+            /**
+             * Performs the LDAP search of the query. Queries which do not request paged results are read one page of
+             * {@link Rest2Ldap#QUERY_PAGE_SIZE} entries at a time: the next page is only requested once all the
+             * resources of the current page have been returned to the client, so that the resources held in memory
+             * are bounded no matter how many entries match the query.
+             */
+            private void searchPage(final Context context, final SearchRequest searchRequest, final ByteString pageCookie,
+                                    final int pageResultStartIndex,
+                                    final PromiseImpl<QueryResponse, ResourceException> promise) {
+                final boolean isStreamed = request.getPageSize() <= 0 && queryPageSize > 0;
+                final SearchRequest pageRequest;
+                if (isStreamed) {
+                    // The control is not critical: servers which do not support it will return all the entries.
+                    pageRequest = copyOfSearchRequest(searchRequest)
+                            .addControl(SimplePagedResultsControl.newControl(false, queryPageSize, pageCookie));
+                } else {
+                    pageRequest = searchRequest;
+                }
+
+                // Resolve the references of the resources of a page together, once all of them have been received
+                final ReferenceResolver referenceResolver = referenceResolverFrom(context);
+                referenceResolver.openBatch();
+                connectionFrom(context).searchAsync(pageRequest, new SearchResultHandler() {
                     @Override
                     public boolean handleEntry(final SearchResultEntry entry) {
                         // Search result entries will be returned before the search result/error so the only reason
@@ -785,12 +815,7 @@ final class SubResourceImpl {
                          * may cause the JSON resources to be returned in a different order to the order in which
                          * the primary LDAP search results were received. This is benign at the moment, but will
                          * need resolving when we implement server side sorting. A possible fix will be to use a
-                         * queue of pending resources (promises?). However, the queue cannot be unbounded in case
-                         * it grows very large, but it cannot be bounded either since that could cause a deadlock
-                         * between rest2ldap and the LDAP server (imagine the case where the server has a single
-                         * worker thread which is occupied processing the primary search).
-                         * The best solution is probably to process the primary search results in batches using
-                         * the paged results control.
+                         * queue of pending resources (promises?), which is bounded by the query page size.
                          */
                         final String id = namingStrategy.decodeResourceId(entry);
                         final String revision = getRevisionFromEntry(entry);
@@ -809,6 +834,7 @@ final class SubResourceImpl {
                                                   }
                                                   completeIfNecessary(promise);
                                               }
+                                              searchNextPageIfNecessary(context, searchRequest, promise);
                                           }
                                       })
                                       .thenOnException(new ExceptionHandler<ResourceException>() {
@@ -833,19 +859,27 @@ final class SubResourceImpl {
                     @Override
                     public void handleResult(Result result) {
                         synchronized (sequenceLock) {
-                            if (request.getPageSize() > 0) {
+                            if (request.getPageSize() > 0 || isStreamed) {
                                 try {
                                     final SimplePagedResultsControl control =
                                             result.getControl(SimplePagedResultsControl.DECODER, decodeOptions);
                                     if (control != null && !control.getCookie().isEmpty()) {
-                                        cookie = control.getCookie().toBase64String();
+                                        if (isStreamed) {
+                                            nextPageCookie = control.getCookie();
+                                        } else {
+                                            cookie = control.getCookie().toBase64String();
+                                        }
                                     }
                                 } catch (final DecodeException e) {
                                     logger.error(ERR_DECODING_CONTROL.get(e.getLocalizedMessage()), e);
                                 }
                             }
-                            completeIfNecessary(SUCCESS, promise);
+                            if (nextPageCookie == null) {
+                                completeIfNecessary(SUCCESS, promise);
+                            }
                         }
+                        referenceResolver.closeBatch();
+                        searchNextPageIfNecessary(context, searchRequest, promise);
                     }
                 }).thenOnException(new ExceptionHandler<LdapException>() {
                     @Override
@@ -858,10 +892,26 @@ final class SubResourceImpl {
                                 completeIfNecessary(asResourceException(e), promise);
                             }
                         }
+                        referenceResolver.closeBatch();
                     }
                 });
+            }
 
-                return promise;
+            /**
+             * Requests the next page of entries once the LDAP result of the current page has been received and all
+             * its resources have been returned to the client.
+             */
+            private void searchNextPageIfNecessary(final Context context, final SearchRequest searchRequest,
+                                                   final PromiseImpl<QueryResponse, ResourceException> promise) {
+                final ByteString pageCookie;
+                synchronized (sequenceLock) {
+                    if (nextPageCookie == null || pendingResourceCount > 0 || pendingResult != null) {
+                        return;
+                    }
+                    pageCookie = nextPageCookie;
+                    nextPageCookie = null;
+                }
+                searchPage(context, searchRequest, pageCookie, 0, promise);
             }
 
             /** This method must be invoked with the sequenceLock held. */
@@ -961,15 +1011,23 @@ final class SubResourceImpl {
     private Promise<ResourceResponse, ResourceException> encodeResourceResponse(
             final Context context, final Resource resource, final Entry entry) {
         final PropertyMapper propertyMapper = resource.getPropertyMapper();
-        return propertyMapper.read(context, resource, ROOT, entry)
-                             .then(new Function<JsonValue, ResourceResponse, ResourceException>() {
-                                 @Override
-                                 public ResourceResponse apply(final JsonValue value) {
-                                     final String revision = getRevisionFromEntry(entry);
-                                     final String actualResourceId = namingStrategy.decodeResourceId(entry);
-                                     return newResourceResponse(actualResourceId, revision, new JsonValue(value));
-                                 }
-                             });
+        final Promise<JsonValue, ResourceException> promise;
+        // Resolve all the references of the resource together
+        final ReferenceResolver referenceResolver = referenceResolverFrom(context);
+        referenceResolver.openBatch();
+        try {
+            promise = propertyMapper.read(context, resource, ROOT, entry);
+        } finally {
+            referenceResolver.closeBatch();
+        }
+        return promise.then(new Function<JsonValue, ResourceResponse, ResourceException>() {
+            @Override
+            public ResourceResponse apply(final JsonValue value) {
+                final String revision = getRevisionFromEntry(entry);
+                final String actualResourceId = namingStrategy.decodeResourceId(entry);
+                return newResourceResponse(actualResourceId, revision, new JsonValue(value));
+            }
+        });
     }
 
     private void addAssertionControl(final ChangeRecord request, final String expectedRevision)
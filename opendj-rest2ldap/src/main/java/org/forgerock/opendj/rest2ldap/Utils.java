@@ -198,6 +198,14 @@ final class Utils {
         return context.asContext(AuthenticatedConnectionContext.class).getConnection();
     }
 
+    static ReferenceResolver referenceResolverFrom(final Context context) {
+        if (context.containsContext(Rest2LdapContext.class)) {
+            return context.asContext(Rest2LdapContext.class).getReferenceResolver();
+        }
+        // Not processing a request received by a Rest2Ldap request handler: do not batch reads.
+        return new ReferenceResolver(connectionFrom(context), 1, null);
+    }
+
     /** Prevent instantiation. */
     private Utils() {
         // No implementation required.
@@ -29,6 +29,7 @@ import static org.forgerock.json.resource.Requests.*;
 import static org.forgerock.json.resource.Resources.newInternalConnection;
 import static org.forgerock.opendj.ldap.Connections.newInternalConnectionFactory;
 import static org.forgerock.opendj.ldap.Functions.byteStringToInteger;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.QUERY_PAGE_SIZE;
 import static org.forgerock.opendj.rest2ldap.Rest2Ldap.collectionOf;
 import static org.forgerock.opendj.rest2ldap.Rest2Ldap.constant;
 import static org.forgerock.opendj.rest2ldap.Rest2Ldap.rest2Ldap;
@@ -63,6 +64,7 @@ import org.forgerock.opendj.ldap.MemoryBackend;
 import org.forgerock.opendj.ldap.RequestContext;
 import org.forgerock.opendj.ldap.RequestHandler;
 import org.forgerock.opendj.ldap.SearchResultHandler;
+import org.forgerock.opendj.ldap.controls.SimplePagedResultsControl;
 import org.forgerock.opendj.ldap.requests.AddRequest;
 import org.forgerock.opendj.ldap.requests.BindRequest;
 import org.forgerock.opendj.ldap.requests.CompareRequest;
@@ -79,6 +81,7 @@ import org.forgerock.opendj.ldap.responses.Result;
 import org.forgerock.opendj.ldif.LDIFEntryReader;
 import org.forgerock.services.context.Context;
 import org.forgerock.testng.ForgeRockTestCase;
+import org.forgerock.util.Options;
 import org.forgerock.util.query.QueryFilter;
 import org.testng.annotations.Test;
 
@@ -92,6 +95,28 @@ public final class BasicRequestsTest extends ForgeRockTestCase {
 
     private static final QueryFilter<JsonPointer> NO_FILTER = QueryFilter.alwaysTrue();
 
+    @Test
+    public void testQueryAllIsReadInPages() throws Exception {
+        final List<Request> requests = new LinkedList<>();
+        final Connection connection =
+                newInternalConnection(usersApi(defaultOptions().set(QUERY_PAGE_SIZE, 2)).newRequestHandlerFor("api"));
+        final List<ResourceResponse> resources = new LinkedList<>();
+        final QueryResponse result =
+            connection.query(
+                newAuthConnectionContext(requests),
+                newQueryRequest("").setQueryFilter(NO_FILTER),
+                resources);
+
+        assertThat(resources).hasSize(7);
+        assertThat(result.getPagedResultsCookie()).isNull();
+        checkThatOrgUnitsExist(resources, "level1");
+        // 7 entries are read with pages of 2 entries.
+        assertThat(requests).hasSize(4);
+        for (final Request request : requests) {
+            assertThat(request.containsControl(SimplePagedResultsControl.OID)).isTrue();
+        }
+    }
+
     @Test
     public void testQueryAllWithNoSubtreeFlatteningAndNoSearchFilter() throws Exception {
         final Connection connection = newConnection();
@@ -990,8 +1015,12 @@ public final class BasicRequestsTest extends ForgeRockTestCase {
     }
 
     private Rest2Ldap usersApi() throws IOException {
+        return usersApi(defaultOptions());
+    }
+
+    private Rest2Ldap usersApi(final Options options) throws IOException {
         return rest2Ldap(
-            defaultOptions(),
+            options,
             resource("api")
                 .subResource(
                     collectionOf("user")
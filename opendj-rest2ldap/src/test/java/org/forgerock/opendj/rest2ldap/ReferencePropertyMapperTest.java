@@ -0,0 +1,292 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.rest2ldap;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.forgerock.json.resource.Requests.newQueryRequest;
+import static org.forgerock.json.resource.Requests.newReadRequest;
+import static org.forgerock.json.resource.Resources.newInternalConnection;
+import static org.forgerock.opendj.ldap.Connections.newInternalConnectionFactory;
+import static org.forgerock.opendj.ldap.requests.Requests.copyOfSearchRequest;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.REFERENCE_BATCH_SIZE;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.collectionOf;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.object;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.reference;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.resource;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.rest2Ldap;
+import static org.forgerock.opendj.rest2ldap.Rest2Ldap.simple;
+import static org.forgerock.opendj.rest2ldap.TestUtils.ctx;
+import static org.forgerock.util.Options.defaultOptions;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.Connection;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.opendj.ldap.AbstractConnectionWrapper;
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.IntermediateResponseHandler;
+import org.forgerock.opendj.ldap.LdapPromise;
+import org.forgerock.opendj.ldap.MemoryBackend;
+import org.forgerock.opendj.ldap.SearchResultHandler;
+import org.forgerock.opendj.ldap.requests.SearchRequest;
+import org.forgerock.opendj.ldap.responses.Result;
+import org.forgerock.opendj.ldap.responses.SearchResultEntry;
+import org.forgerock.opendj.ldif.LDIFEntryReader;
+import org.forgerock.testng.ForgeRockTestCase;
+import org.forgerock.util.query.QueryFilter;
+import org.testng.annotations.Test;
+
+/** Tests that the entries referenced by reference properties are read in batches. */
+@SuppressWarnings({ "javadoc" })
+@Test
+public final class ReferencePropertyMapperTest extends ForgeRockTestCase {
+    private static final QueryFilter<JsonPointer> NO_FILTER = QueryFilter.alwaysTrue();
+
+    @Test
+    public void testQueryResolvesReferencesInOneSearch() throws Exception {
+        final List<SearchRequest> searches = new ArrayList<>();
+        final List<ResourceResponse> resources = queryGroups(100, searches);
+
+        assertThat(resources).hasSize(4);
+        checkMembers(resources);
+        // One search for the groups, then one search for all their members.
+        assertThat(searches).hasSize(2);
+    }
+
+    @Test
+    public void testQueryResolvesEachReferenceOnce() throws Exception {
+        final List<SearchRequest> searches = new ArrayList<>();
+        final List<ResourceResponse> resources = queryGroups(1, searches);
+
+        assertThat(resources).hasSize(4);
+        checkMembers(resources);
+        // One search for the groups, then one read per distinct member.
+        assertThat(searches).hasSize(6);
+    }
+
+    @Test
+    public void testReadResolvesReferencesInOneSearch() throws Exception {
+        final List<SearchRequest> searches = new ArrayList<>();
+        final ResourceResponse resource = newConnection(100).read(
+                newAuthConnectionContext(searches), newReadRequest("groups/group3"));
+
+        assertThat(memberIds(resource)).containsOnly("user1", "user3", "user4");
+        assertThat(searches).hasSize(2);
+    }
+
+    @Test
+    public void testMissingReferencesAreIgnored() throws Exception {
+        final List<SearchRequest> searches = new ArrayList<>();
+        final ResourceResponse resource = newConnection(100).read(
+                newAuthConnectionContext(searches), newReadRequest("groups/group4"));
+
+        assertThat(memberIds(resource)).containsOnly("user2");
+        assertThat(searches).hasSize(2);
+    }
+
+    @Test
+    public void testFailedSearchFallsBackToReads() throws Exception {
+        final List<SearchRequest> searches = new ArrayList<>();
+        final List<ResourceResponse> resources = new LinkedList<>();
+        newConnection(100).query(newAuthConnectionContext(searches, 2),
+                                 newQueryRequest("groups").setQueryFilter(NO_FILTER),
+                                 resources);
+
+        assertThat(resources).hasSize(4);
+        checkMembers(resources);
+        // The search for all the members exceeds the size limit, then one read per distinct member not yet returned.
+        assertThat(searches).hasSize(5);
+    }
+
+    private List<ResourceResponse> queryGroups(final int batchSize, final List<SearchRequest> searches)
+            throws Exception {
+        final List<ResourceResponse> resources = new LinkedList<>();
+        newConnection(batchSize).query(newAuthConnectionContext(searches),
+                                       newQueryRequest("groups").setQueryFilter(NO_FILTER),
+                                       resources);
+        return resources;
+    }
+
+    private void checkMembers(final List<ResourceResponse> resources) {
+        for (final ResourceResponse resource : resources) {
+            switch (resource.getId()) {
+            case "group1":
+                assertThat(memberIds(resource)).containsOnly("user1", "user2");
+                break;
+            case "group2":
+                assertThat(memberIds(resource)).containsOnly("user2", "user3");
+                break;
+            case "group3":
+                assertThat(memberIds(resource)).containsOnly("user1", "user3", "user4");
+                break;
+            default:
+                assertThat(memberIds(resource)).containsOnly("user2");
+                break;
+            }
+        }
+    }
+
+    private List<String> memberIds(final ResourceResponse resource) {
+        final List<String> ids = new ArrayList<>();
+        for (final JsonValue member : resource.getContent().get("members")) {
+            ids.add(member.get("_id").asString());
+        }
+        return ids;
+    }
+
+    private Connection newConnection(final int batchSize) throws Exception {
+        return newInternalConnection(
+            rest2Ldap(
+                defaultOptions().set(REFERENCE_BATCH_SIZE, batchSize),
+                resource("api")
+                    .subResource(
+                        collectionOf("group")
+                            .urlTemplate("groups")
+                            .dnTemplate("ou=groups,dc=test")
+                            .useClientDnNaming("cn")),
+                resource("group")
+                    .objectClasses("top", "groupOfNames")
+                    .property("_id", simple("cn"))
+                    .property("members",
+                              reference("member", "ou=people,dc=test", "uid",
+                                        object().property("_id", simple("uid")))
+                                  .isMultiValued(true)))
+                .newRequestHandlerFor("api"));
+    }
+
+    private AuthenticatedConnectionContext newAuthConnectionContext(final List<SearchRequest> searches)
+            throws Exception {
+        return newAuthConnectionContext(searches, 0);
+    }
+
+    /** Creates a context whose searches of the people return at most {@code sizeLimit} entries, unless 0. */
+    private AuthenticatedConnectionContext newAuthConnectionContext(final List<SearchRequest> searches,
+            final int sizeLimit) throws Exception {
+        // @formatter:off
+        final MemoryBackend backend =
+                new MemoryBackend(new LDIFEntryReader(
+                        "dn: dc=test",
+                        "objectClass: domain",
+                        "objectClass: top",
+                        "dc: test",
+                        "",
+                        "dn: ou=people,dc=test",
+                        "objectClass: top",
+                        "objectClass: organizationalUnit",
+                        "ou: people",
+                        "",
+                        "dn: uid=user1,ou=people,dc=test",
+                        "objectClass: top",
+                        "objectClass: person",
+                        "uid: user1",
+                        "cn: user 1",
+                        "sn: 1",
+                        "",
+                        "dn: uid=user2,ou=people,dc=test",
+                        "objectClass: top",
+                        "objectClass: person",
+                        "uid: user2",
+                        "cn: user 2",
+                        "sn: 2",
+                        "",
+                        "dn: uid=user3,ou=people,dc=test",
+                        "objectClass: top",
+                        "objectClass: person",
+                        "uid: user3",
+                        "cn: user 3",
+                        "sn: 3",
+                        "",
+                        "dn: uid=user4,ou=people,dc=test",
+                        "objectClass: top",
+                        "objectClass: person",
+                        "uid: user4",
+                        "cn: user 4",
+                        "sn: 4",
+                        "",
+                        "dn: ou=groups,dc=test",
+                        "objectClass: top",
+                        "objectClass: organizationalUnit",
+                        "ou: groups",
+                        "",
+                        "dn: cn=group1,ou=groups,dc=test",
+                        "objectClass: top",
+                        "objectClass: groupOfNames",
+                        "cn: group1",
+                        "member: uid=user1,ou=people,dc=test",
+                        "member: uid=user2,ou=people,dc=test",
+                        "",
+                        "dn: cn=group2,ou=groups,dc=test",
+                        "objectClass: top",
+                        "objectClass: groupOfNames",
+                        "cn: group2",
+                        "member: uid=user2,ou=people,dc=test",
+                        "member: uid=user3,ou=people,dc=test",
+                        "",
+                        "dn: cn=group3,ou=groups,dc=test",
+                        "objectClass: top",
+                        "objectClass: groupOfNames",
+                        "cn: group3",
+                        "member: uid=user1,ou=people,dc=test",
+                        "member: uid=user3,ou=people,dc=test",
+                        "member: uid=user4,ou=people,dc=test",
+                        "",
+                        "dn: cn=group4,ou=groups,dc=test",
+                        "objectClass: top",
+                        "objectClass: groupOfNames",
+                        "cn: group4",
+                        "member: uid=user2,ou=people,dc=test",
+                        "member: uid=missing,ou=people,dc=test"
+                ));
+        // @formatter:on
+
+        final org.forgerock.opendj.ldap.Connection connection =
+                newInternalConnectionFactory(backend).getConnection();
+        return new AuthenticatedConnectionContext(ctx(), new AbstractConnectionWrapper<
+                org.forgerock.opendj.ldap.Connection>(connection) {
+            @Override
+            public LdapPromise<Result> searchAsync(final SearchRequest request,
+                    final SearchResultHandler resultHandler) {
+                searches.add(request);
+                return super.searchAsync(limitSize(request), resultHandler);
+            }
+
+            @Override
+            public LdapPromise<Result> searchAsync(final SearchRequest request,
+                    final IntermediateResponseHandler intermediateResponseHandler,
+                    final SearchResultHandler entryHandler) {
+                searches.add(request);
+                return super.searchAsync(limitSize(request), intermediateResponseHandler, entryHandler);
+            }
+
+            private SearchRequest limitSize(final SearchRequest request) {
+                if (sizeLimit > 0 && request.getName().equals(DN.valueOf("ou=people,dc=test"))) {
+                    return copyOfSearchRequest(request).setSizeLimit(sizeLimit);
+                }
+                return request;
+            }
+
+            @Override
+            public LdapPromise<SearchResultEntry> searchSingleEntryAsync(final SearchRequest request) {
+                searches.add(request);
+                return super.searchSingleEntryAsync(request);
+            }
+        });
+    }
+}
@@ -17,6 +17,7 @@ package org.forgerock.opendj.adapter.server3x;
 
 import static com.forgerock.opendj.ldap.CoreMessages.ERR_EXTOP_PASSMOD_CANNOT_DECODE_REQUEST;
 import static com.forgerock.opendj.util.StaticUtils.getExceptionMessage;
+import static com.forgerock.opendj.util.StaticUtils.toLowerCase;
 import static org.forgerock.opendj.ldap.LdapException.newLdapException;
 import static org.opends.server.extensions.ExtensionsConstants.TYPE_PASSWORD_MODIFY_GENERATED_PASSWORD;
 import static org.opends.server.util.CollectionUtils.newArrayList;
@@ -31,6 +32,7 @@ import org.forgerock.i18n.LocalizableMessageBuilder;
 import org.forgerock.opendj.io.ASN1;
 import org.forgerock.opendj.io.ASN1Reader;
 import org.forgerock.opendj.io.ASN1Writer;
+import org.forgerock.opendj.ldap.AbstractAttribute;
 import org.forgerock.opendj.ldap.Attribute;
 import org.forgerock.opendj.ldap.AttributeDescription;
 import org.forgerock.opendj.ldap.AttributeParser;
@@ -39,6 +41,7 @@ import org.forgerock.opendj.ldap.ByteStringBuilder;
 import org.forgerock.opendj.ldap.DN;
 import org.forgerock.opendj.ldap.DecodeException;
 import org.forgerock.opendj.ldap.DecodeOptions;
+import org.forgerock.opendj.ldap.FilterVisitor;
 import org.forgerock.opendj.ldap.LdapException;
 import org.forgerock.opendj.ldap.LinkedAttribute;
 import org.forgerock.opendj.ldap.LinkedHashMapEntry;
@@ -65,6 +68,7 @@ import org.opends.server.protocols.ldap.LDAPFilter;
 import org.opends.server.protocols.ldap.LDAPModification;
 import org.opends.server.types.AttributeBuilder;
 import org.opends.server.types.DirectoryException;
+import org.opends.server.types.FilterType;
 import org.opends.server.types.LDAPException;
 import org.opends.server.types.Operation;
 import org.opends.server.types.SearchFilter;
@@ -162,6 +166,11 @@ public final class Converters {
      * @return the converted value
      */
     public static SearchFilter toSearchFilter(final org.forgerock.opendj.ldap.Filter filter) {
+        // Converts the filter components directly, sharing the assertion values, rather than parsing its string form
+        final SearchFilter searchFilter = filter.accept(SEARCH_FILTER_CONVERTER, null);
+        if (searchFilter != null) {
+            return searchFilter;
+        }
         try {
             return SearchFilter.createFilterFromString(filter.toString());
         } catch (DirectoryException e) {
@@ -169,6 +178,111 @@ public final class Converters {
         }
     }
 
+    /**
+     * Converts SDK filters to server search filters, or returns {@code null} if the filter contains unrecognized
+     * components.
+     */
+    private static final FilterVisitor<SearchFilter, Void> SEARCH_FILTER_CONVERTER =
+            new FilterVisitor<SearchFilter, Void>() {
+        @Override
+        public SearchFilter visitAndFilter(final Void p, final List<org.forgerock.opendj.ldap.Filter> subFilters) {
+            final List<SearchFilter> components = toSearchFilters(subFilters);
+            return components != null ? SearchFilter.createANDFilter(components) : null;
+        }
+
+        @Override
+        public SearchFilter visitOrFilter(final Void p, final List<org.forgerock.opendj.ldap.Filter> subFilters) {
+            final List<SearchFilter> components = toSearchFilters(subFilters);
+            return components != null ? SearchFilter.createORFilter(components) : null;
+        }
+
+        private List<SearchFilter> toSearchFilters(final List<org.forgerock.opendj.ldap.Filter> subFilters) {
+            final List<SearchFilter> components = new ArrayList<>(subFilters.size());
+            for (final org.forgerock.opendj.ldap.Filter subFilter : subFilters) {
+                final SearchFilter component = subFilter.accept(this, null);
+                if (component == null) {
+                    return null;
+                }
+                components.add(component);
+            }
+            return components;
+        }
+
+        @Override
+        public SearchFilter visitNotFilter(final Void p, final org.forgerock.opendj.ldap.Filter subFilter) {
+            final SearchFilter component = subFilter.accept(this, null);
+            return component != null ? SearchFilter.createNOTFilter(component) : null;
+        }
+
+        @Override
+        public SearchFilter visitEqualityMatchFilter(
+                final Void p, final String attributeDescription, final ByteString assertionValue) {
+            return newSearchFilter(FilterType.EQUALITY, attributeDescription, assertionValue);
+        }
+
+        @Override
+        public SearchFilter visitApproxMatchFilter(
+                final Void p, final String attributeDescription, final ByteString assertionValue) {
+            return newSearchFilter(FilterType.APPROXIMATE_MATCH, attributeDescription, assertionValue);
+        }
+
+        @Override
+        public SearchFilter visitGreaterOrEqualFilter(
+                final Void p, final String attributeDescription, final ByteString assertionValue) {
+            return newSearchFilter(FilterType.GREATER_OR_EQUAL, attributeDescription, assertionValue);
+        }
+
+        @Override
+        public SearchFilter visitLessOrEqualFilter(
+                final Void p, final String attributeDescription, final ByteString assertionValue) {
+            return newSearchFilter(FilterType.LESS_OR_EQUAL, attributeDescription, assertionValue);
+        }
+
+        @Override
+        public SearchFilter visitPresentFilter(final Void p, final String attributeDescription) {
+            return newSearchFilter(FilterType.PRESENT, attributeDescription, null);
+        }
+
+        @Override
+        public SearchFilter visitSubstringsFilter(final Void p, final String attributeDescription,
+                final ByteString initialSubstring, final List<ByteString> anySubstrings,
+                final ByteString finalSubstring) {
+            return new SearchFilter(FilterType.SUBSTRING, null, null, toAttributeDescription(attributeDescription),
+                    null, initialSubstring, new ArrayList<>(anySubstrings), finalSubstring, null, false);
+        }
+
+        @Override
+        public SearchFilter visitExtensibleMatchFilter(final Void p, final String matchingRule,
+                final String attributeDescription, final ByteString assertionValue, final boolean dnAttributes) {
+            // Matching rules are validated by the string parser
+            return null;
+        }
+
+        @Override
+        public SearchFilter visitUnrecognizedFilter(final Void p, final byte filterTag, final ByteString filterBytes) {
+            return null;
+        }
+
+        private SearchFilter newSearchFilter(
+                final FilterType filterType, final String attributeDescription, final ByteString assertionValue) {
+            return new SearchFilter(filterType, null, null, toAttributeDescription(attributeDescription),
+                    assertionValue, null, null, null, null, false);
+        }
+
+        private AttributeDescription toAttributeDescription(final String attributeDescription) {
+            // Same as the string parser: the attribute type is known by its primary name
+            final AttributeDescription attrDesc = AttributeDescription.valueOf(toLowerCase(attributeDescription));
+            if (!attrDesc.getNameOrOID().equals(attrDesc.getAttributeType().getNameOrOID())) {
+                final List<String> options = new ArrayList<>();
+                for (final String option : attrDesc.getOptions()) {
+                    options.add(option);
+                }
+                return AttributeDescription.create(attrDesc.getAttributeType(), options);
+            }
+            return attrDesc;
+        }
+    };
+
     /**
      * Converts from OpenDJ LDAP SDK
      * {@link org.forgerock.opendj.ldap.responses.SearchResultReference} to OpenDJ
@@ -628,6 +742,104 @@ public final class Converters {
         return searchResultEntry;
     }
 
+    /**
+     * Converts from OpenDJ server {@link org.opends.server.types.SearchResultEntry} to OpenDJ LDAP SDK
+     * {@link SearchResultEntry} without copying it. This method is an optimization of the equivalent from() method
+     * for in-process clients: the DN is shared and the real attributes are exposed through views sharing their
+     * immutable values, which are only copied if the returned entry is modified. Virtual attributes are copied since
+     * their values are computed each time they are read.
+     *
+     * @param srvResultEntry
+     *          value to convert
+     * @return the converted value
+     */
+    public static SearchResultEntry wrap(final org.opends.server.types.SearchResultEntry srvResultEntry) {
+        final SearchResultEntry searchResultEntry = Responses.newSearchResultEntry(srvResultEntry.getName());
+        for (org.opends.server.types.Attribute a : srvResultEntry.getAllAttributes()) {
+            searchResultEntry.addAttribute(a.isVirtual() ? from(a) : new CopyOnWriteAttribute(a));
+        }
+        for (org.opends.server.types.Control c : srvResultEntry.getControls()) {
+            searchResultEntry.addControl(from(c));
+        }
+        return searchResultEntry;
+    }
+
+    /** An SDK view of an immutable server attribute, which copies the server attribute when it is first modified. */
+    private static final class CopyOnWriteAttribute extends AbstractAttribute {
+        private final org.opends.server.types.Attribute srvAttribute;
+        private Attribute copy;
+
+        private CopyOnWriteAttribute(final org.opends.server.types.Attribute srvAttribute) {
+            this.srvAttribute = srvAttribute;
+        }
+
+        @Override
+        public AttributeDescription getAttributeDescription() {
+            return srvAttribute.getAttributeDescription();
+        }
+
+        @Override
+        public int size() {
+            return copy != null ? copy.size() : srvAttribute.size();
+        }
+
+        @Override
+        public boolean contains(final Object value) {
+            return copy != null ? copy.contains(value) : srvAttribute.contains(ByteString.valueOfObject(value));
+        }
+
+        @Override
+        public Iterator<ByteString> iterator() {
+            return copy != null ? copy.iterator() : unmodifiableIterator(srvAttribute.iterator());
+        }
+
+        @Override
+        public boolean add(final ByteString value) {
+            return copy().add(value);
+        }
+
+        @Override
+        public boolean remove(final Object value) {
+            return copy().remove(value);
+        }
+
+        @Override
+        public <T> boolean retainAll(final Collection<T> values, final Collection<? super T> missingValues) {
+            return copy().retainAll(values, missingValues);
+        }
+
+        @Override
+        public void clear() {
+            copy().clear();
+        }
+
+        private Attribute copy() {
+            if (copy == null) {
+                copy = from(srvAttribute);
+            }
+            return copy;
+        }
+
+        private static Iterator<ByteString> unmodifiableIterator(final Iterator<ByteString> iterator) {
+            return new Iterator<ByteString>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public ByteString next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
     /**
      * Converts from OpenDJ server {@link org.opends.server.types.SearchResultEntry} to OpenDJ LDAP SDK
      * {@link SearchResultEntry}. This method is an optimization of the equivalent
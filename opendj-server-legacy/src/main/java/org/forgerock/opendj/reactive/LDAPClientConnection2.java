@@ -403,12 +403,21 @@ public final class LDAPClientConnection2 extends ClientConnection implements TLS
         // response: the worker thread exception handling code will attempt to send
         // an error result to the client indicating that a problem occurred.
         if (removeOperationInProgress(operation.getMessageID())) {
+            final long responseStartTime = System.nanoTime();
             final Response response = operationToResponse(operation);
             final FlowableEmitter<Response> out = getAttachedEmitter(operation);
             if (response != null) {
                 out.onNext(response);
             }
             out.onComplete();
+            updateOperationLatencies(operation, System.nanoTime() - responseStartTime);
+        }
+    }
+
+    private void updateOperationLatencies(Operation operation, long responseWriteTime) {
+        DirectoryServer.getOperationLatencies().recordResponse(operation, responseWriteTime);
+        if (keepStats) {
+            statTracker.updateOperationLatencies(operation, responseWriteTime);
         }
     }
 
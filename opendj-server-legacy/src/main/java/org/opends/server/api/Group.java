@@ -415,6 +415,23 @@ public abstract class Group<T extends GroupImplementationCfg>
    */
   public abstract boolean mayAlterMemberList();
 
+  /**
+   * Indicates whether the members of this group are explicitly listed in the
+   * group definition. The group manager maintains a reverse index from the
+   * members of such groups to the groups, hence such a group must notify the
+   * group manager of each change to its member list with
+   * {@link org.opends.server.core.GroupManager#memberAdded(Group, DN)} and
+   * {@link org.opends.server.core.GroupManager#memberRemoved(Group, DN)}.
+   *
+   * @return  {@code true} if the members of this group are explicitly listed,
+   *          or {@code false} if membership is computed, for example from a
+   *          filter or another group.
+   */
+  public boolean hasExplicitMemberList()
+  {
+    return false;
+  }
+
   /**
    * Attempt to make multiple changes to the group's member list.
    *
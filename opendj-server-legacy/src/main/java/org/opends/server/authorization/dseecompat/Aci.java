@@ -397,6 +397,15 @@ public class Aci implements Comparable<Aci>
         return body.evaluate(evalCtx);
     }
 
+    /**
+     * Returns what the evaluation of the bind rules of this ACI depends on, in
+     * addition to the client identity.
+     * @return A combination of the {@link AciEvaluationCache} dependency flags.
+     */
+    int getBindRuleDependencies() {
+        return body.getBindRuleDependencies();
+    }
+
     /**
      * Static class used to evaluate an ACI and evaluation context.
      * @param evalCtx  The context to evaluate with.
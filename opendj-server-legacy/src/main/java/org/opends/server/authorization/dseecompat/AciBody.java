@@ -53,6 +53,9 @@ public class AciBody {
     /** This structure represents a permission-bind rule pairs. There can be several of these. */
     private final List<PermBindRulePair> permBindRulePairs;
 
+    /** What the evaluation of the bind rules depends on, see {@link AciEvaluationCache}. */
+    private final int bindRuleDependencies;
+
     /**
      * Regular expression used to match the access type group (allow, deny) and
      * the rights group "(read, write, ...)". The last pattern looks for a group
@@ -122,6 +125,11 @@ public class AciBody {
         this.name=name;
         this.startPos=startPos;
         this.permBindRulePairs=permBindRulePairs;
+        int dependencies = 0;
+        for (PermBindRulePair pair : permBindRulePairs) {
+            dependencies |= pair.getBindRule().getDependencies();
+        }
+        this.bindRuleDependencies = dependencies;
     }
 
     /**
@@ -218,6 +226,16 @@ public class AciBody {
         return permBindRulePairs;
     }
 
+    /**
+     * Returns what the evaluation of the bind rules depends on, in addition to
+     * the client identity.
+     *
+     * @return A combination of the {@link AciEvaluationCache} dependency flags.
+     */
+    int getBindRuleDependencies() {
+        return bindRuleDependencies;
+    }
+
     /**
      * Get the start position in the ACI string of the ACI body.
      *
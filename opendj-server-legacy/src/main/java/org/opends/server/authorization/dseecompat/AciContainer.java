@@ -34,6 +34,8 @@ import org.opends.server.api.ClientConnection;
 import org.opends.server.api.Group;
 import org.opends.server.controls.GetEffectiveRightsRequestControl;
 import org.opends.server.core.AddOperation;
+import org.opends.server.core.DirectoryServer;
+import org.opends.server.core.GroupManager;
 import org.opends.server.core.SearchOperation;
 import org.opends.server.types.AuthenticationInfo;
 import org.opends.server.types.AuthenticationType;
@@ -501,6 +503,22 @@ abstract class AciContainer implements AciTargetMatchContext, AciEvalContext {
             || EnumEvalReason.EVALUATED_DENY_ACI.equals(evalReason);
     }
 
+    /**
+     * Returns the authentication information of the client connection.
+     * @return The authentication information of the client connection.
+     */
+    AuthenticationInfo getAuthenticationInfo() {
+        return authInfo;
+    }
+
+    /**
+     * Returns the operation being evaluated.
+     * @return The operation being evaluated.
+     */
+    Operation getOperation() {
+        return operation;
+    }
+
     @Override
     public boolean isAnonymousUser() {
         return !authInfo.isAuthenticated();
@@ -650,14 +668,15 @@ abstract class AciContainer implements AciTargetMatchContext, AciEvalContext {
     @Override
     public boolean isMemberOf(Group<?> group) {
         try {
+            GroupManager groupManager = DirectoryServer.getGroupManager();
             if(useAuthzid) {
-                return group.isMember(this.authzid);
+                return groupManager.isMember(group, this.authzid);
             }
             Entry e = getClientEntry();
             if (e != null) {
-                return group.isMember(e);
+                return groupManager.isMember(group, e);
             }
-            return group.isMember(getClientDN());
+            return groupManager.isMember(group, getClientDN());
         } catch (DirectoryException ex) {
             return false;
         }
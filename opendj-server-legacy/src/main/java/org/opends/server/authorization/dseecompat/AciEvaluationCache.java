@@ -0,0 +1,301 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.authorization.dseecompat;
+
+import static org.opends.server.core.DirectoryServer.*;
+
+import java.net.InetAddress;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.opendj.ldap.DN;
+import org.opends.server.types.AuthenticationInfo;
+
+/**
+ * Cache of the results of the bind rule evaluations of ACIs.
+ * <p>
+ * The result of the evaluation of the bind rules of an ACI only depends on the
+ * client identity, the rights being evaluated and, depending on the keywords
+ * used by the bind rules, on a few properties of the client connection or on
+ * the DN of the resource entry. The result is cached per client DN for the
+ * ACIs whose bind rules only depend on these properties. Bind rules using the
+ * dns, timeofday, dayofweek or userattr keywords are always evaluated.
+ * <p>
+ * Cached results are invalidated by the {@link AciListenerManager}: all of
+ * them when an ACI, a group or a backend changes, those of a client when its
+ * entry changes.
+ */
+final class AciEvaluationCache
+{
+  /** The evaluation depends on the remote address of the client. */
+  static final int DEPENDS_ON_REMOTE_ADDRESS = 0x01;
+  /** The evaluation depends on how the client authenticated. */
+  static final int DEPENDS_ON_AUTHENTICATION = 0x02;
+  /** The evaluation depends on the security strength factor of the connection. */
+  static final int DEPENDS_ON_SSF = 0x04;
+  /** The evaluation depends on the DN of the resource entry. */
+  static final int DEPENDS_ON_RESOURCE_DN = 0x08;
+  /** The evaluation cannot be cached. */
+  static final int NOT_CACHEABLE = 0x10;
+
+  /** Key of a cached evaluation, for a given client DN. */
+  private static final class Key
+  {
+    private final Aci aci;
+    private final int rights;
+    private final boolean denyEval;
+    private final boolean anonymous;
+    private final InetAddress remoteAddress;
+    private final AuthenticationInfo authInfo;
+    private final int ssf;
+    private final DN resourceDN;
+    private final int hashCode;
+
+    private Key(Aci aci, int dependencies, AciContainer container)
+    {
+      this.aci = aci;
+      this.rights = container.getRights();
+      this.denyEval = container.isDenyEval();
+      this.anonymous = container.isAnonymousUser();
+      this.remoteAddress = (dependencies & DEPENDS_ON_REMOTE_ADDRESS) != 0 ? container.getRemoteAddress() : null;
+      // authentication info is replaced on each bind, compare by identity
+      this.authInfo = (dependencies & DEPENDS_ON_AUTHENTICATION) != 0 ? container.getAuthenticationInfo() : null;
+      this.ssf = (dependencies & DEPENDS_ON_SSF) != 0 ? container.getCurrentSSF() : 0;
+      this.resourceDN = (dependencies & DEPENDS_ON_RESOURCE_DN) != 0 ? container.getResourceDN() : null;
+
+      int h = System.identityHashCode(aci);
+      h = 31 * h + rights;
+      h = 31 * h + (denyEval ? 1 : 0);
+      h = 31 * h + (anonymous ? 1 : 0);
+      h = 31 * h + (remoteAddress != null ? remoteAddress.hashCode() : 0);
+      h = 31 * h + System.identityHashCode(authInfo);
+      h = 31 * h + ssf;
+      h = 31 * h + (resourceDN != null ? resourceDN.hashCode() : 0);
+      this.hashCode = h;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+      if (this == obj)
+      {
+        return true;
+      }
+      if (!(obj instanceof Key))
+      {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return aci == other.aci
+          && rights == other.rights
+          && denyEval == other.denyEval
+          && anonymous == other.anonymous
+          && authInfo == other.authInfo
+          && ssf == other.ssf
+          && equal(remoteAddress, other.remoteAddress)
+          && equal(resourceDN, other.resourceDN);
+    }
+
+    private static boolean equal(Object o1, Object o2)
+    {
+      return o1 == null ? o2 == null : o1.equals(o2);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return hashCode;
+    }
+  }
+
+  /** The maximum number of cached evaluations, 0 disables the cache. */
+  private final int maxSize;
+  /** Cached evaluations per client DN. */
+  private final ConcurrentMap<DN, ConcurrentMap<Key, EnumEvalResult>> evaluations = new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+  /** Incremented on each invalidation, so that evaluations racing with a change are not cached. */
+  private final AtomicLong generation = new AtomicLong();
+  /** The group manager token when the cache was last cleared. */
+  private volatile long groupToken;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Creates a new cache.
+   *
+   * @param maxSize
+   *          the maximum number of cached evaluations, 0 disables the cache
+   */
+  AciEvaluationCache(int maxSize)
+  {
+    this.maxSize = maxSize;
+    this.groupToken = getGroupManager().refreshToken();
+  }
+
+  /**
+   * Evaluates the bind rules of the provided ACI, returning the cached result
+   * when possible.
+   *
+   * @param container
+   *          the container of the operation being evaluated
+   * @param aci
+   *          the ACI to evaluate
+   * @return the result of the evaluation
+   */
+  EnumEvalResult evaluate(AciContainer container, Aci aci)
+  {
+    final int dependencies = aci.getBindRuleDependencies();
+    if (maxSize == 0
+        || (dependencies & NOT_CACHEABLE) != 0
+        || container.isGetEffectiveRightsEval())
+    {
+      return Aci.evaluate(container, aci);
+    }
+
+    final long groupTokenNow = getGroupManager().refreshToken();
+    if (groupTokenNow != groupToken)
+    {
+      groupToken = groupTokenNow;
+      clear();
+    }
+
+    final DN clientDN = container.getClientDN();
+    final Key key = new Key(aci, dependencies, container);
+    ConcurrentMap<Key, EnumEvalResult> clientEvaluations = evaluations.get(clientDN);
+    if (clientEvaluations != null)
+    {
+      final EnumEvalResult result = clientEvaluations.get(key);
+      if (result != null)
+      {
+        hits.incrementAndGet();
+        return result;
+      }
+    }
+    misses.incrementAndGet();
+
+    if (size.get() >= maxSize)
+    {
+      clear();
+    }
+    final long generationBefore = generation.get();
+    final EnumEvalResult result = Aci.evaluate(container, aci);
+    if (result == EnumEvalResult.FAIL)
+    {
+      // an internal search failed, try again next time
+      return result;
+    }
+    clientEvaluations = evaluations.get(clientDN);
+    if (clientEvaluations == null)
+    {
+      clientEvaluations = new ConcurrentHashMap<>();
+      final ConcurrentMap<Key, EnumEvalResult> existing = evaluations.putIfAbsent(clientDN, clientEvaluations);
+      if (existing != null)
+      {
+        clientEvaluations = existing;
+      }
+    }
+    if (clientEvaluations.put(key, result) == null)
+    {
+      size.incrementAndGet();
+    }
+    if (generation.get() != generationBefore)
+    {
+      // something changed during the evaluation, the result may be stale
+      clientEvaluations.remove(key);
+    }
+    return result;
+  }
+
+  /** Invalidates all the cached evaluations. */
+  void clear()
+  {
+    generation.incrementAndGet();
+    evaluations.clear();
+    size.set(0);
+  }
+
+  /**
+   * Invalidates the cached evaluations of a client.
+   *
+   * @param clientDN
+   *          the DN of the client entry which changed
+   * @param subtree
+   *          whether the evaluations of the clients below this DN must be
+   *          invalidated too
+   */
+  void clearClient(DN clientDN, boolean subtree)
+  {
+    generation.incrementAndGet();
+    if (!subtree)
+    {
+      decreaseSize(evaluations.remove(clientDN));
+      return;
+    }
+    for (Iterator<Map.Entry<DN, ConcurrentMap<Key, EnumEvalResult>>> it = evaluations.entrySet().iterator();
+        it.hasNext();)
+    {
+      final Map.Entry<DN, ConcurrentMap<Key, EnumEvalResult>> entry = it.next();
+      if (entry.getKey().isSubordinateOrEqualTo(clientDN))
+      {
+        it.remove();
+        decreaseSize(entry.getValue());
+      }
+    }
+  }
+
+  private void decreaseSize(ConcurrentMap<Key, EnumEvalResult> clientEvaluations)
+  {
+    if (clientEvaluations != null)
+    {
+      size.addAndGet(-clientEvaluations.size());
+    }
+  }
+
+  /**
+   * Returns the number of evaluations answered from the cache.
+   *
+   * @return the number of cache hits
+   */
+  long getHits()
+  {
+    return hits.get();
+  }
+
+  /**
+   * Returns the number of evaluations which were not in the cache.
+   *
+   * @return the number of cache misses
+   */
+  long getMisses()
+  {
+    return misses.get();
+  }
+
+  /**
+   * Returns the approximate number of cached evaluations.
+   *
+   * @return the number of cached evaluations
+   */
+  int size()
+  {
+    return Math.max(0, size.get());
+  }
+}
@@ -21,6 +21,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.forgerock.i18n.LocalizedIllegalArgumentException;
 import org.forgerock.i18n.slf4j.LocalizedLogger;
@@ -35,8 +36,11 @@ import org.forgerock.opendj.ldap.ResultCode;
 import org.forgerock.opendj.ldap.schema.AttributeType;
 import org.forgerock.opendj.ldap.schema.Schema;
 import org.forgerock.opendj.server.config.server.DseeCompatAccessControlHandlerCfg;
+import org.forgerock.opendj.server.config.server.MonitorProviderCfg;
 import org.opends.server.api.AccessControlHandler;
 import org.opends.server.api.ClientConnection;
+import org.opends.server.api.MonitorData;
+import org.opends.server.api.MonitorProvider;
 import org.opends.server.backends.pluggable.SuffixContainer;
 import org.opends.server.controls.GetEffectiveRightsRequestControl;
 import org.opends.server.core.BindOperation;
@@ -54,6 +58,7 @@ import org.opends.server.types.Entry;
 import org.opends.server.types.InitializationException;
 import org.opends.server.types.Modification;
 import org.opends.server.types.Operation;
+import org.opends.server.types.OperationType;
 import org.opends.server.types.Privilege;
 import org.opends.server.types.SearchFilter;
 import org.opends.server.types.SearchResultEntry;
@@ -148,6 +153,12 @@ public final class AciHandler extends
    */
   private AciListenerManager aciListenerMgr;
 
+  /** The cache of the bind rule evaluations. */
+  private AciEvaluationCache evaluationCache;
+
+  /** Publishes the evaluation statistics below <code>cn=monitor</code>. */
+  private final EvaluationMonitorProvider monitor = new EvaluationMonitorProvider();
+
   /** Creates a new DSEE-compatible access control handler. */
   public AciHandler()
   {
@@ -184,6 +195,7 @@ public final class AciHandler extends
   public void finalizeAccessControlHandler()
   {
     aciListenerMgr.finalizeListenerManager();
+    DirectoryServer.deregisterMonitorProvider(monitor);
     AciEffectiveRights.finalizeOnShutdown();
     DirectoryServer.deregisterSupportedControl(OID_GET_EFFECTIVE_RIGHTS);
   }
@@ -196,9 +208,11 @@ public final class AciHandler extends
     initStatics();
     DN configurationDN = configuration.dn();
     aciList = new AciList(configurationDN);
-    aciListenerMgr = new AciListenerManager(aciList, configurationDN);
+    evaluationCache = new AciEvaluationCache(configuration.getEvaluationCacheSize());
+    aciListenerMgr = new AciListenerManager(aciList, evaluationCache, configurationDN);
     processGlobalAcis(configuration);
     DirectoryServer.registerSupportedControl(OID_GET_EFFECTIVE_RIGHTS);
+    DirectoryServer.registerMonitorProvider(monitor);
   }
 
   @Override
@@ -477,6 +491,23 @@ public final class AciHandler extends
    * @return True if access is allowed.
    */
   boolean accessAllowed(AciContainer container)
+  {
+    final long startTime = System.nanoTime();
+    try
+    {
+      return accessAllowed0(container);
+    }
+    finally
+    {
+      final Operation operation = container.getOperation();
+      if (operation != null)
+      {
+        monitor.evaluated(operation.getOperationType(), System.nanoTime() - startTime);
+      }
+    }
+  }
+
+  private boolean accessAllowed0(AciContainer container)
   {
     DN dn = container.getResourceDN();
     // For ACI_WRITE_ADD and ACI_WRITE_DELETE set the ACI_WRITE
@@ -1028,7 +1059,7 @@ public final class AciHandler extends
    *          The evaluation context to use.
    * @return True if access is allowed.
    */
-  private boolean testApplicableLists(AciEvalContext evalCtx)
+  private boolean testApplicableLists(AciContainer evalCtx)
   {
     evalCtx.setEvaluationResult(NO_REASON, null);
 
@@ -1044,7 +1075,7 @@ public final class AciHandler extends
 
     for (Aci denyAci : evalCtx.getDenyList())
     {
-      final EnumEvalResult res = Aci.evaluate(evalCtx, denyAci);
+      final EnumEvalResult res = evaluationCache.evaluate(evalCtx, denyAci);
       // Failure could be returned if a system limit is hit or
       // search fails
       if (EnumEvalResult.FAIL.equals(res))
@@ -1065,7 +1096,7 @@ public final class AciHandler extends
 
     for (Aci allowAci : evalCtx.getAllowList())
     {
-      final EnumEvalResult res = Aci.evaluate(evalCtx, allowAci);
+      final EnumEvalResult res = evaluationCache.evaluate(evalCtx, allowAci);
       if (EnumEvalResult.TRUE.equals(res))
       {
         if (testAndSetTargAttrOperationMatches(evalCtx, allowAci, false))
@@ -1197,4 +1228,54 @@ public final class AciHandler extends
     }
     return true;
   }
+
+  /** Publishes the evaluation cache hit rate and the evaluation time per operation type. */
+  private class EvaluationMonitorProvider extends MonitorProvider<MonitorProviderCfg>
+  {
+    private final AtomicLongArray nbEvaluations = new AtomicLongArray(OperationType.values().length);
+    private final AtomicLongArray evaluationNanos = new AtomicLongArray(OperationType.values().length);
+
+    private void evaluated(OperationType operationType, long nanos)
+    {
+      nbEvaluations.incrementAndGet(operationType.ordinal());
+      evaluationNanos.addAndGet(operationType.ordinal(), nanos);
+    }
+
+    @Override
+    public MonitorData getMonitorData()
+    {
+      final long hits = evaluationCache.getHits();
+      final long misses = evaluationCache.getMisses();
+      final MonitorData attributes = new MonitorData(4 + 2 * OperationType.values().length);
+      attributes.add("evaluation-cache-hits", hits);
+      attributes.add("evaluation-cache-misses", misses);
+      attributes.add("evaluation-cache-hit-ratio", hits + misses > 0 ? 100 * hits / (hits + misses) : 0);
+      attributes.add("evaluation-cache-entries", evaluationCache.size());
+      for (OperationType operationType : OperationType.values())
+      {
+        final long count = nbEvaluations.get(operationType.ordinal());
+        if (count > 0)
+        {
+          final String prefix = operationType.getOperationName().toLowerCase();
+          attributes.add(prefix + "-evaluations", count);
+          // in microseconds
+          attributes.add(prefix + "-average-evaluation-time",
+              evaluationNanos.get(operationType.ordinal()) / count / 1000);
+        }
+      }
+      return attributes;
+    }
+
+    @Override
+    public String getMonitorInstanceName()
+    {
+      return "Access Control Handler";
+    }
+
+    @Override
+    public void initializeMonitorProvider(MonitorProviderCfg configuration)
+    {
+      // Nothing to do
+    }
+  }
 }
@@ -32,6 +32,7 @@ import org.forgerock.opendj.ldap.ResultCode;
 import org.forgerock.opendj.ldap.SearchScope;
 import org.forgerock.opendj.ldap.schema.AttributeType;
 import org.opends.server.api.AlertGenerator;
+import org.opends.server.api.Group;
 import org.opends.server.api.LocalBackend;
 import org.opends.server.api.LocalBackendInitializationListener;
 import org.opends.server.api.plugin.InternalDirectoryServerPlugin;
@@ -118,7 +119,7 @@ public class AciListenerManager implements
       Entry entry = modifyDNOperation.getUpdatedEntry();
       if (entry != null)
       {
-        doPostModifyDN(entry.getName(), entry.getName());
+        doPostModifyDN(entry, entry.getName());
       }
     }
 
@@ -172,7 +173,7 @@ public class AciListenerManager implements
       // has been a change.
       if (modifyDNOperation.getResultCode() == ResultCode.SUCCESS)
       {
-        doPostModifyDN(modifyDNOperation.getOriginalEntry().getName(),
+        doPostModifyDN(modifyDNOperation.getOriginalEntry(),
           modifyDNOperation.getUpdatedEntry().getName());
       }
 
@@ -198,6 +199,7 @@ public class AciListenerManager implements
 
     private void doPostAdd(Entry addedEntry)
     {
+      invalidateEvaluations(addedEntry, false);
       // This entry might have both global and aci attribute types.
       boolean hasAci = addedEntry.hasOperationalAttribute(AciHandler.aciType);
       boolean hasGlobalAci = addedEntry.hasAttribute(AciHandler.globalAciType);
@@ -213,6 +215,7 @@ public class AciListenerManager implements
 
     private void doPostDelete(Entry deletedEntry)
     {
+      invalidateEvaluations(deletedEntry, true);
       // This entry might have both global and aci attribute types.
       boolean hasAci = deletedEntry.hasOperationalAttribute(
               AciHandler.aciType);
@@ -221,14 +224,20 @@ public class AciListenerManager implements
       aciList.removeAci(deletedEntry, hasAci, hasGlobalAci);
     }
 
-    private void doPostModifyDN(DN fromDN, DN toDN)
+    private void doPostModifyDN(Entry oldEntry, DN toDN)
     {
-      aciList.renameAci(fromDN, toDN);
+      invalidateEvaluations(oldEntry, true);
+      aciList.renameAci(oldEntry.getName(), toDN);
     }
 
     private void doPostModify(List<Modification> mods, Entry oldEntry,
         Entry newEntry)
     {
+      if (isGroup(newEntry))
+      {
+        evaluationCache.clear();
+      }
+      invalidateEvaluations(oldEntry, false);
       // A change to the ACI list is expensive so let's first make sure
       // that the modification included changes to the ACI. We'll check
       // for both "aci" attribute types and global "ds-cfg-global-aci"
@@ -260,6 +269,42 @@ public class AciListenerManager implements
     }
   }
 
+  /**
+   * Invalidates the cached evaluations depending on the provided entry: all of
+   * them if the entry holds ACIs or is a group, else those of the client with
+   * this DN.
+   *
+   * @param entry
+   *          the entry which changed
+   * @param subtree
+   *          whether the entries below the changed one are affected too
+   */
+  private void invalidateEvaluations(Entry entry, boolean subtree)
+  {
+    if (entry.hasOperationalAttribute(AciHandler.aciType)
+        || entry.hasAttribute(AciHandler.globalAciType)
+        || isGroup(entry))
+    {
+      evaluationCache.clear();
+    }
+    else
+    {
+      evaluationCache.clearClient(entry.getName(), subtree);
+    }
+  }
+
+  private static boolean isGroup(Entry entry)
+  {
+    for (Group<?> groupImplementation : DirectoryServer.getGroupManager().getGroupImplementations())
+    {
+      if (groupImplementation.isGroupDefinition(entry))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /** The configuration DN. */
   private final DN configurationDN;
 
@@ -269,6 +314,9 @@ public class AciListenerManager implements
   /** The AciList caches the ACIs. */
   private final AciList aciList;
 
+  /** The cache of the bind rule evaluations, invalidated on changes. */
+  private final AciEvaluationCache evaluationCache;
+
   /** Search filter used in context search for "aci" attribute types. */
   private final static SearchFilter aciFilter = buildAciFilter();
   private static SearchFilter buildAciFilter()
@@ -299,12 +347,15 @@ public class AciListenerManager implements
    *
    * @param aciList
    *          The list object created and loaded by the handler.
+   * @param evaluationCache
+   *          The cache of the bind rule evaluations created by the handler.
    * @param cfgDN
    *          The DN of the access control configuration entry.
    */
-  public AciListenerManager(AciList aciList, DN cfgDN)
+  AciListenerManager(AciList aciList, AciEvaluationCache evaluationCache, DN cfgDN)
   {
     this.aciList = aciList;
+    this.evaluationCache = evaluationCache;
     this.configurationDN = cfgDN;
     this.plugin = new AciChangeListenerPlugin();
 
@@ -392,6 +443,7 @@ public class AciListenerManager implements
       if (!internalSearch.getSearchEntries().isEmpty())
       {
         int validAcis = aciList.addAci(internalSearch.getSearchEntries(), failedACIMsgs);
+        evaluationCache.clear();
         if (!failedACIMsgs.isEmpty())
         {
           logMsgsSetLockDownMode(failedACIMsgs);
@@ -411,6 +463,7 @@ public class AciListenerManager implements
   public void performBackendPostFinalizationProcessing(LocalBackend<?> backend)
   {
     aciList.removeAci(backend);
+    evaluationCache.clear();
   }
 
   @Override
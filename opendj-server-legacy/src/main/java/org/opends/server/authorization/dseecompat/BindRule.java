@@ -19,8 +19,6 @@ package org.opends.server.authorization.dseecompat;
 import static org.opends.messages.AccessControlMessages.*;
 import static org.opends.server.authorization.dseecompat.Aci.*;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,8 +26,13 @@ import org.forgerock.i18n.LocalizableMessage;
 
 /** This class represents a single bind rule of an ACI permission-bind rule pair. */
 public class BindRule {
-    /** This hash table holds the keyword bind rule mapping. */
-    private final Map<String, KeywordBindRule> keywordRuleMap = new HashMap<>();
+    /** The keyword bind rule of a simple bind rule. */
+    private final KeywordBindRule rule;
+    /**
+     * What the evaluation of this bind rule depends on, as a combination of
+     * the {@link AciEvaluationCache} dependency flags.
+     */
+    private final int dependencies;
 
     /** True is a boolean "not" was seen. */
     private boolean negate;
@@ -72,8 +75,7 @@ public class BindRule {
 
     /**
      * Constructor that takes an keyword enumeration and corresponding
-     * simple bind rule. The keyword string is the key for the keyword rule in
-     * the keywordRuleMap. This is a simple bind rule representation:
+     * simple bind rule. This is a simple bind rule representation:
 
      * keyword  op  rule
      *
@@ -86,7 +88,8 @@ public class BindRule {
      */
     private BindRule(EnumBindRuleKeyword keyword, KeywordBindRule rule) {
         this.keyword=keyword;
-        this.keywordRuleMap.put(keyword.toString(), rule);
+        this.rule = rule;
+        this.dependencies = getDependencies(keyword, rule);
         this.booleanType = null;
         this.left = null;
         this.right = null;
@@ -127,11 +130,42 @@ public class BindRule {
      */
     private BindRule(BindRule left, BindRule right, EnumBooleanTypes booleanType) {
         this.keyword = null;
+        this.rule = null;
+        this.dependencies = left.dependencies | right.dependencies;
         this.booleanType = booleanType;
         this.left = left;
         this.right = right;
     }
 
+    private static int getDependencies(EnumBindRuleKeyword keyword, KeywordBindRule rule) {
+        switch (keyword) {
+        case USERDN:
+            return ((UserDN) rule).dependsOnResourceDN() ? AciEvaluationCache.DEPENDS_ON_RESOURCE_DN : 0;
+        case GROUPDN:
+            // group membership changes invalidate the cache
+            return 0;
+        case IP:
+            return AciEvaluationCache.DEPENDS_ON_REMOTE_ADDRESS;
+        case AUTHMETHOD:
+            return AciEvaluationCache.DEPENDS_ON_AUTHENTICATION;
+        case SSF:
+            return AciEvaluationCache.DEPENDS_ON_SSF;
+        default:
+            // dns lookups, time, resource entry content
+            return AciEvaluationCache.NOT_CACHEABLE;
+        }
+    }
+
+    /**
+     * Returns what the evaluation of this bind rule depends on, in addition to
+     * the client identity.
+     *
+     * @return a combination of the {@link AciEvaluationCache} dependency flags
+     */
+    int getDependencies() {
+        return dependencies;
+    }
+
     /*
      * TODO Verify this method handles escaped parentheses by writing
      * a unit test.
@@ -431,20 +465,22 @@ public class BindRule {
     }
 
     /**
-     * Evaluate the results of a complex bind rule. If the boolean
+     * Evaluate a complex bind rule. If the boolean
      * is an AND type then left and right must be TRUE, else
      * it must be an OR result and one of the bind rules must be
      * TRUE.
-     * @param left The left bind rule result to evaluate.
-     * @param right The right bind result to evaluate.
+     * @param evalCtx The evaluation context to pass to the left and right
+     * bind rules.
      * @return The result of the complex evaluation.
      */
-    private EnumEvalResult evalComplex(EnumEvalResult left, EnumEvalResult right) {
+    private EnumEvalResult evalComplex(AciEvalContext evalCtx) {
+        // keyword bind rules have no side effect: stop as soon as the result is known
+        final EnumEvalResult leftResult = left.evaluate(evalCtx);
         if (booleanType == EnumBooleanTypes.AND_BOOLEAN_TYPE) {
-          if (left == EnumEvalResult.TRUE && right == EnumEvalResult.TRUE) {
+          if (leftResult == EnumEvalResult.TRUE && right.evaluate(evalCtx) == EnumEvalResult.TRUE) {
             return EnumEvalResult.TRUE;
           }
-        } else if (left == EnumEvalResult.TRUE || right == EnumEvalResult.TRUE) {
+        } else if (leftResult == EnumEvalResult.TRUE || right.evaluate(evalCtx) == EnumEvalResult.TRUE) {
           return EnumEvalResult.TRUE;
         }
        return EnumEvalResult.FALSE;
@@ -452,8 +488,8 @@ public class BindRule {
 
     /**
      * Evaluate an bind rule against an evaluation context. If it is a simple
-     * bind rule (no boolean type) then grab the keyword rule from the map
-     * table and call the corresponding evaluate function. If it is a
+     * bind rule (no boolean type) then call the evaluate function of its
+     * keyword rule. If it is a
      * complex rule call the routine above "evalComplex()".
      * @param evalCtx The evaluation context to pass to the keyword
      * evaluation function.
@@ -463,10 +499,9 @@ public class BindRule {
         EnumEvalResult ret;
         //Simple bind rules have a null booleanType enumeration.
         if(this.booleanType == null) {
-            KeywordBindRule rule=keywordRuleMap.get(keyword.toString());
             ret = rule.evaluate(evalCtx);
         } else {
-            ret = evalComplex(left.evaluate(evalCtx),right.evaluate(evalCtx));
+            ret = evalComplex(evalCtx);
         }
         return EnumEvalResult.negateIfNeeded(ret, negate);
     }
@@ -486,11 +521,9 @@ public class BindRule {
      *          should be appended.
      */
     public final void toString(StringBuilder buffer) {
-        if (this.keywordRuleMap != null) {
-            for (KeywordBindRule rule : this.keywordRuleMap.values()) {
-                rule.toString(buffer);
-                buffer.append(";");
-            }
+        if (this.rule != null) {
+            this.rule.toString(buffer);
+            buffer.append(";");
         }
     }
 }
@@ -149,6 +149,22 @@ public class UserDN implements KeywordBindRule {
         }
     }
 
+    /**
+     * Indicates whether the evaluation of this bind rule depends on the DN of
+     * the resource entry, i.e. whether it uses the self or parent user DN types.
+     *
+     * @return {@code true} if the evaluation depends on the resource DN
+     */
+    boolean dependsOnResourceDN() {
+        for (UserDNTypeURL dnTypeURL : urlList) {
+            if (dnTypeURL.getUserDNType() == EnumUserDNType.SELF
+                || dnTypeURL.getUserDNType() == EnumUserDNType.PARENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Performs the evaluation of a userdn bind rule based on the
      * evaluation context passed to it. The evaluation stops when there
@@ -215,7 +231,7 @@ public class UserDN implements KeywordBindRule {
                 DN parentDN = resDN.parent();
                 return parentDN != null && parentDN.equals(clientDN);
             case DNPATTERN:
-                return evalDNPattern(evalCtx, url);
+                return evalDNPattern(evalCtx, dnTypeURL);
             case DN:
                 return evalDN(clientDN, url);
             default:
@@ -256,18 +272,12 @@ public class UserDN implements KeywordBindRule {
     /**
      * This method evaluates a DN pattern userdn expression.
      * @param evalCtx  The evaluation context to use.
-     * @param url The LDAP URL containing the pattern.
+     * @param dnTypeURL The URL dn type mapping containing the pattern.
      * @return An enumeration evaluation result.
      */
-    private boolean evalDNPattern(AciEvalContext evalCtx, LDAPURL url) {
-        PatternDN pattern;
-        try {
-          pattern = PatternDN.decode(url.getRawBaseDN());
-        } catch (DirectoryException ex) {
-          return false;
-        }
-
-        return pattern.matchesDN(evalCtx.getClientDN());
+    private boolean evalDNPattern(AciEvalContext evalCtx, UserDNTypeURL dnTypeURL) {
+        PatternDN pattern = dnTypeURL.getPattern();
+        return pattern != null && pattern.matchesDN(evalCtx.getClientDN());
     }
 
 
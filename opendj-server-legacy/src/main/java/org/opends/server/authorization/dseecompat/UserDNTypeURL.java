@@ -16,6 +16,7 @@
  */
 package org.opends.server.authorization.dseecompat;
 
+import org.opends.server.types.DirectoryException;
 import org.opends.server.types.LDAPURL;
 
 /**
@@ -28,6 +29,8 @@ public class UserDNTypeURL {
     private final EnumUserDNType dnType;
     /** The URL value. Maybe a dummy value for types such as ANYONE or SELF. */
     private final LDAPURL url;
+    /** The pattern of a DNPATTERN type, decoded once, {@code null} for the other types or if invalid. */
+    private final PatternDN pattern;
 
     /**
      * Create a class representing the "userdn" URL decoded by the
@@ -39,6 +42,16 @@ public class UserDNTypeURL {
     UserDNTypeURL(EnumUserDNType dnType, LDAPURL url) {
         this.url=url;
         this.dnType=dnType;
+        this.pattern = dnType == EnumUserDNType.DNPATTERN ? decodePattern(url) : null;
+    }
+
+    private static PatternDN decodePattern(LDAPURL url) {
+        try {
+            return PatternDN.decode(url.getRawBaseDN());
+        } catch (DirectoryException ex) {
+            // the pattern never matches
+            return null;
+        }
     }
 
     /**
@@ -49,6 +62,15 @@ public class UserDNTypeURL {
         return this.dnType;
     }
 
+    /**
+     * Returns the pattern of a DNPATTERN type.
+     * @return The pattern, or {@code null} if this is not a DNPATTERN type or
+     * if the pattern is invalid.
+     */
+    PatternDN getPattern() {
+        return this.pattern;
+    }
+
     /** Returns the URL.
      * @return The URL decoded by the UserDN.decode() method.
      */
@@ -16,26 +16,75 @@
  */
 package org.opends.server.backends.pluggable;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.opendj.server.config.server.MonitorProviderCfg;
 import org.opends.server.api.MonitorData;
 import org.opends.server.api.MonitorProvider;
+import org.opends.server.backends.pluggable.spi.TreeName;
+import org.opends.server.types.FilterType;
 import org.opends.server.types.SearchFilter;
 import org.opends.server.util.TimeThread;
 
 /**
  * A monitor provider for high level backend statistics, such as filter stats and search counters.
+ * <p>
+ * The usage of the indexes and the filters of the unindexed searches are always gathered, so that
+ * unused indexes and missing indexes can be spotted on production servers.
  */
 class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
 {
+  /** The maximum number of unindexed filters tracked. */
+  private static final int UNINDEXED_FILTERS_MAX_ENTRIES = 100;
+  /** The number of most frequent unindexed filters reported. */
+  private static final int UNINDEXED_FILTERS_REPORTED = 10;
+
+  /** Represents the statistical information kept for each index read by searches. */
+  private static final class IndexStats
+  {
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong definedHits = new AtomicLong();
+    private final AtomicLong candidates = new AtomicLong();
+    private final AtomicLong maxCandidates = new AtomicLong();
+    private final AtomicLong limitExceeded = new AtomicLong();
+    private final AtomicLong nanos = new AtomicLong();
+
+    private void update(Tree index, EntryIDSet candidateEntryIDs, long elapsedNanos)
+    {
+      hits.incrementAndGet();
+      nanos.addAndGet(elapsedNanos);
+      if (candidateEntryIDs.isDefined())
+      {
+        final long size = candidateEntryIDs.size();
+        definedHits.incrementAndGet();
+        candidates.addAndGet(size);
+        long max = maxCandidates.get();
+        while (size > max && !maxCandidates.compareAndSet(max, size))
+        {
+          max = maxCandidates.get();
+        }
+      }
+      else if (!(index instanceof Index) || ((Index) index).isTrusted())
+      {
+        limitExceeded.incrementAndGet();
+      }
+    }
+  }
+
   /** Represents the statistical information kept for each search filter. */
   private static final class FilterStats implements Comparable<FilterStats>
   {
@@ -80,6 +129,8 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
   private final HashMap<SearchFilter, FilterStats> filterToStats = new HashMap<>();
   private final AtomicInteger indexedSearchCount = new AtomicInteger();
   private final AtomicInteger unindexedSearchCount = new AtomicInteger();
+  private final ConcurrentMap<TreeName, IndexStats> indexToStats = new ConcurrentHashMap<>();
+  private final HashMap<String, AtomicLong> unindexedFilterToHits = new HashMap<>();
 
   /**
    * Creates a new backend monitor.
@@ -102,7 +153,7 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
   @Override
   public MonitorData getMonitorData()
   {
-    MonitorData monitorAttrs = new MonitorData(5);
+    MonitorData monitorAttrs = new MonitorData(8);
 
     Collection<String> needReindexValues = createNeedReindexValues();
     if (!needReindexValues.isEmpty())
@@ -110,6 +161,22 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
       monitorAttrs.add("need-reindex", needReindexValues);
     }
 
+    Collection<String> indexUseValues = createIndexUseValues();
+    if (!indexUseValues.isEmpty())
+    {
+      monitorAttrs.add("index-use", indexUseValues);
+    }
+    Collection<String> unusedIndexValues = createUnusedIndexValues();
+    if (!unusedIndexValues.isEmpty())
+    {
+      monitorAttrs.add("unused-index", unusedIndexValues);
+    }
+    Collection<String> unindexedFilterValues = createUnindexedFilterValues();
+    if (!unindexedFilterValues.isEmpty())
+    {
+      monitorAttrs.add("unindexed-filter", unindexedFilterValues);
+    }
+
     if (filterUseEnabled)
     {
       monitorAttrs.add("filter-use-startTime", startTimeStamp);
@@ -137,6 +204,83 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
     return values;
   }
 
+  private Collection<String> createIndexUseValues()
+  {
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    for (Map.Entry<TreeName, IndexStats> entry : indexToStats.entrySet())
+    {
+      final IndexStats stats = entry.getValue();
+      final long definedHits = stats.definedHits.get();
+      final long candidates = stats.candidates.get();
+      value.append(entry.getKey());
+      value.append(" hits:").append(stats.hits.get());
+      value.append(" candidates:").append(candidates);
+      value.append(" avgcandidates:").append(definedHits > 0 ? candidates / definedHits : 0);
+      value.append(" maxcandidates:").append(stats.maxCandidates.get());
+      value.append(" limitexceeded:").append(stats.limitExceeded.get());
+      value.append(" timemicros:").append(TimeUnit.NANOSECONDS.toMicros(stats.nanos.get()));
+      values.add(value.toString());
+      value.setLength(0);
+    }
+    return values;
+  }
+
+  private Collection<String> createUnusedIndexValues()
+  {
+    Collection<String> values = new ArrayList<>();
+    for (EntryContainer ec : rootContainer.getEntryContainers())
+    {
+      for (AttributeIndex attributeIndex : ec.getAttributeIndexes())
+      {
+        for (Index index : attributeIndex.getNameToIndexes().values())
+        {
+          addIfUnused(values, index);
+        }
+      }
+      for (VLVIndex vlvIndex : ec.getVLVIndexes())
+      {
+        addIfUnused(values, vlvIndex);
+      }
+    }
+    return values;
+  }
+
+  private void addIfUnused(Collection<String> values, Tree index)
+  {
+    if (!indexToStats.containsKey(index.getName()))
+    {
+      values.add(index.getName().toString());
+    }
+  }
+
+  private List<String> createUnindexedFilterValues()
+  {
+    List<Map.Entry<String, Long>> entries = new ArrayList<>();
+    synchronized (unindexedFilterToHits)
+    {
+      for (Map.Entry<String, AtomicLong> entry : unindexedFilterToHits.entrySet())
+      {
+        entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().get()));
+      }
+    }
+    Collections.sort(entries, new Comparator<Map.Entry<String, Long>>()
+    {
+      @Override
+      public int compare(Map.Entry<String, Long> e1, Map.Entry<String, Long> e2)
+      {
+        return Long.compare(e2.getValue(), e1.getValue());
+      }
+    });
+
+    List<String> values = new ArrayList<>();
+    for (Map.Entry<String, Long> entry : entries.subList(0, Math.min(entries.size(), UNINDEXED_FILTERS_REPORTED)))
+    {
+      values.add(entry.getKey() + " hits:" + entry.getValue());
+    }
+    return values;
+  }
+
   private List<String> createFilterUseValues()
   {
     List<String> values = new ArrayList<>();
@@ -223,6 +367,147 @@ class BackendMonitor extends MonitorProvider<MonitorProviderCfg>
     }
   }
 
+  /**
+   * Updates the usage statistics of an index with the result of a read of this index.
+   *
+   * @param index The attribute or VLV index which was read.
+   * @param candidateEntryIDs The candidate entry IDs read from the index.
+   * @param elapsedNanos The time spent reading the index, in nanoseconds.
+   */
+  void updateIndexStats(Tree index, EntryIDSet candidateEntryIDs, long elapsedNanos)
+  {
+    IndexStats stats = indexToStats.get(index.getName());
+    if (stats == null)
+    {
+      final IndexStats newStats = new IndexStats();
+      stats = indexToStats.putIfAbsent(index.getName(), newStats);
+      if (stats == null)
+      {
+        stats = newStats;
+      }
+    }
+    stats.update(index, candidateEntryIDs, elapsedNanos);
+  }
+
+  /**
+   * Updates the statistics of the unindexed searches with the filter of a search which could not
+   * use any index. Filters are aggregated by shape, their assertion values being ignored.
+   * <p>
+   * Only the most frequent filters are kept: when too many filters are tracked, the least frequent
+   * one is replaced by the new filter, which inherits its number of hits so that frequent filters
+   * eventually make it to the top.
+   *
+   * @param searchFilter The filter of the unindexed search.
+   */
+  void updateUnindexedFilterStats(SearchFilter searchFilter)
+  {
+    final StringBuilder template = new StringBuilder();
+    toTemplate(searchFilter, template);
+    final String key = template.toString();
+    synchronized (unindexedFilterToHits)
+    {
+      AtomicLong hits = unindexedFilterToHits.get(key);
+      if (hits == null)
+      {
+        hits = new AtomicLong();
+        if (unindexedFilterToHits.size() >= UNINDEXED_FILTERS_MAX_ENTRIES)
+        {
+          Map.Entry<String, AtomicLong> lowest = null;
+          for (Map.Entry<String, AtomicLong> entry : unindexedFilterToHits.entrySet())
+          {
+            if (lowest == null || entry.getValue().get() < lowest.getValue().get())
+            {
+              lowest = entry;
+            }
+          }
+          unindexedFilterToHits.remove(lowest.getKey());
+          hits.set(lowest.getValue().get());
+        }
+        unindexedFilterToHits.put(key, hits);
+      }
+      hits.incrementAndGet();
+    }
+  }
+
+  /** Appends the shape of a filter, where the assertion values are replaced by question marks. */
+  private static void toTemplate(SearchFilter filter, StringBuilder buffer)
+  {
+    switch (filter.getFilterType())
+    {
+    case AND:
+    case OR:
+      buffer.append(filter.getFilterType() == FilterType.AND ? "(&" : "(|");
+      for (SearchFilter component : filter.getFilterComponents())
+      {
+        toTemplate(component, buffer);
+      }
+      buffer.append(")");
+      break;
+    case NOT:
+      buffer.append("(!");
+      toTemplate(filter.getNotComponent(), buffer);
+      buffer.append(")");
+      break;
+    case EQUALITY:
+      appendAttribute(filter, buffer).append("=?)");
+      break;
+    case SUBSTRING:
+      appendAttribute(filter, buffer).append("=");
+      if (filter.getSubInitialElement() != null)
+      {
+        buffer.append("?");
+      }
+      if (filter.getSubAnyElements() != null)
+      {
+        for (int i = 0; i < filter.getSubAnyElements().size(); i++)
+        {
+          buffer.append("*?");
+        }
+      }
+      buffer.append("*");
+      if (filter.getSubFinalElement() != null)
+      {
+        buffer.append("?");
+      }
+      buffer.append(")");
+      break;
+    case GREATER_OR_EQUAL:
+      appendAttribute(filter, buffer).append(">=?)");
+      break;
+    case LESS_OR_EQUAL:
+      appendAttribute(filter, buffer).append("<=?)");
+      break;
+    case PRESENT:
+      appendAttribute(filter, buffer).append("=*)");
+      break;
+    case APPROXIMATE_MATCH:
+      appendAttribute(filter, buffer).append("~=?)");
+      break;
+    case EXTENSIBLE_MATCH:
+      appendAttribute(filter, buffer);
+      if (filter.getDNAttributes())
+      {
+        buffer.append(":dn");
+      }
+      if (filter.getMatchingRuleID() != null)
+      {
+        buffer.append(":").append(filter.getMatchingRuleID());
+      }
+      buffer.append(":=?)");
+      break;
+    }
+  }
+
+  private static StringBuilder appendAttribute(SearchFilter filter, StringBuilder buffer)
+  {
+    buffer.append("(");
+    if (filter.getAttributeType() != null)
+    {
+      buffer.append(filter.getAttributeType().getNameOrOID());
+    }
+    return buffer;
+  }
+
   /**
    * Enable or disable index filter statistics gathering.
    *
@@ -741,9 +741,12 @@ public class EntryContainer
             {
               try
               {
+                final long startNanos = System.nanoTime();
                 candidateEntryIDs = vlvIndex.evaluate(txn, searchOperation, sortRequest, vlvRequest, debugBuffer);
                 if (candidateEntryIDs != null)
                 {
+                  rootContainer.getMonitorProvider().updateIndexStats(
+                      vlvIndex, candidateEntryIDs, System.nanoTime() - startNanos);
                   addServerSideSortControl(searchOperation, SUCCESS);
                   candidatesAreInScope = true;
                   break;
@@ -858,6 +861,7 @@ public class EntryContainer
           else
           {
             rootContainer.getMonitorProvider().incrementUnindexedSearchCount();
+            rootContainer.getMonitorProvider().updateUnindexedFilterStats(searchOperation.getFilter());
 
             searchOperation.addAdditionalLogItem(keyOnly(getClass(), "unindexed"));
 
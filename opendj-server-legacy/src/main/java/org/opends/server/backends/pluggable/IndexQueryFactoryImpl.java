@@ -154,6 +154,8 @@ final class IndexQueryFactoryImpl implements IndexQueryFactory<IndexQuery>
   private final ReadableTransaction txn;
   /** The Map containing the string type identifier and the corresponding index. */
   private final AttributeIndex attributeIndex;
+  /** The monitor gathering the index usage stats. */
+  private final BackendMonitor monitor;
 
   /**
    * Creates a new IndexQueryFactoryImpl object.
@@ -162,11 +164,14 @@ final class IndexQueryFactoryImpl implements IndexQueryFactory<IndexQuery>
    *          The readable storage
    * @param attributeIndex
    *          The targeted attribute index
+   * @param monitor
+   *          The monitor to gather index usage stats
    */
-  IndexQueryFactoryImpl(ReadableTransaction txn, AttributeIndex attributeIndex)
+  IndexQueryFactoryImpl(ReadableTransaction txn, AttributeIndex attributeIndex, BackendMonitor monitor)
   {
     this.txn = txn;
     this.attributeIndex = attributeIndex;
+    this.monitor = monitor;
   }
 
   @Override
@@ -201,7 +206,9 @@ final class IndexQueryFactoryImpl implements IndexQueryFactory<IndexQuery>
             }
           }
 
+          final long startNanos = System.nanoTime();
           final EntryIDSet entrySet = index.get(txn, indexKey);
+          monitor.updateIndexStats(index, entrySet, System.nanoTime() - startNanos);
           updateStatsForUndefinedResults(debugMessage, entrySet, index);
           return entrySet;
         }
@@ -230,7 +237,9 @@ final class IndexQueryFactoryImpl implements IndexQueryFactory<IndexQuery>
           return createMatchAllQuery().evaluate(debugMessage, indexNameOut);
         }
 
+        final long startNanos = System.nanoTime();
         final EntryIDSet entrySet = readRange(index, txn, lowerBound, upperBound, includeLowerBound, includeUpperBound);
+        monitor.updateIndexStats(index, entrySet, System.nanoTime() - startNanos);
         updateStatsForUndefinedResults(debugMessage, entrySet, index);
         return entrySet;
       }
@@ -362,7 +371,9 @@ final class IndexQueryFactoryImpl implements IndexQueryFactory<IndexQuery>
             return newUndefinedSet();
           }
 
+          final long startNanos = System.nanoTime();
           final EntryIDSet entrySet = index.get(txn, AttributeIndex.PRESENCE_KEY);
+          monitor.updateIndexStats(index, entrySet, System.nanoTime() - startNanos);
           updateStatsForUndefinedResults(debugMessage, entrySet, index);
           if (indexNameOut != null)
           {
@@ -130,6 +130,8 @@ import org.opends.server.loggers.RotationPolicy;
 import org.opends.server.loggers.TextErrorLogPublisher;
 import org.opends.server.loggers.TextWriter;
 import org.opends.server.monitors.ConnectionHandlerMonitor;
+import org.opends.server.monitors.OperationLatencies;
+import org.opends.server.monitors.OperationLatencyMonitor;
 import org.opends.server.protocols.internal.InternalClientConnection;
 import org.opends.server.protocols.internal.InternalConnectionHandler;
 import org.opends.server.schema.SchemaHandler;
@@ -221,6 +223,11 @@ public final class DirectoryServer
 
   /** The authenticated users manager for the server. */
   private AuthenticatedUsers authenticatedUsers;
+
+  /** Writes the last login times of users in the background. */
+  private LastLoginTimeWriter lastLoginTimeWriter;
+  /** Remembers the passwords recently verified during binds. */
+  private PasswordVerificationCache passwordVerificationCache;
   /** The configuration manager that will handle the server backends. */
   private BackendConfigManager backendConfigManager;
 
@@ -531,6 +538,9 @@ public final class DirectoryServer
   /** The Disk Space Monitor. */
   private final DiskSpaceMonitor diskSpaceMonitor;
 
+  /** The latencies of the operations processed by the server. */
+  private final OperationLatencyMonitor operationLatencyMonitor = new OperationLatencyMonitor();
+
   /** The lock manager which will be used for coordinating access to LDAP entries. */
   private final LockManager lockManager = new LockManager();
 
@@ -1485,6 +1495,7 @@ public final class DirectoryServer
 
       monitorConfigManager = new MonitorConfigManager(serverContext);
       monitorConfigManager.initializeMonitorProviders();
+      registerMonitorProvider(operationLatencyMonitor);
 
       pluginConfigManager.initializeUserPlugins(null);
 
@@ -1574,6 +1585,8 @@ public final class DirectoryServer
   private void initializeAuthenticatedUsers()
   {
     directoryServer.authenticatedUsers = new AuthenticatedUsers();
+    directoryServer.lastLoginTimeWriter = new LastLoginTimeWriter();
+    directoryServer.passwordVerificationCache = new PasswordVerificationCache();
   }
 
   /**
@@ -1586,6 +1599,38 @@ public final class DirectoryServer
     return directoryServer.authenticatedUsers;
   }
 
+  /**
+   * Retrieves the writer of the last login times delayed after binds.
+   *
+   * @return  The writer of the last login times, or {@code null} if the
+   *          server is not running.
+   */
+  static LastLoginTimeWriter getLastLoginTimeWriter()
+  {
+    return directoryServer.lastLoginTimeWriter;
+  }
+
+  /**
+   * Retrieves the cache of the passwords recently verified.
+   *
+   * @return  The cache of the verified passwords, or {@code null} if the
+   *          server is not running.
+   */
+  static PasswordVerificationCache getPasswordVerificationCache()
+  {
+    return directoryServer.passwordVerificationCache;
+  }
+
+  /**
+   * Retrieves the latencies of the operations processed by the server.
+   *
+   * @return  The latencies of the operations processed by the server.
+   */
+  public static OperationLatencies getOperationLatencies()
+  {
+    return directoryServer.operationLatencyMonitor.getOperationLatencies();
+  }
+
   private void initializeCryptoManager()
          throws ConfigException, InitializationException
   {
@@ -32,6 +32,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -66,6 +67,8 @@ import org.forgerock.opendj.ldap.DN;
 import org.opends.server.types.DirectoryException;
 import org.opends.server.types.Entry;
 import org.opends.server.types.InitializationException;
+import org.opends.server.types.MemberList;
+import org.opends.server.types.MembershipException;
 import org.opends.server.types.Modification;
 import org.opends.server.types.SearchFilter;
 import org.opends.server.types.SearchResultEntry;
@@ -111,6 +114,30 @@ public class GroupManager extends InternalDirectoryServerPlugin
   /** Lock to protect internal data structures. */
   private final ReadWriteLock lock;
 
+  /** Reverse index from the members to the groups explicitly listing them. */
+  private final GroupMembershipIndex membershipIndex = new GroupMembershipIndex(this);
+
+  /** Incremented each time a registered group gains or loses its explicit member list. */
+  private final AtomicLong memberListsVersion = new AtomicLong();
+
+  /** The groups without an explicit member list, and the tokens when they were collected. */
+  private volatile NonIndexedGroups nonIndexedGroups;
+
+  /** The groups whose membership cannot be found in the membership index. */
+  private static final class NonIndexedGroups
+  {
+    private final long refreshToken;
+    private final long memberListsVersion;
+    private final List<Group<?>> groups;
+
+    private NonIndexedGroups(long refreshToken, long memberListsVersion, List<Group<?>> groups)
+    {
+      this.refreshToken = refreshToken;
+      this.memberListsVersion = memberListsVersion;
+      this.groups = groups;
+    }
+  }
+
   /** Dummy configuration DN for Group Manager. */
   private static final String CONFIG_DN = "cn=Group Manager,cn=config";
 
@@ -272,6 +299,8 @@ public class GroupManager extends InternalDirectoryServerPlugin
             iterator.remove();
           }
         }
+        refreshToken++;
+        membershipIndex.removeDeregisteredGroups();
       }
       finally
       {
@@ -333,6 +362,8 @@ public class GroupManager extends InternalDirectoryServerPlugin
                 iterator.remove();
               }
             }
+            refreshToken++;
+            membershipIndex.removeDeregisteredGroups();
           }
           finally
           {
@@ -488,6 +519,24 @@ public class GroupManager extends InternalDirectoryServerPlugin
     }
   }
 
+  /**
+   * Retrieves the number of group instances defined in the server.
+   *
+   * @return  The number of group instances defined in the server.
+   */
+  public int getNbGroupInstances()
+  {
+    lock.readLock().lock();
+    try
+    {
+      return groupInstances.size();
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+  }
+
   /**
    * Retrieves the group instance defined in the entry with the specified DN.
    *
@@ -582,6 +631,7 @@ public class GroupManager extends InternalDirectoryServerPlugin
               Group<?> groupInstance = groupImplementation.newInstance(serverContext, entry);
               groupInstances.put(entry.getName(), groupInstance);
               refreshToken++;
+              indexMembers(groupInstance);
             }
             catch (DirectoryException e)
             {
@@ -616,8 +666,10 @@ public class GroupManager extends InternalDirectoryServerPlugin
         if (backend.handlesEntry(groupEntryDN))
         {
           iterator.remove();
+          refreshToken++;
         }
       }
+      membershipIndex.removeDeregisteredGroups();
     }
     finally
     {
@@ -680,6 +732,8 @@ public class GroupManager extends InternalDirectoryServerPlugin
     lock.writeLock().lock();
     try
     {
+      // groups deleted with a parent entry are removed from the index when read
+      unindexMembers(groupInstances.get(entry.getName()));
       if (groupInstances.removeSubtree(entry.getName(), null))
       {
         refreshToken++;
@@ -751,6 +805,7 @@ public class GroupManager extends InternalDirectoryServerPlugin
             || !group.mayAlterMemberList()
             || updatesObjectClass(modifications))
         {
+          unindexMembers(group);
           groupInstances.remove(oldEntry.getName());
           // This updates the refreshToken
           createAndRegisterGroup(newEntry);
@@ -803,6 +858,7 @@ public class GroupManager extends InternalDirectoryServerPlugin
       if (!groupSet.isEmpty())
       {
         refreshToken++;
+        membershipIndex.nestingChanged();
       }
     }
     finally
@@ -944,6 +1000,7 @@ public class GroupManager extends InternalDirectoryServerPlugin
           {
             groupInstances.put(entry.getName(), groupInstance);
             refreshToken++;
+            indexMembers(groupInstance);
           }
           finally
           {
@@ -969,6 +1026,8 @@ public class GroupManager extends InternalDirectoryServerPlugin
     try
     {
       groupInstances.clear();
+      refreshToken++;
+      membershipIndex.clear();
     }
     finally
     {
@@ -976,6 +1035,227 @@ public class GroupManager extends InternalDirectoryServerPlugin
     }
   }
 
+  /** Adds the members of a newly registered group to the membership index. */
+  private void indexMembers(Group<?> group)
+  {
+    if (group.hasExplicitMemberList())
+    {
+      updateIndex(group, true);
+    }
+    membershipIndex.nestingChanged();
+  }
+
+  /** Removes the members of a group about to be deregistered from the membership index. */
+  private void unindexMembers(Group<?> group)
+  {
+    if (group != null && group.hasExplicitMemberList())
+    {
+      updateIndex(group, false);
+    }
+  }
+
+  private void updateIndex(Group<?> group, boolean add)
+  {
+    try (MemberList members = group.getMembers())
+    {
+      while (members.hasMoreMembers())
+      {
+        try
+        {
+          final DN memberDN = members.nextMemberDN();
+          if (add)
+          {
+            membershipIndex.addMember(group, memberDN);
+          }
+          else
+          {
+            membershipIndex.removeMember(group, memberDN);
+          }
+        }
+        catch (MembershipException e)
+        {
+          logger.traceException(e);
+        }
+      }
+    }
+    catch (DirectoryException e)
+    {
+      logger.traceException(e);
+    }
+  }
+
+  /**
+   * Notifies this group manager that a registered group gained or lost its
+   * explicit member list, i.e. that {@link Group#hasExplicitMemberList()} now
+   * returns a different value. A group gaining its member list must have
+   * notified each of its members before, a group losing it must notify their
+   * removal afterwards.
+   *
+   * @param group
+   *          The group whose member list changed.
+   */
+  public void explicitMemberListChanged(Group<?> group)
+  {
+    memberListsVersion.incrementAndGet();
+    membershipIndex.nestingChanged();
+  }
+
+  /**
+   * Notifies this group manager that a member has been added to a group with
+   * an explicit member list.
+   *
+   * @param group
+   *          The group to which the member has been added.
+   * @param memberDN
+   *          The DN of the member.
+   * @see Group#hasExplicitMemberList()
+   */
+  public void memberAdded(Group<?> group, DN memberDN)
+  {
+    membershipIndex.addMember(group, memberDN);
+  }
+
+  /**
+   * Notifies this group manager that a member has been removed from a group
+   * with an explicit member list.
+   *
+   * @param group
+   *          The group from which the member has been removed.
+   * @param memberDN
+   *          The DN of the member.
+   * @see Group#hasExplicitMemberList()
+   */
+  public void memberRemoved(Group<?> group, DN memberDN)
+  {
+    membershipIndex.removeMember(group, memberDN);
+  }
+
+  /**
+   * Indicates whether the user with the provided DN is a member of the
+   * provided group, directly or through nested groups.
+   * <p>
+   * Unlike {@link Group#isMember(DN)}, this method uses the membership index,
+   * so that the nested groups are not walked down for each check.
+   *
+   * @param group
+   *          The group.
+   * @param userDN
+   *          The DN of the user.
+   * @return {@code true} if the user is a member of the group, or
+   *         {@code false} if not.
+   * @throws DirectoryException
+   *           If a problem occurs while evaluating the membership of a group
+   *           without an explicit member list.
+   */
+  public boolean isMember(Group<?> group, DN userDN) throws DirectoryException
+  {
+    if (!group.hasExplicitMemberList())
+    {
+      return group.isMember(userDN);
+    }
+    if (membershipIndex.getGroups(userDN).contains(group))
+    {
+      return true;
+    }
+    // the group may contain groups whose members are not indexed
+    for (Group<?> nestedGroup : getNonIndexedGroups())
+    {
+      if (membershipIndex.getAncestors(nestedGroup).contains(group) && nestedGroup.isMember(userDN))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Indicates whether the user with the provided entry is a member of the
+   * provided group, directly or through nested groups.
+   * <p>
+   * Unlike {@link Group#isMember(Entry)}, this method uses the membership
+   * index, so that the nested groups are not walked down for each check.
+   *
+   * @param group
+   *          The group.
+   * @param userEntry
+   *          The entry of the user.
+   * @return {@code true} if the user is a member of the group, or
+   *         {@code false} if not.
+   * @throws DirectoryException
+   *           If a problem occurs while evaluating the membership of a group
+   *           without an explicit member list.
+   */
+  public boolean isMember(Group<?> group, Entry userEntry) throws DirectoryException
+  {
+    if (!group.hasExplicitMemberList())
+    {
+      return group.isMember(userEntry);
+    }
+    if (membershipIndex.getGroups(userEntry.getName()).contains(group))
+    {
+      return true;
+    }
+    // the group may contain groups whose members are not indexed
+    for (Group<?> nestedGroup : getNonIndexedGroups())
+    {
+      if (membershipIndex.getAncestors(nestedGroup).contains(group) && nestedGroup.isMember(userEntry))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns all the groups of which the user with the provided entry is a
+   * member, directly or through nested groups.
+   *
+   * @param userEntry
+   *          The entry of the user.
+   * @return The groups of which the user is a member.
+   */
+  public Set<Group<?>> getGroupInstancesContaining(Entry userEntry)
+  {
+    final Set<Group<?>> groups = membershipIndex.getGroups(userEntry.getName());
+    for (Group<?> group : getNonIndexedGroups())
+    {
+      try
+      {
+        if (!groups.contains(group) && group.isMember(userEntry))
+        {
+          groups.add(group);
+          groups.addAll(membershipIndex.getAncestors(group));
+        }
+      }
+      catch (DirectoryException e)
+      {
+        logger.traceException(e);
+      }
+    }
+    return groups;
+  }
+
+  private List<Group<?>> getNonIndexedGroups()
+  {
+    final long token = refreshToken;
+    final long version = memberListsVersion.get();
+    NonIndexedGroups nonIndexed = nonIndexedGroups;
+    if (nonIndexed == null || nonIndexed.refreshToken != token || nonIndexed.memberListsVersion != version)
+    {
+      final List<Group<?>> groups = new ArrayList<>();
+      for (Group<?> group : getGroupInstances())
+      {
+        if (!group.hasExplicitMemberList())
+        {
+          groups.add(group);
+        }
+      }
+      nonIndexed = new NonIndexedGroups(token, version, groups);
+      nonIndexedGroups = nonIndexed;
+    }
+    return nonIndexed.groups;
+  }
+
   /**
    * Compare the specified token against the current group manager
    * token value. Can be used to reload cached group instances if there has
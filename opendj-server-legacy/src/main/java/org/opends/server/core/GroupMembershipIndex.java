@@ -0,0 +1,291 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.core;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.DN;
+import org.opends.server.api.Group;
+
+/**
+ * Reverse index from member DNs to the groups explicitly listing them.
+ * <p>
+ * Groups with an explicit member list notify the group manager of each change
+ * to their member list, which updates this index. The groups containing a
+ * member transitively, through nested groups, are computed by walking up this
+ * index from the groups directly containing the member. The transitive groups
+ * of each nested group are cached until the nesting changes, i.e. until a group
+ * is added as a member or removed, or until a group is registered or
+ * deregistered.
+ * <p>
+ * Groups which are not registered with the group manager anymore are ignored
+ * when reading this index, and removed from it by
+ * {@link #removeDeregisteredGroups()}.
+ */
+final class GroupMembershipIndex
+{
+  private final GroupManager groupManager;
+
+  /** The groups explicitly listing each member, keyed by normalized member DN. */
+  private final ConcurrentMap<ByteString, Set<Group<?>>> groupsByMember = new ConcurrentHashMap<>();
+
+  /** The groups transitively containing each nested group. */
+  private final ConcurrentMap<Group<?>, Set<Group<?>>> ancestorsByGroup = new ConcurrentHashMap<>();
+
+  /** Incremented each time the nesting changes, guards the cached ancestors. */
+  private final AtomicLong nestingVersion = new AtomicLong();
+
+  /**
+   * Creates a new index.
+   *
+   * @param groupManager
+   *          the group manager, used to check whether groups are still registered
+   */
+  GroupMembershipIndex(GroupManager groupManager)
+  {
+    this.groupManager = groupManager;
+  }
+
+  /**
+   * Records that a group explicitly lists the provided member.
+   *
+   * @param group
+   *          the group
+   * @param memberDN
+   *          the DN of the member
+   */
+  void addMember(Group<?> group, DN memberDN)
+  {
+    final ByteString key = memberDN.toNormalizedByteString();
+    synchronized (this)
+    {
+      final Set<Group<?>> groups = groupsByMember.get(key);
+      if (groups == null || !groups.contains(group))
+      {
+        final Set<Group<?>> newGroups = newGroupSet();
+        if (groups != null)
+        {
+          newGroups.addAll(groups);
+        }
+        newGroups.add(group);
+        groupsByMember.put(key, newGroups);
+      }
+    }
+    memberChanged(memberDN);
+  }
+
+  /**
+   * Records that a group does not list the provided member anymore.
+   *
+   * @param group
+   *          the group
+   * @param memberDN
+   *          the DN of the member
+   */
+  void removeMember(Group<?> group, DN memberDN)
+  {
+    final ByteString key = memberDN.toNormalizedByteString();
+    synchronized (this)
+    {
+      final Set<Group<?>> groups = groupsByMember.get(key);
+      if (groups != null && groups.contains(group))
+      {
+        if (groups.size() == 1)
+        {
+          groupsByMember.remove(key);
+        }
+        else
+        {
+          final Set<Group<?>> newGroups = newGroupSet();
+          newGroups.addAll(groups);
+          newGroups.remove(group);
+          groupsByMember.put(key, newGroups);
+        }
+      }
+    }
+    memberChanged(memberDN);
+  }
+
+  private void memberChanged(DN memberDN)
+  {
+    if (groupManager.getGroupInstance(memberDN) != null)
+    {
+      nestingChanged();
+    }
+  }
+
+  /** Invalidates the cached ancestors after groups have been registered, deregistered or renamed. */
+  void nestingChanged()
+  {
+    nestingVersion.incrementAndGet();
+    ancestorsByGroup.clear();
+  }
+
+  /** Removes the groups which are not registered anymore from this index. */
+  synchronized void removeDeregisteredGroups()
+  {
+    for (Map.Entry<ByteString, Set<Group<?>>> entry : groupsByMember.entrySet())
+    {
+      final Set<Group<?>> groups = entry.getValue();
+      final Set<Group<?>> liveGroups = newGroupSet();
+      for (Group<?> group : groups)
+      {
+        if (isRegistered(group))
+        {
+          liveGroups.add(group);
+        }
+      }
+      if (liveGroups.isEmpty())
+      {
+        groupsByMember.remove(entry.getKey(), groups);
+      }
+      else if (liveGroups.size() != groups.size())
+      {
+        groupsByMember.replace(entry.getKey(), groups, liveGroups);
+      }
+    }
+    nestingChanged();
+  }
+
+  /** Removes all the groups from this index. */
+  synchronized void clear()
+  {
+    groupsByMember.clear();
+    nestingChanged();
+  }
+
+  /**
+   * Returns the registered groups containing the provided member, directly or
+   * through nested groups.
+   *
+   * @param memberDN
+   *          the DN of the member
+   * @return the registered groups containing the member, which may be modified
+   *         by the caller
+   */
+  Set<Group<?>> getGroups(DN memberDN)
+  {
+    final Set<Group<?>> result = new LinkedHashSet<>();
+    for (Group<?> group : getDirectGroups(memberDN))
+    {
+      if (result.add(group))
+      {
+        result.addAll(getAncestors(group));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the registered groups containing the provided group, directly or
+   * through nested groups.
+   *
+   * @param group
+   *          the nested group
+   * @return the registered groups containing the provided group
+   */
+  Set<Group<?>> getAncestors(Group<?> group)
+  {
+    Set<Group<?>> ancestors = ancestorsByGroup.get(group);
+    if (ancestors == null)
+    {
+      final long version = nestingVersion.get();
+      ancestors = computeAncestors(group);
+      if (nestingVersion.get() == version)
+      {
+        ancestorsByGroup.put(group, ancestors);
+        if (nestingVersion.get() != version)
+        {
+          // raced with a change of the nesting
+          ancestorsByGroup.remove(group, ancestors);
+        }
+      }
+    }
+    return ancestors;
+  }
+
+  private Set<Group<?>> computeAncestors(Group<?> group)
+  {
+    final Set<Group<?>> visited = newGroupSet();
+    visited.add(group);
+    final Set<Group<?>> ancestors = new LinkedHashSet<>();
+    final Queue<Group<?>> toVisit = new ArrayDeque<>();
+    toVisit.add(group);
+    while (!toVisit.isEmpty())
+    {
+      for (Group<?> parent : getDirectGroups(toVisit.remove().getGroupDN()))
+      {
+        if (visited.add(parent))
+        {
+          ancestors.add(parent);
+          toVisit.add(parent);
+        }
+      }
+    }
+    return Collections.unmodifiableSet(ancestors);
+  }
+
+  private Set<Group<?>> getDirectGroups(DN memberDN)
+  {
+    final ByteString key = memberDN.toNormalizedByteString();
+    final Set<Group<?>> groups = groupsByMember.get(key);
+    if (groups == null)
+    {
+      return Collections.emptySet();
+    }
+    final Set<Group<?>> liveGroups = newGroupSet();
+    for (Group<?> group : groups)
+    {
+      if (isRegistered(group))
+      {
+        liveGroups.add(group);
+      }
+    }
+    if (liveGroups.size() != groups.size())
+    {
+      // forget the groups which have been deregistered
+      if (liveGroups.isEmpty())
+      {
+        groupsByMember.remove(key, groups);
+      }
+      else
+      {
+        groupsByMember.replace(key, groups, liveGroups);
+      }
+    }
+    return liveGroups;
+  }
+
+  private boolean isRegistered(Group<?> group)
+  {
+    return groupManager.getGroupInstance(group.getGroupDN()) == group;
+  }
+
+  private static Set<Group<?>> newGroupSet()
+  {
+    return Collections.newSetFromMap(new IdentityHashMap<Group<?>, Boolean>());
+  }
+}
@@ -0,0 +1,404 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.core;
+
+import static org.opends.messages.CoreMessages.*;
+import static org.opends.server.protocols.internal.InternalClientConnection.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.forgerock.i18n.slf4j.LocalizedLogger;
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.ResultCode;
+import org.forgerock.opendj.server.config.server.MonitorProviderCfg;
+import org.opends.server.api.DirectoryThread;
+import org.opends.server.api.MonitorData;
+import org.opends.server.api.MonitorProvider;
+import org.opends.server.api.ServerShutdownListener;
+import org.opends.server.types.Modification;
+
+/**
+ * Writes the last login time of users in the background.
+ * <p>
+ * When the last-login-time-update-interval of a password policy is not zero,
+ * and the last login time is the only change to write to a user entry after a
+ * bind, the modification is queued here instead of being written before the
+ * bind response is returned. The pending modifications are keyed by user DN, so
+ * that all the logins of a user until the modification is written are
+ * coalesced into a single write of the most recent login time. Each
+ * modification is written once the interval of its policy has elapsed, and the
+ * remaining ones are written when the server shuts down.
+ * <p>
+ * The other changes of the password policy state, like the authentication
+ * failure times used for the account lockout, are always written before the
+ * bind response. When they are written with the last login time, the pending
+ * modification of the user is discarded, and the modification of the user
+ * being written in the background, if any, is waited for, so that the last
+ * login time never goes backwards.
+ */
+final class LastLoginTimeWriter implements ServerShutdownListener, Runnable
+{
+  private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
+
+  /** How often the writer thread checks for modifications to write, in milliseconds. */
+  private static final long CHECK_INTERVAL_MILLIS = 1000;
+
+  /** A modification waiting to be written. */
+  private static final class PendingUpdate
+  {
+    private final DN userDN;
+    private final long writeTime;
+    /** The most recent last login time, guarded by the writer. */
+    private Modification modification;
+
+    private PendingUpdate(DN userDN, long writeTime, Modification modification)
+    {
+      this.userDN = userDN;
+      this.writeTime = writeTime;
+      this.modification = modification;
+    }
+  }
+
+  /** The pending modifications, keyed by user DN. */
+  private final Map<DN, PendingUpdate> pendingUpdates = new HashMap<>();
+  /**
+   * The pending modifications in the order they must be written, per update
+   * interval, so that the write times increase along each queue. May contain
+   * modifications which have been discarded since.
+   */
+  private final Map<Long, Queue<PendingUpdate>> writeQueues = new TreeMap<>();
+  /** The users whose modification has been taken from the pending modifications and is being written. */
+  private final Set<DN> writingUsers = new HashSet<>();
+
+  private final AtomicLong queuedUpdates = new AtomicLong();
+  private final AtomicLong coalescedUpdates = new AtomicLong();
+  private final AtomicLong writtenUpdates = new AtomicLong();
+  private final AtomicLong failedUpdates = new AtomicLong();
+
+  private final WriterMonitorProvider monitor = new WriterMonitorProvider();
+
+  /** The writer thread, started with the first queued modification. */
+  private Thread writerThread;
+  private boolean stopped;
+
+  /** Creates a new writer, and registers it as a shutdown listener and a monitor provider. */
+  LastLoginTimeWriter()
+  {
+    DirectoryServer.registerShutdownListener(this);
+    DirectoryServer.registerMonitorProvider(monitor);
+  }
+
+  /**
+   * Queues the modification of the last login time of a user.
+   *
+   * @param userDN
+   *          the DN of the user
+   * @param modification
+   *          the modification replacing the last login time
+   * @param updateInterval
+   *          the maximum time to wait before writing the modification, in
+   *          seconds
+   * @return {@code true} if the modification has been queued, {@code false}
+   *         if the server is shutting down and the modification must be
+   *         written by the caller
+   */
+  boolean enqueue(DN userDN, Modification modification, long updateInterval)
+  {
+    synchronized (this)
+    {
+      if (stopped)
+      {
+        return false;
+      }
+      queuedUpdates.incrementAndGet();
+      final PendingUpdate pending = pendingUpdates.get(userDN);
+      if (pending != null)
+      {
+        pending.modification = modification;
+        coalescedUpdates.incrementAndGet();
+        return true;
+      }
+
+      final PendingUpdate update =
+          new PendingUpdate(userDN, System.currentTimeMillis() + updateInterval * 1000, modification);
+      pendingUpdates.put(userDN, update);
+      Queue<PendingUpdate> queue = writeQueues.get(updateInterval);
+      if (queue == null)
+      {
+        queue = new ArrayDeque<>();
+        writeQueues.put(updateInterval, queue);
+      }
+      queue.add(update);
+
+      if (writerThread == null)
+      {
+        writerThread = new DirectoryThread(this, "Last Login Time Writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Discards the pending modification of a user, because a more recent last
+   * login time is being written synchronously. If a modification of the user
+   * is being written, waits until it is written, so that it cannot overwrite
+   * the more recent last login time.
+   *
+   * @param userDN
+   *          the DN of the user
+   */
+  void discard(DN userDN)
+  {
+    synchronized (this)
+    {
+      pendingUpdates.remove(userDN);
+      while (writingUsers.contains(userDN))
+      {
+        try
+        {
+          wait();
+        }
+        catch (InterruptedException e)
+        {
+          logger.traceException(e);
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the pending modifications whose write time has come, removing them
+   * from the pending modifications. Their users are marked as being written.
+   *
+   * @param now
+   *          the current time, or {@link Long#MAX_VALUE} to return all the
+   *          pending modifications
+   */
+  private List<PendingUpdate> takeDueUpdates(long now)
+  {
+    synchronized (this)
+    {
+      if (pendingUpdates.isEmpty())
+      {
+        writeQueues.clear();
+        return Collections.emptyList();
+      }
+      final List<PendingUpdate> dueUpdates = new ArrayList<>();
+      for (Queue<PendingUpdate> queue : writeQueues.values())
+      {
+        while (!queue.isEmpty() && queue.peek().writeTime <= now)
+        {
+          final PendingUpdate update = queue.remove();
+          // skip the modifications discarded since they were queued
+          if (pendingUpdates.get(update.userDN) == update)
+          {
+            pendingUpdates.remove(update.userDN);
+            writingUsers.add(update.userDN);
+            dueUpdates.add(update);
+          }
+        }
+      }
+      return dueUpdates;
+    }
+  }
+
+  /** Writes all the pending modifications now. */
+  void flush()
+  {
+    write(takeDueUpdates(Long.MAX_VALUE));
+  }
+
+  private void write(List<PendingUpdate> updates)
+  {
+    for (PendingUpdate update : updates)
+    {
+      try
+      {
+        write(update);
+      }
+      catch (RuntimeException e)
+      {
+        logger.traceException(e);
+        failedUpdates.incrementAndGet();
+      }
+      finally
+      {
+        synchronized (this)
+        {
+          writingUsers.remove(update.userDN);
+          notifyAll();
+        }
+      }
+    }
+  }
+
+  private void write(PendingUpdate update)
+  {
+    final Modification modification;
+    synchronized (this)
+    {
+      modification = update.modification;
+    }
+    // the plugins may add modifications
+    final List<Modification> modifications = new ArrayList<>(1);
+    modifications.add(modification);
+    final ModifyOperation modifyOperation = getRootConnection().processModify(update.userDN, modifications);
+    final ResultCode resultCode = modifyOperation.getResultCode();
+    if (resultCode == ResultCode.SUCCESS)
+    {
+      writtenUpdates.incrementAndGet();
+    }
+    else
+    {
+      failedUpdates.incrementAndGet();
+      // the user may have been deleted since it authenticated
+      if (resultCode != ResultCode.NO_SUCH_OBJECT)
+      {
+        logger.error(ERR_PWPSTATE_CANNOT_UPDATE_USER_ENTRY.get(update.userDN, modifyOperation.getErrorMessage()));
+      }
+    }
+  }
+
+  @Override
+  public void run()
+  {
+    while (true)
+    {
+      synchronized (this)
+      {
+        if (stopped)
+        {
+          return;
+        }
+      }
+      try
+      {
+        write(takeDueUpdates(System.currentTimeMillis()));
+      }
+      catch (RuntimeException e)
+      {
+        logger.traceException(e);
+      }
+      synchronized (this)
+      {
+        if (!stopped)
+        {
+          try
+          {
+            wait(CHECK_INTERVAL_MILLIS);
+          }
+          catch (InterruptedException e)
+          {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of modifications waiting to be written.
+   *
+   * @return the number of pending modifications
+   */
+  int getPendingUpdates()
+  {
+    synchronized (this)
+    {
+      return pendingUpdates.size();
+    }
+  }
+
+  @Override
+  public String getShutdownListenerName()
+  {
+    return "Last Login Time Writer";
+  }
+
+  @Override
+  public void processServerShutdown(LocalizableMessage reason)
+  {
+    final Thread thread;
+    synchronized (this)
+    {
+      stopped = true;
+      thread = writerThread;
+      notifyAll();
+    }
+    if (thread != null)
+    {
+      try
+      {
+        thread.join();
+      }
+      catch (InterruptedException e)
+      {
+        logger.traceException(e);
+        Thread.currentThread().interrupt();
+      }
+    }
+    flush();
+    DirectoryServer.deregisterMonitorProvider(monitor);
+    DirectoryServer.deregisterShutdownListener(this);
+  }
+
+  /** Exposes the activity of the writer. */
+  private final class WriterMonitorProvider extends MonitorProvider<MonitorProviderCfg>
+  {
+    @Override
+    public MonitorData getMonitorData()
+    {
+      final long queued = queuedUpdates.get();
+      final long coalesced = coalescedUpdates.get();
+      final MonitorData attributes = new MonitorData(6);
+      attributes.add("pending-updates", getPendingUpdates());
+      attributes.add("queued-updates", queued);
+      attributes.add("coalesced-updates", coalesced);
+      attributes.add("coalescing-ratio", queued > 0 ? 100 * coalesced / queued : 0);
+      attributes.add("written-updates", writtenUpdates.get());
+      attributes.add("failed-updates", failedUpdates.get());
+      return attributes;
+    }
+
+    @Override
+    public String getMonitorInstanceName()
+    {
+      return "Last Login Time Writer";
+    }
+
+    @Override
+    public void initializeMonitorProvider(MonitorProviderCfg configuration)
+    {
+      // Nothing to do
+    }
+  }
+}
@@ -247,6 +247,18 @@ public class OperationWrapper<W extends Operation> implements Operation
     return operation.getProcessingNanoTime();
   }
 
+  @Override
+  public long getPreciseProcessingNanoTime()
+  {
+    return operation.getPreciseProcessingNanoTime();
+  }
+
+  @Override
+  public long getQueueingNanoTime()
+  {
+    return operation.getQueueingNanoTime();
+  }
+
   @Override
   public List<String> getReferralURLs()
   {
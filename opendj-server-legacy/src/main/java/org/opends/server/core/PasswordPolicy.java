@@ -289,6 +289,21 @@ public abstract class PasswordPolicy extends AuthenticationPolicy
    */
   public abstract String getLastLoginTimeFormat();
 
+  /**
+   * Gets the "last-login-time-update-interval" property.
+   * <p>
+   * Specifies the maximum length of time by which the update of the last login
+   * time of users with the associated password policy may be delayed after a
+   * successful bind.
+   * <p>
+   * A value of 0 seconds indicates that the last login time is written before
+   * the bind response is returned.
+   *
+   * @return Returns the value of the "last-login-time-update-interval"
+   *         property.
+   */
+  public abstract long getLastLoginTimeUpdateInterval();
+
   /**
    * Gets the "lockout-duration" property.
    * <p>
@@ -450,6 +465,21 @@ public abstract class PasswordPolicy extends AuthenticationPolicy
    */
   public abstract long getPasswordHistoryDuration();
 
+  /**
+   * Gets the "password-verification-cache-duration" property.
+   * <p>
+   * Specifies the length of time during which a password successfully
+   * verified for a user with the associated password policy is accepted again
+   * without being checked against the stored password.
+   * <p>
+   * A value of 0 seconds indicates that each password is checked with its
+   * storage scheme.
+   *
+   * @return Returns the value of the "password-verification-cache-duration"
+   *         property.
+   */
+  public abstract long getPasswordVerificationCacheDuration();
+
   /**
    * Gets the "previous-last-login-time-format" property.
    * <p>
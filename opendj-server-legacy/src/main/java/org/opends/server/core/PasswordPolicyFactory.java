@@ -380,6 +380,13 @@ public final class PasswordPolicyFactory implements
         this.passwordGenerator = passwordGenerator;
         this.passwordValidators = passwordValidators;
         this.requireChangeByTime = requireChangeByTime;
+
+        // the verified passwords may not be accepted anymore
+        final PasswordVerificationCache verificationCache = DirectoryServer.getPasswordVerificationCache();
+        if (verificationCache != null)
+        {
+          verificationCache.clear();
+        }
       }
     }
 
@@ -696,6 +703,16 @@ public final class PasswordPolicyFactory implements
       }
       buffer.append(EOL);
 
+      buffer.append("Last Login Time Update Interval:       ");
+      buffer.append(configuration.getLastLoginTimeUpdateInterval());
+      buffer.append(" seconds");
+      buffer.append(EOL);
+
+      buffer.append("Password Verification Cache Duration:  ");
+      buffer.append(configuration.getPasswordVerificationCacheDuration());
+      buffer.append(" seconds");
+      buffer.append(EOL);
+
       buffer.append("Previous Last Login Time Formats:      ");
       if (configuration.getPreviousLastLoginTimeFormat().isEmpty())
       {
@@ -798,6 +815,12 @@ public final class PasswordPolicyFactory implements
       return configuration.getLastLoginTimeFormat();
     }
 
+    @Override
+    public long getLastLoginTimeUpdateInterval()
+    {
+      return configuration.getLastLoginTimeUpdateInterval();
+    }
+
     @Override
     public long getLockoutDuration()
     {
@@ -864,6 +887,12 @@ public final class PasswordPolicyFactory implements
       return configuration.getPasswordHistoryDuration();
     }
 
+    @Override
+    public long getPasswordVerificationCacheDuration()
+    {
+      return configuration.getPasswordVerificationCacheDuration();
+    }
+
     @Override
     public SortedSet<String> getPreviousLastLoginTimeFormats()
     {
@@ -132,6 +132,8 @@ public final class PasswordPolicyState extends AuthenticationPolicyState
 
   /** The set of modifications that should be applied to the user's entry. */
   private final LinkedList<Modification> modifications = new LinkedList<>();
+  /** The modification of the last login time, if any, which may be written after the bind. */
+  private Modification lastLoginTimeModification;
 
   /**
    * Creates a new password policy state object with the provided information.
@@ -1055,7 +1057,8 @@ public final class PasswordPolicyState extends AuthenticationPolicyState
       return;
     }
 
-    replaceAttribute(Attributes.create(type, timestamp));
+    lastLoginTimeModification = new Modification(ModificationType.REPLACE, Attributes.create(type, timestamp), true);
+    modifications.add(lastLoginTimeModification);
 
     logger.trace("Updated the last login time for user %s to %s", userDNString, timestamp);
   }
@@ -1963,6 +1966,20 @@ public final class PasswordPolicyState extends AuthenticationPolicyState
       return false;
     }
 
+    final PasswordVerificationCache verificationCache = getPasswordVerificationCache();
+    if (verificationCache != null)
+    {
+      final ByteString verifiedValue =
+          verificationCache.getVerifiedValue(passwordPolicy, userEntry.getName(), password, attrList);
+      // the storage scheme may have been disabled or deleted since the verification
+      if (verifiedValue != null && isStorageSchemeDefined(verifiedValue))
+      {
+        logger.trace("Returning true for user %s because the provided password has recently been verified",
+            userDNString);
+        return true;
+      }
+    }
+
     for (Attribute a : attrList)
     {
       for (ByteString v : a)
@@ -1983,8 +2000,14 @@ public final class PasswordPolicyState extends AuthenticationPolicyState
             continue;
           }
 
+          final long startTime = System.nanoTime();
           if (passwordMatches(password, pwComponents, scheme))
           {
+            if (verificationCache != null)
+            {
+              verificationCache.verified(passwordPolicy, userEntry.getName(), password, v,
+                  System.nanoTime() - startTime);
+            }
             if (logger.isTraceEnabled())
             {
               logger.trace("Returning true for user %s because the provided password matches a value " +
@@ -2009,6 +2032,19 @@ public final class PasswordPolicyState extends AuthenticationPolicyState
     return false;
   }
 
+  /**
+   * Returns the cache of the verified passwords, if the password policy enables it.
+   *
+   * @return the cache of the verified passwords, or {@code null} if the
+   *         passwords must always be checked with their storage scheme
+   */
+  private PasswordVerificationCache getPasswordVerificationCache()
+  {
+    return passwordPolicy.getPasswordVerificationCacheDuration() > 0
+        ? DirectoryServer.getPasswordVerificationCache()
+        : null;
+  }
+
   /**
    * Get the broken-down components of the given password value.
    *
@@ -2017,6 +2053,19 @@ public final class PasswordPolicyState extends AuthenticationPolicyState
    *
    * @return An array of components.
    */
+  private boolean isStorageSchemeDefined(ByteString v)
+  {
+    try
+    {
+      return getPasswordStorageScheme(v) != null;
+    }
+    catch (DirectoryException e)
+    {
+      logger.traceException(e);
+      return false;
+    }
+  }
+
   private String[] getPwComponents(ByteString v) throws DirectoryException
   {
     return passwordPolicy.isAuthPasswordSyntax()
@@ -2758,6 +2807,20 @@ public final class PasswordPolicyState extends AuthenticationPolicyState
       return;
     }
 
+    final LastLoginTimeWriter lastLoginTimeWriter = DirectoryServer.getLastLoginTimeWriter();
+    if (lastLoginTimeWriter != null && lastLoginTimeModification != null)
+    {
+      final long updateInterval = passwordPolicy.getLastLoginTimeUpdateInterval();
+      if (updateInterval > 0
+          && modifications.size() == 1
+          && lastLoginTimeWriter.enqueue(userEntry.getName(), lastLoginTimeModification, updateInterval))
+      {
+        return;
+      }
+      // this login time is more recent than the pending one, and than the one being written if any
+      lastLoginTimeWriter.discard(userEntry.getName());
+    }
+
     // Convert the set of modifications to a set of LDAP modifications.
     ArrayList<RawModification> modList = new ArrayList<>();
     for (Modification m : modifications)
@@ -0,0 +1,279 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.core;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.forgerock.opendj.ldap.ByteSequence;
+import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.server.config.server.MonitorProviderCfg;
+import org.opends.server.api.MonitorData;
+import org.opends.server.api.MonitorProvider;
+import org.opends.server.api.ServerShutdownListener;
+import org.opends.server.types.Attribute;
+
+/**
+ * Remembers the passwords recently verified, so that the users binding again
+ * with the same password are authenticated without running their password
+ * storage scheme, which may deliberately be costly.
+ * <p>
+ * Only the last successful verification of each user is kept, as an HMAC of
+ * the user DN, the provided password and the matching stored password value,
+ * computed with a random key generated when the server starts. Neither the
+ * passwords nor the stored values are kept, and the cache is never written to
+ * disk. A verification is accepted again until the
+ * password-verification-cache-duration of the password policy has elapsed,
+ * as long as the user entry still contains the same stored value: changing the
+ * password of a user invalidates the verification. Changing the configuration
+ * of a password policy clears the whole cache.
+ */
+final class PasswordVerificationCache implements ServerShutdownListener
+{
+  /** The maximum number of verifications kept. */
+  private static final int MAX_VERIFICATIONS = 100000;
+
+  private static final String MAC_ALGORITHM = "HmacSHA256";
+
+  /** A successful verification. */
+  private static final class Verification
+  {
+    /** The password policy which verified the password, replaced by a new instance when a subentry changes. */
+    private final PasswordPolicy policy;
+    private final byte[] digest;
+    private final long expirationTime;
+    /** How long the verification took with the password storage scheme. */
+    private final long verificationNanos;
+
+    private Verification(PasswordPolicy policy, byte[] digest, long expirationTime, long verificationNanos)
+    {
+      this.policy = policy;
+      this.digest = digest;
+      this.expirationTime = expirationTime;
+      this.verificationNanos = verificationNanos;
+    }
+  }
+
+  private final SecretKeySpec key;
+  private final ThreadLocal<Mac> macs = new ThreadLocal<Mac>()
+  {
+    @Override
+    protected Mac initialValue()
+    {
+      try
+      {
+        final Mac mac = Mac.getInstance(MAC_ALGORITHM);
+        mac.init(key);
+        return mac;
+      }
+      catch (GeneralSecurityException e)
+      {
+        // Every implementation of the Java platform supports HmacSHA256
+        throw new IllegalStateException(e);
+      }
+    }
+  };
+
+  private final Map<DN, Verification> verifications = new ConcurrentHashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong savedNanos = new AtomicLong();
+
+  private final CacheMonitorProvider monitor = new CacheMonitorProvider();
+
+  /** Creates an empty cache, and registers it as a shutdown listener and a monitor provider. */
+  PasswordVerificationCache()
+  {
+    final byte[] keyBytes = new byte[32];
+    new SecureRandom().nextBytes(keyBytes);
+    key = new SecretKeySpec(keyBytes, MAC_ALGORITHM);
+    DirectoryServer.registerShutdownListener(this);
+    DirectoryServer.registerMonitorProvider(monitor);
+  }
+
+  /**
+   * Returns the stored password value of a user against which the provided
+   * password has recently been verified. The caller remains responsible for
+   * checking that the storage scheme of the value is still defined.
+   *
+   * @param policy
+   *          the password policy of the user
+   * @param userDN
+   *          the DN of the user
+   * @param password
+   *          the password provided by the user
+   * @param passwordAttributes
+   *          the password attributes of the user entry
+   * @return the stored password value which matched the password, or
+   *         {@code null} if the password has not been verified or the
+   *         verification has expired
+   */
+  ByteString getVerifiedValue(PasswordPolicy policy, DN userDN, ByteString password,
+      List<Attribute> passwordAttributes)
+  {
+    final Verification verification = verifications.get(userDN);
+    if (verification != null)
+    {
+      if (verification.policy != policy || verification.expirationTime <= System.currentTimeMillis())
+      {
+        verifications.remove(userDN, verification);
+      }
+      else
+      {
+        for (Attribute a : passwordAttributes)
+        {
+          for (ByteString storedValue : a)
+          {
+            if (MessageDigest.isEqual(verification.digest, digest(userDN, password, storedValue)))
+            {
+              hits.incrementAndGet();
+              savedNanos.addAndGet(verification.verificationNanos);
+              return storedValue;
+            }
+          }
+        }
+      }
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Remembers that a password has been verified against a stored password
+   * value of a user, replacing the previous verification of this user.
+   *
+   * @param policy
+   *          the password policy of the user
+   * @param userDN
+   *          the DN of the user
+   * @param password
+   *          the password provided by the user
+   * @param storedValue
+   *          the stored password value which matched the password
+   * @param verificationNanos
+   *          how long the verification took, in nanoseconds
+   */
+  void verified(PasswordPolicy policy, DN userDN, ByteString password, ByteString storedValue,
+      long verificationNanos)
+  {
+    final long now = System.currentTimeMillis();
+    if (verifications.size() >= MAX_VERIFICATIONS && !verifications.containsKey(userDN))
+    {
+      removeExpiredVerifications(now);
+      if (verifications.size() >= MAX_VERIFICATIONS)
+      {
+        return;
+      }
+    }
+    final long expirationTime = now + TimeUnit.SECONDS.toMillis(policy.getPasswordVerificationCacheDuration());
+    verifications.put(userDN,
+        new Verification(policy, digest(userDN, password, storedValue), expirationTime, verificationNanos));
+  }
+
+  private void removeExpiredVerifications(long now)
+  {
+    for (Iterator<Verification> it = verifications.values().iterator(); it.hasNext();)
+    {
+      if (it.next().expirationTime <= now)
+      {
+        it.remove();
+      }
+    }
+  }
+
+  /** Forgets all the verifications, after a change of the password policies. */
+  void clear()
+  {
+    verifications.clear();
+  }
+
+  private byte[] digest(DN userDN, ByteString password, ByteString storedValue)
+  {
+    final Mac mac = macs.get();
+    update(mac, userDN.toNormalizedByteString());
+    update(mac, password);
+    update(mac, storedValue);
+    return mac.doFinal();
+  }
+
+  /** Prefixes the bytes with their length, so that the concatenation cannot be ambiguous. */
+  private static void update(Mac mac, ByteSequence bytes)
+  {
+    final int length = bytes.length();
+    mac.update((byte) (length >>> 24));
+    mac.update((byte) (length >>> 16));
+    mac.update((byte) (length >>> 8));
+    mac.update((byte) length);
+    mac.update(bytes.toByteArray());
+  }
+
+  @Override
+  public String getShutdownListenerName()
+  {
+    return "Password Verification Cache";
+  }
+
+  @Override
+  public void processServerShutdown(LocalizableMessage reason)
+  {
+    clear();
+    DirectoryServer.deregisterMonitorProvider(monitor);
+    DirectoryServer.deregisterShutdownListener(this);
+  }
+
+  /** Exposes the efficiency of the cache. */
+  private final class CacheMonitorProvider extends MonitorProvider<MonitorProviderCfg>
+  {
+    @Override
+    public MonitorData getMonitorData()
+    {
+      final long hitCount = hits.get();
+      final long lookups = hitCount + misses.get();
+      final MonitorData attributes = new MonitorData(5);
+      attributes.add("cached-verifications", verifications.size());
+      attributes.add("cache-hits", hitCount);
+      attributes.add("cache-misses", lookups - hitCount);
+      attributes.add("cache-hit-ratio", lookups > 0 ? 100 * hitCount / lookups : 0);
+      attributes.add("verification-time-saved-millis", TimeUnit.NANOSECONDS.toMillis(savedNanos.get()));
+      return attributes;
+    }
+
+    @Override
+    public String getMonitorInstanceName()
+    {
+      return "Password Verification Cache";
+    }
+
+    @Override
+    public void initializeMonitorProvider(MonitorProviderCfg configuration)
+    {
+      // Nothing to do
+    }
+  }
+}
@@ -452,6 +452,12 @@ public final class SubentryPasswordPolicy extends PasswordPolicy
     return getDefaultPasswordPolicy().getLastLoginTimeFormat();
   }
 
+  @Override
+  public long getLastLoginTimeUpdateInterval()
+  {
+    return getDefaultPasswordPolicy().getLastLoginTimeUpdateInterval();
+  }
+
   @Override
   public long getLockoutDuration()
   {
@@ -530,6 +536,12 @@ public final class SubentryPasswordPolicy extends PasswordPolicy
     return getDefaultPasswordPolicy().getPasswordHistoryDuration();
   }
 
+  @Override
+  public long getPasswordVerificationCacheDuration()
+  {
+    return getDefaultPasswordPolicy().getPasswordVerificationCacheDuration();
+  }
+
   @Override
   public SortedSet<String> getPreviousLastLoginTimeFormats()
   {
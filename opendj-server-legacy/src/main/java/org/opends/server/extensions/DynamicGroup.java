@@ -36,6 +36,7 @@ import org.forgerock.opendj.server.config.server.DynamicGroupImplementationCfg;
 import org.opends.server.api.Group;
 import org.opends.server.core.DirectoryServer;
 import org.opends.server.core.ServerContext;
+import org.opends.server.extensions.StaticGroup.CompactDn;
 import org.opends.server.types.Attribute;
 import org.opends.server.types.DirectoryConfig;
 import org.opends.server.types.DirectoryException;
@@ -69,6 +70,22 @@ public class DynamicGroup
   /** The set of the LDAP URLs that define the membership criteria. */
   private LinkedHashSet<LDAPURL> memberURLs;
 
+  /** The server context, {@code null} for the instances created for internal use. */
+  private ServerContext serverContext;
+
+  /**
+   * The materialized members of this group, {@code null} unless the
+   * materialized-members property of the group implementation is enabled.
+   */
+  private DynamicGroupMaterializedMembers materializedMembers;
+
+  /**
+   * Maintains the materialized members of the dynamic groups, {@code null}
+   * unless the materialized-members property is enabled. Only set on the group
+   * implementation.
+   */
+  private MaterializedDynamicGroups materializedGroups;
+
   /** Creates a new, uninitialized dynamic group instance. This is intended for internal use only. */
   public DynamicGroup()
   {
@@ -96,12 +113,37 @@ public class DynamicGroup
     this.memberURLs   = memberURLs;
   }
 
+  private DynamicGroup(ServerContext serverContext, DN groupEntryDN, LinkedHashSet<LDAPURL> memberURLs,
+      boolean materializeMembers)
+  {
+    this(groupEntryDN, memberURLs);
+    this.serverContext = serverContext;
+    if (materializeMembers)
+    {
+      this.materializedMembers = new DynamicGroupMaterializedMembers(this);
+    }
+  }
+
   @Override
   public void initializeGroupImplementation(
                    DynamicGroupImplementationCfg configuration)
          throws ConfigException, InitializationException
   {
-    // No additional initialization is required.
+    if (configuration.isMaterializedMembers())
+    {
+      materializedGroups = new MaterializedDynamicGroups(
+          DirectoryServer.getInstance().getServerContext(), configuration.dn());
+    }
+  }
+
+  @Override
+  public void finalizeGroupImplementation()
+  {
+    if (materializedGroups != null)
+    {
+      materializedGroups.finalizeMaterializedGroups();
+      materializedGroups = null;
+    }
   }
 
   @Override
@@ -129,7 +171,14 @@ public class DynamicGroup
       }
     }
 
-    return new DynamicGroup(groupEntry.getName(), memberURLs);
+    final MaterializedDynamicGroups materialized = materializedGroups;
+    final DynamicGroup group =
+        new DynamicGroup(serverContext, groupEntry.getName(), memberURLs, materialized != null);
+    if (materialized != null)
+    {
+      materialized.register(group);
+    }
+    return group;
   }
 
   @Override
@@ -164,6 +213,19 @@ public class DynamicGroup
     groupEntryDN = groupDN;
   }
 
+  /**
+   * Deletes the materialized members saved when the server was last stopped,
+   * so that they are searched again once the server is started. This must be
+   * called when the entries of a backend are replaced while the server is
+   * stopped.
+   *
+   * @param  serverContext  The server context.
+   */
+  public static void deleteSavedMaterializedMembers(ServerContext serverContext)
+  {
+    MaterializedDynamicGroups.deleteSnapshots(serverContext);
+  }
+
   /**
    * Retrieves the set of member URLs for this dynamic group.  The returned set
    * must not be altered by the caller.
@@ -175,6 +237,130 @@ public class DynamicGroup
     return memberURLs;
   }
 
+  /**
+   * Retrieves the server context of this group.
+   *
+   * @return The server context of this group.
+   */
+  ServerContext getServerContext()
+  {
+    return serverContext != null ? serverContext : DirectoryServer.getInstance().getServerContext();
+  }
+
+  /**
+   * Retrieves the materialized members of this group.
+   *
+   * @return The materialized members of this group, or {@code null} if the
+   *         members are not materialized.
+   */
+  DynamicGroupMaterializedMembers getMaterializedMembers()
+  {
+    return materializedMembers;
+  }
+
+  /**
+   * Retrieves the plugin maintaining the materialized members of the dynamic
+   * groups. Only intended for testing purposes.
+   *
+   * @return The plugin maintaining the materialized members, or {@code null}
+   *         if this is not the group implementation or if the members are not
+   *         materialized.
+   */
+  MaterializedDynamicGroups getMaterializedGroups()
+  {
+    return materializedGroups;
+  }
+
+  /**
+   * Indicates whether an entry with the provided DN may be a member of this
+   * group, i.e. whether it is in the scope of one of the member URLs.
+   *
+   * @param  entryDN  The DN of the entry.
+   *
+   * @return  {@code true} if the entry is in the scope of a member URL.
+   */
+  boolean isInMemberURLsScope(DN entryDN)
+  {
+    for (LDAPURL memberURL : memberURLs)
+    {
+      try
+      {
+        if (entryDN.isInScopeOf(memberURL.getBaseDN(), getScope(memberURL)))
+        {
+          return true;
+        }
+      }
+      catch (DirectoryException e)
+      {
+        // the URLs have been fully decoded, this should not happen
+        logger.traceException(e);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Indicates whether the subtree below the provided DN overlaps the scope of
+   * one of the member URLs.
+   *
+   * @param  subtreeDN  The DN at the top of the subtree.
+   *
+   * @return  {@code true} if the subtree overlaps the scope of a member URL.
+   */
+  boolean overlapsMemberURLsScope(DN subtreeDN)
+  {
+    for (LDAPURL memberURL : memberURLs)
+    {
+      try
+      {
+        final DN baseDN = memberURL.getBaseDN();
+        if (subtreeDN.isSubordinateOrEqualTo(baseDN) || baseDN.isSubordinateOrEqualTo(subtreeDN))
+        {
+          return true;
+        }
+      }
+      catch (DirectoryException e)
+      {
+        logger.traceException(e);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static SearchScope getScope(LDAPURL memberURL)
+  {
+    return memberURL.getScope() != null ? memberURL.getScope() : SearchScope.BASE_OBJECT;
+  }
+
+  /**
+   * Indicates whether the provided entry matches one of the member URLs.
+   *
+   * @param  entry  The entry.
+   *
+   * @return  {@code true} if the entry matches a member URL.
+   *
+   * @throws  DirectoryException  If a problem occurs while matching the entry.
+   */
+  boolean matchesMemberURLs(Entry entry) throws DirectoryException
+  {
+    for (LDAPURL memberURL : memberURLs)
+    {
+      if (memberURL.matchesEntry(entry))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean hasExplicitMemberList()
+  {
+    return materializedMembers != null && materializedMembers.isMaterialized();
+  }
+
   @Override
   public boolean supportsNestedGroups()
   {
@@ -217,8 +403,14 @@ public class DynamicGroup
       return false;
     }
 
+    final Set<CompactDn> members = getMaterializedMemberDNs();
+    if (members != null)
+    {
+      return members.contains(new CompactDn(userDN));
+    }
+
     Entry entry = DirectoryConfig.getEntry(userDN);
-    return entry != null && isMember(entry);
+    return entry != null && matchesMemberURLs(entry);
   }
 
   @Override
@@ -231,15 +423,18 @@ public class DynamicGroup
       return false;
     }
 
-    for (LDAPURL memberURL : memberURLs)
+    final Set<CompactDn> members = getMaterializedMemberDNs();
+    if (members != null)
     {
-      if (memberURL.matchesEntry(userEntry))
-      {
-        return true;
-      }
+      return members.contains(new CompactDn(userEntry.getName()));
     }
+    return matchesMemberURLs(userEntry);
+  }
 
-    return false;
+  /** Returns the materialized members, materializing them if needed, or {@code null} if not available. */
+  private Set<CompactDn> getMaterializedMemberDNs()
+  {
+    return materializedMembers != null ? materializedMembers.get() : null;
   }
 
   private Set<DN> getExaminedGroups(AtomicReference<Set<DN>> examinedGroups)
@@ -257,6 +452,12 @@ public class DynamicGroup
   public MemberList getMembers()
          throws DirectoryException
   {
+    // do not search the members here, the group manager may be holding its lock
+    final Set<CompactDn> members = materializedMembers != null ? materializedMembers.getIfMaterialized() : null;
+    if (members != null)
+    {
+      return new SimpleStaticGroupMemberList(getServerContext(), groupEntryDN, members);
+    }
     return new DynamicGroupMemberList(groupEntryDN, memberURLs);
   }
 
@@ -265,6 +466,15 @@ public class DynamicGroup
                                SearchFilter filter)
          throws DirectoryException
   {
+    final Set<CompactDn> members = materializedMembers != null ? materializedMembers.getIfMaterialized() : null;
+    if (members != null)
+    {
+      if (baseDN == null && filter == null)
+      {
+        return new SimpleStaticGroupMemberList(getServerContext(), groupEntryDN, members);
+      }
+      return new FilteredStaticGroupMemberList(getServerContext(), groupEntryDN, members, baseDN, scope, filter);
+    }
     if (baseDN == null && filter == null)
     {
       return new DynamicGroupMemberList(groupEntryDN, memberURLs);
@@ -0,0 +1,309 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.extensions;
+
+import static org.opends.messages.ExtensionMessages.*;
+import static org.opends.server.util.StaticUtils.*;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.forgerock.i18n.slf4j.LocalizedLogger;
+import org.forgerock.opendj.ldap.DN;
+import org.opends.server.core.DirectoryServer;
+import org.opends.server.core.GroupManager;
+import org.opends.server.extensions.StaticGroup.CompactDn;
+import org.opends.server.types.DirectoryException;
+import org.opends.server.types.Entry;
+import org.opends.server.types.MemberList;
+import org.opends.server.types.MembershipException;
+
+/**
+ * The materialized members of a dynamic group.
+ * <p>
+ * The members are searched with the member URLs of the group the first time
+ * they are needed, unless they were loaded from the snapshot saved when the
+ * server was last stopped. They are then kept up to date by
+ * {@link MaterializedDynamicGroups} after each change to an entry. The changed
+ * entries are read again while holding the lock, so that concurrent changes to
+ * the same entry cannot be applied out of order. The entries changed while the
+ * members are searched are evaluated again once the search completes, and the
+ * search is discarded if a whole subtree changed meanwhile.
+ * <p>
+ * The members are read without locking. The changes are serialized and
+ * reported to the group manager, so that its membership index stays accurate.
+ */
+final class DynamicGroupMaterializedMembers
+{
+  private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
+
+  private final DynamicGroup group;
+
+  /** Serializes the changes to the members. */
+  private final Object lock = new Object();
+
+  /** The members, {@code null} until they are materialized. */
+  private volatile Set<CompactDn> members;
+
+  /** The entries changed while the members are searched, {@code null} when not searching. */
+  private Set<DN> changedWhileSearching;
+
+  /** Whether a whole subtree changed while the members are searched. */
+  private boolean invalidatedWhileSearching;
+
+  /**
+   * Creates the materialized members of the provided group. The members are
+   * not materialized until needed.
+   *
+   * @param group
+   *          the dynamic group
+   */
+  DynamicGroupMaterializedMembers(DynamicGroup group)
+  {
+    this.group = group;
+  }
+
+  /**
+   * Indicates whether the members are currently materialized.
+   *
+   * @return {@code true} if the members are materialized
+   */
+  boolean isMaterialized()
+  {
+    return members != null;
+  }
+
+  /**
+   * Returns the materialized members without materializing them.
+   *
+   * @return the members, or {@code null} if they are not materialized
+   */
+  Set<CompactDn> getIfMaterialized()
+  {
+    return members;
+  }
+
+  /**
+   * Returns the members, searching them if they are not materialized yet.
+   *
+   * @return the members, which must not be modified, or {@code null} if they
+   *         are being searched by another thread or cannot be searched
+   */
+  Set<CompactDn> get()
+  {
+    final Set<CompactDn> current = members;
+    if (current != null)
+    {
+      return current;
+    }
+    synchronized (lock)
+    {
+      if (members != null || changedWhileSearching != null)
+      {
+        return members;
+      }
+      changedWhileSearching = new HashSet<>();
+      invalidatedWhileSearching = false;
+    }
+
+    final GroupManager groupManager = DirectoryServer.getGroupManager();
+    final Set<CompactDn> found = StaticGroup.newMemberSet(0);
+    LocalizableMessage error = null;
+    try
+    {
+      search(groupManager, found);
+    }
+    catch (Exception e)
+    {
+      logger.traceException(e);
+      error = getExceptionMessage(e);
+    }
+
+    synchronized (lock)
+    {
+      try
+      {
+        if (error == null && !invalidatedWhileSearching)
+        {
+          for (DN dn : changedWhileSearching)
+          {
+            updateMember(groupManager, found, dn, DirectoryServer.getEntry(dn));
+          }
+          members = found;
+          groupManager.explicitMemberListChanged(group);
+        }
+      }
+      catch (DirectoryException e)
+      {
+        logger.traceException(e);
+        error = e.getMessageObject();
+      }
+      finally
+      {
+        changedWhileSearching = null;
+        if (members != found)
+        {
+          notifyRemoved(groupManager, found);
+        }
+      }
+    }
+    if (error != null)
+    {
+      logger.warn(WARN_DYNAMICGROUP_CANNOT_MATERIALIZE_MEMBERS, group.getGroupDN(), error);
+    }
+    return members;
+  }
+
+  private void search(GroupManager groupManager, Set<CompactDn> found)
+      throws DirectoryException, MembershipException
+  {
+    try (MemberList memberList = new DynamicGroupMemberList(group.getGroupDN(), group.getMemberURLs()))
+    {
+      while (memberList.hasMoreMembers())
+      {
+        final DN memberDN;
+        try
+        {
+          memberDN = memberList.nextMemberDN();
+        }
+        catch (MembershipException e)
+        {
+          if (!e.continueIterating())
+          {
+            throw e;
+          }
+          logger.traceException(e);
+          continue;
+        }
+        if (memberDN != null && found.add(new CompactDn(memberDN)))
+        {
+          groupManager.memberAdded(group, memberDN);
+        }
+      }
+    }
+  }
+
+  /**
+   * Materializes the members from a snapshot, unless they are already
+   * materialized or being searched.
+   *
+   * @param memberDNs
+   *          the DNs of the members
+   * @return {@code true} if the members have been materialized from the
+   *         snapshot
+   */
+  boolean materialize(Collection<DN> memberDNs)
+  {
+    final GroupManager groupManager = DirectoryServer.getGroupManager();
+    synchronized (lock)
+    {
+      if (members != null || changedWhileSearching != null)
+      {
+        return false;
+      }
+      final Set<CompactDn> loaded = StaticGroup.newMemberSet(memberDNs.size());
+      for (DN memberDN : memberDNs)
+      {
+        if (loaded.add(new CompactDn(memberDN)))
+        {
+          groupManager.memberAdded(group, memberDN);
+        }
+      }
+      members = loaded;
+      groupManager.explicitMemberListChanged(group);
+      return true;
+    }
+  }
+
+  /**
+   * Updates the members after an entry in the scope of the member URLs has
+   * been added, modified, renamed or deleted. The entry is read again, since
+   * it may have changed again once the operation released its lock.
+   *
+   * @param dn
+   *          the DN of the entry
+   * @throws DirectoryException
+   *           if the entry cannot be read or matched against the member URLs
+   */
+  void entryChanged(DN dn) throws DirectoryException
+  {
+    synchronized (lock)
+    {
+      if (changedWhileSearching != null)
+      {
+        changedWhileSearching.add(dn);
+        return;
+      }
+      final Set<CompactDn> current = members;
+      if (current != null)
+      {
+        updateMember(DirectoryServer.getGroupManager(), current, dn, DirectoryServer.getEntry(dn));
+      }
+    }
+  }
+
+  private void updateMember(GroupManager groupManager, Set<CompactDn> memberDNs, DN dn, Entry entry)
+      throws DirectoryException
+  {
+    final CompactDn compactDn = new CompactDn(dn);
+    if (entry != null && group.matchesMemberURLs(entry))
+    {
+      if (memberDNs.add(compactDn))
+      {
+        groupManager.memberAdded(group, dn);
+      }
+    }
+    else if (memberDNs.remove(compactDn))
+    {
+      groupManager.memberRemoved(group, dn);
+    }
+  }
+
+  /**
+   * Forgets the members after a change which cannot be applied entry by entry,
+   * like the deletion or the renaming of a subtree. The members will be
+   * searched again when next needed.
+   */
+  void invalidate()
+  {
+    synchronized (lock)
+    {
+      if (changedWhileSearching != null)
+      {
+        invalidatedWhileSearching = true;
+        return;
+      }
+      final Set<CompactDn> current = members;
+      if (current != null)
+      {
+        final GroupManager groupManager = DirectoryServer.getGroupManager();
+        members = null;
+        groupManager.explicitMemberListChanged(group);
+        notifyRemoved(groupManager, current);
+      }
+    }
+  }
+
+  private void notifyRemoved(GroupManager groupManager, Set<CompactDn> memberDNs)
+  {
+    for (CompactDn memberDN : memberDNs)
+    {
+      groupManager.memberRemoved(group, memberDN.toDn(group.getServerContext()));
+    }
+  }
+}
@@ -0,0 +1,701 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.extensions;
+
+import static org.opends.messages.ExtensionMessages.*;
+import static org.opends.server.util.ServerConstants.*;
+import static org.opends.server.util.StaticUtils.*;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.forgerock.i18n.slf4j.LocalizedLogger;
+import org.forgerock.opendj.ldap.ConditionResult;
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.ResultCode;
+import org.opends.server.api.Group;
+import org.opends.server.api.LocalBackend;
+import org.opends.server.api.LocalBackendInitializationListener;
+import org.opends.server.api.ServerShutdownListener;
+import org.opends.server.api.plugin.InternalDirectoryServerPlugin;
+import org.opends.server.api.plugin.PluginResult;
+import org.opends.server.api.plugin.PluginResult.PostOperation;
+import org.opends.server.api.plugin.PluginType;
+import org.opends.server.core.BackendConfigManager;
+import org.opends.server.core.DirectoryServer;
+import org.opends.server.core.ServerContext;
+import org.opends.server.extensions.StaticGroup.CompactDn;
+import org.opends.server.types.Control;
+import org.opends.server.types.DirectoryException;
+import org.opends.server.types.Entry;
+import org.opends.server.types.LDAPURL;
+import org.opends.server.types.operation.PluginOperation;
+import org.opends.server.types.operation.PostOperationAddOperation;
+import org.opends.server.types.operation.PostOperationDeleteOperation;
+import org.opends.server.types.operation.PostOperationModifyDNOperation;
+import org.opends.server.types.operation.PostOperationModifyOperation;
+import org.opends.server.types.operation.PostSynchronizationAddOperation;
+import org.opends.server.types.operation.PostSynchronizationDeleteOperation;
+import org.opends.server.types.operation.PostSynchronizationModifyDNOperation;
+import org.opends.server.types.operation.PostSynchronizationModifyOperation;
+
+/**
+ * Maintains the materialized members of the dynamic groups.
+ * <p>
+ * After each successful add, delete, modify or modify DN operation, including
+ * the replicated ones, the entry is read again and evaluated against the member
+ * URLs of the dynamic groups whose scope contains it. The deletion or the renaming of
+ * a whole subtree, and the finalization of a backend, cause the members of the
+ * overlapping groups to be searched again when next needed.
+ * <p>
+ * The members are saved when the server shuts down, and loaded again when the
+ * backends holding the group and its members are initialized, unless the
+ * number of entries of these backends changed in between. Each snapshot is
+ * deleted once loaded, so that it cannot be reused after a crash. The
+ * snapshots are also deleted by the offline imports and restores, and
+ * forgotten when a backend holding members is finalized while the server is
+ * running, since the entries may then change without the number of entries
+ * changing.
+ */
+final class MaterializedDynamicGroups extends InternalDirectoryServerPlugin
+    implements LocalBackendInitializationListener, ServerShutdownListener
+{
+  private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
+
+  /** The directory holding the snapshots, relative to the instance root. */
+  private static final String SNAPSHOT_DIRECTORY = "db" + File.separator + "dynamic-groups";
+  private static final String SNAPSHOT_EXTENSION = ".members";
+  private static final int SNAPSHOT_VERSION = 1;
+
+  /** The state of a group instance created by the dynamic group implementation. */
+  private static final class GroupState
+  {
+    /** Whether the group has been seen registered with the group manager. */
+    private boolean registered;
+  }
+
+  /** Header of a snapshot, the members are only read when loading it. */
+  private static final class Snapshot
+  {
+    private final File file;
+    private final DN groupDN;
+    private final List<String> memberURLs;
+    private final Map<String, Long> entryCounts;
+
+    private Snapshot(File file, DN groupDN, List<String> memberURLs, Map<String, Long> entryCounts)
+    {
+      this.file = file;
+      this.groupDN = groupDN;
+      this.memberURLs = memberURLs;
+      this.entryCounts = entryCounts;
+    }
+  }
+
+  private final ServerContext serverContext;
+
+  /** The group instances created with materialized members, until they are replaced or deleted. */
+  private final Map<DynamicGroup, GroupState> groups = new IdentityHashMap<>();
+
+  /** The snapshots not loaded yet, keyed by group DN. */
+  private final Map<DN, Snapshot> pendingSnapshots = new ConcurrentHashMap<>();
+
+  /**
+   * Creates and registers the plugin maintaining the materialized members.
+   *
+   * @param serverContext
+   *          the server context
+   * @param configDN
+   *          the DN of the dynamic group implementation configuration entry
+   */
+  MaterializedDynamicGroups(ServerContext serverContext, DN configDN)
+  {
+    super(configDN, EnumSet.of(PluginType.POST_OPERATION_ADD,
+        PluginType.POST_OPERATION_DELETE, PluginType.POST_OPERATION_MODIFY,
+        PluginType.POST_OPERATION_MODIFY_DN,
+        PluginType.POST_SYNCHRONIZATION_ADD,
+        PluginType.POST_SYNCHRONIZATION_DELETE,
+        PluginType.POST_SYNCHRONIZATION_MODIFY,
+        PluginType.POST_SYNCHRONIZATION_MODIFY_DN), true);
+    this.serverContext = serverContext;
+
+    readSnapshots();
+    DirectoryServer.registerInternalPlugin(this);
+    serverContext.getBackendConfigManager().registerLocalBackendInitializationListener(this);
+    DirectoryServer.registerShutdownListener(this);
+  }
+
+  /** Deregisters this plugin and forgets all the groups. */
+  void finalizeMaterializedGroups()
+  {
+    DirectoryServer.deregisterInternalPlugin(this);
+    serverContext.getBackendConfigManager().deregisterLocalBackendInitializationListener(this);
+    DirectoryServer.deregisterShutdownListener(this);
+    final List<DynamicGroup> allGroups;
+    synchronized (groups)
+    {
+      allGroups = new ArrayList<>(groups.keySet());
+      groups.clear();
+    }
+    for (DynamicGroup group : allGroups)
+    {
+      group.getMaterializedMembers().invalidate();
+    }
+    pendingSnapshots.clear();
+  }
+
+  /**
+   * Registers a group instance created by the dynamic group implementation.
+   *
+   * @param group
+   *          the group, not registered with the group manager yet
+   */
+  void register(DynamicGroup group)
+  {
+    synchronized (groups)
+    {
+      groups.put(group, new GroupState());
+    }
+  }
+
+  /**
+   * Returns the groups registered with the group manager, and forgets the
+   * instances which have been replaced or deleted.
+   */
+  private List<DynamicGroup> getGroups()
+  {
+    final List<DynamicGroup> liveGroups = new ArrayList<>();
+    synchronized (groups)
+    {
+      for (Iterator<Map.Entry<DynamicGroup, GroupState>> it = groups.entrySet().iterator(); it.hasNext();)
+      {
+        final Map.Entry<DynamicGroup, GroupState> entry = it.next();
+        final DynamicGroup group = entry.getKey();
+        final Group<?> registered = DirectoryServer.getGroupManager().getGroupInstance(group.getGroupDN());
+        if (registered == group)
+        {
+          entry.getValue().registered = true;
+          liveGroups.add(group);
+        }
+        else if (entry.getValue().registered || registered != null)
+        {
+          // deleted or replaced by a new instance
+          it.remove();
+        }
+      }
+    }
+    return liveGroups;
+  }
+
+  @Override
+  public PostOperation doPostOperation(PostOperationAddOperation addOperation)
+  {
+    if (addOperation.getResultCode() == ResultCode.SUCCESS)
+    {
+      entryAdded(addOperation.getEntryToAdd());
+    }
+    return PluginResult.PostOperation.continueOperationProcessing();
+  }
+
+  @Override
+  public PostOperation doPostOperation(PostOperationDeleteOperation deleteOperation)
+  {
+    if (deleteOperation.getResultCode() == ResultCode.SUCCESS)
+    {
+      entryDeleted(deleteOperation, deleteOperation.getEntryToDelete());
+    }
+    return PluginResult.PostOperation.continueOperationProcessing();
+  }
+
+  @Override
+  public PostOperation doPostOperation(PostOperationModifyOperation modifyOperation)
+  {
+    if (modifyOperation.getResultCode() == ResultCode.SUCCESS)
+    {
+      entryAdded(modifyOperation.getModifiedEntry());
+    }
+    return PluginResult.PostOperation.continueOperationProcessing();
+  }
+
+  @Override
+  public PostOperation doPostOperation(PostOperationModifyDNOperation modifyDNOperation)
+  {
+    if (modifyDNOperation.getResultCode() == ResultCode.SUCCESS)
+    {
+      entryRenamed(modifyDNOperation.getOriginalEntry(), modifyDNOperation.getUpdatedEntry());
+    }
+    return PluginResult.PostOperation.continueOperationProcessing();
+  }
+
+  @Override
+  public void doPostSynchronization(PostSynchronizationAddOperation addOperation)
+  {
+    final Entry entry = addOperation.getEntryToAdd();
+    if (entry != null)
+    {
+      entryAdded(entry);
+    }
+  }
+
+  @Override
+  public void doPostSynchronization(PostSynchronizationDeleteOperation deleteOperation)
+  {
+    final Entry entry = deleteOperation.getEntryToDelete();
+    if (entry != null)
+    {
+      entryDeleted(deleteOperation, entry);
+    }
+  }
+
+  @Override
+  public void doPostSynchronization(PostSynchronizationModifyOperation modifyOperation)
+  {
+    final Entry entry = modifyOperation.getModifiedEntry();
+    if (entry != null)
+    {
+      entryAdded(entry);
+    }
+  }
+
+  @Override
+  public void doPostSynchronization(PostSynchronizationModifyDNOperation modifyDNOperation)
+  {
+    final Entry oldEntry = modifyDNOperation.getOriginalEntry();
+    final Entry newEntry = modifyDNOperation.getUpdatedEntry();
+    if (oldEntry != null && newEntry != null)
+    {
+      entryRenamed(oldEntry, newEntry);
+    }
+  }
+
+  /** Evaluates an added or modified entry again against the groups whose scope contains it. */
+  private void entryAdded(Entry entry)
+  {
+    for (DynamicGroup group : getGroups())
+    {
+      if (group.isInMemberURLsScope(entry.getName()))
+      {
+        entryChanged(group, entry.getName());
+      }
+    }
+  }
+
+  private void entryDeleted(PluginOperation operation, Entry entry)
+  {
+    final boolean subtreeDelete = hasSubtreeDeleteControl(operation);
+    for (DynamicGroup group : getGroups())
+    {
+      if (subtreeDelete && group.overlapsMemberURLsScope(entry.getName()))
+      {
+        group.getMaterializedMembers().invalidate();
+      }
+      else if (group.isInMemberURLsScope(entry.getName()))
+      {
+        entryChanged(group, entry.getName());
+      }
+    }
+  }
+
+  private static boolean hasSubtreeDeleteControl(PluginOperation operation)
+  {
+    for (Control control : operation.getRequestControls())
+    {
+      if (OID_SUBTREE_DELETE_CONTROL.equals(control.getOID()))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void entryRenamed(Entry oldEntry, Entry newEntry)
+  {
+    final DN oldDN = oldEntry.getName();
+    final DN newDN = newEntry.getName();
+    final boolean subtree = hasSubordinates(newDN);
+    for (DynamicGroup group : getGroups())
+    {
+      if (subtree && (group.overlapsMemberURLsScope(oldDN) || group.overlapsMemberURLsScope(newDN)))
+      {
+        group.getMaterializedMembers().invalidate();
+        continue;
+      }
+      if (group.isInMemberURLsScope(oldDN))
+      {
+        entryChanged(group, oldDN);
+      }
+      if (group.isInMemberURLsScope(newDN))
+      {
+        entryChanged(group, newDN);
+      }
+    }
+  }
+
+  private boolean hasSubordinates(DN dn)
+  {
+    final LocalBackend<?> backend = serverContext.getBackendConfigManager().findLocalBackendForEntry(dn);
+    try
+    {
+      return backend == null || backend.hasSubordinates(dn) != ConditionResult.FALSE;
+    }
+    catch (DirectoryException e)
+    {
+      logger.traceException(e);
+      return true;
+    }
+  }
+
+  private void entryChanged(DynamicGroup group, DN dn)
+  {
+    try
+    {
+      group.getMaterializedMembers().entryChanged(dn);
+    }
+    catch (DirectoryException e)
+    {
+      logger.traceException(e);
+      group.getMaterializedMembers().invalidate();
+    }
+  }
+
+  @Override
+  public void performBackendPreInitializationProcessing(LocalBackend<?> backend)
+  {
+    // the group manager has registered the groups of this backend at this point
+    if (pendingSnapshots.isEmpty())
+    {
+      return;
+    }
+    for (DynamicGroup group : getGroups())
+    {
+      final Snapshot snapshot = pendingSnapshots.get(group.getGroupDN());
+      if (snapshot != null && canLoad(snapshot, backend))
+      {
+        pendingSnapshots.remove(group.getGroupDN());
+        load(group, snapshot, backend);
+      }
+    }
+  }
+
+  @Override
+  public void performBackendPostInitializationProcessing(LocalBackend<?> backend)
+  {
+    // Nothing to do.
+  }
+
+  @Override
+  public void performBackendPreFinalizationProcessing(LocalBackend<?> backend)
+  {
+    // Nothing to do.
+  }
+
+  @Override
+  public void performBackendPostFinalizationProcessing(LocalBackend<?> backend)
+  {
+    // the backend may be imported or restored before being initialized again
+    for (Iterator<Snapshot> it = pendingSnapshots.values().iterator(); it.hasNext();)
+    {
+      final Snapshot snapshot = it.next();
+      if (snapshot.entryCounts.containsKey(backend.getBackendID()))
+      {
+        it.remove();
+        snapshot.file.delete();
+      }
+    }
+    for (DynamicGroup group : getGroups())
+    {
+      for (DN baseDN : backend.getBaseDNs())
+      {
+        if (group.overlapsMemberURLsScope(baseDN))
+        {
+          group.getMaterializedMembers().invalidate();
+          break;
+        }
+      }
+    }
+  }
+
+  /** Whether all the backends holding the members are initialized, the provided one being initialized. */
+  private boolean canLoad(Snapshot snapshot, LocalBackend<?> initializedBackend)
+  {
+    final BackendConfigManager backendConfigManager = serverContext.getBackendConfigManager();
+    for (String backendID : snapshot.entryCounts.keySet())
+    {
+      if (!backendID.equals(initializedBackend.getBackendID())
+          && backendConfigManager.getLocalBackendById(backendID) == null)
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void load(DynamicGroup group, Snapshot snapshot, LocalBackend<?> initializedBackend)
+  {
+    try
+    {
+      if (!snapshot.memberURLs.equals(toStrings(group.getMemberURLs())))
+      {
+        logger.trace("The member URLs of group %s changed since file %s was saved", group.getGroupDN(), snapshot.file);
+        return;
+      }
+      for (Map.Entry<String, Long> entryCount : snapshot.entryCounts.entrySet())
+      {
+        final String backendID = entryCount.getKey();
+        final LocalBackend<?> backend = backendID.equals(initializedBackend.getBackendID())
+            ? initializedBackend
+            : serverContext.getBackendConfigManager().getLocalBackendById(backendID);
+        if (backend.getEntryCount() < 0 || backend.getEntryCount() != entryCount.getValue())
+        {
+          logger.info(NOTE_DYNAMICGROUP_MATERIALIZED_MEMBERS_OUTDATED, group.getGroupDN(), snapshot.file, backendID);
+          return;
+        }
+      }
+      group.getMaterializedMembers().materialize(readMembers(snapshot.file));
+    }
+    catch (Exception e)
+    {
+      logger.traceException(e);
+      logger.warn(WARN_DYNAMICGROUP_CANNOT_LOAD_MATERIALIZED_MEMBERS,
+          group.getGroupDN(), snapshot.file, getExceptionMessage(e));
+    }
+    finally
+    {
+      snapshot.file.delete();
+    }
+  }
+
+  @Override
+  public String getShutdownListenerName()
+  {
+    return getClass().getSimpleName();
+  }
+
+  @Override
+  public void processServerShutdown(LocalizableMessage reason)
+  {
+    final File directory = getFileForPath(SNAPSHOT_DIRECTORY, serverContext);
+    deleteSnapshots(directory);
+    for (DynamicGroup group : getGroups())
+    {
+      final Set<CompactDn> members = group.getMaterializedMembers().getIfMaterialized();
+      if (members == null)
+      {
+        continue;
+      }
+      final File file = new File(directory, getSnapshotFileName(group.getGroupDN()));
+      try
+      {
+        writeSnapshot(group, members, file);
+      }
+      catch (Exception e)
+      {
+        logger.traceException(e);
+        logger.warn(WARN_DYNAMICGROUP_CANNOT_SAVE_MATERIALIZED_MEMBERS, group.getGroupDN(), file,
+            getExceptionMessage(e));
+      }
+    }
+  }
+
+  private void writeSnapshot(DynamicGroup group, Set<CompactDn> members, File file) throws IOException
+  {
+    final File directory = file.getParentFile();
+    Files.createDirectories(directory.toPath());
+    final Map<String, Long> entryCounts = new LinkedHashMap<>();
+    for (LocalBackend<?> backend : serverContext.getBackendConfigManager().getLocalBackends())
+    {
+      for (DN baseDN : backend.getBaseDNs())
+      {
+        if (group.overlapsMemberURLsScope(baseDN))
+        {
+          entryCounts.put(backend.getBackendID(), backend.getEntryCount());
+          break;
+        }
+      }
+    }
+
+    final File tempFile = new File(directory, file.getName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))
+    {
+      out.writeInt(SNAPSHOT_VERSION);
+      out.writeUTF(group.getGroupDN().toString());
+      final List<String> memberURLs = toStrings(group.getMemberURLs());
+      out.writeInt(memberURLs.size());
+      for (String memberURL : memberURLs)
+      {
+        out.writeUTF(memberURL);
+      }
+      out.writeInt(entryCounts.size());
+      for (Map.Entry<String, Long> entryCount : entryCounts.entrySet())
+      {
+        out.writeUTF(entryCount.getKey());
+        out.writeLong(entryCount.getValue());
+      }
+      // the members may change while they are written, only count at the end
+      final List<DN> memberDNs = new ArrayList<>(members.size());
+      for (CompactDn memberDN : members)
+      {
+        memberDNs.add(memberDN.toDn(serverContext));
+      }
+      out.writeInt(memberDNs.size());
+      for (DN memberDN : memberDNs)
+      {
+        out.writeUTF(memberDN.toString());
+      }
+    }
+    renameFile(tempFile, file);
+  }
+
+  /** Reads the headers of the snapshots saved when the server was last stopped. */
+  private void readSnapshots()
+  {
+    final File[] files = getFileForPath(SNAPSHOT_DIRECTORY, serverContext).listFiles();
+    if (files == null)
+    {
+      return;
+    }
+    for (File file : files)
+    {
+      if (!file.getName().endsWith(SNAPSHOT_EXTENSION))
+      {
+        continue;
+      }
+      try (DataInputStream in = openSnapshot(file))
+      {
+        final DN groupDN = DN.valueOf(in.readUTF());
+        final List<String> memberURLs = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--)
+        {
+          memberURLs.add(in.readUTF());
+        }
+        final Map<String, Long> entryCounts = new LinkedHashMap<>();
+        for (int i = in.readInt(); i > 0; i--)
+        {
+          entryCounts.put(in.readUTF(), in.readLong());
+        }
+        pendingSnapshots.put(groupDN, new Snapshot(file, groupDN, memberURLs, entryCounts));
+      }
+      catch (Exception e)
+      {
+        logger.traceException(e);
+        logger.warn(WARN_DYNAMICGROUP_CANNOT_LOAD_MATERIALIZED_MEMBERS, file.getName(), file, getExceptionMessage(e));
+        file.delete();
+      }
+    }
+  }
+
+  private List<DN> readMembers(File file) throws IOException
+  {
+    try (DataInputStream in = openSnapshot(file))
+    {
+      in.readUTF();
+      for (int i = in.readInt(); i > 0; i--)
+      {
+        in.readUTF();
+      }
+      for (int i = in.readInt(); i > 0; i--)
+      {
+        in.readUTF();
+        in.readLong();
+      }
+      final int count = in.readInt();
+      final List<DN> memberDNs = new ArrayList<>(count);
+      for (int i = 0; i < count; i++)
+      {
+        memberDNs.add(DN.valueOf(in.readUTF()));
+      }
+      return memberDNs;
+    }
+  }
+
+  /** Opens a snapshot and checks its version. */
+  private static DataInputStream openSnapshot(File file) throws IOException
+  {
+    final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+    if (in.readInt() != SNAPSHOT_VERSION)
+    {
+      in.close();
+      throw new IOException("Unsupported version");
+    }
+    return in;
+  }
+
+  /**
+   * Deletes the snapshots saved when the server was last stopped.
+   *
+   * @param serverContext
+   *          the server context
+   */
+  static void deleteSnapshots(ServerContext serverContext)
+  {
+    deleteSnapshots(getFileForPath(SNAPSHOT_DIRECTORY, serverContext));
+  }
+
+  private static void deleteSnapshots(File directory)
+  {
+    final File[] files = directory.listFiles();
+    if (files != null)
+    {
+      for (File file : files)
+      {
+        file.delete();
+      }
+    }
+  }
+
+  private static String getSnapshotFileName(DN groupDN)
+  {
+    try
+    {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      return bytesToHexNoSpace(digest.digest(groupDN.toNormalizedByteString().toByteArray())) + SNAPSHOT_EXTENSION;
+    }
+    catch (Exception e)
+    {
+      // SHA-1 is always available
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static List<String> toStrings(Set<LDAPURL> memberURLs)
+  {
+    final List<String> strings = new ArrayList<>(memberURLs.size());
+    for (LDAPURL memberURL : memberURLs)
+    {
+      strings.add(memberURL.toString());
+    }
+    Collections.sort(strings);
+    return strings;
+  }
+}
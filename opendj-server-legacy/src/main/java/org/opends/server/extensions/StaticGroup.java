@@ -22,10 +22,10 @@ import java.io.UnsupportedEncodingException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -47,6 +47,7 @@ import org.forgerock.util.Reject;
 import org.forgerock.util.annotations.VisibleForTesting;
 import org.opends.server.api.Group;
 import org.opends.server.core.DirectoryServer;
+import org.opends.server.core.GroupManager;
 import org.opends.server.core.ModifyOperation;
 import org.opends.server.core.ModifyOperationBasis;
 import org.opends.server.core.ServerContext;
@@ -94,16 +95,22 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
   /** The DN of the entry that holds the definition for this group. */
   private DN groupEntryDN;
 
-  /** The set of the DNs of the members for this group. */
-  private HashSet<CompactDn> memberDNs;
+  /**
+   * The set of the DNs of the members for this group.
+   * <p>
+   * It is a concurrent set: members are added and removed in place, and it can
+   * be read without locking. It is only replaced when the whole member list
+   * changes.
+   */
+  private volatile Set<CompactDn> memberDNs;
 
-  /** The list of nested group DNs for this group. */
-  private LinkedList<DN> nestedGroups = new LinkedList<>();
+  /** The list of nested group DNs for this group, replaced on each change. */
+  private volatile List<DN> nestedGroups = Collections.emptyList();
 
   /** Passed to the group manager to see if the nested group list needs to be refreshed. */
   private long nestedGroupRefreshToken = DirectoryServer.getGroupManager().refreshToken();
 
-  /** Read/write lock protecting memberDNs and nestedGroups. */
+  /** Read/write lock serializing the changes to memberDNs and nestedGroups. */
   private ReadWriteLock lock = new ReentrantReadWriteLock();
 
   private ServerContext serverContext;
@@ -128,7 +135,7 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
    *                              group.
    */
   private StaticGroup(ServerContext serverContext, DN groupEntryDN, AttributeType memberAttributeType,
-      LinkedHashSet<CompactDn> memberDNs)
+      Set<CompactDn> memberDNs)
   {
     super();
     Reject.ifNull(groupEntryDN, memberAttributeType, memberDNs);
@@ -202,7 +209,7 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
     {
       membersCount += a.size();
     }
-    LinkedHashSet<CompactDn> someMemberDNs = new LinkedHashSet<>(membersCount);
+    Set<CompactDn> someMemberDNs = newMemberSet(membersCount);
     for (Attribute a : memberAttrList)
     {
       for (ByteString v : a)
@@ -226,6 +233,15 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
     return new StaticGroup(serverContext, groupEntry.getName(), someMemberAttributeType, someMemberDNs);
   }
 
+  /**
+   * Returns a new set of members, allowing lock-free reads and constant time
+   * additions and removals even for groups with millions of members.
+   */
+  static Set<CompactDn> newMemberSet(int expectedSize)
+  {
+    return Collections.newSetFromMap(new ConcurrentHashMap<CompactDn, Boolean>(Math.max(expectedSize, 16)));
+  }
+
   @Override
   public SearchFilter getGroupDefinitionFilter()
          throws DirectoryException
@@ -291,6 +307,12 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
     return true;
   }
 
+  @Override
+  public boolean hasExplicitMemberList()
+  {
+    return true;
+  }
+
   @Override
   public List<DN> getNestedGroupDNs()
   {
@@ -302,15 +324,7 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
     {
       return Collections.<DN>emptyList();
     }
-    lock.readLock().lock();
-    try
-    {
-      return nestedGroups;
-    }
-    finally
-    {
-      lock.readLock().unlock();
-    }
+    return nestedGroups;
   }
 
   @Override
@@ -337,13 +351,10 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
         throw new DirectoryException(modifyOperation.getResultCode(), msg);
       }
 
-      LinkedList<DN> newNestedGroups = new LinkedList<>(nestedGroups);
-      newNestedGroups.add(nestedGroupDN);
-      nestedGroups = newNestedGroups;
+      addNestedGroupDN(nestedGroupDN);
       //Add it to the member DN list.
-      HashSet<CompactDn> newMemberDNs = new HashSet<>(memberDNs);
-      newMemberDNs.add(new CompactDn(nestedGroupDN));
-      memberDNs = newMemberDNs;
+      memberDNs.add(new CompactDn(nestedGroupDN));
+      getGroupManager().memberAdded(this, nestedGroupDN);
     }
     finally
     {
@@ -375,13 +386,10 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
         throw new DirectoryException(modifyOperation.getResultCode(), message);
       }
 
-      LinkedList<DN> newNestedGroups = new LinkedList<>(nestedGroups);
-      newNestedGroups.remove(nestedGroupDN);
-      nestedGroups = newNestedGroups;
+      removeNestedGroupDN(nestedGroupDN);
       //Remove it from the member DN list.
-      LinkedHashSet<CompactDn> newMemberDNs = new LinkedHashSet<>(memberDNs);
-      newMemberDNs.remove(new CompactDn(nestedGroupDN));
-      memberDNs = newMemberDNs;
+      memberDNs.remove(new CompactDn(nestedGroupDN));
+      getGroupManager().memberRemoved(this, nestedGroupDN);
     }
     finally
     {
@@ -393,36 +401,28 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
   public boolean isMember(DN userDN, AtomicReference<Set<DN>> examinedGroups) throws DirectoryException
   {
     reloadIfNeeded();
-    CompactDn compactUserDN = new CompactDn(userDN);
-    lock.readLock().lock();
-    try
+    if (memberDNs.contains(new CompactDn(userDN)))
     {
-      if (memberDNs.contains(compactUserDN))
-      {
-        return true;
-      }
-      if (nestedGroups.isEmpty()) {
-        return false;
-      }
+      return true;
+    }
+    final List<DN> nestedGroupDNs = nestedGroups;
+    if (nestedGroupDNs.isEmpty()) {
+      return false;
+    }
 
-      // there are nested groups
-      Set<DN> groups = getExaminedGroups(examinedGroups);
-      if (!groups.add(getGroupDN()))
-      {
-        return false;
-      }
-      for (DN nestedGroupDN : nestedGroups)
-      {
-        Group<? extends GroupImplementationCfg> group = getGroupManager().getGroupInstance(nestedGroupDN);
-        if (group != null && group.isMember(userDN, examinedGroups))
-        {
-          return true;
-        }
-      }
+    // there are nested groups
+    Set<DN> groups = getExaminedGroups(examinedGroups);
+    if (!groups.add(getGroupDN()))
+    {
+      return false;
     }
-    finally
+    for (DN nestedGroupDN : nestedGroupDNs)
     {
-      lock.readLock().unlock();
+      Group<? extends GroupImplementationCfg> group = getGroupManager().getGroupInstance(nestedGroupDN);
+      if (group != null && group.isMember(userDN, examinedGroups))
+      {
+        return true;
+      }
     }
     return false;
   }
@@ -467,7 +467,7 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
         }
         else if (thisGroup != this)
         {
-          LinkedHashSet<CompactDn> newMemberDNs = new LinkedHashSet<>();
+          Set<CompactDn> newMemberDNs = newMemberSet(0);
           MemberList memberList = thisGroup.getMembers();
           while (memberList.hasMoreMembers())
           {
@@ -482,17 +482,33 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
           }
           memberDNs = newMemberDNs;
         }
-        nestedGroups.clear();
-        for (CompactDn compactDn : memberDNs)
+        final GroupManager groupManager = DirectoryServer.getGroupManager();
+        List<DN> newNestedGroups = new LinkedList<>();
+        if (memberDNs.size() < groupManager.getNbGroupInstances())
+        {
+          // small groups look up each member among the groups
+          for (CompactDn compactMemberDN : memberDNs)
+          {
+            final DN memberDN = compactMemberDN.toDn(serverContext);
+            if (groupManager.getGroupInstance(memberDN) != null)
+            {
+              newNestedGroups.add(memberDN);
+            }
+          }
+        }
+        else
         {
-          DN dn = compactDn.toDn(serverContext);
-          Group<?> group = DirectoryServer.getGroupManager().getGroupInstance(dn);
-          if (group != null)
+          // there are usually far less groups than members in large groups
+          for (Group<?> group : groupManager.getGroupInstances())
           {
-            nestedGroups.add(group.getGroupDN());
+            if (memberDNs.contains(new CompactDn(group.getGroupDN())))
+            {
+              newNestedGroups.add(group.getGroupDN());
+            }
           }
         }
-        nestedGroupRefreshToken = DirectoryServer.getGroupManager().refreshToken();
+        nestedGroups = newNestedGroups;
+        nestedGroupRefreshToken = groupManager.refreshToken();
       }
       finally
       {
@@ -501,38 +517,28 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The returned member list reflects the members added or removed while it
+   * is being read, if any.
+   */
   @Override
   public MemberList getMembers() throws DirectoryException
   {
     reloadIfNeeded();
-    lock.readLock().lock();
-    try
-    {
-      return new SimpleStaticGroupMemberList(serverContext, groupEntryDN, memberDNs);
-    }
-    finally
-    {
-      lock.readLock().unlock();
-    }
+    return new SimpleStaticGroupMemberList(serverContext, groupEntryDN, memberDNs);
   }
 
   @Override
   public MemberList getMembers(DN baseDN, SearchScope scope, SearchFilter filter) throws DirectoryException
   {
     reloadIfNeeded();
-    lock.readLock().lock();
-    try
+    if (baseDN == null && filter == null)
     {
-      if (baseDN == null && filter == null)
-      {
-        return new SimpleStaticGroupMemberList(serverContext, groupEntryDN, memberDNs);
-      }
-      return new FilteredStaticGroupMemberList(serverContext, groupEntryDN, memberDNs, baseDN, scope, filter);
-    }
-    finally
-    {
-      lock.readLock().unlock();
+      return new SimpleStaticGroupMemberList(serverContext, groupEntryDN, memberDNs);
     }
+    return new FilteredStaticGroupMemberList(serverContext, groupEntryDN, memberDNs, baseDN, scope, filter);
   }
 
   @Override
@@ -564,17 +570,17 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
               {
                 DN member = DN.valueOf(v);
                 memberDNs.add(new CompactDn(member));
+                getGroupManager().memberAdded(this, member);
                 if (DirectoryServer.getGroupManager().getGroupInstance(member) != null)
                 {
-                  nestedGroups.add(member);
+                  addNestedGroupDN(member);
                 }
               }
               break;
             case DELETE:
               if (attribute.isEmpty())
               {
-                memberDNs.clear();
-                nestedGroups.clear();
+                replaceAllMembers(newMemberSet(0), Collections.<DN>emptyList());
               }
               else
               {
@@ -582,22 +588,25 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
                 {
                   DN member = DN.valueOf(v);
                   memberDNs.remove(new CompactDn(member));
-                  nestedGroups.remove(member);
+                  getGroupManager().memberRemoved(this, member);
+                  removeNestedGroupDN(member);
                 }
               }
               break;
             case REPLACE:
-              memberDNs.clear();
-              nestedGroups.clear();
+              // build the new members aside so that readers never see an empty group
+              Set<CompactDn> newMemberDNs = newMemberSet(attribute.size());
+              List<DN> newNestedGroups = new LinkedList<>();
               for (ByteString v : attribute)
               {
                 DN member = DN.valueOf(v);
-                memberDNs.add(new CompactDn(member));
+                newMemberDNs.add(new CompactDn(member));
                 if (DirectoryServer.getGroupManager().getGroupInstance(member) != null)
                 {
-                  nestedGroups.add(member);
+                  newNestedGroups.add(member);
                 }
               }
+              replaceAllMembers(newMemberDNs, newNestedGroups);
               break;
           }
         }
@@ -608,6 +617,50 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
     }
   }
 
+  /** Replaces all the members, the caller must hold the write lock. */
+  private void replaceAllMembers(Set<CompactDn> newMemberDNs, List<DN> newNestedGroups)
+  {
+    Set<CompactDn> oldMemberDNs = memberDNs;
+    memberDNs = newMemberDNs;
+    nestedGroups = newNestedGroups;
+    for (CompactDn member : oldMemberDNs)
+    {
+      if (!newMemberDNs.contains(member))
+      {
+        getGroupManager().memberRemoved(this, member.toDn(serverContext));
+      }
+    }
+    for (CompactDn member : newMemberDNs)
+    {
+      if (!oldMemberDNs.contains(member))
+      {
+        getGroupManager().memberAdded(this, member.toDn(serverContext));
+      }
+    }
+  }
+
+  /** Adds a nested group, the caller must hold the write lock. */
+  private void addNestedGroupDN(DN nestedGroupDN)
+  {
+    if (!nestedGroups.contains(nestedGroupDN))
+    {
+      List<DN> newNestedGroups = new LinkedList<>(nestedGroups);
+      newNestedGroups.add(nestedGroupDN);
+      nestedGroups = newNestedGroups;
+    }
+  }
+
+  /** Removes a nested group, the caller must hold the write lock. */
+  private void removeNestedGroupDN(DN nestedGroupDN)
+  {
+    if (nestedGroups.contains(nestedGroupDN))
+    {
+      List<DN> newNestedGroups = new LinkedList<>(nestedGroups);
+      newNestedGroups.remove(nestedGroupDN);
+      nestedGroups = newNestedGroups;
+    }
+  }
+
   @Override
   public void addMember(Entry userEntry) throws UnsupportedOperationException, DirectoryException
   {
@@ -633,9 +686,8 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
             ERR_STATICGROUP_ADD_MEMBER_UPDATE_FAILED.get(userDN, groupEntryDN, modifyOperation.getErrorMessage()));
       }
 
-      LinkedHashSet<CompactDn> newMemberDNs = new LinkedHashSet<CompactDn>(memberDNs);
-      newMemberDNs.add(compactUserDN);
-      memberDNs = newMemberDNs;
+      memberDNs.add(compactUserDN);
+      getGroupManager().memberAdded(this, userDN);
     }
     finally
     {
@@ -666,16 +718,10 @@ public class StaticGroup extends Group<StaticGroupImplementationCfg>
             ERR_STATICGROUP_REMOVE_MEMBER_UPDATE_FAILED.get(userDN, groupEntryDN, modifyOperation.getErrorMessage()));
       }
 
-      LinkedHashSet<CompactDn> newMemberDNs = new LinkedHashSet<>(memberDNs);
-      newMemberDNs.remove(compactUserDN);
-      memberDNs = newMemberDNs;
+      memberDNs.remove(compactUserDN);
+      getGroupManager().memberRemoved(this, userDN);
       //If it is in the nested group list remove it.
-      if (nestedGroups.contains(userDN))
-      {
-        LinkedList<DN> newNestedGroups = new LinkedList<>(nestedGroups);
-        newNestedGroups.remove(userDN);
-        nestedGroups = newNestedGroups;
-      }
+      removeNestedGroupDN(userDN);
     }
     finally
     {
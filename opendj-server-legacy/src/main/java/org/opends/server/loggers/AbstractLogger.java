@@ -270,7 +270,7 @@ public abstract class AbstractLogger
   {
     for (P publisher : getLogPublishers())
     {
-      if (publisher.getDN().equals(dn))
+      if (dn.equals(publisher.getDN()))
       {
         return publisher;
       }
@@ -24,6 +24,9 @@ import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.i18n.LocalizableMessageDescriptor.Arg2;
@@ -59,6 +62,7 @@ import org.opends.server.types.Entry;
 import org.opends.server.types.InitializationException;
 import org.opends.server.types.Operation;
 import org.opends.server.types.OperationType;
+import org.opends.server.util.LogLinearBuckets;
 
 /**
  * This class provides the base implementation of the access loggers used by the
@@ -70,6 +74,102 @@ import org.opends.server.types.OperationType;
 abstract class AbstractTextAccessLogPublisher
     <T extends AccessLogPublisherCfg> extends AccessLogPublisher<T>
 {
+  /** The outcome of the request criteria of a criteria based filter for an operation. */
+  private enum RequestMatch
+  {
+    /** The operation does not match the request criteria. */
+    NO_MATCH,
+    /** The operation matches the request criteria and has been sampled. */
+    SAMPLED,
+    /** The operation matches the request criteria but has not been sampled. */
+    NOT_SAMPLED
+  }
+
+  /**
+   * Online estimation of a percentile of the processing times of operations.
+   * <p>
+   * Processing times are counted in log-linear buckets, each power of two
+   * being split into eight buckets, so that the percentile is known within
+   * 12.5%. The counts are halved regularly so that the percentile follows the
+   * recent operations, and the bucket containing the percentile is only
+   * recomputed every few operations.
+   */
+  static final class EtimeHistogram
+  {
+    /** Processing times are counted in microseconds. */
+    private static final LogLinearBuckets BUCKETS = new LogLinearBuckets(3, Long.MAX_VALUE);
+    private static final int NB_BUCKETS = BUCKETS.getNbBuckets();
+    /** The number of operations after which the percentile is recomputed. */
+    private static final int UPDATE_INTERVAL = 64;
+    /** The number of operations after which the counts are halved. */
+    private static final int DECAY_INTERVAL = 8192;
+
+    private final int percentile;
+    private final AtomicLongArray counts = new AtomicLongArray(NB_BUCKETS);
+    private final AtomicLong nbOperations = new AtomicLong();
+    /** The lowest processing time exceeding the percentile, unknown until enough operations are recorded. */
+    private volatile long thresholdMicros = Long.MAX_VALUE;
+
+    /**
+     * Creates a new histogram.
+     *
+     * @param percentile
+     *          the percentile to estimate, between 0 and 100
+     */
+    EtimeHistogram(int percentile)
+    {
+      this.percentile = percentile;
+    }
+
+    /**
+     * Records the processing time of an operation.
+     *
+     * @param etimeMicros
+     *          the processing time of the operation, in microseconds
+     * @return {@code true} if the processing time exceeds the percentile of the
+     *         previously recorded processing times
+     */
+    boolean record(long etimeMicros)
+    {
+      final boolean exceedsPercentile = etimeMicros >= thresholdMicros;
+      counts.incrementAndGet(BUCKETS.bucketOf(etimeMicros));
+      final long count = nbOperations.incrementAndGet();
+      if (count % UPDATE_INTERVAL == 0)
+      {
+        if (count % DECAY_INTERVAL == 0)
+        {
+          for (int i = 0; i < NB_BUCKETS; i++)
+          {
+            counts.addAndGet(i, -(counts.get(i) >> 1));
+          }
+        }
+        updateThreshold();
+      }
+      return exceedsPercentile;
+    }
+
+    private void updateThreshold()
+    {
+      long total = 0;
+      for (int i = 0; i < NB_BUCKETS; i++)
+      {
+        total += counts.get(i);
+      }
+      final long rank = (total * percentile + 99) / 100;
+      long cumulated = 0;
+      for (int i = 0; i < NB_BUCKETS - 1; i++)
+      {
+        cumulated += counts.get(i);
+        if (cumulated >= rank)
+        {
+          thresholdMicros = BUCKETS.lowestValueOf(i + 1);
+          return;
+        }
+      }
+      thresholdMicros = Long.MAX_VALUE;
+    }
+  }
+
   /** Criteria based filter. */
   static final class CriteriaFilter implements Filter
   {
@@ -88,6 +188,10 @@ abstract class AbstractTextAccessLogPublisher
     private final DN[] userIsMemberOf;
     private final DN[] userIsNotMemberOf;
     private final String attachmentName;
+    /** Number of operations of each type matching the request criteria, only maintained when sampling. */
+    private final AtomicLong[] sampledOperationCounts;
+    /** Processing times of the operations of each type, only maintained when logging the slow operations. */
+    private final EtimeHistogram[] etimeHistograms;
 
 
 
@@ -195,6 +299,32 @@ abstract class AbstractTextAccessLogPublisher
               ERR_CONFIG_LOGGING_INVALID_TARGET_DN_PATTERN, cfg.dn());
       targetDNNotEqualTo = decodePatterns(cfg.getRequestTargetDNNotEqualTo(),
               ERR_CONFIG_LOGGING_INVALID_TARGET_DN_PATTERN, cfg.dn());
+
+      if (cfg.getSamplingRate() > 1)
+      {
+        sampledOperationCounts = new AtomicLong[OperationType.values().length];
+        for (i = 0; i < sampledOperationCounts.length; i++)
+        {
+          sampledOperationCounts[i] = new AtomicLong();
+        }
+      }
+      else
+      {
+        sampledOperationCounts = null;
+      }
+
+      if (sampledOperationCounts != null && cfg.getSamplingEtimePercentile() < 100)
+      {
+        etimeHistograms = new EtimeHistogram[OperationType.values().length];
+        for (i = 0; i < etimeHistograms.length; i++)
+        {
+          etimeHistograms[i] = new EtimeHistogram(cfg.getSamplingEtimePercentile());
+        }
+      }
+      else
+      {
+        etimeHistograms = null;
+      }
     }
 
     private PatternDN[] decodePatterns(Set<String> patterns,
@@ -239,17 +369,39 @@ abstract class AbstractTextAccessLogPublisher
 
     @Override
     public boolean isRequestLoggable(final Operation operation)
+    {
+      return matchRequest(operation) == RequestMatch.SAMPLED;
+    }
+
+
+
+    private RequestMatch matchRequest(final Operation operation)
     {
       final ClientConnection connection = operation.getClientConnection();
       final boolean matches = logOperationRecords.contains(operation.getOperationType())
           && filterClientConnection(connection)
           && filterUser(connection) && filterRequest(operation);
+      final RequestMatch requestMatch;
+      if (!matches)
+      {
+        requestMatch = RequestMatch.NO_MATCH;
+      }
+      else if (sampledOperationCounts == null
+          || sampledOperationCounts[operation.getOperationType().ordinal()].getAndIncrement()
+              % cfg.getSamplingRate() == 0)
+      {
+        requestMatch = RequestMatch.SAMPLED;
+      }
+      else
+      {
+        requestMatch = RequestMatch.NOT_SAMPLED;
+      }
 
       // Cache the result so that it does not need to be recomputed for the
       // response.
-      operation.setAttachment(attachmentName, matches);
+      operation.setAttachment(attachmentName, requestMatch);
 
-      return matches;
+      return requestMatch;
     }
 
 
@@ -258,17 +410,40 @@ abstract class AbstractTextAccessLogPublisher
     public boolean isResponseLoggable(final Operation operation)
     {
       // First check the result that was computed for the initial request.
-      Boolean requestMatched = (Boolean) operation.getAttachment(attachmentName);
-      if (requestMatched == null)
+      RequestMatch requestMatch = (RequestMatch) operation.getAttachment(attachmentName);
+      if (requestMatch == null)
       {
         // This should not happen.
         logger.trace("Operation attachment %s not found while logging response",
               attachmentName);
-        requestMatched = isRequestLoggable(operation);
+        requestMatch = matchRequest(operation);
       }
 
       // Check the response parameters.
-      return requestMatched && filterResponse(operation);
+      if (requestMatch == RequestMatch.NO_MATCH || !filterResponse(operation))
+      {
+        return false;
+      }
+
+      // Operations which were not sampled are still logged when they are
+      // failures or among the slowest operations of their type.
+      final boolean isSlow = etimeHistograms != null
+          && etimeHistograms[operation.getOperationType().ordinal()].record(getEtimeMicros(operation));
+      return requestMatch == RequestMatch.SAMPLED
+          || isSlow
+          || (cfg.isSamplingLogsFailures() && operation.getResultCode().isExceptional());
+    }
+
+
+
+    private long getEtimeMicros(final Operation operation)
+    {
+      final long etimeNanos = operation.getProcessingNanoTime();
+      if (etimeNanos >= 0)
+      {
+        return TimeUnit.NANOSECONDS.toMicros(etimeNanos);
+      }
+      return TimeUnit.MILLISECONDS.toMicros(operation.getProcessingTime());
     }
 
 
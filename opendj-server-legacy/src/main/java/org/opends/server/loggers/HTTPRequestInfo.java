@@ -128,6 +128,13 @@ public interface HTTPRequestInfo
    */
   long getTotalProcessingTime();
 
+  /**
+   * Returns the number of LDAP operations performed to process this HTTP request.
+   *
+   * @return the number of LDAP operations performed to process this HTTP request
+   */
+  int getLdapOperations();
+
   /**
    * Returns the transactionId for this request.
    *
@@ -25,6 +25,8 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Calendar;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -87,6 +89,8 @@ class MultifileTextWriter
   private MeteredStream outputStream;
   /** The underlying buffered writer using the output stream. */
   private BufferedWriter writer;
+  /** The channel of the underlying file, used to write encoded records. */
+  private FileChannel channel;
 
   /**
    * Creates a new instance of MultiFileTextWriter with the supplied policies.
@@ -166,6 +170,7 @@ class MultifileTextWriter
 
     FileOutputStream stream = new FileOutputStream(file, append);
     outputStream = new MeteredStream(stream, file.length());
+    channel = stream.getChannel();
 
     OutputStreamWriter osw = new OutputStreamWriter(outputStream, encoding);
     if(bufferSize <= 0)
@@ -562,6 +567,40 @@ class MultifileTextWriter
     }
   }
 
+  /**
+   * Writes log records already encoded with the encoding of this writer, each
+   * record being followed by a line separator. The records are written
+   * directly to the file, after the records buffered by this writer.
+   *
+   * @param records
+   *          the encoded records, from the position to the limit of the buffer
+   */
+  void writeEncodedRecords(ByteBuffer records)
+  {
+    synchronized(this)
+    {
+      final int size = records.remaining();
+      if(sizeLimit > 0 && outputStream.written + size >= sizeLimit)
+      {
+        rotate();
+      }
+
+      try
+      {
+        writer.flush();
+        while (records.hasRemaining())
+        {
+          channel.write(records);
+        }
+        outputStream.written += size;
+      }
+      catch(Exception e)
+      {
+        errorHandler.handleWriteError(null, e);
+      }
+    }
+  }
+
   @Override
   public void flush()
   {
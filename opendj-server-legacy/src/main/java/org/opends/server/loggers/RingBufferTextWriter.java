@@ -0,0 +1,449 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.loggers;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.forgerock.opendj.server.config.meta.FileBasedAccessLogPublisherCfgDefn.RingBufferFullPolicy;
+import org.forgerock.opendj.server.config.server.MonitorProviderCfg;
+import org.opends.server.api.DirectoryThread;
+import org.opends.server.api.MonitorData;
+import org.opends.server.api.MonitorProvider;
+import org.opends.server.api.ServerShutdownListener;
+import org.opends.server.core.DirectoryServer;
+
+/**
+ * A Text Writer which writes log records asynchronously through a ring buffer
+ * of reusable byte buffers.
+ * <p>
+ * Any number of threads publish records, by claiming the next slot of the ring
+ * buffer and encoding their record in UTF-8 directly into the byte array of the
+ * slot. A single thread copies the published slots, in order, into a batch
+ * which is written to the log file with one write for many records. The slots
+ * are reused once copied, so that publishing a record allocates nothing, and
+ * the publishers only contend on the claim of a slot.
+ * <p>
+ * When the ring buffer is full, the {@link RingBufferFullPolicy} decides
+ * whether the publisher waits for a free slot or drops its record. The dropped
+ * records and the waits are counted by the monitor provider of the writer.
+ */
+class RingBufferTextWriter implements ServerShutdownListener, TextWriter
+{
+  /** When sampling, the number of records published while the ring buffer is full for one record written. */
+  private static final int SAMPLE_INTERVAL = 16;
+  /** The initial size of the byte array of each slot. */
+  private static final int INITIAL_SLOT_SIZE = 256;
+  /** The size above which the byte array of a slot is released once written. */
+  private static final int MAX_RETAINED_SLOT_SIZE = 16 * 1024;
+  /** The size of the batches written to the log file. */
+  private static final int BATCH_SIZE = 64 * 1024;
+  private static final long WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+  private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(UTF_8);
+
+  private final String name;
+  private final String monitorName;
+  /** The wrapped Text Writer. */
+  private final MultifileTextWriter writer;
+  private final RingBufferFullPolicy fullPolicy;
+
+  private final int mask;
+  /** The encoded records, each followed by a line separator. */
+  private final byte[][] slots;
+  private final int[] slotLengths;
+  /** The sequence of the record last published in each slot. */
+  private final AtomicLongArray publishedSequences;
+  /** The sequence of the next slot to claim. */
+  private final AtomicLong nextSequence = new AtomicLong();
+  /** The sequence of the next slot to write, the previous slots being free. */
+  private volatile long writtenSequence;
+
+  private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_SIZE);
+
+  private final AtomicLong writtenRecords = new AtomicLong();
+  private final AtomicLong droppedRecords = new AtomicLong();
+  private final AtomicLong waitingRecords = new AtomicLong();
+  private final AtomicLong recordsWhileFull = new AtomicLong();
+
+  private volatile boolean stopRequested;
+  private volatile boolean writerWaiting;
+  private final WriterThread writerThread;
+  private final RingBufferMonitorProvider monitor;
+
+  /**
+   * Construct a new RingBufferTextWriter wrapper.
+   *
+   * @param name
+   *          the name of the thread
+   * @param monitorName
+   *          the name of the monitor provider of the writer
+   * @param capacity
+   *          the minimum number of slots of the ring buffer, rounded up to a
+   *          power of two
+   * @param fullPolicy
+   *          what to do with the records published while the ring buffer is
+   *          full
+   * @param writer
+   *          the writer of the log files
+   */
+  RingBufferTextWriter(String name, String monitorName, int capacity, RingBufferFullPolicy fullPolicy,
+      MultifileTextWriter writer)
+  {
+    this.name = name;
+    this.monitorName = monitorName;
+    this.fullPolicy = fullPolicy;
+    this.writer = writer;
+
+    final int size = Math.max(2, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+    this.mask = size - 1;
+    this.slots = new byte[size][];
+    for (int i = 0; i < size; i++)
+    {
+      slots[i] = new byte[INITIAL_SLOT_SIZE];
+    }
+    this.slotLengths = new int[size];
+    this.publishedSequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++)
+    {
+      publishedSequences.set(i, -1);
+    }
+
+    writerThread = new WriterThread();
+    writerThread.start();
+
+    monitor = new RingBufferMonitorProvider();
+    DirectoryServer.registerMonitorProvider(monitor);
+    DirectoryServer.registerShutdownListener(this);
+  }
+
+  /** The writer thread is responsible for writing the published slots. */
+  private class WriterThread extends DirectoryThread
+  {
+    public WriterThread()
+    {
+      super(name);
+    }
+
+    @Override
+    public void run()
+    {
+      while (true)
+      {
+        if (writePublishedSlots())
+        {
+          continue;
+        }
+        if (stopRequested && nextSequence.get() == writtenSequence)
+        {
+          return;
+        }
+        writerWaiting = true;
+        if (!isPublished(writtenSequence) && !stopRequested)
+        {
+          LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+        }
+        writerWaiting = false;
+      }
+    }
+  }
+
+  private boolean isPublished(long sequence)
+  {
+    return publishedSequences.get((int) sequence & mask) == sequence;
+  }
+
+  /**
+   * Writes the slots published so far, in order.
+   *
+   * @return {@code true} if at least one slot has been written
+   */
+  private boolean writePublishedSlots()
+  {
+    long sequence = writtenSequence;
+    if (!isPublished(sequence))
+    {
+      return false;
+    }
+    do
+    {
+      final int index = (int) sequence & mask;
+      final int length = slotLengths[index];
+      if (length > batch.remaining())
+      {
+        writeBatch();
+      }
+      if (length > batch.remaining())
+      {
+        writer.writeEncodedRecords(ByteBuffer.wrap(slots[index], 0, length));
+      }
+      else
+      {
+        batch.put(slots[index], 0, length);
+      }
+      if (slots[index].length > MAX_RETAINED_SLOT_SIZE)
+      {
+        slots[index] = new byte[INITIAL_SLOT_SIZE];
+      }
+      writtenRecords.incrementAndGet();
+      // the slot can now be reused by the publishers
+      writtenSequence = ++sequence;
+    }
+    while (isPublished(sequence));
+    writeBatch();
+    return true;
+  }
+
+  private void writeBatch()
+  {
+    if (batch.position() > 0)
+    {
+      batch.flip();
+      writer.writeEncodedRecords(batch);
+      batch.clear();
+    }
+  }
+
+  @Override
+  public void writeRecord(String record)
+  {
+    writeRecord((CharSequence) record);
+  }
+
+  /**
+   * Write the log record asynchronously, without creating a string.
+   *
+   * @param record
+   *          the log record to write, which can be reused once this method
+   *          returns
+   */
+  public void writeRecord(CharSequence record)
+  {
+    boolean waiting = false;
+    long sequence;
+    while (true)
+    {
+      if (stopRequested)
+      {
+        // Off to the bit bucket, like the records of a stopped AsynchronousTextWriter
+        return;
+      }
+      sequence = nextSequence.get();
+      if (sequence - writtenSequence > mask)
+      {
+        if (!waiting)
+        {
+          if (!mayWaitForFreeSlot())
+          {
+            droppedRecords.incrementAndGet();
+            return;
+          }
+          waiting = true;
+          waitingRecords.incrementAndGet();
+        }
+        LockSupport.unpark(writerThread);
+        LockSupport.parkNanos(this, WAIT_NANOS);
+      }
+      else if (nextSequence.compareAndSet(sequence, sequence + 1))
+      {
+        break;
+      }
+    }
+
+    final int index = (int) sequence & mask;
+    slotLengths[index] = encode(record, index);
+    publishedSequences.set(index, sequence);
+    if (writerWaiting)
+    {
+      LockSupport.unpark(writerThread);
+    }
+  }
+
+  private boolean mayWaitForFreeSlot()
+  {
+    switch (fullPolicy)
+    {
+    case DROP:
+      return false;
+    case SAMPLE:
+      return recordsWhileFull.incrementAndGet() % SAMPLE_INTERVAL == 0;
+    default:
+      return true;
+    }
+  }
+
+  /** Encodes the record in UTF-8 into a slot, followed by a line separator, and returns the encoded length. */
+  private int encode(CharSequence record, int index)
+  {
+    final int length = record.length();
+    final int maxEncodedLength = 3 * length + LINE_SEPARATOR.length;
+    byte[] bytes = slots[index];
+    if (bytes.length < maxEncodedLength)
+    {
+      bytes = new byte[maxEncodedLength];
+      slots[index] = bytes;
+    }
+
+    int pos = 0;
+    for (int i = 0; i < length; i++)
+    {
+      final char c = record.charAt(i);
+      if (c < 0x80)
+      {
+        bytes[pos++] = (byte) c;
+      }
+      else if (c < 0x800)
+      {
+        bytes[pos++] = (byte) (0xc0 | c >> 6);
+        bytes[pos++] = (byte) (0x80 | c & 0x3f);
+      }
+      else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(record.charAt(i + 1)))
+      {
+        final int codePoint = Character.toCodePoint(c, record.charAt(++i));
+        bytes[pos++] = (byte) (0xf0 | codePoint >> 18);
+        bytes[pos++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+        bytes[pos++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+        bytes[pos++] = (byte) (0x80 | codePoint & 0x3f);
+      }
+      else if (Character.isSurrogate(c))
+      {
+        // Malformed, replaced like the charset encoder does
+        bytes[pos++] = '?';
+      }
+      else
+      {
+        bytes[pos++] = (byte) (0xe0 | c >> 12);
+        bytes[pos++] = (byte) (0x80 | c >> 6 & 0x3f);
+        bytes[pos++] = (byte) (0x80 | c & 0x3f);
+      }
+    }
+    System.arraycopy(LINE_SEPARATOR, 0, bytes, pos, LINE_SEPARATOR.length);
+    return pos + LINE_SEPARATOR.length;
+  }
+
+  @Override
+  public void flush()
+  {
+    writer.flush();
+  }
+
+  @Override
+  public long getBytesWritten()
+  {
+    return writer.getBytesWritten();
+  }
+
+  /**
+   * Retrieves the wrapped writer.
+   *
+   * @return The wrapped writer used by this asynchronous writer.
+   */
+  public TextWriter getWrappedWriter()
+  {
+    return writer;
+  }
+
+  @Override
+  public String getShutdownListenerName()
+  {
+    return "RingBufferTextWriter Thread " + name;
+  }
+
+  @Override
+  public void processServerShutdown(LocalizableMessage reason)
+  {
+    // Don't shutdown the wrapped writer on server shutdown as it
+    // might get more write requests before the log publishers are
+    // manually shutdown just before the server process exists.
+    shutdown(false);
+  }
+
+  @Override
+  public void shutdown()
+  {
+    shutdown(true);
+  }
+
+  /**
+   * Releases any resources held by the writer.
+   *
+   * @param shutdownWrapped If the wrapped writer should be closed as well.
+   */
+  public void shutdown(boolean shutdownWrapped)
+  {
+    stopRequested = true;
+
+    // Wait for writer thread to terminate
+    while (writerThread.isAlive())
+    {
+      try
+      {
+        LockSupport.unpark(writerThread);
+        writerThread.join();
+      }
+      catch (InterruptedException ex)
+      {
+        // Ignore; we gotta wait..
+      }
+    }
+
+    // Write the records published while the writer thread was exiting
+    writePublishedSlots();
+    writer.flush();
+
+    if (shutdownWrapped)
+    {
+      writer.shutdown();
+    }
+
+    DirectoryServer.deregisterMonitorProvider(monitor);
+    DirectoryServer.deregisterShutdownListener(this);
+  }
+
+  /** Exposes the activity of the ring buffer. */
+  private final class RingBufferMonitorProvider extends MonitorProvider<MonitorProviderCfg>
+  {
+    @Override
+    public MonitorData getMonitorData()
+    {
+      final MonitorData attributes = new MonitorData(5);
+      attributes.add("ring-buffer-size", slots.length);
+      attributes.add("pending-records", nextSequence.get() - writtenSequence);
+      attributes.add("written-records", writtenRecords.get());
+      attributes.add("dropped-records", droppedRecords.get());
+      attributes.add("waiting-records", waitingRecords.get());
+      return attributes;
+    }
+
+    @Override
+    public String getMonitorInstanceName()
+    {
+      return monitorName;
+    }
+
+    @Override
+    public void initializeMonitorProvider(MonitorProviderCfg configuration)
+    {
+      // Nothing to do
+    }
+  }
+}
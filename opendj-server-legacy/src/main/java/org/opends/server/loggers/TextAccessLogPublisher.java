@@ -72,6 +72,18 @@ public final class TextAccessLogPublisher extends
   private static final String CATEGORY_RESPONSE = "RES";
   /** The category to use when logging requests. */
   private static final String CATEGORY_REQUEST = "REQ";
+  /** The maximum capacity of the record buffers kept for reuse. */
+  private static final int MAX_RECORD_BUFFER_CAPACITY = 16 * 1024;
+
+  /** The buffers used to build the records, reused by each thread. */
+  private static final ThreadLocal<StringBuilder> RECORD_BUFFERS = new ThreadLocal<StringBuilder>()
+  {
+    @Override
+    protected StringBuilder initialValue()
+    {
+      return new StringBuilder(256);
+    }
+  };
 
   /**
    * Returns an instance of the text access log publisher that will print all
@@ -115,6 +127,10 @@ public final class TextAccessLogPublisher extends
       {
         currentWriter = ((AsynchronousTextWriter) writer).getWrappedWriter();
       }
+      else if (writer instanceof RingBufferTextWriter)
+      {
+        currentWriter = ((RingBufferTextWriter) writer).getWrappedWriter();
+      }
       else
       {
         currentWriter = writer;
@@ -127,14 +143,14 @@ public final class TextAccessLogPublisher extends
 
         if (config.isAsynchronous())
         {
-          if (writer instanceof AsynchronousTextWriter)
+          if (writer != mfWriter)
           {
-            if (hasAsyncConfigChanged(config))
+            if (hasAsyncConfigChanged(config) || hasRingBufferConfigChanged(config))
             {
               // reinstantiate
-              final AsynchronousTextWriter previousWriter = (AsynchronousTextWriter) writer;
+              final TextWriter previousWriter = writer;
               writer = newAsyncWriter(mfWriter, config);
-              previousWriter.shutdown(false);
+              shutdownAsyncWriter(previousWriter);
             }
           }
           else
@@ -145,12 +161,12 @@ public final class TextAccessLogPublisher extends
         }
         else
         {
-          if (writer instanceof AsynchronousTextWriter)
+          if (writer != mfWriter)
           {
             // asynchronous is being turned off, remove async text writers.
-            final AsynchronousTextWriter previousWriter = (AsynchronousTextWriter) writer;
+            final TextWriter previousWriter = writer;
             writer = mfWriter;
-            previousWriter.shutdown(false);
+            shutdownAsyncWriter(previousWriter);
           }
         }
 
@@ -282,12 +298,76 @@ public final class TextAccessLogPublisher extends
     return !cfg.dn().equals(newConfig.dn()) && cfg.isAutoFlush() != newConfig.isAutoFlush();
   }
 
-  private AsynchronousTextWriter newAsyncWriter(MultifileTextWriter mfWriter, FileBasedAccessLogPublisherCfg config)
+  private boolean hasRingBufferConfigChanged(FileBasedAccessLogPublisherCfg newConfig)
   {
+    return cfg.isRingBuffer() != newConfig.isRingBuffer()
+        || (newConfig.isRingBuffer() && (cfg.getQueueSize() != newConfig.getQueueSize()
+            || cfg.getRingBufferFullPolicy() != newConfig.getRingBufferFullPolicy()));
+  }
+
+  private TextWriter newAsyncWriter(MultifileTextWriter mfWriter, FileBasedAccessLogPublisherCfg config)
+  {
+    if (config.isRingBuffer())
+    {
+      String name = "Ring Buffer Text Writer for " + config.dn();
+      String monitorName = config.dn().rdn().getFirstAVA().getAttributeValue() + " Ring Buffer";
+      return new RingBufferTextWriter(
+          name, monitorName, config.getQueueSize(), config.getRingBufferFullPolicy(), mfWriter);
+    }
     String name = "Asynchronous Text Writer for " + config.dn();
     return new AsynchronousTextWriter(name, config.getQueueSize(), config.isAutoFlush(), mfWriter);
   }
 
+  /** Shuts down an asynchronous writer, but not the writer it wraps. */
+  private void shutdownAsyncWriter(TextWriter asyncWriter)
+  {
+    if (asyncWriter instanceof RingBufferTextWriter)
+    {
+      ((RingBufferTextWriter) asyncWriter).shutdown(false);
+    }
+    else
+    {
+      ((AsynchronousTextWriter) asyncWriter).shutdown(false);
+    }
+  }
+
+  /**
+   * Returns an empty buffer to build a record, reused by the current thread.
+   *
+   * @return an empty buffer
+   */
+  private static StringBuilder newRecordBuffer()
+  {
+    StringBuilder buffer = RECORD_BUFFERS.get();
+    if (buffer.capacity() > MAX_RECORD_BUFFER_CAPACITY)
+    {
+      buffer = new StringBuilder(256);
+      RECORD_BUFFERS.set(buffer);
+    }
+    buffer.setLength(0);
+    return buffer;
+  }
+
+  /**
+   * Writes a record, without converting it to a string when the writer
+   * encodes it directly.
+   *
+   * @param buffer
+   *          the record to write
+   */
+  private void writeRecord(StringBuilder buffer)
+  {
+    final TextWriter currentWriter = writer;
+    if (currentWriter instanceof RingBufferTextWriter)
+    {
+      ((RingBufferTextWriter) currentWriter).writeRecord(buffer);
+    }
+    else
+    {
+      currentWriter.writeRecord(buffer.toString());
+    }
+  }
+
   @Override
   public boolean isConfigurationAcceptable(
       final FileBasedAccessLogPublisherCfg configuration,
@@ -343,10 +423,10 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(abandonOperation, "ABANDON", CATEGORY_REQUEST, buffer);
     appendAbandonRequest(abandonOperation, buffer);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -357,7 +437,7 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(abandonOperation, "ABANDON", CATEGORY_RESPONSE, buffer);
     if (isCombinedMode)
     {
@@ -366,7 +446,7 @@ public final class TextAccessLogPublisher extends
     appendResultCodeAndMessage(buffer, abandonOperation);
     logAdditionalLogItems(abandonOperation, buffer);
     appendEtime(buffer, abandonOperation);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -377,10 +457,10 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(addOperation, "ADD", CATEGORY_REQUEST, buffer);
     appendAddRequest(addOperation, buffer);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -391,7 +471,7 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(addOperation, "ADD", CATEGORY_RESPONSE, buffer);
     if (isCombinedMode)
     {
@@ -401,7 +481,7 @@ public final class TextAccessLogPublisher extends
     logAdditionalLogItems(addOperation, buffer);
     appendLabelIfNotNull(buffer, "authzDN", addOperation.getProxiedAuthorizationDN());
     appendEtime(buffer, addOperation);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -412,10 +492,10 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(bindOperation, "BIND", CATEGORY_REQUEST, buffer);
     appendBindRequest(bindOperation, buffer);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -426,7 +506,7 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(bindOperation, "BIND", CATEGORY_RESPONSE, buffer);
     if (isCombinedMode)
     {
@@ -478,7 +558,7 @@ public final class TextAccessLogPublisher extends
 
     appendEtime(buffer, bindOperation);
 
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -489,10 +569,10 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(compareOperation, "COMPARE", CATEGORY_REQUEST, buffer);
     appendCompareRequest(compareOperation, buffer);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -503,7 +583,7 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(compareOperation, "COMPARE", CATEGORY_RESPONSE, buffer);
     if (isCombinedMode)
     {
@@ -513,7 +593,7 @@ public final class TextAccessLogPublisher extends
     logAdditionalLogItems(compareOperation, buffer);
     appendLabelIfNotNull(buffer, "authzDN", compareOperation.getProxiedAuthorizationDN());
     appendEtime(buffer, compareOperation);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -525,14 +605,14 @@ public final class TextAccessLogPublisher extends
     }
 
     final long connectionID = clientConnection.getConnectionID();
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     buffer.append('[').append(TimeThread.getUserDefinedTime(timeStampFormat)).append(']');
     buffer.append(" CONNECT conn=").append(connectionID);
     buffer.append(" from=").append(clientConnection.getClientHostPort());
     buffer.append(" to=").append(clientConnection.getServerHostPort());
     buffer.append(" protocol=").append(clientConnection.getProtocol());
 
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -543,10 +623,10 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(deleteOperation, "DELETE", CATEGORY_REQUEST, buffer);
     appendDeleteRequest(deleteOperation, buffer);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -557,7 +637,7 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(deleteOperation, "DELETE", CATEGORY_RESPONSE, buffer);
     if (isCombinedMode)
     {
@@ -567,7 +647,7 @@ public final class TextAccessLogPublisher extends
     logAdditionalLogItems(deleteOperation, buffer);
     appendLabelIfNotNull(buffer, "authzDN", deleteOperation.getProxiedAuthorizationDN());
     appendEtime(buffer, deleteOperation);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -580,13 +660,13 @@ public final class TextAccessLogPublisher extends
     }
 
     final long connectionID = clientConnection.getConnectionID();
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     buffer.append('[').append(TimeThread.getUserDefinedTime(timeStampFormat)).append(']');
     buffer.append(" DISCONNECT conn=").append(connectionID);
     appendLabel(buffer, "reason", disconnectReason);
     appendLabelIfNotNull(buffer, "msg", message);
 
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -597,10 +677,10 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(extendedOperation, "EXTENDED", CATEGORY_REQUEST, buffer);
     appendExtendedRequest(extendedOperation, buffer);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -611,7 +691,7 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(extendedOperation, "EXTENDED", CATEGORY_RESPONSE, buffer);
     if (isCombinedMode)
     {
@@ -634,7 +714,7 @@ public final class TextAccessLogPublisher extends
     logAdditionalLogItems(extendedOperation, buffer);
     appendEtime(buffer, extendedOperation);
 
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -645,10 +725,10 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(modifyDNOperation, "MODIFYDN", CATEGORY_REQUEST, buffer);
     appendModifyDNRequest(modifyDNOperation, buffer);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -659,7 +739,7 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(modifyDNOperation, "MODIFYDN", CATEGORY_RESPONSE, buffer);
     if (isCombinedMode)
     {
@@ -669,7 +749,7 @@ public final class TextAccessLogPublisher extends
     logAdditionalLogItems(modifyDNOperation, buffer);
     appendLabelIfNotNull(buffer, "authzDN", modifyDNOperation.getProxiedAuthorizationDN());
     appendEtime(buffer, modifyDNOperation);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -680,10 +760,10 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(modifyOperation, "MODIFY", CATEGORY_REQUEST, buffer);
     appendModifyRequest(modifyOperation, buffer);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -694,7 +774,7 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(modifyOperation, "MODIFY", CATEGORY_RESPONSE, buffer);
     if (isCombinedMode)
     {
@@ -704,7 +784,7 @@ public final class TextAccessLogPublisher extends
     logAdditionalLogItems(modifyOperation, buffer);
     appendLabelIfNotNull(buffer, "authzDN", modifyOperation.getProxiedAuthorizationDN());
     appendEtime(buffer, modifyOperation);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -715,10 +795,10 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(192);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(searchOperation, "SEARCH", CATEGORY_REQUEST, buffer);
     appendSearchRequest(searchOperation, buffer);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -729,7 +809,7 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(128);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(searchOperation, "SEARCH", CATEGORY_RESPONSE, buffer);
     if (isCombinedMode)
     {
@@ -740,7 +820,7 @@ public final class TextAccessLogPublisher extends
     logAdditionalLogItems(searchOperation, buffer);
     appendLabelIfNotNull(buffer, "authzDN", searchOperation.getProxiedAuthorizationDN());
     appendEtime(buffer, searchOperation);
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
@@ -751,14 +831,14 @@ public final class TextAccessLogPublisher extends
       return;
     }
 
-    final StringBuilder buffer = new StringBuilder(100);
+    final StringBuilder buffer = newRecordBuffer();
     appendHeader(unbindOperation, "UNBIND", CATEGORY_REQUEST, buffer);
     if (unbindOperation.isSynchronizationOperation())
     {
       buffer.append(" type=synchronization");
     }
 
-    writer.writeRecord(buffer.toString());
+    writeRecord(buffer);
   }
 
   @Override
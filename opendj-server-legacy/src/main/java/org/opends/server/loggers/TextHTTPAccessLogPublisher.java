@@ -94,6 +94,8 @@ public final class TextHTTPAccessLogPublisher extends
             { Object valueOf(HTTPRequestInfo i, String tsf) { return getUserDefinedTime(tsf); } },
     X_ETIME("x-etime")
             { Object valueOf(HTTPRequestInfo i, String tsf) { return i.getTotalProcessingTime(); } },
+    X_LDAP_OPERATIONS("x-ldap-operations")
+            { Object valueOf(HTTPRequestInfo i, String tsf) { return i.getLdapOperations(); } },
     X_TRANSACTION_ID("x-transaction-id")
             { Object valueOf(HTTPRequestInfo i, String tsf) { return i.getTransactionId(); } };
     // @formatter:on
@@ -0,0 +1,246 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.monitors;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.opends.server.util.LogLinearBuckets;
+
+/**
+ * A histogram of latencies, from which percentiles can be read with a bounded
+ * relative error, in the manner of HDR histograms.
+ * <p>
+ * Latencies are counted in microseconds, in logarithmic buckets: each power of
+ * two is split into 16 buckets, so that the percentiles are known within
+ * 6.25%. Latencies longer than about 71 minutes are counted as 71 minutes.
+ * <p>
+ * Each recording thread owns a recorder, which it updates without allocating
+ * memory nor contending with the other threads. Snapshots add up the recorders
+ * of all the threads. The recorders of the threads which have died are folded
+ * into a single array, so that thread churn does not leak memory.
+ */
+public final class LatencyHistogram
+{
+  /** Latencies are counted in microseconds, up to about 71 minutes. */
+  private static final LogLinearBuckets BUCKETS = new LogLinearBuckets(4, (1L << 32) - 1);
+  private static final int NB_BUCKETS = BUCKETS.getNbBuckets();
+  /** Index in a recorder of the sum of the latencies, in microseconds. */
+  private static final int SUM_INDEX = NB_BUCKETS;
+  /** Index in a recorder of the highest latency, in microseconds. */
+  private static final int MAX_INDEX = NB_BUCKETS + 1;
+
+  /** Guards the recorders of the live threads and the latencies recorded by the dead threads. */
+  private final Object lock = new Object();
+  /** The recorders of the threads which have recorded latencies, until they are found dead. */
+  private final List<Recorder> recorders = new ArrayList<>();
+  /** The latencies recorded by the threads which have died, laid out as in a recorder. */
+  private final long[] deadThreadsValues = new long[NB_BUCKETS + 2];
+  private final ThreadLocal<AtomicLongArray> threadRecorder = new ThreadLocal<AtomicLongArray>()
+  {
+    @Override
+    protected AtomicLongArray initialValue()
+    {
+      final Recorder recorder = new Recorder(Thread.currentThread());
+      synchronized (lock)
+      {
+        foldDeadThreadsRecorders();
+        recorders.add(recorder);
+      }
+      return recorder.values;
+    }
+  };
+
+  /** The recorder of a thread. */
+  private static final class Recorder
+  {
+    private final WeakReference<Thread> owner;
+    private final AtomicLongArray values = new AtomicLongArray(NB_BUCKETS + 2);
+
+    private Recorder(Thread owner)
+    {
+      this.owner = new WeakReference<>(owner);
+    }
+
+    /**
+     * Finding that the owner has terminated guarantees that all its writes are
+     * visible, so that the recorder can be read a last time.
+     */
+    private boolean isOwnerDead()
+    {
+      final Thread thread = owner.get();
+      return thread == null || !thread.isAlive();
+    }
+  }
+
+  /**
+   * Records a latency.
+   *
+   * @param nanos
+   *          the latency, in nanoseconds
+   */
+  public void recordNanos(long nanos)
+  {
+    final long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), BUCKETS.getHighestValue());
+    // Only the current thread writes into its recorder: ordered writes are enough
+    final AtomicLongArray recorder = threadRecorder.get();
+    final int bucket = BUCKETS.bucketOf(micros);
+    recorder.lazySet(bucket, recorder.get(bucket) + 1);
+    recorder.lazySet(SUM_INDEX, recorder.get(SUM_INDEX) + micros);
+    if (micros > recorder.get(MAX_INDEX))
+    {
+      recorder.lazySet(MAX_INDEX, micros);
+    }
+  }
+
+  /**
+   * Returns a snapshot of the latencies recorded so far.
+   *
+   * @return a snapshot of the latencies recorded so far
+   */
+  public Snapshot getSnapshot()
+  {
+    final long[] counts = new long[NB_BUCKETS];
+    long sum;
+    long max;
+    synchronized (lock)
+    {
+      foldDeadThreadsRecorders();
+      System.arraycopy(deadThreadsValues, 0, counts, 0, NB_BUCKETS);
+      sum = deadThreadsValues[SUM_INDEX];
+      max = deadThreadsValues[MAX_INDEX];
+      for (Recorder recorder : recorders)
+      {
+        for (int i = 0; i < NB_BUCKETS; i++)
+        {
+          counts[i] += recorder.values.get(i);
+        }
+        sum += recorder.values.get(SUM_INDEX);
+        max = Math.max(max, recorder.values.get(MAX_INDEX));
+      }
+    }
+    return new Snapshot(counts, sum, max);
+  }
+
+  /** Returns the number of recorders of live threads, for unit tests. */
+  int getNbRecorders()
+  {
+    synchronized (lock)
+    {
+      foldDeadThreadsRecorders();
+      return recorders.size();
+    }
+  }
+
+  /** Must be called while holding the lock. */
+  private void foldDeadThreadsRecorders()
+  {
+    for (Iterator<Recorder> it = recorders.iterator(); it.hasNext();)
+    {
+      final Recorder recorder = it.next();
+      if (recorder.isOwnerDead())
+      {
+        for (int i = 0; i < NB_BUCKETS; i++)
+        {
+          deadThreadsValues[i] += recorder.values.get(i);
+        }
+        deadThreadsValues[SUM_INDEX] += recorder.values.get(SUM_INDEX);
+        deadThreadsValues[MAX_INDEX] = Math.max(deadThreadsValues[MAX_INDEX], recorder.values.get(MAX_INDEX));
+        it.remove();
+      }
+    }
+  }
+
+  /** The latencies recorded in a histogram at a point in time. */
+  public static final class Snapshot
+  {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    private Snapshot(long[] counts, long sum, long max)
+    {
+      this.counts = counts;
+      long total = 0;
+      for (long c : counts)
+      {
+        total += c;
+      }
+      this.count = total;
+      this.sum = sum;
+      this.max = max;
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     *
+     * @return the number of latencies recorded
+     */
+    public long getCount()
+    {
+      return count;
+    }
+
+    /**
+     * Returns the mean of the latencies recorded.
+     *
+     * @return the mean of the latencies recorded, in microseconds
+     */
+    public long getMeanMicros()
+    {
+      return count > 0 ? sum / count : 0;
+    }
+
+    /**
+     * Returns the highest latency recorded.
+     *
+     * @return the highest latency recorded, in microseconds
+     */
+    public long getMaxMicros()
+    {
+      return max;
+    }
+
+    /**
+     * Returns the latency below which the provided percentage of the
+     * latencies fall.
+     *
+     * @param percentile
+     *          the percentage of the latencies, between 0 and 100
+     * @return the latency below which the provided percentage of the latencies
+     *         fall, in microseconds
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+      final long rank = Math.max((long) Math.ceil(count * percentile / 100), 1);
+      long cumulated = 0;
+      for (int i = 0; i < counts.length; i++)
+      {
+        cumulated += counts[i];
+        if (cumulated >= rank)
+        {
+          return Math.min(BUCKETS.highestValueOf(i), max);
+        }
+      }
+      return max;
+    }
+  }
+}
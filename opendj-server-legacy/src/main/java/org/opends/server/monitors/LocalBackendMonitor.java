@@ -30,11 +30,13 @@ import org.opends.server.api.LocalBackend;
 import org.opends.server.api.MonitorData;
 import org.opends.server.api.MonitorProvider;
 import org.opends.server.core.DirectoryServer;
+import org.opends.server.monitors.OperationLatencies.Phase;
 
 /**
  * This class implements a monitor provider that will report generic information
  * for an enabled Directory Server backend, including its backend ID, base DNs,
- * writability mode, and the number of entries it contains.
+ * writability mode, the number of entries it contains, and the percentiles of
+ * the time spent processing operations in the backend.
  */
 public class LocalBackendMonitor
        extends MonitorProvider<MonitorProviderCfg>
@@ -44,6 +46,8 @@ public class LocalBackendMonitor
 
   /** The name for this monitor. */
   private String monitorName;
+  /** The time spent processing operations in the backend. */
+  private final OperationLatencies operationLatencies = new OperationLatencies(Phase.BACKEND);
   private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
 
   /**
@@ -88,16 +92,27 @@ public class LocalBackendMonitor
   {
     Set<DN> baseDNs = backend.getBaseDNs();
 
-    MonitorData attrs = new MonitorData(6);
+    MonitorData attrs = new MonitorData(6 + operationLatencies.getNumberOfAttributes());
     attrs.add(ATTR_MONITOR_BACKEND_ID, backend.getBackendID());
     attrs.add(ATTR_MONITOR_BACKEND_BASE_DN, baseDNs);
     attrs.add(ATTR_MONITOR_BACKEND_IS_PRIVATE, backend.isPrivateBackend());
     attrs.add(ATTR_MONITOR_BACKEND_ENTRY_COUNT, backend.getEntryCount());
     attrs.add(ATTR_MONITOR_BASE_DN_ENTRY_COUNT, getBackendEntryCounts(baseDNs));
     attrs.add(ATTR_MONITOR_BACKEND_WRITABILITY_MODE, backend.getWritabilityMode());
+    operationLatencies.addTo(attrs);
     return attrs;
   }
 
+  /**
+   * Returns the time spent processing operations in the backend.
+   *
+   * @return the time spent processing operations in the backend
+   */
+  public OperationLatencies getOperationLatencies()
+  {
+    return operationLatencies;
+  }
+
   private Collection<String> getBackendEntryCounts(Set<DN> baseDNs)
   {
     Collection<String> results = new ArrayList<>();
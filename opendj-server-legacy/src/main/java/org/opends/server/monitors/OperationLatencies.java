@@ -0,0 +1,226 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.monitors;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.opends.server.api.MonitorData;
+import org.opends.server.types.AdditionalLogItem;
+import org.opends.server.types.Operation;
+
+/**
+ * The latency histograms of the operations, by type of operation and by phase
+ * of their processing.
+ * <p>
+ * Searches are split between indexed and unindexed searches. Abandon, compare,
+ * extended and unbind operations are not recorded.
+ */
+public final class OperationLatencies
+{
+  /** A phase of the processing of an operation. */
+  public enum Phase
+  {
+    /** The time spent by the operation in the work queue. */
+    QUEUEING("queueing"),
+    /** The processing time of the operation, as reported by the etime. */
+    PROCESSING("processing"),
+    /** The time spent in a backend. */
+    BACKEND("backend"),
+    /** The time spent sending the response to the client. */
+    RESPONSE_WRITE("response-write");
+
+    private final String name;
+
+    private Phase(String name)
+    {
+      this.name = name;
+    }
+  }
+
+  /** The types of operations for which latencies are recorded. */
+  private enum Category
+  {
+    SEARCH_INDEXED("search-indexed"),
+    SEARCH_UNINDEXED("search-unindexed"),
+    BIND("bind"),
+    ADD("add"),
+    MODIFY("modify"),
+    DELETE("delete"),
+    MODIFY_DN("moddn");
+
+    private final String name;
+
+    private Category(String name)
+    {
+      this.name = name;
+    }
+  }
+
+  private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+  private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p99", "p999" };
+
+  private final Set<Phase> phases;
+  private final Map<Category, Map<Phase, LatencyHistogram>> histograms = new EnumMap<>(Category.class);
+
+  /**
+   * Creates the latency histograms for the provided phases.
+   *
+   * @param firstPhase
+   *          the first phase for which latencies are recorded
+   * @param otherPhases
+   *          the other phases for which latencies are recorded
+   */
+  public OperationLatencies(Phase firstPhase, Phase... otherPhases)
+  {
+    phases = EnumSet.of(firstPhase, otherPhases);
+    for (Category category : Category.values())
+    {
+      final Map<Phase, LatencyHistogram> categoryHistograms = new EnumMap<>(Phase.class);
+      for (Phase phase : phases)
+      {
+        categoryHistograms.put(phase, new LatencyHistogram());
+      }
+      histograms.put(category, categoryHistograms);
+    }
+  }
+
+  /**
+   * Records the latency of a phase of an operation.
+   *
+   * @param operation
+   *          the operation
+   * @param phase
+   *          the phase of the operation
+   * @param nanos
+   *          the latency, in nanoseconds
+   */
+  public void record(Operation operation, Phase phase, long nanos)
+  {
+    final Category category = categoryOf(operation);
+    if (category != null)
+    {
+      final LatencyHistogram histogram = histograms.get(category).get(phase);
+      if (histogram != null)
+      {
+        histogram.recordNanos(nanos);
+      }
+    }
+  }
+
+  /**
+   * Records the latencies of an operation whose response has been sent to the
+   * client: its queueing time, processing time and response write time.
+   *
+   * @param operation
+   *          the operation
+   * @param responseWriteNanos
+   *          the time spent sending the response, in nanoseconds
+   */
+  public void recordResponse(Operation operation, long responseWriteNanos)
+  {
+    final Category category = categoryOf(operation);
+    if (category == null)
+    {
+      return;
+    }
+    final Map<Phase, LatencyHistogram> categoryHistograms = histograms.get(category);
+    recordNanos(categoryHistograms, Phase.QUEUEING, operation.getQueueingNanoTime());
+    recordNanos(categoryHistograms, Phase.PROCESSING, operation.getPreciseProcessingNanoTime());
+    recordNanos(categoryHistograms, Phase.RESPONSE_WRITE, responseWriteNanos);
+  }
+
+  private static void recordNanos(Map<Phase, LatencyHistogram> categoryHistograms, Phase phase, long nanos)
+  {
+    final LatencyHistogram histogram = categoryHistograms.get(phase);
+    if (histogram != null)
+    {
+      histogram.recordNanos(nanos);
+    }
+  }
+
+  private static Category categoryOf(Operation operation)
+  {
+    switch (operation.getOperationType())
+    {
+    case SEARCH:
+      return isUnindexed(operation) ? Category.SEARCH_UNINDEXED : Category.SEARCH_INDEXED;
+    case BIND:
+      return Category.BIND;
+    case ADD:
+      return Category.ADD;
+    case MODIFY:
+      return Category.MODIFY;
+    case DELETE:
+      return Category.DELETE;
+    case MODIFY_DN:
+      return Category.MODIFY_DN;
+    default:
+      return null;
+    }
+  }
+
+  private static boolean isUnindexed(Operation operation)
+  {
+    for (AdditionalLogItem item : operation.getAdditionalLogItems())
+    {
+      if ("unindexed".equals(item.getKey()))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Adds the number of latencies recorded, their mean, their percentiles and
+   * their maximum to the provided monitor data. Latencies are expressed in
+   * microseconds, in attributes named like {@code search-unindexed-processing-p99-micros}.
+   *
+   * @param attrs
+   *          the monitor data to which the latencies are added
+   */
+  public void addTo(MonitorData attrs)
+  {
+    for (Map.Entry<Category, Map<Phase, LatencyHistogram>> categoryEntry : histograms.entrySet())
+    {
+      for (Map.Entry<Phase, LatencyHistogram> phaseEntry : categoryEntry.getValue().entrySet())
+      {
+        final String prefix = categoryEntry.getKey().name + "-" + phaseEntry.getKey().name + "-";
+        final LatencyHistogram.Snapshot snapshot = phaseEntry.getValue().getSnapshot();
+        attrs.add(prefix + "count", snapshot.getCount());
+        attrs.add(prefix + "mean-micros", snapshot.getMeanMicros());
+        for (int i = 0; i < PERCENTILES.length; i++)
+        {
+          attrs.add(prefix + PERCENTILE_NAMES[i] + "-micros", snapshot.getValueAtPercentile(PERCENTILES[i]));
+        }
+        attrs.add(prefix + "max-micros", snapshot.getMaxMicros());
+      }
+    }
+  }
+
+  /**
+   * Returns the number of attributes added by {@link #addTo(MonitorData)}.
+   *
+   * @return the number of attributes added by {@link #addTo(MonitorData)}
+   */
+  public int getNumberOfAttributes()
+  {
+    return Category.values().length * phases.size() * (PERCENTILES.length + 3);
+  }
+}
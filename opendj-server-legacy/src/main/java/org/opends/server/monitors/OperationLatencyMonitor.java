@@ -0,0 +1,62 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.monitors;
+
+import org.forgerock.opendj.server.config.server.MonitorProviderCfg;
+import org.opends.server.api.MonitorData;
+import org.opends.server.api.MonitorProvider;
+import org.opends.server.monitors.OperationLatencies.Phase;
+
+/**
+ * This class defines a monitor provider that reports the latency percentiles
+ * of the operations processed by all the connection handlers and backends of
+ * the Directory Server.
+ */
+public class OperationLatencyMonitor extends MonitorProvider<MonitorProviderCfg>
+{
+  private final OperationLatencies latencies =
+      new OperationLatencies(Phase.QUEUEING, Phase.PROCESSING, Phase.BACKEND, Phase.RESPONSE_WRITE);
+
+  @Override
+  public void initializeMonitorProvider(MonitorProviderCfg configuration)
+  {
+    // Nothing to do
+  }
+
+  @Override
+  public String getMonitorInstanceName()
+  {
+    return "Operation Latencies";
+  }
+
+  /**
+   * Returns the latencies of the operations processed by the server.
+   *
+   * @return the latencies of the operations processed by the server
+   */
+  public OperationLatencies getOperationLatencies()
+  {
+    return latencies;
+  }
+
+  @Override
+  public MonitorData getMonitorData()
+  {
+    final MonitorData attrs = new MonitorData(latencies.getNumberOfAttributes());
+    latencies.addTo(attrs);
+    return attrs;
+  }
+}
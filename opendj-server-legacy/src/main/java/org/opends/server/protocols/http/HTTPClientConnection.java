@@ -17,9 +17,12 @@ package org.opends.server.protocols.http;
 
 import static org.forgerock.opendj.adapter.server3x.Converters.from;
 import static org.forgerock.opendj.adapter.server3x.Converters.getResponseResult;
+import static org.forgerock.opendj.adapter.server3x.Converters.wrap;
 import static org.forgerock.opendj.ldap.LdapException.newLdapException;
 import static org.opends.messages.ProtocolMessages.WARN_CLIENT_DISCONNECT_IN_PROGRESS;
 import static org.opends.server.loggers.AccessLogger.logDisconnect;
+import static org.opends.server.protocols.ldap.LDAPConstants.OP_TYPE_SEARCH_RESULT_ENTRY;
+import static org.opends.server.protocols.ldap.LDAPConstants.OP_TYPE_SEARCH_RESULT_REFERENCE;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
@@ -64,8 +67,6 @@ import org.opends.server.protocols.ldap.ModifyDNResponseProtocolOp;
 import org.opends.server.protocols.ldap.ModifyResponseProtocolOp;
 import org.opends.server.protocols.ldap.ProtocolOp;
 import org.opends.server.protocols.ldap.SearchResultDoneProtocolOp;
-import org.opends.server.protocols.ldap.SearchResultEntryProtocolOp;
-import org.opends.server.protocols.ldap.SearchResultReferenceProtocolOp;
 import org.opends.server.types.CancelRequest;
 import org.opends.server.types.CancelResult;
 import org.opends.server.types.DirectoryException;
@@ -186,6 +187,9 @@ final class HTTPClientConnection extends ClientConnection
   /** The protocol in use for this client connection. */
   private final String protocol;
 
+  /** The logging information of the HTTP request, which counts the LDAP operations it performs. */
+  private final HttpLogContext logContext;
+
   /** The HTTP method/verb used for this request. */
   private final String method;
   /** The URI issued by the client. */
@@ -253,7 +257,8 @@ final class HTTPClientConnection extends ClientConnection
       this.useNanoTime = DirectoryServer.getCoreConfigManager().isUseNanoTime();
     }
     this.connectionID = DirectoryServer.newConnectionAccepted(this);
-    context.asContext(HttpLogContext.class).setConnectionID(connectionID);
+    this.logContext = context.asContext(HttpLogContext.class);
+    this.logContext.setConnectionID(connectionID);
   }
 
   @Override
@@ -331,6 +336,7 @@ final class HTTPClientConnection extends ClientConnection
     OperationWithPromise op = this.operationsInProgress.get(operation.getMessageID());
     if (op != null)
     {
+      final long responseStartTime = System.nanoTime();
       try
       {
         op.promise.handleResult(getResponseResult(operation));
@@ -345,6 +351,12 @@ final class HTTPClientConnection extends ClientConnection
       {
         op.promise.handleException(e);
       }
+      final long responseWriteTime = System.nanoTime() - responseStartTime;
+      DirectoryServer.getOperationLatencies().recordResponse(operation, responseWriteTime);
+      if (keepStats)
+      {
+        this.statTracker.updateOperationLatencies(operation, responseWriteTime);
+      }
     }
   }
 
@@ -402,11 +414,11 @@ final class HTTPClientConnection extends ClientConnection
         (SearchOperationWithPromise) this.operationsInProgress.get(operation.getMessageID());
     if (op != null)
     {
-      op.entryHandler.handleEntry(from(searchEntry));
+      // The entry is handed over without copying its attributes
+      op.entryHandler.handleEntry(wrap(searchEntry));
       if (keepStats)
       {
-        this.statTracker.updateMessageWritten(
-            new LDAPMessage(operation.getMessageID(), new SearchResultEntryProtocolOp(searchEntry)));
+        this.statTracker.updateMessageWritten(OP_TYPE_SEARCH_RESULT_ENTRY, operation.getMessageID());
       }
     }
   }
@@ -422,8 +434,7 @@ final class HTTPClientConnection extends ClientConnection
       op.entryHandler.handleReference(from(searchReference));
       if (keepStats)
       {
-        this.statTracker.updateMessageWritten(
-            new LDAPMessage(operation.getMessageID(), new SearchResultReferenceProtocolOp(searchReference)));
+        this.statTracker.updateMessageWritten(OP_TYPE_SEARCH_RESULT_REFERENCE, operation.getMessageID());
       }
     }
 
@@ -536,6 +547,7 @@ final class HTTPClientConnection extends ClientConnection
   void addOperationInProgress(Operation operation, LdapPromiseImpl<Result> promise,
       SearchResultHandler searchResultHandler) throws DirectoryException
   {
+    logContext.incrementLdapOperations();
     if (searchResultHandler != null)
     {
       addOperationWithPromise(new SearchOperationWithPromise(operation, promise, searchResultHandler));
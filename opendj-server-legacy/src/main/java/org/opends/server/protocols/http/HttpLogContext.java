@@ -18,6 +18,7 @@ package org.opends.server.protocols.http;
 import static org.opends.server.loggers.CommonAudit.DEFAULT_TRANSACTION_ID;
 
 import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.forgerock.http.header.MalformedHeaderException;
 import org.forgerock.http.header.TransactionIdHeader;
@@ -54,6 +55,7 @@ public final class HttpLogContext extends AbstractContext implements HTTPRequest
   private final long startTime;
   private long totalProcessingTime;
   private long connectionId;
+  private final AtomicInteger ldapOperations = new AtomicInteger();
   private int statusCode;
   private String authUser;
 
@@ -96,6 +98,11 @@ public final class HttpLogContext extends AbstractContext implements HTTPRequest
     this.connectionId = connectionID;
   }
 
+  void incrementLdapOperations()
+  {
+    ldapOperations.incrementAndGet();
+  }
+
   @Override
   public void log(int statusCode)
   {
@@ -194,6 +201,12 @@ public final class HttpLogContext extends AbstractContext implements HTTPRequest
     return totalProcessingTime;
   }
 
+  @Override
+  public int getLdapOperations()
+  {
+    return ldapOperations.get();
+  }
+
   @Override
   public String getTransactionId()
   {
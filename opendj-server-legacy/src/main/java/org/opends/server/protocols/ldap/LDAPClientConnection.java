@@ -680,11 +680,22 @@ public final class LDAPClientConnection extends ClientConnection implements
     // an error result to the client indicating that a problem occurred.
     if (removeOperationInProgress(operation.getMessageID()))
     {
+      final long responseStartTime = System.nanoTime();
       LDAPMessage message = operationToResponseLDAPMessage(operation);
       if (message != null)
       {
         sendLDAPMessage(message);
       }
+      updateOperationLatencies(operation, System.nanoTime() - responseStartTime);
+    }
+  }
+
+  private void updateOperationLatencies(Operation operation, long responseWriteTime)
+  {
+    DirectoryServer.getOperationLatencies().recordResponse(operation, responseWriteTime);
+    if (keepStats)
+    {
+      statTracker.updateOperationLatencies(operation, responseWriteTime);
     }
   }
 
@@ -24,11 +24,15 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.forgerock.i18n.LocalizableMessage;
 import org.forgerock.opendj.config.server.ConfigException;
+import org.forgerock.opendj.ldap.SearchScope;
 import org.forgerock.opendj.ldap.schema.ObjectClass;
 import org.forgerock.opendj.server.config.server.MonitorProviderCfg;
 import org.opends.server.api.MonitorData;
 import org.opends.server.api.MonitorProvider;
 import org.opends.server.core.DirectoryServer;
+import org.opends.server.monitors.OperationLatencies;
+import org.opends.server.monitors.OperationLatencies.Phase;
+import org.opends.server.types.Operation;
 import org.opends.server.types.OperationType;
 
 /**
@@ -46,6 +50,8 @@ import org.opends.server.types.OperationType;
  * broken down by message type.</LI>
  * <LI>The total number of bytes read from LDAP clients.</LI>
  * <LI>The total number of bytes written to LDAP clients.</LI>
+ * <LI>The percentiles of the queueing, processing and response write times,
+ * broken down by operation type.</LI>
  * </UL>
  * <BR>
  * <BR>
@@ -116,6 +122,9 @@ public class LDAPStatistics extends MonitorProvider<MonitorProviderCfg>
   private AtomicLong extOperationCount = new AtomicLong(0);
   private AtomicLong extOperationTime = new AtomicLong(0);
 
+  private final OperationLatencies operationLatencies =
+      new OperationLatencies(Phase.QUEUEING, Phase.PROCESSING, Phase.RESPONSE_WRITE);
+
   /**
    * Creates a new instance of this class with the specified parent.
    *
@@ -167,7 +176,7 @@ public class LDAPStatistics extends MonitorProvider<MonitorProviderCfg>
      *        and associated with their objectclass
      *        OC_MONITOR_CONNHANDLERSTATS
      */
-    final MonitorData attrs = new MonitorData(31 + 10 * 2);
+    final MonitorData attrs = new MonitorData(31 + 10 * 2 + operationLatencies.getNumberOfAttributes());
     attrs.add("connectionsEstablished", connectionsEstablished);
     attrs.add("connectionsClosed", connectionsClosed);
     attrs.add("bytesRead", bytesRead);
@@ -240,6 +249,8 @@ public class LDAPStatistics extends MonitorProvider<MonitorProviderCfg>
     attrs.add("ds-mon-extended-operations-total-count", extOperationCount);
     attrs.add("ds-mon-resident-time-extended-operations-total-time", extOperationTime);
 
+    operationLatencies.addTo(attrs);
+
     return attrs;
   }
 
@@ -347,11 +358,28 @@ public class LDAPStatistics extends MonitorProvider<MonitorProviderCfg>
    *          The message that was read from the client.
    */
   public void updateMessageRead(LDAPMessage message)
+  {
+    final ProtocolOp protocolOp = message.getProtocolOp();
+    final SearchScope scope =
+        protocolOp instanceof SearchRequestProtocolOp ? ((SearchRequestProtocolOp) protocolOp).getScope() : null;
+    updateMessageRead(protocolOp.getType(), scope);
+  }
+
+  /**
+   * Updates the appropriate set of counters based on the type of the
+   * message that has been read from the client.
+   *
+   * @param messageType
+   *          The message type that was read from the client.
+   * @param searchScope
+   *          The scope of the search, if the message is a search request
+   */
+  public void updateMessageRead(byte messageType, SearchScope searchScope)
   {
       messagesRead.getAndIncrement();
       operationsInitiated.getAndIncrement();
 
-      switch (message.getProtocolOp().getType())
+      switch (messageType)
       {
       case OP_TYPE_ABANDON_REQUEST:
         abandonRequests.getAndIncrement();
@@ -379,9 +407,7 @@ public class LDAPStatistics extends MonitorProvider<MonitorProviderCfg>
         break;
       case OP_TYPE_SEARCH_REQUEST:
         searchRequests.getAndIncrement();
-        SearchRequestProtocolOp s = (SearchRequestProtocolOp)message
-            .getProtocolOp();
-        switch (s.getScope().asEnum())
+        switch (searchScope.asEnum())
         {
         case BASE_OBJECT:
             // we don't count base object searches as
@@ -857,4 +883,18 @@ public class LDAPStatistics extends MonitorProvider<MonitorProviderCfg>
           moddnOperationTime.getAndAdd(time);
       }
   }
+
+  /**
+   * Records the queueing, processing and response write times of an
+   * operation whose response has been sent.
+   *
+   * @param operation
+   *          the operation
+   * @param responseWriteNanos
+   *          the time spent sending the response, in nanoseconds
+   */
+  public void updateOperationLatencies(Operation operation, long responseWriteNanos)
+  {
+    operationLatencies.recordResponse(operation, responseWriteNanos);
+  }
 }
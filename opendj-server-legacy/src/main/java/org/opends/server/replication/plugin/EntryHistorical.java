@@ -21,8 +21,10 @@ import static org.opends.messages.ReplicationMessages.*;
 import static org.opends.server.replication.plugin.HistAttrModificationKey.*;
 import static org.opends.server.util.CollectionUtils.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -62,6 +64,10 @@ import org.opends.server.util.TimeThread;
  * </ol>
  * One Historical object is created for each entry in the entry cache each Historical Object
  * contains a list of attribute historical information
+ * <p>
+ * The historical information read from an entry is only decoded for the attributes which are
+ * modified: the historical values of the other attributes are written back as they were read,
+ * minus the values superseded by a more recent deletion of the attribute and the purged values.
  */
 public class EntryHistorical
 {
@@ -109,8 +115,21 @@ public class EntryHistorical
   /** The date when the entry was last renamed. */
   private CSN entryMODDNDate;
 
+  /**
+   * Whether the historical information is written with the binary encoding
+   * rather than the string encoding.
+   */
+  private boolean binaryEncoding;
+
   /** Contains Historical information for each attribute description. */
   private final Map<AttributeDescription, AttrHistorical> attributesHistorical = new HashMap<>();
+  /**
+   * Contains the historical values read from the entry for each attribute description,
+   * until the historical information for the attribute is needed and gets decoded
+   * into {@link #attributesHistorical}. The order of the values read from the entry is kept.
+   */
+  private final Map<AttributeDescription, List<HistoricalAttributeValue>> encodedAttributesHistorical =
+      new LinkedHashMap<>();
 
   @Override
   public String toString()
@@ -260,27 +279,27 @@ public class EntryHistorical
    */
   public static void setHistoricalAttrToOperation(PreOperationAddOperation addOperation)
   {
-    Schema schema = DirectoryServer.getInstance().getServerContext().getSchema();
-    AttributeType attrType = schema.getAttributeType(HISTORICAL_ATTRIBUTE_NAME);
-    String attrValue = encodeHistorical(OperationContext.getCSN(addOperation), "add");
-    List<Attribute> attrs = Attributes.createAsList(attrType, attrValue);
-    addOperation.setAttribute(attrType, attrs);
+    setHistoricalAttrToOperation(addOperation, false);
   }
 
   /**
-   * Builds an attributeValue for the supplied historical information and
-   * operation type . For ADD Operation : "dn:changeNumber:add", for MODDN
-   * Operation : "dn:changeNumber:moddn", etc.
+   * Generate an attribute containing the historical information
+   * from the replication context attached to the provided operation
+   * and set this attribute in the operation.
    *
-   * @param csn
-   *          The date when the ADD Operation happened.
-   * @param operationType
-   *          the operation type to encode
-   * @return The attribute value containing the historical information for the Operation type.
+   * @param addOperation The Operation to which the historical attribute will be added.
+   * @param binaryEncoding Whether the historical information must be written
+   *                       with the binary encoding rather than the string encoding.
+   * @see #setHistoricalAttrToOperation(PreOperationAddOperation)
    */
-  private static String encodeHistorical(CSN csn, String operationType)
+  public static void setHistoricalAttrToOperation(PreOperationAddOperation addOperation, boolean binaryEncoding)
   {
-    return "dn:" + csn + ":" + operationType;
+    Schema schema = DirectoryServer.getInstance().getServerContext().getSchema();
+    AttributeType attrType = schema.getAttributeType(HISTORICAL_ATTRIBUTE_NAME);
+    ByteString attrValue =
+        HistoricalAttributeValue.encodeEntryHistorical(binaryEncoding, OperationContext.getCSN(addOperation), false);
+    List<Attribute> attrs = Attributes.createAsList(attrType, attrValue);
+    addOperation.setAttribute(attrType, attrs);
   }
 
   /**
@@ -306,13 +325,21 @@ public class EntryHistorical
       return null;
     }
 
-    // Read from this entryHistorical,
+    // Read from this entryHistorical, decoding the values read from the entry if needed.
     // Create one empty if none was existing in this entryHistorical.
     AttributeDescription attrDesc = modAttr.getAttributeDescription();
     AttrHistorical attrHist = attributesHistorical.get(attrDesc);
     if (attrHist == null)
     {
       attrHist = AttrHistorical.createAttributeHistorical(modAttr.getAttributeDescription().getAttributeType());
+      List<HistoricalAttributeValue> histVals = encodedAttributesHistorical.remove(attrDesc);
+      if (histVals != null)
+      {
+        for (HistoricalAttributeValue histVal : histVals)
+        {
+          attrHist.assign(histVal);
+        }
+      }
       attributesHistorical.put(attrDesc, attrHist);
     }
     return attrHist;
@@ -332,6 +359,12 @@ public class EntryHistorical
   /**
    * Encode this historical information object in an operational attribute and
    * purge it from the values older than the purge delay.
+   * <p>
+   * The historical values of the attributes which were not modified are
+   * written back without being decoded, unless some of them must be purged or
+   * are superseded by a more recent deletion of a multi-valued attribute: the
+   * historical of such attributes is decoded, which compacts it, before being
+   * encoded.
    *
    * @return The historical information encoded in an operational attribute.
    * @see HistoricalAttributeValue#HistoricalAttributeValue(String) the decode
@@ -349,6 +382,8 @@ public class EntryHistorical
       purgeDate = TimeThread.getTime() - purgeDelayInMillisec;
     }
 
+    decodeAttributesToCompact(purgeDate);
+
     AttributeBuilder builder = new AttributeBuilder(HISTORICAL_ATTRIBUTE_NAME);
 
     for (Map.Entry<AttributeDescription, AttrHistorical> mapEntry : attributesHistorical.entrySet())
@@ -373,8 +408,7 @@ public class EntryHistorical
             // this hist must be purged now, so skip its encoding
             continue;
           }
-          String strValue = encode(DEL, options, attrValHist.getValueDeleteTime(), value);
-          builder.add(strValue);
+          builder.add(encode(DEL, options, attrValHist.getValueDeleteTime(), value));
         }
         else if (attrValHist.getValueUpdateTime() != null)
         {
@@ -384,27 +418,27 @@ public class EntryHistorical
             continue;
           }
 
-          String strValue;
+          ByteString encodedValue;
           final CSN updateTime = attrValHist.getValueUpdateTime();
           // FIXME very suspicious use of == in the next if statement,
           // unit tests do not like changing it
           if (attrDel && updateTime == deleteTime && value != null)
           {
-            strValue = encode(REPL, options, updateTime, value);
+            encodedValue = encode(REPL, options, updateTime, value);
             attrDel = false;
           }
           else if (value != null)
           {
-            strValue = encode(ADD, options, updateTime, value);
+            encodedValue = encode(ADD, options, updateTime, value);
           }
           else
           {
             // "add" without any value is suspicious. Tests never go there.
             // Is this used to encode "add" with an empty string?
-            strValue = encode(ADD, options, updateTime);
+            encodedValue = encode(ADD, options, updateTime, null);
           }
 
-          builder.add(strValue);
+          builder.add(encodedValue);
         }
       }
 
@@ -415,7 +449,16 @@ public class EntryHistorical
           // this hist must be purged now, so skip its encoding
           continue;
         }
-        builder.add(encode(ATTRDEL, options, deleteTime));
+        builder.add(encode(ATTRDEL, options, deleteTime, null));
+      }
+    }
+
+    // The historical values of the other attributes are written back as is
+    for (List<HistoricalAttributeValue> histVals : encodedAttributesHistorical.values())
+    {
+      for (HistoricalAttributeValue histVal : histVals)
+      {
+        builder.add(histVal.encode(binaryEncoding));
       }
     }
 
@@ -423,14 +466,14 @@ public class EntryHistorical
     {
       // Encode the historical information for the ADD Operation.
       // Stores the ADDDate when not older than the purge delay
-      builder.add(encodeHistorical(entryADDDate, "add"));
+      builder.add(HistoricalAttributeValue.encodeEntryHistorical(binaryEncoding, entryADDDate, false));
     }
 
     if (entryMODDNDate != null && !needsPurge(entryMODDNDate, purgeDate))
     {
       // Encode the historical information for the MODDN Operation.
       // Stores the MODDNDate when not older than the purge delay
-      builder.add(encodeHistorical(entryMODDNDate, "moddn"));
+      builder.add(HistoricalAttributeValue.encodeEntryHistorical(binaryEncoding, entryMODDNDate, true));
     }
 
     return builder.toAttribute();
@@ -447,14 +490,66 @@ public class EntryHistorical
     return needsPurge;
   }
 
-  private String encode(HistAttrModificationKey modKey, String options, CSN changeTime)
+  /**
+   * Decode the historical values read from the entry for the attributes
+   * having values older than the purge date, or values superseded by a more
+   * recent deletion of the attribute. Decoding the values compacts them, and
+   * the purge is then applied when encoding.
+   */
+  private void decodeAttributesToCompact(long purgeDate)
   {
-    return options + ":" + changeTime + ":" + modKey;
+    for (Iterator<Map.Entry<AttributeDescription, List<HistoricalAttributeValue>>> it =
+        encodedAttributesHistorical.entrySet().iterator(); it.hasNext();)
+    {
+      Map.Entry<AttributeDescription, List<HistoricalAttributeValue>> mapEntry = it.next();
+      AttributeDescription attrDesc = mapEntry.getKey();
+      List<HistoricalAttributeValue> histVals = mapEntry.getValue();
+      if (mustBeCompacted(attrDesc, histVals, purgeDate))
+      {
+        AttrHistorical attrHist = AttrHistorical.createAttributeHistorical(attrDesc.getAttributeType());
+        for (HistoricalAttributeValue histVal : histVals)
+        {
+          attrHist.assign(histVal);
+        }
+        attributesHistorical.put(attrDesc, attrHist);
+        it.remove();
+      }
+    }
   }
 
-  private String encode(HistAttrModificationKey modKey, String options, CSN changeTime, ByteString value)
+  private boolean mustBeCompacted(AttributeDescription attrDesc, List<HistoricalAttributeValue> histVals,
+      long purgeDate)
   {
-    return options + ":" + changeTime + ":" + modKey + ":" + value;
+    // The most recent deletion or replacement of a multi-valued attribute
+    // supersedes all the older historical values of the attribute
+    CSN deleteTime = null;
+    if (!attrDesc.getAttributeType().isSingleValue())
+    {
+      for (HistoricalAttributeValue histVal : histVals)
+      {
+        HistAttrModificationKey histKey = histVal.getHistKey();
+        if ((histKey == ATTRDEL || histKey == REPL) && histVal.getCSN().isNewerThan(deleteTime))
+        {
+          deleteTime = histVal.getCSN();
+        }
+      }
+    }
+
+    for (HistoricalAttributeValue histVal : histVals)
+    {
+      CSN csn = histVal.getCSN();
+      if (csn.isOlderThan(deleteTime)
+          || (purgeDelayInMillisec > 0 && csn.getTime() <= purgeDate))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private ByteString encode(HistAttrModificationKey modKey, String options, CSN changeTime, ByteString value)
+  {
+    return HistoricalAttributeValue.encode(binaryEncoding, options, changeTime, modKey, value);
   }
 
   /**
@@ -468,6 +563,18 @@ public class EntryHistorical
     this.purgeDelayInMillisec = purgeDelay;
   }
 
+  /**
+   * Set whether the historical information is written with the binary encoding
+   * rather than the string encoding. Historical information is always read
+   * whatever its encoding.
+   *
+   * @param binaryEncoding whether to use the binary encoding
+   */
+  public void setBinaryEncoding(boolean binaryEncoding)
+  {
+    this.binaryEncoding = binaryEncoding;
+  }
+
   /**
    * Indicates if the Entry was renamed or added after the CSN that is given as
    * a parameter.
@@ -541,7 +648,7 @@ public class EntryHistorical
         for (ByteString histAttrValueFromEntry : histAttrFromEntry)
         {
           // From each value of the hist attr, create an object
-          final HistoricalAttributeValue histVal = new HistoricalAttributeValue(histAttrValueFromEntry.toString());
+          final HistoricalAttributeValue histVal = new HistoricalAttributeValue(histAttrValueFromEntry);
           final CSN csn = histVal.getCSN();
 
           // update the oldest CSN stored in the new entry historical
@@ -570,20 +677,15 @@ public class EntryHistorical
               continue;
             }
 
-            /* if attribute type does not match we create new
-             *   AttrInfoWithOptions and AttrInfo
-             *   we also add old AttrInfoWithOptions into histObj.attributesInfo
-             * if attribute type match but options does not match we create new
-             *   AttrInfo that we add to AttrInfoWithOptions
-             * if both match we keep everything
-             */
-            AttrHistorical attrInfo = newHistorical.attributesHistorical.get(attrDesc);
-            if (attrInfo == null)
+            // The historical values are only decoded into an AttrHistorical
+            // when the attribute gets modified
+            List<HistoricalAttributeValue> histVals = newHistorical.encodedAttributesHistorical.get(attrDesc);
+            if (histVals == null)
             {
-              attrInfo = AttrHistorical.createAttributeHistorical(attrDesc.getAttributeType());
-              newHistorical.attributesHistorical.put(attrDesc, attrInfo);
+              histVals = new ArrayList<>();
+              newHistorical.encodedAttributesHistorical.put(attrDesc, histVals);
             }
-            attrInfo.assign(histVal);
+            histVals.add(histVal);
           }
         }
       }
@@ -615,7 +717,7 @@ public class EntryHistorical
     {
       for (ByteString val : attr)
       {
-        HistoricalAttributeValue histVal = new HistoricalAttributeValue(val.toString());
+        HistoricalAttributeValue histVal = new HistoricalAttributeValue(val);
         if (histVal.isADDOperation())
         {
           // Found some historical information indicating that this entry was just added.
@@ -20,7 +20,10 @@ import static org.opends.server.replication.plugin.HistAttrModificationKey.*;
 import static org.opends.server.util.StaticUtils.*;
 
 import org.forgerock.opendj.ldap.AttributeDescription;
+import org.forgerock.opendj.ldap.ByteSequence;
+import org.forgerock.opendj.ldap.ByteSequenceReader;
 import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.ByteStringBuilder;
 import org.forgerock.opendj.ldap.ModificationType;
 import org.opends.server.replication.common.CSN;
 import org.opends.server.types.Attribute;
@@ -30,11 +33,12 @@ import org.opends.server.types.Modification;
 /**
  * This class stores an internal usable representation of the value of
  * the historical related to an entry.
- * It encodes/decodes from the String form stored in the DB attribute
+ * It encodes/decodes from the form stored in the DB attribute
  * from/to the internal usable form.
+ * <p>
+ * Two encodings are supported: the string encoding and the binary encoding.
  *
- *
- * an historical attribute value looks like :
+ * an historical attribute value with the string encoding looks like :
  *  description:00000108b3a65541000000000001:add:added_value
  *  or
  *  description:00000108b3a6cbb8000000000001:del:deleted_value
@@ -58,22 +62,52 @@ import org.opends.server.types.Modification;
  *  options are stored with the attribute names using; as a separator
  *  example :
  *  description;FR;France:00000108b3a65541000000000001:add:added_value
+ * <p>
+ * an historical attribute value with the binary encoding contains, in order:
+ * <ul>
+ * <li>the {@link #BINARY_ENCODING_MARKER} byte, which can never start a value with the string encoding</li>
+ * <li>the version of the binary encoding, currently {@link #BINARY_ENCODING_VERSION}</li>
+ * <li>the CSN, in its {@link CSN#toByteString()} form</li>
+ * <li>the type of historical information, with the {@link #HAS_VALUE} flag
+ * set when an attribute value is present</li>
+ * <li>the length of the attribute name with its options, then its UTF-8 bytes</li>
+ * <li>the bytes of the attribute value, if any, up to the end</li>
+ * </ul>
+ * The binary encoding is more compact, preserves binary attribute values, and
+ * the CSN of a value can be read without decoding the rest of the value.
  */
 class HistoricalAttributeValue
 {
+  /** First byte of the values with the binary encoding. */
+  static final byte BINARY_ENCODING_MARKER = 0x00;
+  /** Current version of the binary encoding. */
+  static final byte BINARY_ENCODING_VERSION = 0x01;
+  /** Offset of the CSN in the values with the binary encoding. */
+  static final int BINARY_ENCODING_CSN_OFFSET = 2;
+
+  /** Types of historical information in the binary encoding. */
+  private static final byte TYPE_ADD = 0;
+  private static final byte TYPE_DEL = 1;
+  private static final byte TYPE_REPL = 2;
+  private static final byte TYPE_ATTRDEL = 3;
+  private static final byte TYPE_MODDN = 4;
+  /** Flag set on the type when the binary encoded value contains an attribute value. */
+  private static final byte HAS_VALUE = (byte) 0x80;
+
   private final AttributeDescription attrDesc;
   /** The lowercase attribute string representation. */
   private final String attrString;
   private final ByteString attributeValue;
   private final CSN csn;
   private final HistAttrModificationKey histKey;
-  private final String stringValue;
   private boolean attrTypeIsNull;
   /**
    * This flag indicates that this value was generated to store the last date
    * when the entry was renamed.
    */
   private final boolean isModDN;
+  /** The encoded form this object was decoded from. */
+  private final ByteString encodedValue;
 
   /**
    * Create a new object from the String encoded form.
@@ -83,37 +117,195 @@ class HistoricalAttributeValue
    */
   HistoricalAttributeValue(String strVal)
   {
-    String[] token = strVal.split(":", 4);
-
-    attrDesc = AttributeDescription.valueOf(token[0]);
-    attrString = toLowerCase(attrDesc.getNameOrOID());
-    // This HistVal was used to store the date when some
-    // modifications were done to the entries.
-    attrTypeIsNull = attrString.equalsIgnoreCase("dn");
-    // This HistVal is used to store the date when the entry
-    // was added to the directory or when it was last renamed.
-    isModDN = attrTypeIsNull && token.length >= 3 && token[2].compareTo("moddn") == 0;
+    this(ByteString.valueOfUtf8(strVal));
+  }
 
-    csn = new CSN(token[1]);
-    histKey = HistAttrModificationKey.decodeKey(token[2]);
-    if (histKey != ATTRDEL)
+  /**
+   * Create a new object from the encoded form, either the string or the binary encoding.
+   *
+   * @param encodedVal The encoded form of historical attribute value.
+   * @see EntryHistorical#encodeAndPurge() encoding in EntryHistorical
+   */
+  HistoricalAttributeValue(ByteString encodedVal)
+  {
+    this.encodedValue = encodedVal;
+    if (isBinaryEncoded(encodedVal))
+    {
+      final ByteSequenceReader reader = encodedVal.asReader();
+      reader.skip(1);
+      final byte version = reader.readByte();
+      if (version != BINARY_ENCODING_VERSION)
+      {
+        throw new IllegalArgumentException("Unsupported historical encoding version " + version);
+      }
+      csn = CSN.valueOf(reader.readByteSequence(CSN.BYTE_ENCODING_LENGTH));
+      final byte type = reader.readByte();
+      attrDesc = AttributeDescription.valueOf(reader.readStringUtf8(reader.readCompactUnsignedInt()));
+      attributeValue = (type & HAS_VALUE) != 0 ? reader.readByteString(reader.remaining()) : null;
+      isModDN = (type & ~HAS_VALUE) == TYPE_MODDN;
+      histKey = decodeType((byte) (type & ~HAS_VALUE));
+    }
+    else
     {
-      if (token.length == 4)
+      String[] token = encodedVal.toString().split(":", 4);
+
+      attrDesc = AttributeDescription.valueOf(token[0]);
+      // This HistVal is used to store the date when the entry
+      // was added to the directory or when it was last renamed.
+      isModDN = token.length >= 3 && token[2].compareTo("moddn") == 0;
+
+      csn = new CSN(token[1]);
+      histKey = HistAttrModificationKey.decodeKey(token[2]);
+      if (histKey != ATTRDEL && token.length == 4)
       {
-        stringValue = token[3];
-        attributeValue = ByteString.valueOfUtf8(stringValue);
+        attributeValue = ByteString.valueOfUtf8(token[3]);
       }
       else
       {
-        stringValue = null;
         attributeValue = null;
       }
     }
-    else
+
+    attrString = toLowerCase(attrDesc.getNameOrOID());
+    // This HistVal was used to store the date when some
+    // modifications were done to the entries.
+    attrTypeIsNull = attrString.equalsIgnoreCase("dn");
+  }
+
+  private static HistAttrModificationKey decodeType(byte type)
+  {
+    switch (type)
+    {
+    case TYPE_ADD:
+      return ADD;
+    case TYPE_DEL:
+      return DEL;
+    case TYPE_REPL:
+      return REPL;
+    case TYPE_ATTRDEL:
+      return ATTRDEL;
+    case TYPE_MODDN:
+      return null;
+    default:
+      throw new IllegalArgumentException("Unknown historical information type " + type);
+    }
+  }
+
+  private static byte encodeType(HistAttrModificationKey histKey)
+  {
+    switch (histKey)
+    {
+    case ADD:
+      return TYPE_ADD;
+    case DEL:
+      return TYPE_DEL;
+    case REPL:
+      return TYPE_REPL;
+    default:
+      return TYPE_ATTRDEL;
+    }
+  }
+
+  /**
+   * Indicates whether the provided historical attribute value uses the binary encoding.
+   *
+   * @param encodedVal
+   *          the historical attribute value
+   * @return {@code true} if the value uses the binary encoding, {@code false}
+   *         if it uses the string encoding
+   */
+  static boolean isBinaryEncoded(ByteSequence encodedVal)
+  {
+    return encodedVal.length() > 0 && encodedVal.byteAt(0) == BINARY_ENCODING_MARKER;
+  }
+
+  /**
+   * Encodes an historical attribute value.
+   *
+   * @param binary
+   *          whether to use the binary encoding rather than the string encoding
+   * @param attrDesc
+   *          the attribute name with its options
+   * @param csn
+   *          the CSN of the change
+   * @param histKey
+   *          the type of historical information
+   * @param value
+   *          the attribute value, may be {@code null}
+   * @return the encoded historical attribute value
+   */
+  static ByteString encode(boolean binary, String attrDesc, CSN csn, HistAttrModificationKey histKey,
+      ByteString value)
+  {
+    if (!binary)
+    {
+      final String strVal = attrDesc + ":" + csn + ":" + histKey;
+      return ByteString.valueOfUtf8(value != null ? strVal + ":" + value : strVal);
+    }
+    return encodeBinary(attrDesc, csn, encodeType(histKey), value);
+  }
+
+  /**
+   * Encodes an historical attribute value recording the date when the entry was
+   * added or renamed.
+   *
+   * @param binary
+   *          whether to use the binary encoding rather than the string encoding
+   * @param csn
+   *          the CSN of the ADD or MODIFYDN operation
+   * @param isModDN
+   *          {@code true} for a MODIFYDN operation, {@code false} for an ADD operation
+   * @return the encoded historical attribute value
+   */
+  static ByteString encodeEntryHistorical(boolean binary, CSN csn, boolean isModDN)
+  {
+    if (!binary)
+    {
+      return ByteString.valueOfUtf8("dn:" + csn + ":" + (isModDN ? "moddn" : "add"));
+    }
+    return encodeBinary("dn", csn, isModDN ? TYPE_MODDN : TYPE_ADD, null);
+  }
+
+  private static ByteString encodeBinary(String attrDesc, CSN csn, byte type, ByteString value)
+  {
+    final byte[] attrDescBytes = getBytes(attrDesc);
+    final ByteStringBuilder builder = new ByteStringBuilder(
+        BINARY_ENCODING_CSN_OFFSET + CSN.BYTE_ENCODING_LENGTH + 2 + attrDescBytes.length
+        + (value != null ? value.length() : 0));
+    builder.appendByte(BINARY_ENCODING_MARKER);
+    builder.appendByte(BINARY_ENCODING_VERSION);
+    csn.toByteString(builder);
+    builder.appendByte(value != null ? type | HAS_VALUE : type);
+    builder.appendCompactUnsigned(attrDescBytes.length);
+    builder.appendBytes(attrDescBytes);
+    if (value != null)
+    {
+      builder.appendBytes(value);
+    }
+    return builder.toByteString();
+  }
+
+  /**
+   * Returns this historical attribute value with the requested encoding.
+   * <p>
+   * The value this object was decoded from is returned as is when it already
+   * uses the requested encoding.
+   *
+   * @param binary
+   *          whether to use the binary encoding rather than the string encoding
+   * @return this historical attribute value with the requested encoding
+   */
+  ByteString encode(boolean binary)
+  {
+    if (binary == isBinaryEncoded(encodedValue))
+    {
+      return encodedValue;
+    }
+    else if (attrTypeIsNull)
     {
-      stringValue = null;
-      attributeValue = null;
+      return encodeEntryHistorical(binary, csn, isModDN);
     }
+    return encode(binary, attrDesc.toString(), csn, histKey, attributeValue);
   }
 
   /**
@@ -224,9 +416,9 @@ class HistoricalAttributeValue
     final StringBuilder sb = new StringBuilder();
     sb.append(attrDesc);
     sb.append(":").append(csn).append(":").append(getModificationType());
-    if (stringValue != null)
+    if (attributeValue != null)
     {
-      sb.append(":").append(stringValue);
+      sb.append(":").append(attributeValue);
     }
     return sb.toString();
   }
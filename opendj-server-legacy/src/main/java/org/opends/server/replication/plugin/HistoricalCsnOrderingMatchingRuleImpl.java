@@ -81,6 +81,15 @@ public final class HistoricalCsnOrderingMatchingRuleImpl implements MatchingRule
      */
     try
     {
+      if (HistoricalAttributeValue.isBinaryEncoded(value))
+      {
+        final int csnOffset = HistoricalAttributeValue.BINARY_ENCODING_CSN_OFFSET;
+        return new ByteStringBuilder(14)
+            .appendBytes(value.subSequence(csnOffset + 8, csnOffset + 10))
+            .appendBytes(value.subSequence(csnOffset, csnOffset + 8))
+            .appendBytes(value.subSequence(csnOffset + 10, csnOffset + 14))
+            .toByteString();
+      }
       int csnIndex = value.toString().indexOf(':') + 1;
       String csn = value.subSequence(csnIndex, csnIndex + 28).toString();
       return new ByteStringBuilder(14)
@@ -75,6 +75,7 @@ import org.forgerock.opendj.ldap.SearchScope;
 import org.forgerock.opendj.ldap.schema.AttributeType;
 import org.forgerock.opendj.ldap.schema.ObjectClass;
 import org.forgerock.opendj.ldap.schema.Schema;
+import org.forgerock.opendj.server.config.meta.ReplicationDomainCfgDefn.HistoricalEncoding;
 import org.forgerock.opendj.server.config.meta.ReplicationDomainCfgDefn.IsolationPolicy;
 import org.forgerock.opendj.server.config.server.ExternalChangelogDomainCfg;
 import org.forgerock.opendj.server.config.server.ReplicationDomainCfg;
@@ -4901,6 +4902,19 @@ private boolean solveNamingConflict(ModifyDNOperation op, LDAPUpdateMsg msg)
     return config.getConflictsHistoricalPurgeDelay() * 60 * 1000;
   }
 
+  /**
+   * Returns whether the historical information necessary to solve conflicts
+   * is written with the binary encoding.
+   *
+   * @return {@code true} if the historical information is written with the
+   *         binary encoding, {@code false} if it is written with the string
+   *         encoding.
+   */
+  boolean isHistoricalBinaryEncoding()
+  {
+    return config.getHistoricalEncoding() == HistoricalEncoding.BINARY;
+  }
+
   /**
    * Check and purge the historical attribute on all eligible entries under this domain.
    *
@@ -4981,6 +4995,7 @@ private boolean solveNamingConflict(ModifyDNOperation op, LDAPUpdateMsg msg)
 
         CSN latestOldCSN = entryHist.getOldestCSN();
         entryHist.setPurgeDelay(getHistoricalPurgeDelay());
+        entryHist.setBinaryEncoding(isHistoricalBinaryEncoding());
         Attribute attr = entryHist.encodeAndPurge();
 
         if(entryHist.getLastPurgedValuesCount() > 0)
@@ -463,6 +463,7 @@ public class MultimasterReplication
           historicalInformation);
     }
     historicalInformation.setPurgeDelay(domain.getHistoricalPurgeDelay());
+    historicalInformation.setBinaryEncoding(domain.isHistoricalBinaryEncoding());
     historicalInformation.setHistoricalAttrToOperation(modifyOperation);
 
     if (modifyOperation.getModifications().isEmpty())
@@ -512,6 +513,7 @@ public class MultimasterReplication
           historicalInformation);
     }
     historicalInformation.setPurgeDelay(domain.getHistoricalPurgeDelay());
+    historicalInformation.setBinaryEncoding(domain.isHistoricalBinaryEncoding());
 
     // Add to the operation the historical attribute : "dn:changeNumber:moddn"
     historicalInformation.setHistoricalAttrToOperation(modifyDNOperation);
@@ -538,7 +540,7 @@ public class MultimasterReplication
     }
 
     // Add to the operation the historical attribute : "dn:changeNumber:add"
-    EntryHistorical.setHistoricalAttrToOperation(addOperation);
+    EntryHistorical.setHistoricalAttrToOperation(addOperation, domain.isHistoricalBinaryEncoding());
 
     return new SynchronizationProviderResult.ContinueProcessing();
   }
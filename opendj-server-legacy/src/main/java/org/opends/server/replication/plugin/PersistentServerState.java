@@ -341,8 +341,7 @@ class PersistentServerState
       {
         for (ByteString attrValue : resEntry.getAllAttributes(HISTORICAL_ATTRIBUTE_NAME).iterator().next())
         {
-          HistoricalAttributeValue histVal =
-              new HistoricalAttributeValue(attrValue.toString());
+          HistoricalAttributeValue histVal = new HistoricalAttributeValue(attrValue);
           CSN csn = histVal.getCSN();
           if (csn != null
               && csn.getServerId() == serverId
@@ -18,6 +18,7 @@ package org.opends.server.replication.server;
 
 import static org.opends.messages.ReplicationMessages.*;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.forgerock.i18n.LocalizableMessage;
@@ -45,26 +46,28 @@ import org.opends.server.types.InitializationException;
  * current RS.
  *
  * MessageHandlers are registered into Replication server domains.
- * When an update message is received by a domain, the domain forwards
- * the message to the registered message handlers.
- * LocalizableMessage are buffered into a queue.
- * Consumers are expected to come and consume the UpdateMsg from the queue.
+ * When an update message is received by a domain, the domain publishes
+ * the message once in its update ring, shared by all the message handlers.
+ * Each message handler reads the ring at its own sequence, and falls back
+ * to reading the changelog when it is late or has been lapped by the ring.
+ * Consumers are expected to come and consume the UpdateMsg from the handler.
  */
 class MessageHandler extends MonitorProvider<MonitorProviderCfg>
 {
   /** The logger of this class. */
   private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
 
-  private static final int MINIMUM_TRESHOLD_MSG_QUEUE_SIZE = 5;
-
-  /** UpdateMsg queue. */
-  private final MsgQueue msgQueue = new MsgQueue();
   /**
-   * Late queue. All access to the lateQueue in getNextMessage() is
-   * single-threaded. However, reads from threads calling getOlderUpdateCN()
-   * need protecting against removals performed using getNextMessage().
+   * Late queue, filled with changes read from the changelog. All access to the
+   * lateQueue in getNextMessage() is single-threaded. However, reads from
+   * threads calling getOlderUpdateCSN() can be concurrent.
    */
   private final MsgQueue lateQueue = new MsgQueue();
+  /**
+   * Sequence of the next update to read in the update ring of the domain when
+   * following. Only written by the thread calling getNextMessage().
+   */
+  private volatile long nextSequence;
   /** Local hosting RS. */
   protected final ReplicationServer replicationServer;
   /** Specifies the related replication server domain based on baseDN. */
@@ -75,10 +78,11 @@ class MessageHandler extends MonitorProvider<MonitorProviderCfg>
   private int inCount;
   /** Specifies the max queue size for this handler. */
   protected final int maxQueueSize;
-  /** Specifies the max queue size in bytes for this handler. */
-  private final int maxQueueBytesSize;
-  /** Specifies whether the consumer is following the producer (is not late). */
-  private boolean following;
+  /**
+   * Specifies whether the consumer is following the producer (is not late),
+   * i.e. reads the updates from the update ring of the domain.
+   */
+  private volatile boolean following;
   /** Specifies the current serverState of this handler. */
   private ServerState serverState;
   /** Specifies the baseDN of the domain. */
@@ -101,54 +105,9 @@ class MessageHandler extends MonitorProvider<MonitorProviderCfg>
   MessageHandler(int queueSize, ReplicationServer replicationServer)
   {
     this.maxQueueSize = queueSize;
-    this.maxQueueBytesSize = queueSize * 100;
     this.replicationServer = replicationServer;
   }
 
-  /**
-   * Add an update to the list of updates that must be sent to the server
-   * managed by this Handler.
-   *
-   * @param update The update that must be added to the list of updates of
-   * this handler.
-   */
-  void add(UpdateMsg update)
-  {
-    synchronized (msgQueue)
-    {
-      /*
-       * If queue was empty the writer thread was probably asleep
-       * waiting for some changes, wake it up
-       */
-      if (msgQueue.isEmpty())
-      {
-        msgQueue.notify();
-      }
-
-      msgQueue.add(update);
-
-      // TODO : size should be configurable and larger than max-receive-queue-size
-      while (isMsgQueueAboveThreshold())
-      {
-        following = false;
-        msgQueue.removeFirst();
-      }
-    }
-  }
-
-  private boolean isMsgQueueAboveThreshold()
-  {
-    final long count = msgQueue.count();
-    // ensure there is a minimum number of messages in queue to avoid wrong behavior
-    return count > maxQueueSize
-        || (count >= MINIMUM_TRESHOLD_MSG_QUEUE_SIZE && msgQueue.bytesCount() > maxQueueBytesSize);
-  }
-
-  private boolean isMsgQueueBelowThreshold()
-  {
-    return !isMsgQueueAboveThreshold();
-  }
-
   /**
    * Set the shut down flag to true and returns the previous value of the flag.
    * @return The previous value of the shut down flag
@@ -200,8 +159,8 @@ class MessageHandler extends MonitorProvider<MonitorProviderCfg>
   {
     MonitorData attributes = new MonitorData(4);
     attributes.add("handler", getMonitorInstanceName());
-    attributes.add("queue-size", msgQueue.count());
-    attributes.add("queue-size-bytes", msgQueue.bytesCount());
+    attributes.add("queue-size", getNbPendingUpdates());
+    attributes.add("queue-size-bytes", getNbPendingBytes());
     attributes.add("following", following);
     return attributes;
   }
@@ -219,9 +178,9 @@ class MessageHandler extends MonitorProvider<MonitorProviderCfg>
   }
 
   /**
-   * Get the next update that must be sent to the consumer from the message queue or from the database.
+   * Get the next update that must be sent to the consumer from the update ring or from the database.
    *
-   * @return The next update that must be sent to the consumer, or {@code null} when queue is empty
+   * @return The next update that must be sent to the consumer, or {@code null} when the consumer is not active
    * @throws ChangelogException
    *            If a problem occurs when reading the changelog
    */
@@ -229,173 +188,95 @@ class MessageHandler extends MonitorProvider<MonitorProviderCfg>
   {
     while (activeConsumer)
     {
+      if (!lateQueue.isEmpty())
+      {
+        // get the next change read from the changelog
+        final UpdateMsg msg = lateQueue.removeFirst();
+        if (updateServerState(msg))
+        {
+          return msg;
+        }
+        continue;
+      }
+
+      final UpdateRing ring = replicationServerDomain.getUpdateRing();
       if (!following)
       {
         /* this server is late with regard to some other masters
-         * in the topology or just joined the topology.
-         * In such cases, we can't keep all changes in the queue
-         * without saturating the memory, we therefore use
-         * a lateQueue that is filled with a few changes from the changelogDB
-         * If this server is able to close the gap, it will start using again
-         * the regular msgQueue later.
+         * in the topology, just joined the topology or has been lapped
+         * by the update ring.
+         * In such cases, the update ring does not contain all the changes
+         * to send, we therefore use a lateQueue that is filled with a few
+         * changes from the changelogDB.
+         * If the changelogDB cursor is exhausted, the lateQueue contains all
+         * the changes stored before the next update published in the ring:
+         * once the lateQueue is consumed, the server can follow the ring.
          */
-        if (lateQueue.isEmpty())
+        final long firstSequenceNotInChangelog = ring.getNextSequence();
+        if (fillLateQueue())
+        {
+          nextSequence = firstSequenceNotInChangelog;
+          following = true;
+        }
+        continue;
+      }
+
+      final UpdateRing.Entry entry = ring.get(nextSequence);
+      if (entry == null)
+      {
+        try
         {
-          /*
-           * Start from the server State
-           * Loop until the queue high mark or until no more changes
-           *   for each known LDAP master
-           *      get the next CSN after this last one :
-           *         - try to get next from the file
-           *         - if not found in the file
-           *             - try to get the next from the queue
-           *   select the smallest of changes
-           *   check if it is in the memory tree
-           *     yes : lock memory tree.
-           *           check all changes from the list, remove the ones that
-           *           are already sent
-           *           unlock memory tree
-           *           restart as usual
-           *   load this change on the delayList
-           */
-          boolean queueContributesToDomainState = fillLateQueue();
-          if (lateQueue.isEmpty())
-          {
-            // we could not find any messages in the changelog
-            // so the remote server is not late anymore.
-            synchronized (msgQueue)
-            {
-              // Ensure we are below threshold so this server will follow the
-              // msgQueue without fearing the msgQueue gets trimmed
-              if (isMsgQueueBelowThreshold())
-              {
-                following = true;
-              }
-            }
-          }
-          else
-          {
-            /*
-             * if the first change in the lateQueue is also on the regular queue,
-             * we can resume the processing from the regular queue
-             * -> set following to true and empty the lateQueue.
-             */
-            UpdateMsg msg = lateQueue.first();
-            synchronized (msgQueue)
-            {
-              if (!queueContributesToDomainState)
-              {
-               // If nothing in the queue contributesToDomainState, add it all to msgQueue so we can get out of here
-               while(!lateQueue.isEmpty())
-               {
-                 msgQueue.add(lateQueue.removeFirst());
-               }
-              }
-
-              if (msgQueue.contains(msg))
-              {
-                /* we finally catch up with the regular queue */
-                following = true;
-                lateQueue.clear();
-                msgQueue.consumeUpTo(msg);
-                if (updateServerState(msg))
-                {
-                  return msg;
-                }
-              }
-            }
-          }
+          ring.waitFor(nextSequence, 500, TimeUnit.MILLISECONDS);
         }
-        else
+        catch (InterruptedException e)
         {
-          // get the next change from the lateQueue
-          UpdateMsg msg;
-          synchronized (msgQueue) // TODO JNR why synchronize(msgQueue) here?
-          {
-            msg = lateQueue.removeFirst();
-            // By default a server is always not following. A weird case where messages not representing
-            // an operation may happen, making the late queue repeatedly fill and be emptied without ever
-            // getting the server out of state "not following".
-
-            if (lateQueue.isEmpty() && msgQueue.isEmpty())
-            {
-              CSN nextChange = findOldestCSNFromReplicaDBs();
-              if (nextChange == null)
-              {
-                following = true;
-              }
-            }
-          }
-          if (updateServerState(msg))
-          {
-            return msg;
-          }
-          continue;
+          return null;
         }
       }
-
-      synchronized (msgQueue)
+      else if (entry.getSequence() != nextSequence)
+      {
+        // lapped by the update ring, read the missed changes from the changelog
+        following = false;
+      }
+      else
       {
-        if (following)
+        nextSequence++;
+        final UpdateMsg msg = replicationServerDomain.getUpdateToSend(entry, this);
+        /*
+         * Only push the message if it has not yet been seen
+         * by the other server.
+         * Otherwise just loop to select the next message.
+         */
+        if (msg != null && updateServerState(msg))
         {
-          try
-          {
-            while (msgQueue.isEmpty() && following)
-            {
-              msgQueue.wait(500);
-              if (!activeConsumer)
-              {
-                return null;
-              }
-            }
-          } catch (InterruptedException e)
-          {
-            return null;
-          }
-          UpdateMsg msg = msgQueue.removeFirst();
-          if (updateServerState(msg))
-          {
-            /*
-             * Only push the message if it has not yet been seen
-             * by the other server.
-             * Otherwise just loop to select the next message.
-             */
-            return msg;
-          }
+          return msg;
         }
       }
-      /*
-       * Need to loop because following flag may have gone to false between the
-       * first check at the beginning of this method and the second check just
-       * above.
-       */
     }
     return null;
   }
 
   /**
-   * Fills the late queue with the most recent changes, accepting only the
-   * messages from provided replica ids.
+   * Fills the late queue with the oldest changes not sent yet.
+   *
+   * @return {@code true} if the changelog cursor was exhausted, i.e. the late
+   *         queue contains all the changes not sent yet, {@code false}
+   *         otherwise
    */
   private boolean fillLateQueue() throws ChangelogException
   {
-    boolean contributesToDomainState = false;
-    try (DBCursor<UpdateMsg> cursor = replicationServerDomain.getCursorFrom(serverState);)
+    try (DBCursor<UpdateMsg> cursor = replicationServerDomain.getCursorFrom(serverState))
     {
-      while (cursor.next() && isLateQueueBelowThreshold())
+      while (isLateQueueBelowThreshold())
       {
-        UpdateMsg msg = cursor.getRecord();
-        lateQueue.add(msg);
-        contributesToDomainState |= msg.contributesToDomainState();
+        if (!cursor.next())
+        {
+          return true;
+        }
+        lateQueue.add(cursor.getRecord());
       }
+      return false;
     }
-
-    // If we stopped because we filled the queue, set contributesToDomainState to true
-    if (!contributesToDomainState && !isLateQueueBelowThreshold())
-    {
-      contributesToDomainState = true;
-    }
-    return contributesToDomainState;
   }
 
   private boolean isLateQueueBelowThreshold()
@@ -405,40 +286,46 @@ class MessageHandler extends MonitorProvider<MonitorProviderCfg>
 
   /**
    * Get the older CSN for that server.
-   * Returns null when the queue is empty.
+   * Returns null when there is no update to send.
    * @return The older CSN.
    */
   public CSN getOlderUpdateCSN()
   {
-    synchronized (msgQueue)
+    final UpdateMsg lateMsg = lateQueue.first();
+    if (lateMsg != null)
     {
-      if (following)
+      return lateMsg.getCSN();
+    }
+    if (following)
+    {
+      final UpdateRing ring = replicationServerDomain.getUpdateRing();
+      for (long sequence = nextSequence;; sequence++)
       {
-        if (!msgQueue.isEmpty())
+        final UpdateRing.Entry entry = ring.get(sequence);
+        if (entry == null)
         {
-          return msgQueue.first().getCSN();
+          return null;
         }
-      }
-      else
-      {
-        if (!lateQueue.isEmpty())
+        else if (entry.getSequence() != sequence)
         {
-          return lateQueue.first().getCSN();
+          // lapped, the writer will read the changelog
+          break;
         }
-        else
+        final UpdateMsg msg = replicationServerDomain.getUpdateToSend(entry, this);
+        if (msg != null)
         {
-          /*
-          following is false AND lateQueue is empty
-          We may be at the very moment when the writer has emptied the
-          lateQueue when it sent the last update. The writer will fill again
-          the lateQueue when it will send the next update but we are not yet
-          there. So let's take the last change not sent directly from the db.
-          */
-          return findOldestCSNFromReplicaDBs();
+          return msg.getCSN();
         }
       }
     }
-    return null;
+    /*
+    following is false AND lateQueue is empty
+    We may be at the very moment when the writer has emptied the
+    lateQueue when it sent the last update. The writer will fill again
+    the lateQueue when it will send the next update but we are not yet
+    there. So let's take the last change not sent directly from the db.
+    */
+    return findOldestCSNFromReplicaDBs();
   }
 
   private CSN findOldestCSNFromReplicaDBs()
@@ -476,27 +363,53 @@ class MessageHandler extends MonitorProvider<MonitorProviderCfg>
    */
   public int getRcvMsgQueueSize()
   {
-    synchronized (msgQueue)
+    /*
+     * When the server is up to date or close to be up to date,
+     * the number of updates to be sent is the number of updates
+     * published in the update ring and not read yet.
+     */
+    if (following)
     {
-      /*
-       * When the server is up to date or close to be up to date,
-       * the number of updates to be sent is the size of the receive queue.
-       */
-      if (following)
-      {
-        return msgQueue.count();
-      }
+      return getNbPendingUpdates();
+    }
 
-      /*
-       * When the server is not able to follow, the msgQueue may become too
-       * large and therefore won't contain all the changes. Some changes may
-       * only be stored in the backing DB of the servers.
-       * The total size of the receive queue is calculated by doing the sum of
-       * the number of missing changes for every replicaDB.
-       */
-      ServerState latestState = replicationServerDomain.getLatestServerState();
-      return ServerState.diffChanges(latestState, serverState);
+    /*
+     * When the server is not able to follow, the update ring does not
+     * contain all the changes. Some changes may only be stored in the
+     * backing DB of the servers.
+     * The total size of the receive queue is calculated by doing the sum of
+     * the number of missing changes for every replicaDB.
+     */
+    ServerState latestState = replicationServerDomain.getLatestServerState();
+    return ServerState.diffChanges(latestState, serverState);
+  }
+
+  /**
+   * Returns the number of updates read from the changelog or published in the
+   * update ring, and not read yet by this handler.
+   */
+  private int getNbPendingUpdates()
+  {
+    int result = lateQueue.count();
+    if (following && replicationServerDomain != null)
+    {
+      result += replicationServerDomain.getUpdateRing().getNbEntriesFrom(nextSequence);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the total size in bytes of the updates read from the changelog or
+   * published in the update ring, and not read yet by this handler.
+   */
+  private long getNbPendingBytes()
+  {
+    long result = lateQueue.bytesCount();
+    if (following && replicationServerDomain != null)
+    {
+      result += replicationServerDomain.getUpdateRing().getNbBytesFrom(nextSequence);
     }
+    return result;
   }
 
   /**
@@ -595,11 +508,11 @@ class MessageHandler extends MonitorProvider<MonitorProviderCfg>
   /** Shutdown this handler. */
   public void shutdown()
   {
-    synchronized (msgQueue)
+    lateQueue.clear();
+    if (replicationServerDomain != null)
     {
-      msgQueue.clear();
-      msgQueue.notify();
-      msgQueue.notifyAll();
+      // wake up the writer if it is waiting for an update
+      replicationServerDomain.getUpdateRing().wakeUpReaders();
     }
 
     DirectoryServer.deregisterMonitorProvider(this);
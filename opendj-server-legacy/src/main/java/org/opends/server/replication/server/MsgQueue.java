@@ -40,8 +40,6 @@ public class MsgQueue
    * FIXME JNR to be investigated:
    * I strongly suspect that we could replace this field
    * by using the synchronized keyword on each method.
-   * However, MessageHandler is weirdly synchronizing on msgQueue field
-   * even though it is touching the lateQueue field (?!?).
    */
   private final Object lock = new Object();
 
@@ -51,13 +49,13 @@ public class MsgQueue
   /**
    * Return the first UpdateMsg in the MsgQueue.
    *
-   * @return The first UpdateMsg in the MsgQueue.
+   * @return The first UpdateMsg in the MsgQueue, or {@code null} if the MsgQueue is empty.
    */
   public UpdateMsg first()
   {
     synchronized (lock)
     {
-      return map.get(map.firstKey());
+      return !map.isEmpty() ? map.get(map.firstKey()) : null;
     }
   }
 
@@ -48,6 +48,7 @@ import org.forgerock.opendj.ldap.ResultCode;
 import org.forgerock.opendj.ldap.SearchScope;
 import org.forgerock.opendj.ldap.schema.AttributeType;
 import org.forgerock.opendj.ldap.schema.Schema;
+import org.forgerock.opendj.server.config.meta.ReplicationServerCfgDefn.ChangelogDurability;
 import org.forgerock.opendj.server.config.meta.VirtualAttributeCfgDefn.ConflictBehavior;
 import org.forgerock.opendj.server.config.server.ReplicationServerCfg;
 import org.forgerock.opendj.server.config.server.UserDefinedVirtualAttributeCfg;
@@ -836,6 +837,36 @@ public class ReplicationServer
     return this.config.getReplicationPurgeDelay() * 1000;
   }
 
+  /**
+   * Returns the maximum number of updates kept in memory for the servers connected to a domain.
+   *
+   * @return the maximum number of updates kept in memory for the servers connected to a domain
+   */
+  public int getQueueSize()
+  {
+    return this.config.getQueueSize();
+  }
+
+  /**
+   * Returns when the changes written to the changelog are synchronized with the disk.
+   *
+   * @return the durability of the changelog
+   */
+  public ChangelogDurability getChangelogDurability()
+  {
+    return this.config.getChangelogDurability();
+  }
+
+  /**
+   * Returns the interval between two synchronizations of the changelog with the disk (in milliseconds).
+   *
+   * @return the interval between two synchronizations of the changelog with the disk (in milliseconds)
+   */
+  public long getChangelogSyncInterval()
+  {
+    return this.config.getChangelogSyncInterval();
+  }
+
   /**
    * Check if the provided configuration is acceptable for add.
    *
@@ -886,6 +917,11 @@ public class ReplicationServer
     {
       this.changelogDB.setPurgeDelay(getPurgeDelay());
     }
+    if (config.getChangelogDurability() != oldConfig.getChangelogDurability()
+        || config.getChangelogSyncInterval() != oldConfig.getChangelogSyncInterval())
+    {
+      this.changelogDB.setChangelogDurability(config.getChangelogDurability(), config.getChangelogSyncInterval());
+    }
     final boolean computeCN = config.isComputeChangeNumber();
     if (computeCN != oldConfig.isComputeChangeNumber())
     {
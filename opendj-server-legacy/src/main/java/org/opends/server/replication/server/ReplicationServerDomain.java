@@ -128,6 +128,9 @@ public class ReplicationServerDomain extends MonitorProvider<MonitorProviderCfg>
   /** The ReplicationServer that created the current instance. */
   private final ReplicationServer localReplicationServer;
 
+  /** The updates received by this domain, shared by the handlers of all the connected servers. */
+  private final UpdateRing updateRing;
+
   /**
    * The generationId of the current replication domain. The generationId is
    * computed by hashing the first 1000 entries in the DB.
@@ -276,6 +279,9 @@ public class ReplicationServerDomain extends MonitorProvider<MonitorProviderCfg>
   {
     this.baseDN = baseDN;
     this.localReplicationServer = localReplicationServer;
+    // Same byte budget as the message queue of each handler used to have
+    final int queueSize = localReplicationServer.getQueueSize();
+    this.updateRing = new UpdateRing(queueSize, queueSize * 100L);
     this.assuredTimeoutTimer = new Timer("Replication server RS("
         + localReplicationServer.getServerId()
         + ") assured timer for domain \"" + baseDN + "\"", true);
@@ -327,6 +333,12 @@ public class ReplicationServerDomain extends MonitorProvider<MonitorProviderCfg>
       return;
     }
 
+    if (preparedAssuredInfo != null && preparedAssuredInfo.ackOnceStored)
+    {
+      // Safe data: the change is now stored in the changelog
+      sourceHandler.send(new AckMsg(updateMsg.getCSN()));
+    }
+
     final List<Integer> assuredServers = getAssuredServers(updateMsg, preparedAssuredInfo);
 
     /**
@@ -344,32 +356,75 @@ public class ReplicationServerDomain extends MonitorProvider<MonitorProviderCfg>
     final NotAssuredUpdateMsg notAssuredUpdateMsg =
         preparedAssuredInfo != null ? new NotAssuredUpdateMsg(updateMsg) : null;
 
-    // Push the message to the replication servers
-    if (sourceHandler.isDataServer())
+    // Publish the message once for all the connected servers:
+    // each server handler selects the messages it must send in getUpdateToSend()
+    updateRing.publish(updateMsg, notAssuredUpdateMsg, assuredServers, sourceHandler);
+  }
+
+  /**
+   * Returns the update that must be sent to the server managed by the provided
+   * handler for an entry of the update ring of this domain.
+   *
+   * @param entry
+   *          the entry read from the update ring
+   * @param sHandler
+   *          the handler of the server to which the update would be sent
+   * @return the update to send, or {@code null} if the update must not be sent
+   *         to this server
+   */
+  UpdateMsg getUpdateToSend(UpdateRing.Entry entry, MessageHandler sHandler)
+  {
+    final UpdateMsg updateMsg = entry.getUpdateMsg();
+    final int serverId;
+    if (sHandler instanceof ReplicationServerHandler)
     {
-      for (ReplicationServerHandler rsHandler : connectedRSs.values())
+      /**
+       * Only updates received from a DS are pushed to the replication servers.
+       * Ignore updates to RS with bad gen id
+       * (no system managed status for a RS)
+       */
+      if (!entry.getSourceHandler().isDataServer()
+          || isDifferentGenerationId((ReplicationServerHandler) sHandler, updateMsg))
       {
-        /**
-         * Ignore updates to RS with bad gen id
-         * (no system managed status for a RS)
-         */
-        if (!isDifferentGenerationId(rsHandler, updateMsg))
-        {
-          addUpdate(rsHandler, updateMsg, notAssuredUpdateMsg, assuredServers);
-        }
+        return null;
       }
+      serverId = ((ReplicationServerHandler) sHandler).getServerId();
     }
-
-    // Push the message to the LDAP servers
-    for (DataServerHandler dsHandler : connectedDSs.values())
+    else if (sHandler instanceof DataServerHandler)
     {
       // Do not forward the change to the server that just sent it
-      if (dsHandler != sourceHandler
-          && !isUpdateMsgFiltered(updateMsg, dsHandler))
+      if (sHandler == entry.getSourceHandler()
+          || isUpdateMsgFiltered(updateMsg, (DataServerHandler) sHandler))
       {
-        addUpdate(dsHandler, updateMsg, notAssuredUpdateMsg, assuredServers);
+        return null;
       }
+      serverId = ((DataServerHandler) sHandler).getServerId();
+    }
+    else
+    {
+      return null;
+    }
+
+    // Assured mode: send an assured or not assured matching update message
+    // according to what has been computed for the destination server
+    final NotAssuredUpdateMsg notAssuredUpdateMsg = entry.getNotAssuredUpdateMsg();
+    if (notAssuredUpdateMsg != null
+        && !entry.getAssuredServers().contains(serverId))
+    {
+      return notAssuredUpdateMsg;
     }
+    return updateMsg;
+  }
+
+  /**
+   * Returns the ring of the updates received by this domain, read by the
+   * handlers of all the connected servers.
+   *
+   * @return the ring of the updates received by this domain
+   */
+  UpdateRing getUpdateRing()
+  {
+    return updateRing;
   }
 
   private boolean isDifferentGenerationId(ReplicationServerHandler rsHandler,
@@ -534,22 +589,6 @@ public class ReplicationServerDomain extends MonitorProvider<MonitorProviderCfg>
     }
   }
 
-  private void addUpdate(ServerHandler sHandler, UpdateMsg updateMsg,
-      NotAssuredUpdateMsg notAssuredUpdateMsg, List<Integer> assuredServers)
-  {
-    // Assured mode: post an assured or not assured matching update message
-    // according to what has been computed for the destination server
-    if (notAssuredUpdateMsg != null
-        && !assuredServers.contains(sHandler.getServerId()))
-    {
-      sHandler.add(notAssuredUpdateMsg);
-    }
-    else
-    {
-      sHandler.add(updateMsg);
-    }
-  }
-
   /**
    * Helper class to be the return type of a method that processes a just
    * received assured update message:
@@ -573,6 +612,13 @@ public class ReplicationServerDomain extends MonitorProvider<MonitorProviderCfg>
        * received. Null if expectedServers is null.
        */
       public ExpectedAcksInfo expectedAcksInfo;
+
+      /**
+       * Whether the ack must be sent to the source of the update as soon as
+       * the update is stored in the changelog, without waiting for any other
+       * ack.
+       */
+      public boolean ackOnceStored;
   }
 
   /**
@@ -660,7 +706,9 @@ public class ReplicationServerDomain extends MonitorProvider<MonitorProviderCfg>
 
   /**
    * Process a just received assured update message in Safe Data mode. If the
-   * ack can be sent immediately, it is done here. This will also determine to
+   * ack can be sent immediately, it is flagged to be sent as soon as the update
+   * is stored in the changelog, so that the acknowledged update cannot be lost
+   * when the changelog is synchronized with the disk. This will also determine to
    * which suitable servers an ack should be requested from, and which ones are
    * not eligible for an ack request.
    * This method is an helper method for the put method. Have a look at the put
@@ -678,6 +726,7 @@ public class ReplicationServerDomain extends MonitorProvider<MonitorProviderCfg>
   {
     CSN csn = update.getCSN();
     boolean interestedInAcks = false;
+    boolean ackOnceStored = false;
     byte safeDataLevel = update.getSafeDataLevel();
     byte groupId = localReplicationServer.getGroupId();
     byte sourceGroupId = sourceHandler.getGroupId();
@@ -696,11 +745,11 @@ public class ReplicationServerDomain extends MonitorProvider<MonitorProviderCfg>
           if (safeDataLevel == (byte) 1)
           {
             /**
-             * Immediately return the ack for an assured message in safe data
+             * Return the ack as soon as stored for an assured message in safe data
              * mode with safe data level 1, coming from a DS. No need to wait
              * for more acks
              */
-            sourceHandler.send(new AckMsg(csn));
+            ackOnceStored = true;
           } else
           {
             /**
@@ -720,7 +769,7 @@ public class ReplicationServerDomain extends MonitorProvider<MonitorProviderCfg>
            */
           if (safeDataLevel > (byte) 1)
           {
-            sourceHandler.send(new AckMsg(csn));
+            ackOnceStored = true;
           }
         }
     }
@@ -733,6 +782,7 @@ public class ReplicationServerDomain extends MonitorProvider<MonitorProviderCfg>
 
     // Return computed structures
     PreparedAssuredInfo preparedAssuredInfo = new PreparedAssuredInfo();
+    preparedAssuredInfo.ackOnceStored = ackOnceStored;
     int nExpectedServers = expectedServers.size();
     if (interestedInAcks) // interestedInAcks so level > 1
     {
@@ -754,8 +804,8 @@ public class ReplicationServerDomain extends MonitorProvider<MonitorProviderCfg>
       } else
       {
         // level > 1 and source is a DS but no eligible servers found, send the
-        // ack immediately
-        sourceHandler.send(new AckMsg(csn));
+        // ack once stored
+        preparedAssuredInfo.ackOnceStored = true;
       }
     }
 
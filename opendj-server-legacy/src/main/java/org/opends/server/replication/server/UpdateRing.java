@@ -0,0 +1,398 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.replication.server;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.opends.server.replication.protocol.UpdateMsg;
+
+/**
+ * Ring of the updates received by a replication server domain, shared by the
+ * handlers of all the servers connected to the domain.
+ * <p>
+ * Each update is published once in the ring, at a unique and increasing
+ * sequence. Each handler reads the ring at its own sequence, and decides for
+ * each entry whether and how the update must be sent to its server.
+ * <p>
+ * Publishing never blocks: when the ring is full, the oldest entries are
+ * overwritten. The oldest entries are also evicted when the updates kept in the
+ * ring exceed its byte budget. A handler which has been lapped, i.e. whose next
+ * entry has been overwritten or evicted, must read the updates it missed from
+ * the changelog. All the updates are stored in the changelog before being
+ * published in the ring.
+ */
+class UpdateRing
+{
+  /** An update published in the ring. */
+  static final class Entry
+  {
+    private final long sequence;
+    private final UpdateMsg updateMsg;
+    private final NotAssuredUpdateMsg notAssuredUpdateMsg;
+    private final List<Integer> assuredServers;
+    private final ServerHandler sourceHandler;
+    /** The total size in bytes of the updates published before this one. */
+    private final long startOffset;
+
+    private Entry(long sequence, UpdateMsg updateMsg, NotAssuredUpdateMsg notAssuredUpdateMsg,
+        List<Integer> assuredServers, ServerHandler sourceHandler, long startOffset)
+    {
+      this.sequence = sequence;
+      this.updateMsg = updateMsg;
+      this.notAssuredUpdateMsg = notAssuredUpdateMsg;
+      this.assuredServers = assuredServers;
+      this.sourceHandler = sourceHandler;
+      this.startOffset = startOffset;
+    }
+
+    /** Returns the entry left in the ring once this one has been evicted, which does not hold the update. */
+    private Entry evicted()
+    {
+      return new Entry(sequence, null, null, null, null, startOffset);
+    }
+
+    private boolean isEvicted()
+    {
+      return updateMsg == null;
+    }
+
+    /**
+     * Returns the sequence of this entry in the ring.
+     *
+     * @return the sequence of this entry
+     */
+    long getSequence()
+    {
+      return sequence;
+    }
+
+    /**
+     * Returns the update as received.
+     *
+     * @return the update as received
+     */
+    UpdateMsg getUpdateMsg()
+    {
+      return updateMsg;
+    }
+
+    /**
+     * Returns the update with the assured flag disabled, to be sent to the
+     * servers not eligible for assured mode.
+     *
+     * @return the update with the assured flag disabled, or {@code null} if the
+     *         update is not assured
+     */
+    NotAssuredUpdateMsg getNotAssuredUpdateMsg()
+    {
+      return notAssuredUpdateMsg;
+    }
+
+    /**
+     * Returns the ids of the servers from which an ack is expected.
+     *
+     * @return the ids of the servers from which an ack is expected
+     */
+    List<Integer> getAssuredServers()
+    {
+      return assuredServers;
+    }
+
+    /**
+     * Returns the handler of the server which sent the update.
+     *
+     * @return the handler of the server which sent the update
+     */
+    ServerHandler getSourceHandler()
+    {
+      return sourceHandler;
+    }
+
+    @Override
+    public String toString()
+    {
+      return getClass().getSimpleName() + "(sequence=" + sequence
+          + (isEvicted() ? ", evicted" : ", csn=" + updateMsg.getCSN()) + ")";
+    }
+  }
+
+  /** Returned to the readers of an evicted entry, so that they see they have been lapped. */
+  private static final Entry LAPPED = new Entry(Long.MAX_VALUE, null, null, null, null, 0);
+  /** The minimum number of updates kept in the ring, whatever their size. */
+  private static final int MIN_ENTRIES_KEPT = 5;
+
+  private final AtomicReferenceArray<Entry> entries;
+  private final int mask;
+  /** The sequence of the next update to publish. */
+  private final AtomicLong nextSequence = new AtomicLong();
+  /** The maximum total size in bytes of the updates kept in the ring. */
+  private final long maxBytes;
+  /** The total size in bytes of the updates published so far. */
+  private final AtomicLong publishedBytes = new AtomicLong();
+  /** The sequence of the next entry to evict when the ring exceeds its byte budget. */
+  private final AtomicLong nextSequenceToEvict = new AtomicLong();
+
+  /** Used by the readers waiting for updates to be published. */
+  private final Lock lock = new ReentrantLock();
+  private final Condition published = lock.newCondition();
+  private final AtomicInteger nbWaitingReaders = new AtomicInteger();
+
+  /**
+   * Creates a ring.
+   *
+   * @param minCapacity
+   *          the minimum number of updates kept in the ring. The actual
+   *          capacity is the next power of two.
+   * @param maxBytes
+   *          the maximum total size in bytes of the updates kept in the ring,
+   *          above which the oldest updates are evicted
+   */
+  UpdateRing(int minCapacity, long maxBytes)
+  {
+    int capacity = Integer.highestOneBit(Math.max(minCapacity, 2) - 1) << 1;
+    this.entries = new AtomicReferenceArray<>(capacity);
+    this.mask = capacity - 1;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Returns the number of updates kept in this ring.
+   *
+   * @return the capacity of this ring
+   */
+  int getCapacity()
+  {
+    return entries.length();
+  }
+
+  /**
+   * Publishes an update in this ring and wakes up the waiting readers.
+   *
+   * @param updateMsg
+   *          the update as received
+   * @param notAssuredUpdateMsg
+   *          the update with the assured flag disabled, {@code null} if the
+   *          update is not assured
+   * @param assuredServers
+   *          the ids of the servers from which an ack is expected
+   * @param sourceHandler
+   *          the handler of the server which sent the update
+   * @return the sequence of the update in this ring
+   */
+  long publish(UpdateMsg updateMsg, NotAssuredUpdateMsg notAssuredUpdateMsg, List<Integer> assuredServers,
+      ServerHandler sourceHandler)
+  {
+    final long sequence = nextSequence.getAndIncrement();
+    final long startOffset = publishedBytes.getAndAdd(updateMsg.size());
+    final Entry entry =
+        new Entry(sequence, updateMsg, notAssuredUpdateMsg, assuredServers, sourceHandler, startOffset);
+    final int index = (int) (sequence & mask);
+    while (true)
+    {
+      final Entry current = entries.get(index);
+      if (current != null && current.sequence > sequence)
+      {
+        // a concurrent publisher lapped this one, readers will find the update in the changelog
+        break;
+      }
+      if (entries.compareAndSet(index, current, entry))
+      {
+        break;
+      }
+    }
+
+    if (nbWaitingReaders.get() > 0)
+    {
+      wakeUpReaders();
+    }
+    evictAboveByteBudget();
+    return sequence;
+  }
+
+  /**
+   * Evicts the oldest entries while the updates kept in the ring exceed the
+   * byte budget, so that large updates cannot pin a lot of memory. The readers
+   * of the evicted entries read them from the changelog.
+   */
+  private void evictAboveByteBudget()
+  {
+    while (true)
+    {
+      final long sequence = nextSequenceToEvict.get();
+      final long next = nextSequence.get();
+      if (next - sequence <= MIN_ENTRIES_KEPT)
+      {
+        return;
+      }
+      final int index = (int) (sequence & mask);
+      final Entry entry = entries.get(index);
+      if (entry == null || entry.sequence < sequence)
+      {
+        // still being published by a concurrent publisher
+        return;
+      }
+      final boolean live = entry.sequence == sequence && !entry.isEvicted();
+      if (live && publishedBytes.get() - entry.startOffset <= maxBytes)
+      {
+        return;
+      }
+      // skip at once the entries overwritten since the last eviction
+      if (nextSequenceToEvict.compareAndSet(sequence, Math.max(sequence + 1, next - entries.length())) && live)
+      {
+        // fails if a publisher overwrote the entry meanwhile
+        entries.compareAndSet(index, entry, entry.evicted());
+      }
+    }
+  }
+
+  /**
+   * Returns the sequence that will be given to the next published update.
+   * <p>
+   * All the updates with a lower sequence have been stored in the changelog.
+   *
+   * @return the sequence of the next published update
+   */
+  long getNextSequence()
+  {
+    return nextSequence.get();
+  }
+
+  /**
+   * Returns the entry at the provided sequence.
+   * <p>
+   * If the entry has already been overwritten or evicted, the returned entry
+   * has a higher sequence than the requested one: the reader has been lapped.
+   *
+   * @param sequence
+   *          the sequence of the entry
+   * @return the entry at the provided sequence or a more recent one, or
+   *         {@code null} if it is not published yet
+   */
+  Entry get(long sequence)
+  {
+    final Entry entry = entries.get((int) (sequence & mask));
+    if (entry == null || entry.sequence < sequence)
+    {
+      return null;
+    }
+    return entry.isEvicted() ? LAPPED : entry;
+  }
+
+  /**
+   * Returns the number of updates published from the provided sequence.
+   *
+   * @param sequence
+   *          the sequence of the first entry to count
+   * @return the number of updates published from the provided sequence, or
+   *         the capacity of this ring if it has been lapped
+   */
+  int getNbEntriesFrom(long sequence)
+  {
+    return (int) Math.max(0, Math.min(nextSequence.get() - sequence, entries.length()));
+  }
+
+  /**
+   * Returns the total size in bytes of the updates published from the provided
+   * sequence.
+   *
+   * @param sequence
+   *          the sequence of the first entry to count
+   * @return the total size in bytes of the updates published from the provided
+   *         sequence, or from the oldest entry kept in the ring if the entry
+   *         at the provided sequence has been overwritten
+   */
+  long getNbBytesFrom(long sequence)
+  {
+    final Entry entry = entries.get((int) (sequence & mask));
+    if (entry == null || entry.sequence < sequence)
+    {
+      return 0;
+    }
+    return Math.max(publishedBytes.get() - entry.startOffset, 0);
+  }
+
+  /**
+   * Waits until the entry at the provided sequence is published.
+   *
+   * @param sequence
+   *          the sequence of the entry
+   * @param timeout
+   *          the maximum time to wait
+   * @param unit
+   *          the unit of the timeout
+   * @return {@code true} if the entry has been published or overwritten,
+   *         {@code false} if the timeout elapsed
+   * @throws InterruptedException
+   *           if the current thread is interrupted
+   */
+  boolean waitFor(long sequence, long timeout, TimeUnit unit) throws InterruptedException
+  {
+    long nanos = unit.toNanos(timeout);
+    nbWaitingReaders.incrementAndGet();
+    lock.lock();
+    try
+    {
+      while (!isPublished(sequence))
+      {
+        if (nanos <= 0)
+        {
+          return false;
+        }
+        nanos = published.awaitNanos(nanos);
+      }
+      return true;
+    }
+    finally
+    {
+      lock.unlock();
+      nbWaitingReaders.decrementAndGet();
+    }
+  }
+
+  private boolean isPublished(long sequence)
+  {
+    final Entry entry = entries.get((int) (sequence & mask));
+    return entry != null && entry.sequence >= sequence;
+  }
+
+  /** Wakes up all the readers waiting for an update, for example on shutdown. */
+  void wakeUpReaders()
+  {
+    lock.lock();
+    try
+    {
+      published.signalAll();
+    }
+    finally
+    {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + "(capacity=" + entries.length() + ", maxBytes=" + maxBytes
+        + ", nextSequence=" + nextSequence + ", publishedBytes=" + publishedBytes + ")";
+  }
+}
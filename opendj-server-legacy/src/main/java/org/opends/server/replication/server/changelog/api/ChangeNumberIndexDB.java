@@ -15,6 +15,8 @@
  */
 package org.opends.server.replication.server.changelog.api;
 
+import java.util.List;
+
 import org.opends.server.replication.common.CSN;
 import org.forgerock.opendj.ldap.DN;
 
@@ -75,6 +77,22 @@ public interface ChangeNumberIndexDB
    */
   long addRecord(ChangeNumberIndexRecord record) throws ChangelogException;
 
+  /**
+   * Add several updates at once to this DB and return the changeNumber
+   * associated to the first record. The records are given consecutive change
+   * numbers, in order.
+   * <p>
+   * Note: this method disregards the changeNumber in the provided records.
+   *
+   * @param records
+   *          The {@link ChangeNumberIndexRecord}s to add to this DB, in order.
+   * @return the change number associated to the first record on adding to this
+   *         DB
+   * @throws ChangelogException
+   *           if a database problem occurs.
+   */
+  long addRecords(List<ChangeNumberIndexRecord> records) throws ChangelogException;
+
   /**
    * Generate a new {@link DBCursor} that allows to browse the db managed by
    * this object and starting at the position defined by a given changeNumber.
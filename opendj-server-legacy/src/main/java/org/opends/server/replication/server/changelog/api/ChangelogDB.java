@@ -15,7 +15,7 @@
  */
 package org.opends.server.replication.server.changelog.api;
 
-
+import org.forgerock.opendj.server.config.meta.ReplicationServerCfgDefn.ChangelogDurability;
 
 /**
  * This interface is the entry point for the changelog database which stores the
@@ -58,6 +58,18 @@ public interface ChangelogDB
   void setComputeChangeNumber(boolean computeChangeNumber)
       throws ChangelogException;
 
+  /**
+   * Sets when the changes written to the replication database are synchronized
+   * with the disk. Can be called while the database is running.
+   *
+   * @param durability
+   *          the durability of the changes
+   * @param syncIntervalInMillis
+   *          the interval between two synchronizations with the disk, or the
+   *          time window during which changes are synchronized together
+   */
+  void setChangelogDurability(ChangelogDurability durability, long syncIntervalInMillis);
+
   /**
    * Shutdown the replication database.
    *
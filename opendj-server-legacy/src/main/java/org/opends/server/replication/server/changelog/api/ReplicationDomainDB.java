@@ -187,6 +187,9 @@ public interface ReplicationDomainDB
    * Publishes the provided change to the changelog DB for the specified
    * serverId and replication domain. After a change has been successfully
    * published, it becomes available to be returned by the External ChangeLog.
+   * <p>
+   * When the changelog is configured to synchronize each batch with the disk,
+   * this method only returns once the change is persisted.
    *
    * @param baseDN
    *          the replication domain baseDN
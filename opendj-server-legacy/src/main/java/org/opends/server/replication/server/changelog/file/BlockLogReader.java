@@ -24,9 +24,9 @@ import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 
 import org.forgerock.opendj.ldap.ByteString;
-import org.forgerock.opendj.ldap.ByteStringBuilder;
 import org.forgerock.util.Pair;
 import org.forgerock.util.Reject;
 import org.forgerock.util.annotations.VisibleForTesting;
@@ -44,6 +44,10 @@ import org.opends.server.util.StaticUtils;
  * <p>
  * The reader provides both sequential access, using the {@code readRecord()} method,
  * and reasonably fast random access, using the {@code seekToRecord(K, boolean)} method.
+ * <p>
+ * The log file can be read either through a file handle, or through a read-only
+ * memory mapping of the file. The latter avoids one system call per read and
+ * is intended for log files that are no longer written to.
  *
  * @param <K>
  *          Type of the key of a record, which must be comparable.
@@ -69,7 +73,7 @@ class BlockLogReader<K extends Comparable<K>, V> implements Closeable
 
   private final RecordParser<K, V> parser;
 
-  private final RandomAccessFile reader;
+  private final LogInput reader;
 
   private final File file;
 
@@ -91,7 +95,30 @@ class BlockLogReader<K extends Comparable<K>, V> implements Closeable
   static <K extends Comparable<K>, V> BlockLogReader<K, V> newReader(
       final File file, final RandomAccessFile reader, final RecordParser<K, V> parser)
   {
-    return new BlockLogReader<>(file, reader, parser, BLOCK_SIZE);
+    return new BlockLogReader<>(file, new FileLogInput(reader), parser, BLOCK_SIZE);
+  }
+
+  /**
+   * Creates a reader for the provided file, reading its content from the provided
+   * read-only memory mapping of the file.
+   *
+   * @param <K>
+   *          Type of the key of a record, which must be comparable.
+   * @param <V>
+   *          Type of the value of a record.
+   * @param file
+   *          The log file to read.
+   * @param mapping
+   *          The memory mapping of the whole log file. It is never modified by the reader,
+   *          which reads from its own view of the buffer.
+   * @param parser
+   *          The parser to decode the records read.
+   * @return a new log reader
+   */
+  static <K extends Comparable<K>, V> BlockLogReader<K, V> newMappedReader(
+      final File file, final ByteBuffer mapping, final RecordParser<K, V> parser)
+  {
+    return new BlockLogReader<>(file, new MappedLogInput(mapping), parser, BLOCK_SIZE);
   }
 
   /**
@@ -117,11 +144,37 @@ class BlockLogReader<K extends Comparable<K>, V> implements Closeable
   static <K extends Comparable<K>, V> BlockLogReader<K, V> newReaderForTests(
       final File file, final RandomAccessFile reader, final RecordParser<K, V> parser, int blockSize)
   {
-    return new BlockLogReader<>(file, reader, parser, blockSize);
+    return new BlockLogReader<>(file, new FileLogInput(reader), parser, blockSize);
+  }
+
+  /**
+   * Creates a reader for the provided file, memory mapping, parser and block size.
+   * <p>
+   * This method is intended for tests only, to allow tuning of the block size.
+   *
+   * @param <K>
+   *          Type of the key of a record, which must be comparable.
+   * @param <V>
+   *          Type of the value of a record.
+   * @param file
+   *          The log file to read.
+   * @param mapping
+   *          The memory mapping of the whole log file.
+   * @param parser
+   *          The parser to decode the records read.
+   * @param blockSize
+   *          The size of each block, or frequency at which the record offset is
+   *          present in the log file.
+   * @return a new log reader
+   */
+  static <K extends Comparable<K>, V> BlockLogReader<K, V> newMappedReaderForTests(
+      final File file, final ByteBuffer mapping, final RecordParser<K, V> parser, int blockSize)
+  {
+    return new BlockLogReader<>(file, new MappedLogInput(mapping), parser, blockSize);
   }
 
   private BlockLogReader(
-      final File file, final RandomAccessFile reader, final RecordParser<K, V> parser, final int blockSize)
+      final File file, final LogInput reader, final RecordParser<K, V> parser, final int blockSize)
   {
     this.file = file;
     this.reader = reader;
@@ -163,6 +216,38 @@ class BlockLogReader<K extends Comparable<K>, V> implements Closeable
     return Pair.of(false, null);
   }
 
+  /**
+   * Position the reader to the record corresponding to the provided key and
+   * matching and positioning strategies, using the provided sparse index of the
+   * log file to find the start position instead of a binary search on blocks.
+   * Returns the last record read.
+   *
+   * @param index
+   *          The sparse index of keys of the log file read by this reader.
+   * @param key
+   *          Key to use as a start position. Key must not be {@code null}.
+   * @param matchStrategy
+   *          The key matching strategy.
+   * @param positionStrategy
+   *          The positioning strategy.
+   * @return The pair (key_found, last_record_read), with the same semantic as
+   *         {@link #seekToRecord(Comparable, KeyMatchingStrategy, PositionStrategy)}
+   * @throws ChangelogException
+   *           If an error occurs when seeking the key.
+   */
+  public Pair<Boolean, Record<K,V>> seekToRecord(
+      final LogFileKeyIndex<K> index,
+      final K key,
+      final KeyMatchingStrategy matchStrategy,
+      final PositionStrategy positionStrategy)
+          throws ChangelogException
+  {
+    Reject.ifNull(key);
+    final long recordPosition = index.getPositionOfClosestRecordBeforeOrAtKey(key);
+    seekToPosition(recordPosition);
+    return positionToKey(readRecord(), recordPosition, key, matchStrategy, positionStrategy);
+  }
+
   /**
    * Position the reader to the provided file position.
    *
@@ -266,7 +351,7 @@ class BlockLogReader<K extends Comparable<K>, V> implements Closeable
     if (blockStartPosition > 0)
     {
       final byte[] offsetData = new byte[SIZE_OF_BLOCK_OFFSET];
-      reader.readFully(offsetData);
+      reader.readFully(offsetData, 0, SIZE_OF_BLOCK_OFFSET);
       final int offsetToRecord = ByteString.wrap(offsetData).toInt();
       if (offsetToRecord > 0)
       {
@@ -295,17 +380,18 @@ class BlockLogReader<K extends Comparable<K>, V> implements Closeable
       int distanceToBlockStart = getDistanceToNextBlockStart(filePosition, blockSize);
       final int recordLength = readRecordLength(distanceToBlockStart);
 
-      // read the record
+      // read the record directly in its final array, skipping the block offsets
       long currentPosition = reader.getFilePointer();
       distanceToBlockStart = getDistanceToNextBlockStart(currentPosition, blockSize);
-      final ByteStringBuilder recordBytes =
-          new ByteStringBuilder(getLengthOfStoredRecord(recordLength, distanceToBlockStart));
+      final byte[] recordBytes = new byte[recordLength];
+      int recordPosition = 0;
       int remainingBytesToRead = recordLength;
       while (distanceToBlockStart < remainingBytesToRead)
       {
         if (distanceToBlockStart != 0)
         {
-          recordBytes.appendBytes(reader, distanceToBlockStart);
+          reader.readFully(recordBytes, recordPosition, distanceToBlockStart);
+          recordPosition += distanceToBlockStart;
         }
         // skip the offset
         reader.skipBytes(SIZE_OF_BLOCK_OFFSET);
@@ -318,9 +404,9 @@ class BlockLogReader<K extends Comparable<K>, V> implements Closeable
       if (remainingBytesToRead > 0)
       {
         // last bytes of the record
-        recordBytes.appendBytes(reader, remainingBytesToRead);
+        reader.readFully(recordBytes, recordPosition, remainingBytesToRead);
       }
-      return recordBytes.toByteString();
+      return ByteString.wrap(recordBytes);
     }
     catch (EOFException e)
     {
@@ -354,13 +440,13 @@ class BlockLogReader<K extends Comparable<K>, V> implements Closeable
   /** Read the length of a record. */
   private int readRecordLength(final int distanceToBlockStart) throws IOException
   {
-    final ByteStringBuilder lengthBytes = new ByteStringBuilder(SIZE_OF_RECORD_SIZE);
+    final byte[] lengthBytes = new byte[SIZE_OF_RECORD_SIZE];
     if (distanceToBlockStart > 0 && distanceToBlockStart < SIZE_OF_RECORD_SIZE)
     {
-      lengthBytes.appendBytes(reader, distanceToBlockStart);
+      reader.readFully(lengthBytes, 0, distanceToBlockStart);
       // skip the offset
       reader.skipBytes(SIZE_OF_BLOCK_OFFSET);
-      lengthBytes.appendBytes(reader, SIZE_OF_RECORD_SIZE - distanceToBlockStart);
+      reader.readFully(lengthBytes, distanceToBlockStart, SIZE_OF_RECORD_SIZE - distanceToBlockStart);
     }
     else
     {
@@ -369,9 +455,9 @@ class BlockLogReader<K extends Comparable<K>, V> implements Closeable
         // skip the offset
         reader.skipBytes(SIZE_OF_BLOCK_OFFSET);
       }
-      lengthBytes.appendBytes(reader, SIZE_OF_RECORD_SIZE);
+      reader.readFully(lengthBytes, 0, SIZE_OF_RECORD_SIZE);
     }
-    return lengthBytes.toByteString().toInt();
+    return ByteString.wrap(lengthBytes).toInt();
   }
 
   /**
@@ -462,9 +548,25 @@ class BlockLogReader<K extends Comparable<K>, V> implements Closeable
    Pair<Boolean, Record<K,V>> positionToKey(final long blockStartPosition, final K key,
        final KeyMatchingStrategy matchStrategy, final PositionStrategy positionStrategy) throws ChangelogException
    {
-    Record<K,V> record = readRecord(blockStartPosition);
+     return positionToKey(readRecord(blockStartPosition), blockStartPosition, key, matchStrategy, positionStrategy);
+   }
+
+  /**
+   * Position before, at or after provided key, starting from provided record
+   * and reading until key is found according to matching and positioning strategies.
+   *
+   * @param firstRecord
+   *          The first record to consider, which has just been read
+   * @param firstRecordPosition
+   *          Position of the first record in the file
+   */
+  private Pair<Boolean, Record<K,V>> positionToKey(final Record<K, V> firstRecord, final long firstRecordPosition,
+      final K key, final KeyMatchingStrategy matchStrategy, final PositionStrategy positionStrategy)
+      throws ChangelogException
+  {
+    Record<K,V> record = firstRecord;
     Record<K,V> previousRecord = null;
-    long previousPosition = blockStartPosition;
+    long previousPosition = firstRecordPosition;
     while (record != null)
     {
       final int keysComparison = record.getKey().compareTo(key);
@@ -639,4 +741,145 @@ Record<K, V> getNewestRecord() throws ChangelogException
      throw new ChangelogException(ERR_CHANGELOG_CANNOT_READ_NEWEST_RECORD.get(file.getPath()), e);
    }
  }
+
+  /**
+   * Random access input on the content of a log file.
+   * <p>
+   * The methods follow the contract of the corresponding methods of {@link RandomAccessFile}.
+   */
+  private interface LogInput extends Closeable
+  {
+    void seek(long position) throws IOException;
+
+    long getFilePointer() throws IOException;
+
+    long length() throws IOException;
+
+    void readFully(byte[] b, int off, int len) throws IOException;
+
+    int skipBytes(int n) throws IOException;
+  }
+
+  /** Input reading the log file through a file handle. */
+  private static final class FileLogInput implements LogInput
+  {
+    private final RandomAccessFile file;
+
+    private FileLogInput(final RandomAccessFile file)
+    {
+      this.file = file;
+    }
+
+    @Override
+    public void seek(final long position) throws IOException
+    {
+      file.seek(position);
+    }
+
+    @Override
+    public long getFilePointer() throws IOException
+    {
+      return file.getFilePointer();
+    }
+
+    @Override
+    public long length() throws IOException
+    {
+      return file.length();
+    }
+
+    @Override
+    public void readFully(final byte[] b, final int off, final int len) throws IOException
+    {
+      file.readFully(b, off, len);
+    }
+
+    @Override
+    public int skipBytes(final int n) throws IOException
+    {
+      return file.skipBytes(n);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+      if (file != null)
+      {
+        file.close();
+      }
+    }
+
+    @Override
+    public String toString()
+    {
+      return String.valueOf(file);
+    }
+  }
+
+  /**
+   * Input reading the log file from a memory mapping of the file.
+   * <p>
+   * Each input has its own view on the shared mapping, so inputs can be used concurrently
+   * by different readers. Reading does not involve any system call.
+   */
+  private static final class MappedLogInput implements LogInput
+  {
+    private final ByteBuffer buffer;
+
+    private MappedLogInput(final ByteBuffer mapping)
+    {
+      this.buffer = mapping.duplicate();
+      this.buffer.rewind();
+    }
+
+    @Override
+    public void seek(final long position) throws IOException
+    {
+      // as with a file handle, seeking past the end is allowed and leads to EOF on next read
+      buffer.position((int) Math.min(position, buffer.limit()));
+    }
+
+    @Override
+    public long getFilePointer()
+    {
+      return buffer.position();
+    }
+
+    @Override
+    public long length()
+    {
+      return buffer.limit();
+    }
+
+    @Override
+    public void readFully(final byte[] b, final int off, final int len) throws IOException
+    {
+      if (buffer.remaining() < len)
+      {
+        buffer.position(buffer.limit());
+        throw new EOFException();
+      }
+      buffer.get(b, off, len);
+    }
+
+    @Override
+    public int skipBytes(final int n)
+    {
+      final int skipped = Math.min(n, buffer.remaining());
+      buffer.position(buffer.position() + skipped);
+      return skipped;
+    }
+
+    @Override
+    public void close()
+    {
+      // the mapping is shared, it is released when it is no longer referenced
+    }
+
+    @Override
+    public String toString()
+    {
+      return "MappedLogInput [position=" + buffer.position() + ", length=" + buffer.limit() + "]";
+    }
+  }
 }
@@ -15,12 +15,19 @@
  */
 package org.opends.server.replication.server.changelog.file;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.forgerock.i18n.slf4j.LocalizedLogger;
+import org.forgerock.opendj.config.server.ConfigException;
+import org.forgerock.opendj.server.config.server.MonitorProviderCfg;
 import org.opends.server.api.DirectoryThread;
+import org.opends.server.api.MonitorData;
+import org.opends.server.api.MonitorProvider;
 import org.opends.server.backends.ChangelogBackend;
 import org.opends.server.replication.common.CSN;
 import org.opends.server.replication.common.MultiDomainServerState;
@@ -34,6 +41,9 @@ import org.opends.server.replication.server.changelog.api.ChangelogException;
 import org.opends.server.replication.server.changelog.api.ChangelogStateProvider;
 import org.opends.server.replication.server.changelog.api.DBCursor.CursorOptions;
 import org.opends.server.replication.server.changelog.api.ReplicationDomainDB;
+import org.opends.server.core.DirectoryServer;
+import org.opends.server.types.InitializationException;
+import org.opends.server.util.TimeThread;
 import org.forgerock.opendj.ldap.DN;
 
 import static org.opends.messages.ReplicationMessages.*;
@@ -49,12 +59,20 @@ import static org.opends.server.util.StaticUtils.*;
  * CNIndexDB. As a consequence this class is also responsible for maintaining
  * the medium consistency point (indirectly through an
  * {@link ECLMultiDomainDBCursor}).
+ * <p>
+ * When the medium consistency point allows it, several changes are inserted at
+ * once in the CNIndexDB, so that catching up after an outage, or after enabling
+ * the external changelog, does not cost a write per change. The indexing lag is
+ * published below <code>cn=monitor</code>.
  */
 public class ChangeNumberIndexer extends DirectoryThread
 {
   /** The tracer object for the debug logger. */
   private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
 
+  /** Maximum number of changes inserted at once in the CNIndexDB. */
+  static final int MAX_BATCH_SIZE = 1000;
+
   /**
    * If it contains nothing, then the run method executes normally.
    * Otherwise, the {@link #run()} method must clear its state
@@ -98,6 +116,14 @@ public class ChangeNumberIndexer extends DirectoryThread
   private ECLMultiDomainDBCursor nextChangeForInsertDBCursor;
   private MultiDomainServerState cookie = new MultiDomainServerState();
 
+  /** The oldest change not yet inserted in the CNIndexDB, {@code null} if there is none. */
+  private volatile CSN oldestChangeToIndex;
+  /** Approximate number of changes published and not yet inserted in the CNIndexDB. */
+  private final AtomicLong missingChanges = new AtomicLong();
+  /** Number of changes inserted in the CNIndexDB since this indexer started. */
+  private final AtomicLong indexedChanges = new AtomicLong();
+  private final IndexerMonitorProvider monitor = new IndexerMonitorProvider();
+
   /**
    * Builds a ChangeNumberIndexer object.
    *  @param changelogDB
@@ -180,6 +206,7 @@ public class ChangeNumberIndexer extends DirectoryThread
       return;
     }
 
+    missingChanges.incrementAndGet();
     final CSN oldestCSNBefore = getOldestLastAliveCSN();
     lastAliveCSNs.update(baseDN, updateMsg.getCSN());
     tryNotify(oldestCSNBefore);
@@ -379,6 +406,8 @@ public class ChangeNumberIndexer extends DirectoryThread
        * cursors being created in a different thread to the one where they are used.
        */
       initialize();
+      DirectoryServer.deregisterMonitorProvider(monitor);
+      DirectoryServer.registerMonitorProvider(monitor);
 
       while (!isShutdownInitiated())
       {
@@ -401,8 +430,11 @@ public class ChangeNumberIndexer extends DirectoryThread
           // because we might not have consumed the last record,
           // for example if we could not move the MCP forward
           final UpdateMsg msg = nextChangeForInsertDBCursor.getRecord();
+          oldestChangeToIndex = msg != null && !(msg instanceof ReplicaOfflineMsg) ? msg.getCSN() : null;
           if (msg == null)
           {
+            // all the changes published so far have been indexed
+            missingChanges.set(0);
             synchronized (this)
             {
               if (isShutdownInitiated())
@@ -447,16 +479,8 @@ public class ChangeNumberIndexer extends DirectoryThread
           }
 
           // OK, the oldest change is older than the medium consistency point
-          // let's publish it to the CNIndexDB.
-          final long changeNumber = changelogDB.getChangeNumberIndexDB()
-              .addRecord(new ChangeNumberIndexRecord(baseDN, csn));
-          if (!cookie.update(baseDN, csn))
-          {
-            throw new IllegalStateException("It was expected that change (baseDN=" + baseDN + ", csn=" + csn
-                + ") would have updated the cookie=" + cookie + ", but it did not");
-          }
-          notifyEntryAddedToChangelog(baseDN, changeNumber, cookie, msg);
-          moveForwardMediumConsistencyPoint(csn, baseDN);
+          // let's publish it, and the changes following it, to the CNIndexDB.
+          indexChanges(baseDN, msg);
         }
         catch (InterruptedException ignored)
         {
@@ -479,11 +503,59 @@ public class ChangeNumberIndexer extends DirectoryThread
     }
     finally
     {
+      DirectoryServer.deregisterMonitorProvider(monitor);
       nextChangeForInsertDBCursor.close();
       nextChangeForInsertDBCursor = null;
     }
   }
 
+  /**
+   * Inserts in the CNIndexDB the change the cursor is positioned on, followed by
+   * the next changes older than the medium consistency point, up to
+   * {@link #MAX_BATCH_SIZE} changes. The changes are written at once, then the
+   * {@link ChangelogBackend} is notified of each of them in order.
+   * <p>
+   * On return, the cursor is positioned on the next change to insert.
+   */
+  private void indexChanges(DN baseDN, UpdateMsg msg) throws ChangelogException
+  {
+    final List<ChangeNumberIndexRecord> records = new ArrayList<>();
+    final List<UpdateMsg> msgs = new ArrayList<>();
+    while (true)
+    {
+      records.add(new ChangeNumberIndexRecord(baseDN, msg.getCSN()));
+      msgs.add(msg);
+      moveForwardMediumConsistencyPoint(msg.getCSN(), baseDN);
+
+      if (records.size() >= MAX_BATCH_SIZE || !domainsToClear.isEmpty() || isShutdownInitiated())
+      {
+        break;
+      }
+      msg = nextChangeForInsertDBCursor.getRecord();
+      if (msg == null || msg instanceof ReplicaOfflineMsg || !canMoveForwardMediumConsistencyPoint(msg.getCSN()))
+      {
+        // leave it to the main loop
+        break;
+      }
+      baseDN = nextChangeForInsertDBCursor.getData();
+    }
+
+    final long firstChangeNumber = changelogDB.getChangeNumberIndexDB().addRecords(records);
+    for (int i = 0; i < records.size(); i++)
+    {
+      final DN recordBaseDN = records.get(i).getBaseDN();
+      final CSN csn = records.get(i).getCSN();
+      if (!cookie.update(recordBaseDN, csn))
+      {
+        throw new IllegalStateException("It was expected that change (baseDN=" + recordBaseDN + ", csn=" + csn
+            + ") would have updated the cookie=" + cookie + ", but it did not");
+      }
+      notifyEntryAddedToChangelog(recordBaseDN, firstChangeNumber + i, cookie, msgs.get(i));
+    }
+    indexedChanges.addAndGet(records.size());
+    missingChanges.addAndGet(-records.size());
+  }
+
   private void moveToNextChange() throws ChangelogException
   {
     try
@@ -571,6 +643,34 @@ public class ChangeNumberIndexer extends DirectoryThread
     nextChangeForInsertDBCursor.next();
   }
 
+  /** Publishes the indexing lag below <code>cn=monitor</code>. */
+  private class IndexerMonitorProvider extends MonitorProvider<MonitorProviderCfg>
+  {
+    @Override
+    public MonitorData getMonitorData()
+    {
+      final CSN oldestCSN = oldestChangeToIndex;
+      final MonitorData attributes = new MonitorData(3);
+      attributes.add("indexed-changes", indexedChanges.get());
+      attributes.add("missing-changes", Math.max(0, missingChanges.get()));
+      attributes.add("approximate-delay", oldestCSN != null ? Math.max(0, TimeThread.getTime() - oldestCSN.getTime()) : 0);
+      return attributes;
+    }
+
+    @Override
+    public String getMonitorInstanceName()
+    {
+      return "Change Number Indexer";
+    }
+
+    @Override
+    public void initializeMonitorProvider(MonitorProviderCfg configuration)
+        throws ConfigException, InitializationException
+    {
+      // Nothing to do for now
+    }
+  }
+
   /**
    * Asks the current thread to clear its state for the specified domain.
    * <p>
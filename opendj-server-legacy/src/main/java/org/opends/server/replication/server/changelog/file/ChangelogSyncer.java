@@ -0,0 +1,276 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.replication.server.changelog.file;
+
+import static org.opends.messages.ReplicationMessages.*;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import net.jcip.annotations.GuardedBy;
+
+import org.forgerock.i18n.slf4j.LocalizedLogger;
+import org.opends.server.api.DirectoryThread;
+import org.opends.server.replication.server.changelog.api.ChangelogException;
+
+/**
+ * Thread responsible for synchronizing the replica DBs with the file system
+ * (group commit).
+ * <p>
+ * Replica DBs are registered with this thread after changes have been added to
+ * them. The thread collects all the replica DBs registered during a time window
+ * and synchronizes them together, so that a single disk synchronization per
+ * replica DB covers all the changes added concurrently, whatever the number of
+ * replication domains and replicas.
+ * <p>
+ * When this thread waits for synchronization, a thread registering a replica DB is
+ * blocked until the batch containing it has been synchronized, hence the
+ * records it appended are guaranteed to be persisted when the registration
+ * returns. Otherwise, the registration returns immediately and the replica DBs are
+ * synchronized in the background.
+ */
+class ChangelogSyncer extends DirectoryThread
+{
+  private static final LocalizedLogger logger = LocalizedLogger.getLoggerForThisClass();
+
+  /** A set of replica DBs synchronized together. */
+  private static final class Batch
+  {
+    private final Set<FileReplicaDB> replicaDBs = Collections.newSetFromMap(new IdentityHashMap<FileReplicaDB, Boolean>());
+    private boolean done;
+    private ChangelogException failure;
+  }
+
+  /** Whether registering threads wait for the synchronization of their batch. */
+  private final boolean waitForSync;
+  /** Time window during which replica DBs are collected before being synchronized together. */
+  private final long intervalInMillis;
+
+  /** The batch currently collecting replica DBs. */
+  @GuardedBy("this")
+  private Batch currentBatch = new Batch();
+
+  /**
+   * Creates a new syncer.
+   *
+   * @param waitForSync
+   *          whether threads registering a replica DB must wait until it is
+   *          synchronized with the file system
+   * @param intervalInMillis
+   *          the time window during which replica DBs are collected before being
+   *          synchronized together. With a value of 0, the replica DBs are
+   *          synchronized as soon as the previous batch has been synchronized.
+   */
+  ChangelogSyncer(final boolean waitForSync, final long intervalInMillis)
+  {
+    super("Changelog DB syncer");
+    this.waitForSync = waitForSync;
+    this.intervalInMillis = intervalInMillis;
+  }
+
+  /**
+   * Returns whether threads registering a replica DB wait until it is synchronized.
+   *
+   * @return {@code true} if threads registering a replica DB wait until it is
+   *         synchronized, {@code false} otherwise
+   */
+  boolean isWaitingForSync()
+  {
+    return waitForSync;
+  }
+
+  /**
+   * Returns the time window during which replica DBs are collected before being
+   * synchronized together.
+   *
+   * @return the time window in milliseconds
+   */
+  long getIntervalInMillis()
+  {
+    return intervalInMillis;
+  }
+
+  /**
+   * Registers a replica DB to which changes have just been added, so it gets
+   * synchronized with the file system with the next batch.
+   * <p>
+   * If this syncer waits for synchronization, this method only returns once
+   * the replica DB has been synchronized.
+   *
+   * @param replicaDB
+   *          the replica DB to which changes have been added
+   * @throws ChangelogException
+   *           If the synchronization of the replica DB failed, or if the thread was
+   *           interrupted while waiting for the synchronization
+   */
+  void changesAdded(final FileReplicaDB replicaDB) throws ChangelogException
+  {
+    final Batch batch;
+    synchronized (this)
+    {
+      if (!isShutdownInitiated())
+      {
+        batch = currentBatch;
+        if (batch.replicaDBs.add(replicaDB) && batch.replicaDBs.size() == 1)
+        {
+          // wake up the syncer, other threads waiting on this monitor ignore it
+          notifyAll();
+        }
+        if (!waitForSync)
+        {
+          return;
+        }
+        waitUntilDone(batch);
+      }
+      else
+      {
+        batch = null;
+      }
+    }
+
+    if (batch == null)
+    {
+      // this syncer is stopping: do not delay the change
+      replicaDB.syncToFileSystem();
+    }
+    else if (batch.failure != null)
+    {
+      throw batch.failure;
+    }
+  }
+
+  @GuardedBy("this")
+  private void waitUntilDone(final Batch batch) throws ChangelogException
+  {
+    try
+    {
+      while (!batch.done)
+      {
+        wait();
+      }
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new ChangelogException(ERR_CHANGELOG_SYNC_INTERRUPTED.get(), e);
+    }
+  }
+
+  @Override
+  public void initiateShutdown()
+  {
+    super.initiateShutdown();
+    synchronized (this)
+    {
+      notifyAll();
+    }
+  }
+
+  @Override
+  public void run()
+  {
+    try
+    {
+      while (!isShutdownInitiated())
+      {
+        final Batch batch = waitForNextBatch();
+        if (batch != null)
+        {
+          sync(batch);
+        }
+      }
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+    }
+    finally
+    {
+      // synchronize the last changes and release the waiting threads
+      final Batch lastBatch;
+      synchronized (this)
+      {
+        lastBatch = currentBatch;
+        currentBatch = new Batch();
+      }
+      sync(lastBatch);
+    }
+  }
+
+  /**
+   * Waits for a replica DB to be registered, then for the time window to elapse, and
+   * returns the batch to synchronize.
+   *
+   * @return the batch to synchronize, or {@code null} if shutdown was initiated
+   */
+  private synchronized Batch waitForNextBatch() throws InterruptedException
+  {
+    while (currentBatch.replicaDBs.isEmpty())
+    {
+      if (isShutdownInitiated())
+      {
+        return null;
+      }
+      wait();
+    }
+    if (intervalInMillis > 0 && !isShutdownInitiated())
+    {
+      wait(intervalInMillis);
+    }
+    if (isShutdownInitiated())
+    {
+      // leave the batch for the final synchronization
+      return null;
+    }
+    final Batch batch = currentBatch;
+    currentBatch = new Batch();
+    return batch;
+  }
+
+  private void sync(final Batch batch)
+  {
+    ChangelogException failure = null;
+    for (FileReplicaDB replicaDB : batch.replicaDBs)
+    {
+      try
+      {
+        replicaDB.syncToFileSystem();
+      }
+      catch (ChangelogException e)
+      {
+        logger.traceException(e);
+        if (failure == null)
+        {
+          failure = e;
+        }
+      }
+    }
+
+    synchronized (this)
+    {
+      batch.failure = failure;
+      batch.done = true;
+      notifyAll();
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + "(waitForSync=" + waitForSync + ", intervalInMillis=" + intervalInMillis + ")";
+  }
+}
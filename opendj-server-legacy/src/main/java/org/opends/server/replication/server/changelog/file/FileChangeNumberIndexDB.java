@@ -18,6 +18,8 @@ package org.opends.server.replication.server.changelog.file;
 import static org.opends.messages.ReplicationMessages.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -170,6 +172,29 @@ class FileChangeNumberIndexDB implements ChangeNumberIndexDB
     return changeNumber;
   }
 
+  @Override
+  public long addRecords(final List<ChangeNumberIndexRecord> records) throws ChangelogException
+  {
+    final long firstChangeNumber = nextChangeNumbers(records.size());
+    final List<Record<Long, ChangeNumberIndexRecord>> newRecords = new ArrayList<>(records.size());
+    long changeNumber = firstChangeNumber;
+    for (ChangeNumberIndexRecord record : records)
+    {
+      final ChangeNumberIndexRecord newRecord =
+          new ChangeNumberIndexRecord(changeNumber++, record.getBaseDN(), record.getCSN());
+      newRecords.add(Record.from(newRecord.getChangeNumber(), newRecord));
+    }
+    log.append(newRecords);
+    newestChangeNumber = changeNumber - 1;
+
+    if (logger.isTraceEnabled())
+    {
+      logger.trace("In FileChangeNumberIndexDB.addRecords, added: " + newRecords.size() + " records from "
+          + firstChangeNumber);
+    }
+    return firstChangeNumber;
+  }
+
   /** {@inheritDoc} */
   @Override
   public ChangeNumberIndexRecord getOldestRecord() throws ChangelogException
@@ -185,11 +210,16 @@ class FileChangeNumberIndexDB implements ChangeNumberIndexDB
   }
 
   private long nextChangeNumber()
+  {
+    return nextChangeNumbers(1);
+  }
+
+  /** Reserves the provided number of consecutive change numbers and returns the first one. */
+  private long nextChangeNumbers(final int nbChangeNumbers)
   {
     resetCNisRunningLock.readLock().lock();
     try {
-      long lgcn = lastGeneratedChangeNumber.incrementAndGet();
-      return lgcn;
+      return lastGeneratedChangeNumber.addAndGet(nbChangeNumbers) - nbChangeNumbers + 1;
     }
     finally
     {
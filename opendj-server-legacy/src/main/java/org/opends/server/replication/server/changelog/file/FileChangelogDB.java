@@ -38,6 +38,7 @@ import org.forgerock.i18n.LocalizableMessageBuilder;
 import org.forgerock.i18n.slf4j.LocalizedLogger;
 import org.forgerock.opendj.config.DurationUnit;
 import org.forgerock.opendj.config.server.ConfigException;
+import org.forgerock.opendj.server.config.meta.ReplicationServerCfgDefn.ChangelogDurability;
 import org.forgerock.util.Pair;
 import org.forgerock.util.time.TimeService;
 import org.opends.server.api.DirectoryThread;
@@ -109,6 +110,9 @@ public class FileChangelogDB implements ChangelogDB, ReplicationDomainDB
   private volatile long purgeDelayInMillis;
   private final AtomicReference<ChangelogDBPurger> cnPurger = new AtomicReference<>();
 
+  /** Synchronizes the replica DBs with the disk, {@code null} if left to the operating system. */
+  private final AtomicReference<ChangelogSyncer> syncer = new AtomicReference<>();
+
   /** The local replication server. */
   private final ReplicationServer replicationServer;
   private final AtomicBoolean shutdown = new AtomicBoolean();
@@ -290,6 +294,7 @@ public class FileChangelogDB implements ChangelogDB, ReplicationDomainDB
         startIndexer();
       }
       setPurgeDelay(replicationServer.getPurgeDelay());
+      setChangelogDurability(replicationServer.getChangelogDurability(), replicationServer.getChangelogSyncInterval());
     }
     catch (ChangelogException e)
     {
@@ -334,6 +339,7 @@ public class FileChangelogDB implements ChangelogDB, ReplicationDomainDB
     }
 
     shutdownCNIndexerAndPurger();
+    shutdownSyncer();
 
     // Remember the first exception because :
     // - we want to try to remove everything we want to remove
@@ -405,6 +411,23 @@ public class FileChangelogDB implements ChangelogDB, ReplicationDomainDB
     }
   }
 
+  private void shutdownSyncer()
+  {
+    final ChangelogSyncer syncerToStop = syncer.getAndSet(null);
+    if (syncerToStop != null)
+    {
+      syncerToStop.initiateShutdown();
+      try
+      {
+        syncerToStop.join();
+      }
+      catch (InterruptedException e)
+      {
+        // do nothing: we are already shutting down
+      }
+    }
+  }
+
   /**
    * Clears all records from the changelog (does not remove the changelog itself).
    *
@@ -615,6 +638,22 @@ public class FileChangelogDB implements ChangelogDB, ReplicationDomainDB
     }
   }
 
+  @Override
+  public void setChangelogDurability(final ChangelogDurability durability, final long syncIntervalInMillis)
+  {
+    ChangelogSyncer newSyncer = null;
+    if (durability != ChangelogDurability.OS_MANAGED && !shutdown.get())
+    {
+      newSyncer = new ChangelogSyncer(durability == ChangelogDurability.SYNC_PER_BATCH, syncIntervalInMillis);
+      newSyncer.start();
+    }
+    final ChangelogSyncer syncerToStop = syncer.getAndSet(newSyncer);
+    if (syncerToStop != null)
+    { // its pending batch is synchronized before it stops
+      syncerToStop.initiateShutdown();
+    }
+  }
+
   void resetChangeNumberIndex(long newFirstCN, DN baseDN, CSN newFirstCSN) throws ChangelogException
   {
     if (!replicationServer.isChangeNumberEnabled())
@@ -810,6 +849,13 @@ public class FileChangelogDB implements ChangelogDB, ReplicationDomainDB
     final FileReplicaDB replicaDB = pair.getFirst();
     replicaDB.add(updateMsg);
 
+    final ChangelogSyncer currentSyncer = syncer.get();
+    if (currentSyncer != null)
+    {
+      // depending on the durability, wait until the change is on disk
+      currentSyncer.changesAdded(replicaDB);
+    }
+
     ChangelogBackend.getInstance().notifyCookieEntryAdded(baseDN, updateMsg);
 
     final ChangeNumberIndexer indexer = cnIndexer.get();
@@ -168,6 +168,19 @@ class FileReplicaDB
     }
   }
 
+  /**
+   * Synchronizes the changes added to this DB with the file system.
+   * <p>
+   * Changes can be added concurrently. Nothing is done if this DB is shut down.
+   *
+   * @throws ChangelogException
+   *           If the synchronization fails.
+   */
+  void syncToFileSystem() throws ChangelogException
+  {
+    log.syncToFileSystem();
+  }
+
   /**
    * Get the oldest CSN that has not been purged yet.
    *
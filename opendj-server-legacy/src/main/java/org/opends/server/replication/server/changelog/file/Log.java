@@ -465,6 +465,54 @@ final class Log<K extends Comparable<K>, V> implements Closeable
     }
   }
 
+  /**
+   * Add the provided records at the end of this log, in order.
+   * <p>
+   * The records are written to the head log file at once, unless it must be
+   * rotated first, in which case they are appended one by one. The size limit
+   * of a log file can be exceeded by the size of one batch.
+   * <p>
+   * In order to ensure that records are written out of buffers and persisted
+   * to file system, it is necessary to explicitly call the
+   * {@code syncToFileSystem()} method.
+   *
+   * @param records
+   *          The records to add, each with a key strictly higher than the key
+   *          of the record before it. Records not respecting the key ordering
+   *          are not appended.
+   * @throws ChangelogException
+   *           If an error occurs while adding the records to the log.
+   * @see #append(Record)
+   */
+  public void append(final List<Record<K, V>> records) throws ChangelogException
+  {
+    // Fast-path - assume that no rotation is needed and use shared lock.
+    sharedLock.lock();
+    try
+    {
+      if (isClosed)
+      {
+        return;
+      }
+      final LogFile<K, V> headLogFile = getHeadLogFile();
+      if (!mustRotate(headLogFile))
+      {
+        headLogFile.append(records);
+        return;
+      }
+    }
+    finally
+    {
+      sharedLock.unlock();
+    }
+
+    // Slow-path - rotation is needed, which the single record append takes care of
+    for (Record<K, V> record : records)
+    {
+      append(record);
+    }
+  }
+
   private boolean mustRotate(LogFile<K, V> headLogFile)
   {
     if (headLogFile.getNewestRecord() == null)
@@ -499,20 +547,27 @@ final class Log<K extends Comparable<K>, V> implements Closeable
    * <p>
    * After a successful call to this method, it is guaranteed that all records
    * added to the log are persisted to the file system.
+   * <p>
+   * Records can be appended concurrently to the synchronization. Records of
+   * previous head log files were already synchronized by the rotation.
    *
    * @throws ChangelogException
    *           If the synchronization fails.
    */
   public void syncToFileSystem() throws ChangelogException
   {
-    exclusiveLock.lock();
+    sharedLock.lock();
     try
     {
+      if (isClosed)
+      {
+        return;
+      }
       getHeadLogFile().syncToFileSystem();
     }
     finally
     {
-      exclusiveLock.unlock();
+      sharedLock.unlock();
     }
   }
 
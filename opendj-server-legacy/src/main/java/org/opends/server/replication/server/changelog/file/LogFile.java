@@ -23,6 +23,8 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -36,6 +38,8 @@ import org.opends.server.replication.server.changelog.api.DBCursor;
 import org.opends.server.replication.server.changelog.file.Log.RepositionableCursor;
 import org.opends.server.util.StaticUtils;
 
+import com.forgerock.opendj.util.OperatingSystem;
+
 /**
  * A log file, containing part of a {@code Log}. The log file may be:
  * <ul>
@@ -46,6 +50,11 @@ import org.opends.server.util.StaticUtils;
  * <p>
  * A log file is NOT intended to be used directly, but only has part of a
  * {@link Log}.
+ * <p>
+ * A read-only log file is read from a memory mapping of the file (except on
+ * Windows, where a mapped file cannot be deleted until it is unmapped). Cursors
+ * are positioned on a key using a sparse in-memory index of the keys of the file,
+ * built on first positioning, instead of a binary search on blocks.
  *
  * @param <K>
  *          Type of the key of a record, which must be comparable.
@@ -84,6 +93,12 @@ final class LogFile<K extends Comparable<K>, V> implements Closeable
    */
   private Record<K, V> newestRecord;
 
+  /**
+   * Sparse index of keys, only used for read-only log files. It is lazily built
+   * on first positioning of a cursor.
+   */
+  private volatile LogFileKeyIndex<K> keyIndex;
+
   /**
    * Creates a new log file.
    *
@@ -108,7 +123,7 @@ final class LogFile<K extends Comparable<K>, V> implements Closeable
     sharedLock = rwLock.readLock();
     createLogFileIfNotExists();
 
-    readerPool = new LogReaderPool<>(logfile, parser);
+    readerPool = new LogReaderPool<>(logfile, parser, !isWriteEnabled && !OperatingSystem.isWindows());
     if (isWriteEnabled)
     {
       ensureLogFileIsValid(parser);
@@ -264,14 +279,58 @@ final class LogFile<K extends Comparable<K>, V> implements Closeable
     }
   }
 
+  /**
+   * Add the provided records at the end of this log, in order.
+   * <p>
+   * The records which do not have a key strictly higher than the key of the
+   * record appended before them are not appended.
+   *
+   * @param records
+   *          The records to add.
+   * @throws ChangelogException
+   *           If the records can't be added to the log.
+   */
+  void append(final List<Record<K, V>> records) throws ChangelogException
+  {
+    checkLogIsEnabledForWrite();
+    exclusiveLock.lock();
+    try
+    {
+      final List<Record<K, V>> toWrite = new ArrayList<>(records.size());
+      Record<K, V> newest = newestRecord;
+      for (Record<K, V> record : records)
+      {
+        if (!wouldBreakKeyOrdering(record, newest))
+        {
+          toWrite.add(record);
+          newest = record;
+        }
+      }
+      if (!toWrite.isEmpty())
+      {
+        writer.write(toWrite);
+        newestRecord = newest;
+      }
+    }
+    finally
+    {
+      exclusiveLock.unlock();
+    }
+  }
+
   /** Indicates if the provided record has a key that would break the key ordering if appended in this file log. */
   boolean appendWouldBreakKeyOrdering(final Record<K, V> record)
   {
-    boolean wouldBreakOrder = newestRecord != null && record.getKey().compareTo(newestRecord.getKey()) <= 0;
+    return wouldBreakKeyOrdering(record, newestRecord);
+  }
+
+  private boolean wouldBreakKeyOrdering(final Record<K, V> record, final Record<K, V> newest)
+  {
+    boolean wouldBreakOrder = newest != null && record.getKey().compareTo(newest.getKey()) <= 0;
     if (wouldBreakOrder)
     {
       logger.debug(
-          INFO_CHANGELOG_FILTER_OUT_RECORD_BREAKING_ORDER.get(logfile.getPath(), record, newestRecord.getKey()));
+          INFO_CHANGELOG_FILTER_OUT_RECORD_BREAKING_ORDER.get(logfile.getPath(), record, newest.getKey()));
     }
     return wouldBreakOrder;
   }
@@ -509,6 +568,36 @@ final class LogFile<K extends Comparable<K>, V> implements Closeable
     readerPool.release(reader);
   }
 
+  /**
+   * Returns the sparse index of keys of this read-only log file, building it if needed.
+   * <p>
+   * Assumes that calling methods ensure that log is not closed.
+   */
+  private LogFileKeyIndex<K> getKeyIndex() throws ChangelogException
+  {
+    LogFileKeyIndex<K> index = keyIndex;
+    if (index == null)
+    {
+      synchronized (this)
+      {
+        index = keyIndex;
+        if (index == null)
+        {
+          final BlockLogReader<K, V> reader = getReader();
+          try
+          {
+            index = keyIndex = LogFileKeyIndex.build(reader, LogFileKeyIndex.DEFAULT_INTERVAL);
+          }
+          finally
+          {
+            releaseReader(reader);
+          }
+        }
+      }
+    }
+    return index;
+  }
+
   /** {@inheritDoc} */
   @Override
   public int hashCode()
@@ -631,7 +720,10 @@ final class LogFile<K extends Comparable<K>, V> implements Closeable
       logFile.sharedLock.lock();
       try
       {
-        result = reader.seekToRecord(key, match, pos);
+        // a read-only log file never changes, so its index of keys can be used
+        result = logFile.isWriteEnabled
+            ? reader.seekToRecord(key, match, pos)
+            : reader.seekToRecord(logFile.getKeyIndex(), key, match, pos);
       }
       finally
       {
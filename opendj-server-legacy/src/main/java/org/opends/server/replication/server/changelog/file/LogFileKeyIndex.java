@@ -0,0 +1,139 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.replication.server.changelog.file;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.opends.server.replication.server.changelog.api.ChangelogException;
+
+/**
+ * A sparse in-memory index of the keys of a read-only log file.
+ * <p>
+ * The index contains the key and the file position of one record every
+ * {@code interval} records, always including the first record of the file.
+ * It allows to position a reader close to any key with a single binary search in
+ * memory, instead of reading records from the file at each step of a binary search
+ * on blocks.
+ * <p>
+ * The index is immutable once built and can be shared by all the readers of the log file.
+ *
+ * @param <K>
+ *          Type of the key of a record, which must be comparable.
+ */
+final class LogFileKeyIndex<K extends Comparable<K>>
+{
+  /** Number of records between two consecutive entries of the index. */
+  static final int DEFAULT_INTERVAL = 16;
+
+  /** Indexed keys, in ascending order. */
+  private final List<K> keys;
+
+  /** File position of the record with the key at the same index in {@code keys}. */
+  private final long[] positions;
+
+  private LogFileKeyIndex(final List<K> keys, final long[] positions)
+  {
+    this.keys = keys;
+    this.positions = positions;
+  }
+
+  /**
+   * Builds the index by reading sequentially all the records of the log file from the provided reader.
+   *
+   * @param <K>
+   *          Type of the key of a record, which must be comparable.
+   * @param <V>
+   *          Type of the value of a record.
+   * @param reader
+   *          The reader on the log file, which must be positioned at the start of the file.
+   * @param interval
+   *          The number of records between two consecutive entries of the index.
+   * @return the index of the log file
+   * @throws ChangelogException
+   *           If an error occurs while reading the log file
+   */
+  static <K extends Comparable<K>, V> LogFileKeyIndex<K> build(final BlockLogReader<K, V> reader, final int interval)
+      throws ChangelogException
+  {
+    final List<K> keys = new ArrayList<>();
+    long[] positions = new long[16];
+    long position = reader.getFilePosition();
+    long nbRecords = 0;
+    for (Record<K, V> record = reader.readRecord(); record != null; record = reader.readRecord())
+    {
+      if (nbRecords % interval == 0)
+      {
+        if (keys.size() == positions.length)
+        {
+          positions = Arrays.copyOf(positions, positions.length * 2);
+        }
+        positions[keys.size()] = position;
+        keys.add(record.getKey());
+      }
+      nbRecords++;
+      position = reader.getFilePosition();
+    }
+    return new LogFileKeyIndex<>(keys, Arrays.copyOf(positions, keys.size()));
+  }
+
+  /**
+   * Returns the file position of the closest indexed record which has a key lower
+   * than or equal to the provided key.
+   *
+   * @param key
+   *          The key to search.
+   * @return the file position of the record, or the start of the file if all
+   *         the keys of the log file are higher than the provided key
+   */
+  long getPositionOfClosestRecordBeforeOrAtKey(final K key)
+  {
+    int low = 0;
+    int high = keys.size() - 1;
+    int found = -1;
+    while (low <= high)
+    {
+      final int middle = (low + high) >>> 1;
+      if (keys.get(middle).compareTo(key) <= 0)
+      {
+        found = middle;
+        low = middle + 1;
+      }
+      else
+      {
+        high = middle - 1;
+      }
+    }
+    return found != -1 ? positions[found] : 0L;
+  }
+
+  /**
+   * Returns the number of entries in this index.
+   *
+   * @return the number of entries
+   */
+  int size()
+  {
+    return keys.size();
+  }
+
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " [size=" + keys.size() + "]";
+  }
+}
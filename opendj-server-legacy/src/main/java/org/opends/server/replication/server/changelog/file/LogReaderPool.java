@@ -17,6 +17,9 @@ package org.opends.server.replication.server.changelog.file;
 
 import java.io.File;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 
 import org.opends.server.replication.server.changelog.api.ChangelogException;
 import org.opends.server.util.StaticUtils;
@@ -25,7 +28,11 @@ import static org.opends.messages.ReplicationMessages.*;
 
 /**
  * A Pool of readers to a log file.
-
+ * <p>
+ * When the pool is memory-mapped, the log file is mapped once in read-only mode
+ * and all the readers obtained from the pool read from this mapping, without
+ * opening a file handle. This must only be used for log files that are not
+ * written any more, as the mapping is not extended when the file grows.
  *
  * @param <K>
  *          Type of the key of a record, which must be comparable.
@@ -40,6 +47,12 @@ class LogReaderPool<K extends Comparable<K>, V>
 
   private final RecordParser<K, V> parser;
 
+  /** Indicates if readers read from a memory mapping of the file. */
+  private final boolean isMemoryMapped;
+
+  /** The read-only mapping of the whole file, lazily created on first request of a reader. */
+  private volatile ByteBuffer mapping;
+
   /**
    * Creates a pool of readers for provided file.
    *
@@ -49,9 +62,26 @@ class LogReaderPool<K extends Comparable<K>, V>
    *          The parser to decode the records read.
    */
   LogReaderPool(File file, RecordParser<K, V> parser)
+  {
+    this(file, parser, false);
+  }
+
+  /**
+   * Creates a pool of readers for provided file.
+   *
+   * @param file
+   *          The file to read.
+   * @param parser
+   *          The parser to decode the records read.
+   * @param isMemoryMapped
+   *          {@code true} if the readers must read from a memory mapping of
+   *          the file, which is only allowed if the file is read-only.
+   */
+  LogReaderPool(File file, RecordParser<K, V> parser, boolean isMemoryMapped)
   {
     this.file = file;
     this.parser = parser;
+    this.isMemoryMapped = isMemoryMapped;
   }
 
   /**
@@ -66,6 +96,10 @@ class LogReaderPool<K extends Comparable<K>, V>
    */
   BlockLogReader<K, V> get() throws ChangelogException
   {
+    if (isMemoryMapped)
+    {
+      return BlockLogReader.newMappedReader(file, getMapping(), parser);
+    }
     return getReader(file);
   }
 
@@ -96,13 +130,47 @@ class LogReaderPool<K extends Comparable<K>, V>
     }
   }
 
+  /** Returns the read-only mapping of the file, creating it if needed. */
+  private ByteBuffer getMapping() throws ChangelogException
+  {
+    ByteBuffer result = mapping;
+    if (result == null)
+    {
+      synchronized (this)
+      {
+        result = mapping;
+        if (result == null)
+        {
+          result = mapping = mapFile();
+        }
+      }
+    }
+    return result;
+  }
+
+  private ByteBuffer mapFile() throws ChangelogException
+  {
+    // The mapping stays valid after the channel is closed
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+         FileChannel channel = raf.getChannel())
+    {
+      return channel.map(MapMode.READ_ONLY, 0, channel.size());
+    }
+    catch (Exception e)
+    {
+      throw new ChangelogException(ERR_CHANGELOG_UNABLE_TO_OPEN_READER_ON_LOG_FILE.get(file.getPath()), e);
+    }
+  }
+
   /**
    * Shutdown this pool, releasing all files handles opened
    * on the file.
    */
   void shutdown()
   {
-    // Nothing to do yet as no file handle is kept opened.
+    // No file handle is kept opened. Dropping the mapping allows the JVM to unmap
+    // the file once the readers still using it have been released.
+    mapping = null;
   }
 
 }
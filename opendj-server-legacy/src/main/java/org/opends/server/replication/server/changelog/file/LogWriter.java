@@ -15,6 +15,7 @@
  */
 package org.opends.server.replication.server.changelog.file;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileDescriptor;
 import java.io.FileOutputStream;
@@ -34,10 +35,18 @@ import static org.opends.messages.ReplicationMessages.*;
  */
 class LogWriter extends OutputStream
 {
+  /** Size of the buffer holding the bytes written until the writer is flushed. */
+  private static final int BUFFER_SIZE = 64 * 1024;
+
   /** The file to write in. */
   private final File file;
 
-  /** The stream to write data in the file, capable of counting bytes written. */
+  /**
+   * The stream to write data in the file, capable of counting bytes written.
+   * <p>
+   * Data is buffered until the writer is flushed, so that a record, or a batch
+   * of records, is written to the file in a single call.
+   */
   private final MeteredStream stream;
 
   /** The file descriptor on the file. */
@@ -57,7 +66,7 @@ class LogWriter extends OutputStream
     try
     {
       FileOutputStream fos = new FileOutputStream(file, true);
-      this.stream = new MeteredStream(fos, file.length());
+      this.stream = new MeteredStream(new BufferedOutputStream(fos, BUFFER_SIZE), file.length());
       this.fileDescriptor = fos.getFD();
     }
     catch (Exception e)
@@ -111,6 +120,13 @@ class LogWriter extends OutputStream
     bs.copyTo(stream);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public void flush() throws IOException
+  {
+    stream.flush();
+  }
+
   /**
    * Returns the number of bytes written in the underlying file.
    *
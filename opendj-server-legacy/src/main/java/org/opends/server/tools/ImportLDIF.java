@@ -44,6 +44,7 @@ import org.opends.server.api.plugin.PluginType;
 import org.opends.server.core.DirectoryServer;
 import org.opends.server.core.DirectoryServer.InitializationBuilder;
 import org.opends.server.core.LockFileManager;
+import org.opends.server.extensions.DynamicGroup;
 import org.opends.server.loggers.JDKLogging;
 import org.opends.server.protocols.ldap.LDAPAttribute;
 import org.opends.server.tasks.ImportTask;
@@ -845,6 +846,9 @@ public class ImportLDIF extends TaskTool {
       return 1;
     }
 
+    // The members saved by the dynamic groups may not match the imported entries.
+    DynamicGroup.deleteSavedMaterializedMembers(DirectoryServer.getInstance().getServerContext());
+
     // Launch the import.
     int retCode = 0;
     try
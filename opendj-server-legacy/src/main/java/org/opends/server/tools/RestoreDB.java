@@ -40,6 +40,7 @@ import org.opends.server.api.LocalBackend;
 import org.opends.server.api.LocalBackend.BackendOperation;
 import org.opends.server.core.DirectoryServer;
 import org.opends.server.core.LockFileManager;
+import org.opends.server.extensions.DynamicGroup;
 import org.opends.server.loggers.JDKLogging;
 import org.opends.server.protocols.ldap.LDAPAttribute;
 import org.opends.server.tasks.RestoreTask;
@@ -449,6 +450,12 @@ public class RestoreDB extends TaskTool {
     }
 
 
+    // The members saved by the dynamic groups may not match the restored entries.
+    if (!verifyOnly.isPresent())
+    {
+      DynamicGroup.deleteSavedMaterializedMembers(DirectoryServer.getInstance().getServerContext());
+    }
+
     // Perform the restore.
     try
     {
@@ -131,6 +131,8 @@ public abstract class AbstractOperation
   private long processingStartTime;
   /** The time that processing ended on this operation in milliseconds. */
   private long processingStopTime;
+  /** The time that this operation was created in nanoseconds. */
+  private final long creationNanoTime = System.nanoTime();
   /** The time that processing started on this operation in nanoseconds. */
   private long processingStartNanoTime;
   /** The time that processing ended on this operation in nanoseconds. */
@@ -579,10 +581,8 @@ public abstract class AbstractOperation
   public final void setProcessingStartTime()
   {
     processingStartTime = System.currentTimeMillis();
-    if(useNanoTime)
-    {
-      processingStartNanoTime = System.nanoTime();
-    }
+    // Always needed for the queueing time
+    processingStartNanoTime = System.nanoTime();
   }
 
   @Override
@@ -599,10 +599,8 @@ public abstract class AbstractOperation
   public final void setProcessingStopTime()
   {
     this.processingStopTime = System.currentTimeMillis();
-    if(useNanoTime)
-    {
-      this.processingStopNanoTime = System.nanoTime();
-    }
+    // Always needed for the latency histograms
+    this.processingStopNanoTime = System.nanoTime();
   }
 
   @Override
@@ -616,11 +614,23 @@ public abstract class AbstractOperation
   {
     if(useNanoTime)
     {
-      return processingStopNanoTime - processingStartNanoTime;
+      return getPreciseProcessingNanoTime();
     }
     return -1;
   }
 
+  @Override
+  public final long getPreciseProcessingNanoTime()
+  {
+    return processingStopNanoTime - processingStartNanoTime;
+  }
+
+  @Override
+  public final long getQueueingNanoTime()
+  {
+    return processingStartNanoTime - creationNanoTime;
+  }
+
   @Override
   public final void registerPostResponseCallback(Runnable callback)
   {
@@ -555,6 +555,28 @@ public interface Operation extends Runnable
    */
   long getProcessingNanoTime();
 
+  /**
+   * Retrieves the length of time in nanoseconds that the server spent
+   * processing this operation, whatever the resolution configured for
+   * the etime. This should not be called until after the server has
+   * sent the response to the client.
+   *
+   * @return  The length of time in nanoseconds that the server spent
+   *          processing this operation.
+   */
+  long getPreciseProcessingNanoTime();
+
+  /**
+   * Retrieves the length of time in nanoseconds that this operation
+   * waited between its creation and the start of its processing, which
+   * is mostly the time spent in the work queue. This should not be
+   * called until the processing of this operation has started.
+   *
+   * @return  The length of time in nanoseconds that this operation
+   *          waited before being processed.
+   */
+  long getQueueingNanoTime();
+
   /**
    * Indicates that processing on this operation has completed
    * successfully and that the client should perform any associated
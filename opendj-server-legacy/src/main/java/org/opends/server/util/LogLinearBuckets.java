@@ -0,0 +1,134 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.util;
+
+import org.forgerock.util.Reject;
+
+/**
+ * The buckets of a log-linear histogram, in the manner of HDR histograms.
+ * <p>
+ * Values below {@code 2^precisionBits} each have their own bucket. Above, each
+ * power of two is split into {@code 2^precisionBits} buckets of the same
+ * width, so that a value is known from its bucket within a relative error of
+ * {@code 2^-precisionBits}. Negative values are counted as zero, and values
+ * above the highest value as the highest value.
+ * <p>
+ * Instances are immutable and only compute bucket indexes: the counts are kept
+ * by the histograms, which can then choose how to share them between threads.
+ */
+public final class LogLinearBuckets
+{
+  private final int precisionBits;
+  private final int subBuckets;
+  private final long highestValue;
+  private final int nbBuckets;
+
+  /**
+   * Creates the buckets of a log-linear histogram.
+   *
+   * @param precisionBits
+   *          the number of bits of precision of the values, between 1 and 16
+   * @param highestValue
+   *          the highest value which can be counted
+   */
+  public LogLinearBuckets(int precisionBits, long highestValue)
+  {
+    Reject.ifFalse(1 <= precisionBits && precisionBits <= 16, "precisionBits must be between 1 and 16");
+    Reject.ifFalse(highestValue > 0, "highestValue must be positive");
+    this.precisionBits = precisionBits;
+    this.subBuckets = 1 << precisionBits;
+    this.highestValue = highestValue;
+    this.nbBuckets = bucketOf(highestValue) + 1;
+  }
+
+  /**
+   * Returns the number of buckets.
+   *
+   * @return the number of buckets
+   */
+  public int getNbBuckets()
+  {
+    return nbBuckets;
+  }
+
+  /**
+   * Returns the highest value which can be counted.
+   *
+   * @return the highest value which can be counted
+   */
+  public long getHighestValue()
+  {
+    return highestValue;
+  }
+
+  /**
+   * Returns the bucket counting the provided value.
+   *
+   * @param value
+   *          the value
+   * @return the index of the bucket counting the provided value
+   */
+  public int bucketOf(long value)
+  {
+    final long v = Math.min(Math.max(value, 0), highestValue);
+    if (v < subBuckets)
+    {
+      return (int) v;
+    }
+    final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(v);
+    final int subBucket = (int) (v >>> (exponent - precisionBits)) & (subBuckets - 1);
+    return subBuckets + ((exponent - precisionBits) << precisionBits) + subBucket;
+  }
+
+  /**
+   * Returns the lowest value counted in a bucket.
+   *
+   * @param bucket
+   *          the index of the bucket
+   * @return the lowest value counted in the bucket
+   */
+  public long lowestValueOf(int bucket)
+  {
+    if (bucket < subBuckets)
+    {
+      return bucket;
+    }
+    final int exponent = exponentOf(bucket);
+    final long subBucket = (bucket - subBuckets) & (subBuckets - 1);
+    return (1L << exponent) + (subBucket << (exponent - precisionBits));
+  }
+
+  /**
+   * Returns the highest value counted in a bucket.
+   *
+   * @param bucket
+   *          the index of the bucket
+   * @return the highest value counted in the bucket
+   */
+  public long highestValueOf(int bucket)
+  {
+    if (bucket < subBuckets)
+    {
+      return bucket;
+    }
+    return Math.min(lowestValueOf(bucket) + (1L << (exponentOf(bucket) - precisionBits)) - 1, highestValue);
+  }
+
+  private int exponentOf(int bucket)
+  {
+    return ((bucket - subBuckets) >> precisionBits) + precisionBits;
+  }
+}
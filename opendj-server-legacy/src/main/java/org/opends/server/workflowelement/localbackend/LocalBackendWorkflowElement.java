@@ -44,6 +44,8 @@ import org.opends.server.core.DirectoryServer;
 import org.opends.server.core.ModifyDNOperation;
 import org.opends.server.core.ModifyOperation;
 import org.opends.server.core.SearchOperation;
+import org.opends.server.monitors.LocalBackendMonitor;
+import org.opends.server.monitors.OperationLatencies.Phase;
 import org.opends.server.types.AbstractOperation;
 import org.opends.server.types.AdditionalLogItem;
 import org.opends.server.types.CanceledOperationException;
@@ -740,7 +742,15 @@ public class LocalBackendWorkflowElement
       return false;
     }
 
-    executeOperation(operation, backend);
+    final long startTime = System.nanoTime();
+    try
+    {
+      executeOperation(operation, backend);
+    }
+    finally
+    {
+      updateOperationLatencies(operation, backend, System.nanoTime() - startTime);
+    }
 
     // For subtree search operation we need to go through the subordinate nodes.
     if (operation.getOperationType() == OperationType.SEARCH)
@@ -750,6 +760,16 @@ public class LocalBackendWorkflowElement
     return true;
   }
 
+  private static void updateOperationLatencies(Operation operation, LocalBackend<?> backend, long backendTime)
+  {
+    DirectoryServer.getOperationLatencies().record(operation, Phase.BACKEND, backendTime);
+    final LocalBackendMonitor monitor = backend.getBackendMonitor();
+    if (monitor != null)
+    {
+      monitor.getOperationLatencies().record(operation, Phase.BACKEND, backendTime);
+    }
+  }
+
   private static BackendConfigManager getBackendManager()
   {
     return DirectoryServer.getInstance().getServerContext().getBackendConfigManager();
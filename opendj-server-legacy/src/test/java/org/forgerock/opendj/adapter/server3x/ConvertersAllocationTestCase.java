@@ -0,0 +1,129 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.opendj.adapter.server3x;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.forgerock.opendj.adapter.server3x.Converters.*;
+
+import java.lang.management.ManagementFactory;
+
+import org.forgerock.opendj.ldap.Filter;
+import org.opends.server.DirectoryServerTestCase;
+import org.opends.server.TestCaseUtils;
+import org.opends.server.protocols.ldap.LDAPMessage;
+import org.opends.server.protocols.ldap.SearchResultEntryProtocolOp;
+import org.opends.server.types.SearchFilter;
+import org.opends.server.types.SearchResultEntry;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Compares the memory allocated by the conversions performed for each request and each entry returned to the
+ * in-process HTTP clients, before and after they were optimized.
+ */
+@SuppressWarnings("javadoc")
+@Test(sequential = true)
+public class ConvertersAllocationTestCase extends DirectoryServerTestCase {
+    private static final int ITERATIONS = 20000;
+    private static final String FILTER =
+        "(&(objectClass=inetOrgPerson)(|(uid=user.1*)(mail=user.1@example.com))(!(description=*)))";
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+    /** Keeps the converted objects reachable so that their allocation cannot be optimized away. */
+    private long blackHole;
+
+    @BeforeClass
+    public void startServer() throws Exception {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            throw new SkipException("Measuring the memory allocated by a thread is not supported by this JVM");
+        }
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        TestCaseUtils.startServer();
+    }
+
+    @Test
+    public void testSearchFilterAllocations() throws Exception {
+        final Filter filter = Filter.valueOf(FILTER);
+        final long legacyBytes = allocatedBytesPerIteration(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blackHole += SearchFilter.createFilterFromString(filter.toString()).hashCode();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        final long directBytes = allocatedBytesPerIteration(new Runnable() {
+            @Override
+            public void run() {
+                blackHole += toSearchFilter(filter).hashCode();
+            }
+        });
+
+        assertThat(directBytes).isLessThan(legacyBytes);
+    }
+
+    @Test
+    public void testSearchResultEntryAllocations() throws Exception {
+        final SearchResultEntry entry = new SearchResultEntry(TestCaseUtils.makeEntry(
+            "dn: uid=user.1,ou=People,dc=example,dc=com",
+            "objectClass: top",
+            "objectClass: person",
+            "objectClass: organizationalPerson",
+            "objectClass: inetOrgPerson",
+            "uid: user.1",
+            "cn: Aaccf Amar",
+            "sn: Amar",
+            "givenName: Aaccf",
+            "mail: user.1@example.com",
+            "telephoneNumber: +1 685 622 6202",
+            "employeeNumber: 1",
+            "description: This is the description for Aaccf Amar."));
+        final long legacyBytes = allocatedBytesPerIteration(new Runnable() {
+            @Override
+            public void run() {
+                // The entry was copied, then copied again to update the statistics
+                blackHole += from(entry).getAttributeCount();
+                blackHole += new LDAPMessage(1, new SearchResultEntryProtocolOp(entry)).getMessageID();
+            }
+        });
+        final long directBytes = allocatedBytesPerIteration(new Runnable() {
+            @Override
+            public void run() {
+                blackHole += wrap(entry).getAttributeCount();
+            }
+        });
+
+        assertThat(directBytes).isLessThan(legacyBytes);
+    }
+
+    private long allocatedBytesPerIteration(Runnable conversion) {
+        // Warm up, so that the conversion is measured once compiled
+        for (int i = 0; i < ITERATIONS; i++) {
+            conversion.run();
+        }
+        final long threadId = Thread.currentThread().getId();
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            conversion.run();
+        }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+    }
+}
@@ -69,6 +69,7 @@ import org.opends.server.types.DirectoryException;
 import org.opends.server.types.FilterType;
 import org.opends.server.types.LDAPException;
 import org.opends.server.types.Operation;
+import org.opends.server.types.SearchFilter;
 import org.opends.server.types.SearchResultEntry;
 import org.opends.server.types.SearchResultReference;
 import org.opends.server.util.CollectionUtils;
@@ -414,6 +415,66 @@ public class ConvertersTestCase extends DirectoryServerTestCase {
         assertThat(sdkAttribute.firstValueAsString()).isEqualTo("JOHN DOE");
     }
 
+    @DataProvider
+    public Object[][] filters() {
+        return new Object[][] {
+            { "(cn=John Doe)" },
+            { "(CommonName=John Doe)" },
+            { "(cn;lang-fr=Jean)" },
+            { "(cn=)" },
+            { "(!(cn=*))" },
+            { "(&(objectClass=person)(|(uid=jdoe)(mail=j*doe@example.com)))" },
+            { "(cn=*a*b*)" },
+            { "(description>=b)" },
+            { "(description<=b)" },
+            { "(cn~=jon)" },
+            { "(&)" },
+            { "(|)" },
+            { "(cn:caseExactMatch:=John Doe)" },
+            { "(unknownAttribute=value)" },
+        };
+    }
+
+    /** Converts an SDK filter to a server search filter without going through its string representation. */
+    @Test(groups = { "needRunningServer" }, dataProvider = "filters")
+    public final void testToSearchFilter(String filter) throws Exception {
+        final SearchFilter expected = SearchFilter.createFilterFromString(filter);
+        final SearchFilter searchFilter = toSearchFilter(Filter.valueOf(filter));
+
+        assertThat(searchFilter).isEqualTo(expected);
+        assertThat(searchFilter.toString()).isEqualTo(expected.toString());
+    }
+
+    /** Converts a server search result entry to an SDK entry without copying its attributes. */
+    @Test(groups = { "needRunningServer" })
+    public final void testWrapSearchResultEntry() throws Exception {
+        final SearchResultEntry srvEntry = new SearchResultEntry(TestCaseUtils.makeEntry(
+            "dn: uid=scarter,ou=People,dc=example,dc=com",
+            "objectClass: top",
+            "objectClass: person",
+            "uid: scarter",
+            "cn: Sam Carter",
+            "sn: Carter",
+            "description: one",
+            "description: two"));
+        final org.forgerock.opendj.ldap.responses.SearchResultEntry sdkEntry = wrap(srvEntry);
+
+        assertThat((Object) sdkEntry.getName()).isSameAs(srvEntry.getName());
+        assertThat((Object) sdkEntry).isEqualTo(from(srvEntry));
+        assertThat(sdkEntry.getAttribute("description").contains("ONE")).isTrue();
+
+        // Modifying the SDK entry must not modify the server entry
+        sdkEntry.getAttribute("description").remove(ByteString.valueOfUtf8("one"));
+        sdkEntry.removeAttribute("sn", "Carter");
+        sdkEntry.addAttribute("cn", "Sam");
+        assertThat(sdkEntry.getAttribute("description").toArray()).containsOnly(ByteString.valueOfUtf8("two"));
+        assertThat(sdkEntry.getAttribute("sn")).isNull();
+        assertThat(sdkEntry.getAttribute("cn")).hasSize(2);
+        assertThat(srvEntry.getAllAttributes("description").iterator().next().size()).isEqualTo(2);
+        assertThat(srvEntry.getAllAttributes("sn").iterator().next().size()).isEqualTo(1);
+        assertThat(srvEntry.getAllAttributes("cn").iterator().next().size()).isEqualTo(1);
+    }
+
     /**
      * Converts an LDAP attribute to an SDK attribute using binary attribute value.
      */
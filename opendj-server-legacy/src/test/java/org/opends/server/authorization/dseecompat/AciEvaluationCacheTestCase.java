@@ -0,0 +1,111 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.authorization.dseecompat;
+
+import static org.opends.server.TestCaseUtils.*;
+import static org.opends.server.config.ConfigConstants.*;
+import static org.opends.server.protocols.internal.InternalClientConnection.*;
+import static org.opends.server.protocols.internal.Requests.*;
+import static org.testng.Assert.*;
+
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.SearchScope;
+import org.opends.server.protocols.internal.InternalSearchOperation;
+import org.opends.server.types.Entry;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Checks that the cached bind rule evaluations follow the changes to groups and users. */
+@SuppressWarnings("javadoc")
+public class AciEvaluationCacheTestCase extends AciTestCase {
+
+  private static final String peopleBase = "ou=People,o=test";
+  private static final String user5 = "uid=user.5,ou=People,o=test";
+  private static final String group1DN = "cn=group 1,ou=Nested Groups, o=test";
+
+  private static final String groupAci = "(targetattr=\"*\")" +
+        "(version 3.0; acl \"group ACI\"; " +
+        "allow (all) " +
+        "groupdn=\"ldap:///" + group1DN + "\";)";
+
+  private static final String filterAci = "(targetattr=\"*\")" +
+        "(version 3.0; acl \"user filter ACI\"; " +
+        "allow (all) " +
+        "userdn=\"ldap:///" + peopleBase + "??sub?(departmentNumber=42)\";)";
+
+  @BeforeClass
+  public void setupClass() throws Exception {
+    deleteAttrFromAdminEntry(ACCESS_HANDLER_DN, ATTR_AUTHZ_GLOBAL_ACI);
+    addEntries("o=test");
+  }
+
+  @BeforeMethod
+  public void clearBackend() throws Exception {
+    deleteAttrFromEntry(peopleBase, "aci");
+    deleteAttrFromEntry(group1DN, "member");
+    deleteAttrFromEntry(user5, "departmentNumber");
+  }
+
+  @Test
+  public void testGroupMembershipChange() throws Exception {
+    LDIFModify(makeAddLDIF("aci", peopleBase, groupAci), DIR_MGR_DN, PWD);
+    assertEquals(searchUser5(), "");
+    // the denial is now cached for user5
+    assertEquals(searchUser5(), "");
+
+    LDIFModify(makeAddLDIF("member", group1DN, user5), DIR_MGR_DN, PWD);
+    assertNotEquals(searchUser5(), "");
+
+    LDIFModify(makeDelLDIF("member", group1DN, user5), DIR_MGR_DN, PWD);
+    assertEquals(searchUser5(), "");
+  }
+
+  @Test
+  public void testUserEntryChange() throws Exception {
+    LDIFModify(makeAddLDIF("aci", peopleBase, filterAci), DIR_MGR_DN, PWD);
+    assertEquals(searchUser5(), "");
+
+    LDIFModify(makeAddLDIF("departmentNumber", user5, "42"), DIR_MGR_DN, PWD);
+    assertNotEquals(searchUser5(), "");
+
+    LDIFModify(makeDelLDIF("departmentNumber", user5, "42"), DIR_MGR_DN, PWD);
+    assertEquals(searchUser5(), "");
+  }
+
+  @Test
+  public void testRepeatedEvaluationsHitTheCache() throws Exception {
+    LDIFModify(makeAddLDIF("aci", peopleBase, groupAci), DIR_MGR_DN, PWD);
+    LDIFModify(makeAddLDIF("member", group1DN, user5), DIR_MGR_DN, PWD);
+    assertNotEquals(searchUser5(), "");
+
+    final long hitsBefore = getMonitorValue("evaluation-cache-hits");
+    assertNotEquals(searchUser5(), "");
+    assertTrue(getMonitorValue("evaluation-cache-hits") > hitsBefore);
+    assertTrue(getMonitorValue("search-evaluations") > 0);
+  }
+
+  private String searchUser5() throws Exception {
+    return LDAPSearchParams(user5, PWD, null, null, null, user5, filter, null);
+  }
+
+  private long getMonitorValue(String attributeName) throws Exception {
+    InternalSearchOperation search = getRootConnection().processSearch(
+        newSearchRequest(DN.valueOf("cn=Access Control Handler,cn=monitor"), SearchScope.BASE_OBJECT));
+    Entry monitorEntry = search.getSearchEntries().getFirst();
+    return Long.parseLong(monitorEntry.parseAttribute(attributeName).asString());
+  }
+}
@@ -75,6 +75,7 @@ import org.opends.server.core.ServerContext;
 import org.opends.server.protocols.internal.InternalClientConnection;
 import org.opends.server.protocols.internal.InternalSearchOperation;
 import org.opends.server.protocols.internal.SearchRequest;
+import org.opends.server.types.Attribute;
 import org.opends.server.types.BackupConfig;
 import org.opends.server.types.BackupDirectory;
 import org.opends.server.types.DirectoryException;
@@ -879,6 +880,62 @@ public abstract class PluggableBackendImplTestCase<C extends PluggableBackendCfg
   }
 
 
+  @Test
+  public void testIndexUsageStats() throws Exception
+  {
+    assertThat(runSearch(newSearchRequest(testBaseDN, SearchScope.WHOLE_SUBTREE, "uid=user.1"), false)).hasSize(1);
+    // A lookthrough limit lower than the number of entries in scope makes the search unindexed
+    final ClientConnection connection = new ClientConnectionStub();
+    connection.setLookthroughLimit(1);
+    new InternalSearchOperation(connection, 1, 1,
+        newSearchRequest(testBaseDN, SearchScope.WHOLE_SUBTREE, "(&(description=*Aaren*)(l=Test))"), null).run();
+
+    final BackendMonitor monitor = backend.getRootContainer().getMonitorProvider();
+    final List<String> indexUse = getMonitorValues(monitor, "index-use");
+    final List<String> usedIndexes = new ArrayList<>();
+    for (String value : indexUse)
+    {
+      usedIndexes.add(value.substring(0, value.indexOf(' ')));
+    }
+    String uidIndex = null;
+    for (String value : indexUse)
+    {
+      if (value.contains("uid.") && value.contains(" candidates:"))
+      {
+        uidIndex = value;
+      }
+    }
+    assertNotNull(uidIndex, "The uid index should be reported as used in " + indexUse);
+    assertThat(uidIndex).doesNotContain(" hits:0 ");
+
+    for (String unusedIndex : getMonitorValues(monitor, "unused-index"))
+    {
+      assertThat(usedIndexes).doesNotContain(unusedIndex);
+    }
+    boolean unindexedFilterReported = false;
+    for (String value : getMonitorValues(monitor, "unindexed-filter"))
+    {
+      unindexedFilterReported |= value.startsWith("(&(description=*?*)(l=?)) hits:");
+    }
+    assertTrue(unindexedFilterReported, "The unindexed filter should be reported");
+  }
+
+  private List<String> getMonitorValues(BackendMonitor monitor, String attributeName)
+  {
+    final List<String> values = new ArrayList<>();
+    for (Attribute attribute : monitor.getMonitorData())
+    {
+      if (attribute.getAttributeDescription().getNameOrOID().equals(attributeName))
+      {
+        for (ByteString value : attribute)
+        {
+          values.add(value.toString());
+        }
+      }
+    }
+    return values;
+  }
+
   @DataProvider
   protected Object[][] userEntrySearchData()
   {
@@ -25,6 +25,7 @@ import org.forgerock.opendj.ldap.DN;
 import org.forgerock.opendj.ldap.ResultCode;
 import org.forgerock.opendj.ldap.requests.ModifyRequest;
 import org.opends.server.TestCaseUtils;
+import org.opends.server.api.PasswordStorageScheme;
 import org.opends.server.plugins.DisconnectClientPlugin;
 import org.opends.server.plugins.InvocationCounterPlugin;
 import org.opends.server.plugins.ShortCircuitPlugin;
@@ -51,6 +52,7 @@ import static org.assertj.core.api.Assertions.*;
 import static org.forgerock.opendj.ldap.ModificationType.*;
 import static org.forgerock.opendj.ldap.requests.Requests.*;
 import static org.opends.server.protocols.internal.InternalClientConnection.*;
+import static org.opends.server.config.ConfigConstants.*;
 import static org.opends.server.protocols.ldap.LDAPConstants.*;
 import static org.opends.server.types.NullOutputStream.nullPrintStream;
 import static org.opends.server.util.ServerConstants.*;
@@ -1690,6 +1692,193 @@ public class BindOperationTestCase
     }
   }
 
+  /**
+   * Tests that the last login times are written in the background and
+   * coalesced when the last-login-time-update-interval is set, while the
+   * authentication failures are still written before the bind response.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test
+  public void testDelayedLastLoginTimeUpdate()
+         throws Exception
+  {
+    TestCaseUtils.initializeTestBackend(true);
+    DN userDN = DN.valueOf("uid=test.user,o=test");
+
+    TestCaseUtils.applyModifications(false,
+      "dn: uid=test.user,o=test",
+      "changetype: add",
+      "objectClass: top",
+      "objectClass: person",
+      "objectClass: organizationalPerson",
+      "objectClass: inetOrgPerson",
+      "uid: test.user",
+      "givenName: Test",
+      "sn: User",
+      "cn: Test User",
+      "userPassword: password",
+      "",
+      "dn: cn=Default Password Policy,cn=Password Policies,cn=config",
+      "changetype: modify",
+      "replace: ds-cfg-last-login-time-attribute",
+      "ds-cfg-last-login-time-attribute: ds-pwp-last-login-time",
+      "-",
+      "replace: ds-cfg-last-login-time-format",
+      "ds-cfg-last-login-time-format: yyyyMMddHHmmss'Z'",
+      "-",
+      "replace: ds-cfg-last-login-time-update-interval",
+      "ds-cfg-last-login-time-update-interval: 1 h",
+      "-",
+      "replace: ds-cfg-lockout-failure-count",
+      "ds-cfg-lockout-failure-count: 3"
+    );
+
+    try
+    {
+      LastLoginTimeWriter writer = DirectoryServer.getLastLoginTimeWriter();
+      writer.flush();
+      for (int i = 0; i < 3; i++)
+      {
+        assertEquals(simpleBind(userDN, "password"), ResultCode.SUCCESS);
+      }
+      assertFalse(hasAttribute(userDN, "ds-pwp-last-login-time"));
+      assertEquals(writer.getPendingUpdates(), 1);
+
+      writer.flush();
+      assertEquals(writer.getPendingUpdates(), 0);
+      assertTrue(hasAttribute(userDN, "ds-pwp-last-login-time"));
+
+      assertEquals(simpleBind(userDN, "wrong"), ResultCode.INVALID_CREDENTIALS);
+      assertTrue(hasAttribute(userDN, OP_ATTR_PWPOLICY_FAILURE_TIME));
+
+      assertEquals(simpleBind(userDN, "password"), ResultCode.SUCCESS);
+      assertFalse(hasAttribute(userDN, OP_ATTR_PWPOLICY_FAILURE_TIME));
+      assertEquals(writer.getPendingUpdates(), 0);
+    }
+    finally
+    {
+      TestCaseUtils.applyModifications(true,
+        "dn: cn=Default Password Policy,cn=Password Policies,cn=config",
+        "changetype: modify",
+        "replace: ds-cfg-last-login-time-attribute",
+        "-",
+        "replace: ds-cfg-last-login-time-format",
+        "-",
+        "replace: ds-cfg-last-login-time-update-interval",
+        "-",
+        "replace: ds-cfg-lockout-failure-count",
+        "ds-cfg-lockout-failure-count: 0"
+      );
+    }
+  }
+
+  /**
+   * Tests that the passwords verified during binds are cached, and that the
+   * cached verifications are invalidated by password and policy changes.
+   *
+   * @throws  Exception  If an unexpected problem occurs.
+   */
+  @Test
+  public void testPasswordVerificationCache()
+         throws Exception
+  {
+    TestCaseUtils.initializeTestBackend(true);
+    DN userDN = DN.valueOf("uid=test.user,o=test");
+
+    TestCaseUtils.applyModifications(false,
+      "dn: uid=test.user,o=test",
+      "changetype: add",
+      "objectClass: top",
+      "objectClass: person",
+      "objectClass: organizationalPerson",
+      "objectClass: inetOrgPerson",
+      "uid: test.user",
+      "givenName: Test",
+      "sn: User",
+      "cn: Test User",
+      "userPassword: password",
+      "",
+      "dn: cn=Default Password Policy,cn=Password Policies,cn=config",
+      "changetype: modify",
+      "replace: ds-cfg-password-verification-cache-duration",
+      "ds-cfg-password-verification-cache-duration: 1 h"
+    );
+
+    try
+    {
+      PasswordVerificationCache cache = DirectoryServer.getPasswordVerificationCache();
+      PasswordPolicy policy = DirectoryServer.getDefaultPasswordPolicy();
+      assertFalse(isVerified(cache, policy, userDN, "password"));
+
+      assertEquals(simpleBind(userDN, "password"), ResultCode.SUCCESS);
+      assertTrue(isVerified(cache, policy, userDN, "password"));
+      assertFalse(isVerified(cache, policy, userDN, "wrong"));
+      assertEquals(simpleBind(userDN, "password"), ResultCode.SUCCESS);
+      assertEquals(simpleBind(userDN, "wrong"), ResultCode.INVALID_CREDENTIALS);
+
+      TestCaseUtils.applyModifications(true,
+        "dn: uid=test.user,o=test",
+        "changetype: modify",
+        "replace: userPassword",
+        "userPassword: newPassword"
+      );
+      assertFalse(isVerified(cache, policy, userDN, "password"));
+      assertEquals(simpleBind(userDN, "password"), ResultCode.INVALID_CREDENTIALS);
+      assertEquals(simpleBind(userDN, "newPassword"), ResultCode.SUCCESS);
+      assertTrue(isVerified(cache, policy, userDN, "newPassword"));
+
+      // a verification is not trusted once the storage scheme has been disabled
+      DN schemeDN = DN.valueOf("cn=Salted SHA-1,cn=Password Storage Schemes,cn=config");
+      PasswordStorageScheme<?> scheme = DirectoryServer.getPasswordStorageScheme(schemeDN);
+      DirectoryServer.deregisterPasswordStorageScheme(schemeDN);
+      try
+      {
+        assertEquals(simpleBind(userDN, "newPassword"), ResultCode.INVALID_CREDENTIALS);
+      }
+      finally
+      {
+        DirectoryServer.registerPasswordStorageScheme(schemeDN, scheme);
+      }
+      assertEquals(simpleBind(userDN, "newPassword"), ResultCode.SUCCESS);
+
+      TestCaseUtils.applyModifications(true,
+        "dn: cn=Default Password Policy,cn=Password Policies,cn=config",
+        "changetype: modify",
+        "replace: ds-cfg-password-verification-cache-duration",
+        "ds-cfg-password-verification-cache-duration: 30 m"
+      );
+      assertFalse(isVerified(cache, policy, userDN, "newPassword"));
+    }
+    finally
+    {
+      TestCaseUtils.applyModifications(true,
+        "dn: cn=Default Password Policy,cn=Password Policies,cn=config",
+        "changetype: modify",
+        "replace: ds-cfg-password-verification-cache-duration"
+      );
+    }
+  }
+
+  private boolean isVerified(PasswordVerificationCache cache, PasswordPolicy policy, DN userDN, String password)
+      throws Exception
+  {
+    return cache.getVerifiedValue(policy, userDN, ByteString.valueOfUtf8(password),
+        DirectoryServer.getEntry(userDN).getAllAttributes(policy.getPasswordAttribute())) != null;
+  }
+
+  private boolean hasAttribute(DN entryDN, String attributeName) throws Exception
+  {
+    return DirectoryServer.getEntry(entryDN).getAllAttributes(attributeName).iterator().hasNext();
+  }
+
+  private ResultCode simpleBind(DN userDN, String password)
+  {
+    InternalClientConnection conn = new InternalClientConnection(new AuthenticationInfo());
+    return conn.processSimpleBind(ByteString.valueOfUtf8(userDN.toString()), ByteString.valueOfUtf8(password))
+        .getResultCode();
+  }
+
   /**
    * Tests to ensure that the "reactive" password policy state update policy
    * works as expected.
@@ -131,6 +131,7 @@ public class CompareOperationTestCase extends OperationTestCase
     assertTrue(compareOperation.getProcessingStartTime() > 0);
     assertTrue(compareOperation.getProcessingStopTime() > 0);
     assertTrue(compareOperation.getProcessingTime() >= 0);
+    assertTrue(compareOperation.getPreciseProcessingNanoTime() > 0);
 
 //    assertEquals(InvocationCounterPlugin.getPreParseCount(), 1);
 //    assertEquals(InvocationCounterPlugin.getPreOperationCount(), 1);
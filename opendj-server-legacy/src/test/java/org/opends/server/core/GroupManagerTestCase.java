@@ -50,6 +50,7 @@ import static org.forgerock.opendj.ldap.requests.Requests.*;
 import static org.opends.server.protocols.internal.InternalClientConnection.*;
 import static org.opends.server.protocols.internal.Requests.*;
 import static org.opends.server.types.NullOutputStream.nullPrintStream;
+import static org.opends.server.util.CollectionUtils.*;
 import static org.opends.server.util.ServerConstants.*;
 import static org.testng.Assert.*;
 
@@ -200,6 +201,138 @@ public class GroupManagerTestCase
     assertTrue(group1Instance.isMember(user5DN));
   }
 
+  /**
+   * Tests the membership checks of the group manager, which use the membership
+   * index, with nested static groups changed through the API and via ldap
+   * modify.
+   *
+   * @throws Exception If an unexpected problem occurs.
+   */
+  @Test
+  public void testMembershipIndexNestedGroups() throws Exception {
+    TestCaseUtils.initializeTestBackend(true);
+    GroupManager groupManager = DirectoryServer.getGroupManager();
+    groupManager.deregisterAllGroups();
+    addNestedGroupTestEntries();
+    DN group1DN = DN.valueOf("cn=group 1,ou=Groups,o=test");
+    DN group2DN = DN.valueOf("cn=group 2,ou=Groups,o=test");
+    DN group3DN = DN.valueOf("cn=group 3,ou=Groups,o=test");
+    DN user1DN = DN.valueOf("uid=user.1,ou=People,o=test");
+    DN user3DN = DN.valueOf("uid=user.3,ou=People,o=test");
+    Entry user1Entry = DirectoryServer.getEntry(user1DN);
+    Entry user3Entry = DirectoryServer.getEntry(user3DN);
+    Group<?> group1Instance = groupManager.getGroupInstance(group1DN);
+    Group<?> group2Instance = groupManager.getGroupInstance(group2DN);
+    Group<?> group3Instance = groupManager.getGroupInstance(group3DN);
+    group1Instance.addNestedGroup(group2DN);
+    group2Instance.addNestedGroup(group3DN);
+    group1Instance.addMember(user1Entry);
+    group3Instance.addMember(user3Entry);
+
+    assertTrue(groupManager.isMember(group1Instance, user3DN));
+    assertTrue(groupManager.isMember(group2Instance, user3Entry));
+    assertFalse(groupManager.isMember(group2Instance, user1DN));
+    assertEquals(groupManager.getGroupInstancesContaining(user3Entry),
+        newLinkedHashSet(group3Instance, group2Instance, group1Instance));
+    assertEquals(groupManager.getGroupInstancesContaining(user1Entry), newLinkedHashSet(group1Instance));
+
+    // Break the nesting between group 1 and group 2.
+    group1Instance.removeNestedGroup(group2DN);
+    assertFalse(groupManager.isMember(group1Instance, user3DN));
+    assertTrue(groupManager.isMember(group2Instance, user3DN));
+
+    // Changes to the group entry are reflected too.
+    final ModifyRequest modifyRequest = newModifyRequest(group3DN)
+        .addModification(ADD, "member", user1DN.toString())
+        .addModification(DELETE, "member", user3DN.toString());
+    ModifyOperation modifyOperation = getRootConnection().processModify(modifyRequest);
+    assertEquals(modifyOperation.getResultCode(), ResultCode.SUCCESS);
+    group3Instance = groupManager.getGroupInstance(group3DN);
+    assertFalse(groupManager.isMember(group3Instance, user3DN));
+    assertTrue(groupManager.isMember(group3Instance, user1DN));
+    assertTrue(groupManager.isMember(group2Instance, user1DN));
+
+    // Deleted groups do not contain any member anymore.
+    TestCaseUtils.deleteEntry(group3DN);
+    assertEquals(groupManager.getGroupInstancesContaining(user1Entry), newLinkedHashSet(group1Instance));
+    assertFalse(groupManager.isMember(group2Instance, user1DN));
+  }
+
+  /**
+   * Tests the membership checks of the group manager when a dynamic group is
+   * nested in an indexed static group.
+   *
+   * @throws Exception If an unexpected problem occurs.
+   */
+  @Test
+  public void testMembershipIndexDynamicNested() throws Exception {
+    TestCaseUtils.initializeTestBackend(true);
+    GroupManager groupManager = DirectoryServer.getGroupManager();
+    groupManager.deregisterAllGroups();
+    addNestedGroupTestEntries();
+    DN group1DN = DN.valueOf("cn=group 1,ou=Groups,o=test");
+    DN group4DN = DN.valueOf("cn=group 4,ou=Groups,o=test");
+    DN user4DN = DN.valueOf("uid=user.4,ou=People,o=test");
+    DN user5DN = DN.valueOf("uid=user.5,ou=People,o=test");
+    Group<?> group1Instance = groupManager.getGroupInstance(group1DN);
+    Group<?> group4Instance = groupManager.getGroupInstance(group4DN);
+    group1Instance.addNestedGroup(group4DN);
+
+    assertTrue(groupManager.isMember(group1Instance, user5DN));
+    assertFalse(groupManager.isMember(group1Instance, user4DN));
+    assertEquals(groupManager.getGroupInstancesContaining(DirectoryServer.getEntry(user5DN)),
+        newLinkedHashSet(group4Instance, group1Instance));
+  }
+
+  /**
+   * Tests that the members of a static group can be read while they are
+   * changed, and that replacing the members keeps the ones still listed.
+   *
+   * @throws Exception If an unexpected problem occurs.
+   */
+  @Test
+  public void testStaticGroupMembersChangedWhileRead() throws Exception {
+    TestCaseUtils.initializeTestBackend(true);
+    GroupManager groupManager = DirectoryServer.getGroupManager();
+    groupManager.deregisterAllGroups();
+    addNestedGroupTestEntries();
+    DN group1DN = DN.valueOf("cn=group 1,ou=Groups,o=test");
+    DN user1DN = DN.valueOf("uid=user.1,ou=People,o=test");
+    DN user2DN = DN.valueOf("uid=user.2,ou=People,o=test");
+    DN user3DN = DN.valueOf("uid=user.3,ou=People,o=test");
+    Group<?> group1Instance = groupManager.getGroupInstance(group1DN);
+    group1Instance.addMember(DirectoryServer.getEntry(user1DN));
+    group1Instance.addMember(DirectoryServer.getEntry(user2DN));
+
+    MemberList memberList = group1Instance.getMembers();
+    assertTrue(memberList.hasMoreMembers());
+    memberList.nextMemberDN();
+
+    final ModifyRequest modifyRequest = newModifyRequest(group1DN)
+        .addModification(REPLACE, "member", user2DN.toString(), user3DN.toString());
+    ModifyOperation modifyOperation = getRootConnection().processModify(modifyRequest);
+    assertEquals(modifyOperation.getResultCode(), ResultCode.SUCCESS);
+
+    // the member list being read is not affected by the change
+    while (memberList.hasMoreMembers())
+    {
+      memberList.nextMemberDN();
+    }
+    memberList.close();
+
+    group1Instance = groupManager.getGroupInstance(group1DN);
+    assertFalse(group1Instance.isMember(user1DN));
+    assertTrue(group1Instance.isMember(user2DN));
+    assertTrue(group1Instance.isMember(user3DN));
+    assertFalse(groupManager.isMember(group1Instance, user1DN));
+    assertTrue(groupManager.isMember(group1Instance, user2DN));
+    assertTrue(groupManager.isMember(group1Instance, user3DN));
+
+    group1Instance.removeMember(user2DN);
+    assertFalse(group1Instance.isMember(user2DN));
+    assertFalse(groupManager.isMember(group1Instance, user2DN));
+  }
+
   /**
    * Invokes membership and nested group APIs using a group instance that has
    * been changed by the group manager via ldap modify.
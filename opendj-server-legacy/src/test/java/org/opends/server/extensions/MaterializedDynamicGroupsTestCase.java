@@ -0,0 +1,261 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.extensions;
+
+import static org.forgerock.opendj.ldap.ModificationType.*;
+import static org.forgerock.opendj.ldap.requests.Requests.*;
+import static org.opends.server.protocols.internal.InternalClientConnection.*;
+import static org.opends.server.util.CollectionUtils.*;
+import static org.opends.server.util.StaticUtils.*;
+import static org.testng.Assert.*;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.ldap.ResultCode;
+import org.opends.server.TestCaseUtils;
+import org.opends.server.api.Group;
+import org.opends.server.api.LocalBackend;
+import org.opends.server.core.DirectoryServer;
+import org.opends.server.core.GroupManager;
+import org.opends.server.types.MemberList;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests the dynamic groups whose members are materialized. */
+@SuppressWarnings("javadoc")
+public class MaterializedDynamicGroupsTestCase extends ExtensionsTestCase
+{
+  private static final DN GROUP_DN = DN.valueOf("cn=Materialized,ou=Groups,o=test");
+  private static final DN USER_1 = DN.valueOf("uid=user.1,ou=People,o=test");
+  private static final DN USER_2 = DN.valueOf("uid=user.2,ou=People,o=test");
+  private static final DN USER_3 = DN.valueOf("uid=user.3,ou=People,o=test");
+  private static final DN USER_4 = DN.valueOf("uid=user.4,ou=People,o=test");
+
+  @BeforeClass
+  public void startServer() throws Exception
+  {
+    TestCaseUtils.startServer();
+    setMaterializedMembers(true);
+  }
+
+  @AfterClass
+  public void restoreConfiguration() throws Exception
+  {
+    setMaterializedMembers(false);
+  }
+
+  /** Re-enables the dynamic group implementation, which only reads the property when initialized. */
+  private void setMaterializedMembers(boolean materialized) throws Exception
+  {
+    TestCaseUtils.dsconfig("set-group-implementation-prop", "--implementation-name", "Dynamic",
+        "--set", "enabled:false");
+    TestCaseUtils.dsconfig("set-group-implementation-prop", "--implementation-name", "Dynamic",
+        "--set", "materialized-members:" + materialized, "--set", "enabled:true");
+  }
+
+  @BeforeMethod
+  public void addEntries() throws Exception
+  {
+    TestCaseUtils.initializeTestBackend(true);
+    TestCaseUtils.addEntries(
+        "dn: ou=People,o=test",
+        "objectClass: organizationalUnit",
+        "ou: People",
+        "",
+        "dn: ou=Groups,o=test",
+        "objectClass: organizationalUnit",
+        "ou: Groups",
+        "",
+        "dn: uid=user.1,ou=People,o=test",
+        "objectClass: inetOrgPerson",
+        "uid: user.1",
+        "cn: User 1",
+        "sn: 1",
+        "",
+        "dn: uid=user.2,ou=People,o=test",
+        "objectClass: inetOrgPerson",
+        "uid: user.2",
+        "cn: User 2",
+        "sn: 2",
+        "",
+        "dn: uid=user.3,ou=People,o=test",
+        "objectClass: inetOrgPerson",
+        "uid: user.3",
+        "cn: User 3",
+        "sn: 3",
+        "",
+        "dn: cn=Materialized,ou=Groups,o=test",
+        "objectClass: groupOfURLs",
+        "cn: Materialized",
+        "memberURL: ldap:///ou=People,o=test??sub?(sn<=2)");
+  }
+
+  @Test
+  public void testMembersFollowEntryChanges() throws Exception
+  {
+    final GroupManager groupManager = DirectoryServer.getGroupManager();
+    final Group<?> group = groupManager.getGroupInstance(GROUP_DN);
+    assertFalse(group.hasExplicitMemberList());
+    assertTrue(group.isMember(USER_1));
+    assertTrue(group.hasExplicitMemberList());
+    assertFalse(group.isMember(USER_3));
+
+    modify(USER_3, "sn", "1");
+    assertTrue(group.isMember(USER_3));
+    assertTrue(groupManager.getGroupInstancesContaining(DirectoryServer.getEntry(USER_3)).contains(group));
+
+    modify(USER_2, "sn", "5");
+    assertFalse(group.isMember(USER_2));
+    assertFalse(groupManager.getGroupInstancesContaining(DirectoryServer.getEntry(USER_2)).contains(group));
+
+    assertEquals(getRootConnection().processDelete(USER_1).getResultCode(), ResultCode.SUCCESS);
+    assertFalse(group.isMember(USER_1));
+
+    TestCaseUtils.addEntry(
+        "dn: uid=user.4,ou=People,o=test",
+        "objectClass: inetOrgPerson",
+        "uid: user.4",
+        "cn: User 4",
+        "sn: 0");
+    assertTrue(group.isMember(USER_4));
+
+    assertEquals(getMembers(group), newHashSet(USER_3, USER_4));
+  }
+
+  @Test
+  public void testSnapshotIsReloaded() throws Exception
+  {
+    final DynamicGroup group = (DynamicGroup) DirectoryServer.getGroupManager().getGroupInstance(GROUP_DN);
+    assertTrue(group.isMember(USER_2));
+    getMaterializedGroups().processServerShutdown(LocalizableMessage.raw("test"));
+    final File[] snapshots = getFileForPath("db/dynamic-groups").listFiles();
+    assertEquals(snapshots.length, 1);
+
+    final DynamicGroup reloaded = reloadGroup();
+    assertTrue(reloaded.hasExplicitMemberList(), "the members should have been loaded from the snapshot");
+    assertEquals(getMembers(reloaded), newHashSet(USER_1, USER_2));
+    assertFalse(snapshots[0].exists());
+  }
+
+  @Test
+  public void testOutdatedSnapshotIsIgnored() throws Exception
+  {
+    final DynamicGroup group = (DynamicGroup) DirectoryServer.getGroupManager().getGroupInstance(GROUP_DN);
+    assertTrue(group.isMember(USER_2));
+    getMaterializedGroups().processServerShutdown(LocalizableMessage.raw("test"));
+    TestCaseUtils.addEntry(
+        "dn: uid=user.4,ou=People,o=test",
+        "objectClass: inetOrgPerson",
+        "uid: user.4",
+        "cn: User 4",
+        "sn: 0");
+
+    final DynamicGroup reloaded = reloadGroup();
+    assertFalse(reloaded.hasExplicitMemberList());
+    assertTrue(reloaded.isMember(USER_4));
+    assertTrue(reloaded.hasExplicitMemberList());
+  }
+
+  @Test
+  public void testSnapshotIsDeletedByOfflineImportOrRestore() throws Exception
+  {
+    final DynamicGroup group = (DynamicGroup) DirectoryServer.getGroupManager().getGroupInstance(GROUP_DN);
+    assertTrue(group.isMember(USER_2));
+    getMaterializedGroups().processServerShutdown(LocalizableMessage.raw("test"));
+    DynamicGroup.deleteSavedMaterializedMembers(DirectoryServer.getInstance().getServerContext());
+    assertEquals(getFileForPath("db/dynamic-groups").listFiles().length, 0);
+
+    final DynamicGroup reloaded = reloadGroup();
+    assertFalse(reloaded.hasExplicitMemberList());
+    assertTrue(reloaded.isMember(USER_2));
+    assertTrue(reloaded.hasExplicitMemberList());
+  }
+
+  @Test
+  public void testSnapshotIsForgottenWhenBackendIsFinalized() throws Exception
+  {
+    final DynamicGroup group = (DynamicGroup) DirectoryServer.getGroupManager().getGroupInstance(GROUP_DN);
+    assertTrue(group.isMember(USER_2));
+    getMaterializedGroups().processServerShutdown(LocalizableMessage.raw("test"));
+
+    // an online import or restore finalizes the backend before replacing its entries
+    setMaterializedMembers(true);
+    getMaterializedGroups().performBackendPostFinalizationProcessing(getTestBackend());
+    assertEquals(getFileForPath("db/dynamic-groups").listFiles().length, 0);
+
+    final DynamicGroup reloaded = initializeTestBackend();
+    assertFalse(reloaded.hasExplicitMemberList());
+  }
+
+  /** Simulates a restart: the implementation reads the snapshots, then the test backend is initialized. */
+  private DynamicGroup reloadGroup() throws Exception
+  {
+    setMaterializedMembers(true);
+    return initializeTestBackend();
+  }
+
+  private DynamicGroup initializeTestBackend() throws Exception
+  {
+    final LocalBackend<?> backend = getTestBackend();
+    final GroupManager groupManager = DirectoryServer.getGroupManager();
+    groupManager.performBackendPreInitializationProcessing(backend);
+    getMaterializedGroups().performBackendPreInitializationProcessing(backend);
+    return (DynamicGroup) groupManager.getGroupInstance(GROUP_DN);
+  }
+
+  private LocalBackend<?> getTestBackend()
+  {
+    return DirectoryServer.getInstance().getServerContext().getBackendConfigManager()
+        .getLocalBackendById(TestCaseUtils.TEST_BACKEND_ID);
+  }
+
+  private MaterializedDynamicGroups getMaterializedGroups()
+  {
+    for (Group<?> implementation : DirectoryServer.getGroupManager().getGroupImplementations())
+    {
+      if (implementation instanceof DynamicGroup)
+      {
+        return ((DynamicGroup) implementation).getMaterializedGroups();
+      }
+    }
+    throw new AssertionError("No dynamic group implementation");
+  }
+
+  private Set<DN> getMembers(Group<?> group) throws Exception
+  {
+    final Set<DN> members = new HashSet<>();
+    try (MemberList memberList = group.getMembers())
+    {
+      while (memberList.hasMoreMembers())
+      {
+        members.add(memberList.nextMemberDN());
+      }
+    }
+    return members;
+  }
+
+  private void modify(DN dn, String attributeName, String value)
+  {
+    assertEquals(getRootConnection().processModify(newModifyRequest(dn).addModification(REPLACE, attributeName, value))
+        .getResultCode(), ResultCode.SUCCESS);
+  }
+}
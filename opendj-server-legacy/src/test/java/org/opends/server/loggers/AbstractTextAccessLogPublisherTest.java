@@ -32,6 +32,7 @@ import org.opends.server.api.ClientConnection;
 import org.opends.server.core.DirectoryServer;
 import org.opends.server.core.SearchOperation;
 import org.opends.server.loggers.AbstractTextAccessLogPublisher.CriteriaFilter;
+import org.opends.server.loggers.AbstractTextAccessLogPublisher.EtimeHistogram;
 import org.opends.server.loggers.AbstractTextAccessLogPublisher.RootFilter;
 import org.opends.server.types.AuthenticationInfo;
 import org.opends.server.types.Operation;
@@ -253,6 +254,105 @@ public class AbstractTextAccessLogPublisherTest extends DirectoryServerTestCase
 
 
 
+  @Test
+  public void testCriteriaFilterSamplingRate() throws Exception
+  {
+    final AccessLogFilteringCriteriaCfg cfg = mockCriteriaFilterCfg();
+    when(cfg.getSamplingRate()).thenReturn(4);
+    when(cfg.getSamplingEtimePercentile()).thenReturn(100);
+    final CriteriaFilter filter = new CriteriaFilter(cfg);
+    final SearchOperation operation = mockAnonymousSearchOperation();
+    int nbLogged = 0;
+    for (int i = 0; i < 100; i++)
+    {
+      if (filter.isRequestLoggable(operation))
+      {
+        nbLogged++;
+      }
+    }
+    assertThat(nbLogged).isEqualTo(25);
+  }
+
+
+
+  @Test
+  public void testCriteriaFilterSamplingLogsFailures() throws Exception
+  {
+    final AccessLogFilteringCriteriaCfg cfg = mockCriteriaFilterCfg();
+    when(cfg.getSamplingRate()).thenReturn(1000);
+    when(cfg.getSamplingEtimePercentile()).thenReturn(100);
+    final CriteriaFilter filter = new CriteriaFilter(cfg);
+    final SearchOperation operation = mockAnonymousSearchOperation();
+    // the first operation is sampled
+    assertThat(filter.isResponseLoggable(operation)).isTrue();
+    assertThat(filter.isResponseLoggable(operation)).isFalse();
+    when(operation.getResultCode()).thenReturn(ResultCode.NO_SUCH_OBJECT);
+    assertThat(filter.isResponseLoggable(operation)).isTrue();
+    when(cfg.isSamplingLogsFailures()).thenReturn(false);
+    assertThat(filter.isResponseLoggable(operation)).isFalse();
+  }
+
+
+
+  @Test
+  public void testCriteriaFilterSamplingLogsSlowOperations() throws Exception
+  {
+    final AccessLogFilteringCriteriaCfg cfg = mockCriteriaFilterCfg();
+    when(cfg.getSamplingRate()).thenReturn(100000);
+    final CriteriaFilter filter = new CriteriaFilter(cfg);
+    final SearchOperation operation = mockAnonymousSearchOperation();
+    when(operation.getProcessingNanoTime()).thenReturn(-1L);
+    when(operation.getProcessingTime()).thenReturn(1L);
+    // the first operation is sampled
+    assertThat(filter.isResponseLoggable(operation)).isTrue();
+    for (int i = 0; i < 1000; i++)
+    {
+      assertThat(filter.isResponseLoggable(operation)).isFalse();
+    }
+    when(operation.getProcessingTime()).thenReturn(100L);
+    assertThat(filter.isResponseLoggable(operation)).isTrue();
+  }
+
+
+
+  @Test
+  public void testEtimeHistogram() throws Exception
+  {
+    final EtimeHistogram histogram = new EtimeHistogram(99);
+    // the percentile is unknown until enough operations are recorded
+    assertThat(histogram.record(1000000)).isFalse();
+    for (int i = 0; i < 10; i++)
+    {
+      for (int etime = 1; etime <= 1000; etime++)
+      {
+        histogram.record(etime);
+      }
+    }
+    // the percentile is known within 12.5%
+    assertThat(histogram.record(900)).isFalse();
+    assertThat(histogram.record(1200)).isTrue();
+  }
+
+
+
+  @Test
+  public void testEtimeHistogramFollowsRecentOperations() throws Exception
+  {
+    final EtimeHistogram histogram = new EtimeHistogram(90);
+    for (int i = 0; i < 100000; i++)
+    {
+      histogram.record(i % 5 == 0 ? 10000 : 100);
+    }
+    assertThat(histogram.record(5000)).isFalse();
+    for (int i = 0; i < 100000; i++)
+    {
+      histogram.record(100);
+    }
+    assertThat(histogram.record(5000)).isTrue();
+  }
+
+
+
   @Test
   public void testCriteriaFilterUserDNEqualTo() throws Exception
   {
@@ -379,6 +479,9 @@ public class AbstractTextAccessLogPublisherTest extends DirectoryServerTestCase
     when(cfg.getUserDNNotEqualTo()).thenReturn(new TreeSet<String>());
     when(cfg.getUserIsMemberOf()).thenReturn(new TreeSet<DN>());
     when(cfg.getUserIsNotMemberOf()).thenReturn(new TreeSet<DN>());
+    when(cfg.getSamplingRate()).thenReturn(1);
+    when(cfg.getSamplingEtimePercentile()).thenReturn(99);
+    when(cfg.isSamplingLogsFailures()).thenReturn(true);
     return cfg;
   }
 
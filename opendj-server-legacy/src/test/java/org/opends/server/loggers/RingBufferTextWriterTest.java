@@ -0,0 +1,182 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.loggers;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.opends.server.types.NullOutputStream.*;
+import static org.opends.server.util.StaticUtils.*;
+import static org.testng.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.forgerock.opendj.ldap.tools.LDAPSearch;
+import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.server.config.meta.FileBasedAccessLogPublisherCfgDefn.RingBufferFullPolicy;
+import org.opends.server.DirectoryServerTestCase;
+import org.opends.server.TestCaseUtils;
+import org.opends.server.types.FilePermission;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class RingBufferTextWriterTest extends DirectoryServerTestCase
+{
+  private static final int THREADS = 4;
+  private static final int RECORDS_PER_THREAD = 2000;
+
+  @BeforeClass
+  public void startServer() throws Exception
+  {
+    TestCaseUtils.startServer();
+  }
+
+  @Test
+  public void testBlockWritesAllRecordsInOrder() throws Exception
+  {
+    final File logFile = newLogFile();
+    final RingBufferTextWriter writer = newWriter(logFile, RingBufferFullPolicy.BLOCK);
+    publishConcurrently(writer);
+    writer.shutdown();
+
+    final List<String> lines = Files.readAllLines(logFile.toPath(), UTF_8);
+    assertEquals(lines.size(), THREADS * RECORDS_PER_THREAD);
+    final int[] nextRecords = new int[THREADS];
+    for (String line : lines)
+    {
+      final String[] fields = line.split(" ");
+      final int thread = Integer.parseInt(fields[0]);
+      assertEquals(line, record(thread, nextRecords[thread]++));
+    }
+  }
+
+  @Test
+  public void testDropWritesWholeRecords() throws Exception
+  {
+    final File logFile = newLogFile();
+    final RingBufferTextWriter writer = newWriter(logFile, RingBufferFullPolicy.DROP);
+    publishConcurrently(writer);
+    writer.shutdown();
+
+    final List<String> lines = Files.readAllLines(logFile.toPath(), UTF_8);
+    assertTrue(lines.size() <= THREADS * RECORDS_PER_THREAD);
+    final int[] lastRecords = { -1, -1, -1, -1 };
+    for (String line : lines)
+    {
+      final String[] fields = line.split(" ");
+      final int thread = Integer.parseInt(fields[0]);
+      final int recordNumber = Integer.parseInt(fields[1]);
+      assertTrue(recordNumber > lastRecords[thread]);
+      lastRecords[thread] = recordNumber;
+      assertEquals(line, record(thread, recordNumber));
+    }
+  }
+
+  @Test
+  public void testAccessLogPublisherWithRingBuffer() throws Exception
+  {
+    setRingBuffer(true);
+    try
+    {
+      final String entryDN = "cn=Ring Buffer Test,cn=config";
+      final String[] args =
+      {
+        "--noPropertiesFile",
+        "-h", "127.0.0.1",
+        "-p", String.valueOf(TestCaseUtils.getServerLdapPort()),
+        "-b", entryDN,
+        "-s", "base",
+        "(objectClass=*)"
+      };
+      LDAPSearch.run(nullPrintStream(), nullPrintStream(), args);
+      // the writer is flushed when the ring buffer is turned off
+      setRingBuffer(false);
+
+      final File accessLog = getFileForPath("logs/access");
+      boolean logged = false;
+      for (String line : Files.readAllLines(accessLog.toPath(), UTF_8))
+      {
+        logged |= line.contains("\"" + entryDN + "\"");
+      }
+      assertTrue(logged, "The access log should contain the search of " + entryDN);
+    }
+    finally
+    {
+      setRingBuffer(false);
+    }
+  }
+
+  private void setRingBuffer(boolean ringBuffer)
+  {
+    TestCaseUtils.dsconfig("set-log-publisher-prop", "--publisher-name", "File-Based Access Logger",
+        "--set", "ring-buffer:" + ringBuffer);
+  }
+
+  private File newLogFile() throws Exception
+  {
+    final File logFile = File.createTempFile("ring-buffer", ".log");
+    logFile.deleteOnExit();
+    return logFile;
+  }
+
+  private RingBufferTextWriter newWriter(File logFile, RingBufferFullPolicy fullPolicy) throws Exception
+  {
+    final MultifileTextWriter mfWriter = new MultifileTextWriter("Multifile Text Writer for test", 5000,
+        new TimeStampNaming(logFile), FilePermission.decodeUNIXMode("600"),
+        new LogPublisherErrorHandler(DN.rootDN()), "UTF-8", false, false, 0);
+    return new RingBufferTextWriter("Ring Buffer Text Writer for test", "Test " + fullPolicy + " Ring Buffer", 8,
+        fullPolicy, mfWriter);
+  }
+
+  private void publishConcurrently(final RingBufferTextWriter writer) throws Exception
+  {
+    final List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++)
+    {
+      final int thread = i;
+      threads.add(new Thread()
+      {
+        @Override
+        public void run()
+        {
+          final StringBuilder buffer = new StringBuilder();
+          for (int j = 0; j < RECORDS_PER_THREAD; j++)
+          {
+            buffer.setLength(0);
+            buffer.append(record(thread, j));
+            writer.writeRecord(buffer);
+          }
+        }
+      });
+    }
+    for (Thread thread : threads)
+    {
+      thread.start();
+    }
+    for (Thread thread : threads)
+    {
+      thread.join();
+    }
+  }
+
+  /** Returns a record containing characters encoded on one to four bytes. */
+  private static String record(int thread, int recordNumber)
+  {
+    return thread + " " + recordNumber + " conn=" + recordNumber + " dn=\"cn=Jürgen 中文 😀\"";
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.monitors;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.opends.server.monitors.LatencyHistogram.Snapshot;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class LatencyHistogramTestCase extends MonitorTestCase
+{
+  @Test
+  public void testEmptyHistogram()
+  {
+    final Snapshot snapshot = new LatencyHistogram().getSnapshot();
+    assertThat(snapshot.getCount()).isEqualTo(0);
+    assertThat(snapshot.getMeanMicros()).isEqualTo(0);
+    assertThat(snapshot.getMaxMicros()).isEqualTo(0);
+    assertThat(snapshot.getValueAtPercentile(99)).isEqualTo(0);
+  }
+
+  @Test
+  public void testPercentiles()
+  {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (long micros = 1; micros <= 10000; micros++)
+    {
+      histogram.recordNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+    }
+    final Snapshot snapshot = histogram.getSnapshot();
+    assertThat(snapshot.getCount()).isEqualTo(10000);
+    assertThat(snapshot.getMeanMicros()).isEqualTo(5000);
+    assertThat(snapshot.getMaxMicros()).isEqualTo(10000);
+    assertPercentile(snapshot, 50, 5000);
+    assertPercentile(snapshot, 90, 9000);
+    assertPercentile(snapshot, 99, 9900);
+    assertPercentile(snapshot, 99.9, 9990);
+    assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(10000);
+  }
+
+  @Test
+  public void testSmallAndHugeLatencies()
+  {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    histogram.recordNanos(-1);
+    histogram.recordNanos(500);
+    histogram.recordNanos(TimeUnit.DAYS.toNanos(1));
+    final Snapshot snapshot = histogram.getSnapshot();
+    assertThat(snapshot.getCount()).isEqualTo(3);
+    assertThat(snapshot.getValueAtPercentile(50)).isEqualTo(0);
+    // latencies above 71 minutes are counted as 71 minutes
+    assertThat(snapshot.getMaxMicros()).isEqualTo((1L << 32) - 1);
+  }
+
+  @Test
+  public void testConcurrentRecorders() throws Exception
+  {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    final List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++)
+    {
+      threads.add(new Thread()
+      {
+        @Override
+        public void run()
+        {
+          for (int j = 0; j < 10000; j++)
+          {
+            histogram.recordNanos(TimeUnit.MICROSECONDS.toNanos(100));
+          }
+        }
+      });
+    }
+    for (Thread thread : threads)
+    {
+      thread.start();
+    }
+    for (Thread thread : threads)
+    {
+      thread.join();
+    }
+    final Snapshot snapshot = histogram.getSnapshot();
+    assertThat(snapshot.getCount()).isEqualTo(40000);
+    assertThat(snapshot.getMeanMicros()).isEqualTo(100);
+    assertThat(snapshot.getValueAtPercentile(99.9)).isEqualTo(100);
+    // the recorders of the dead threads have been folded into the histogram
+    assertThat(histogram.getNbRecorders()).isEqualTo(0);
+    histogram.recordNanos(TimeUnit.MICROSECONDS.toNanos(1000));
+    assertThat(histogram.getNbRecorders()).isEqualTo(1);
+    assertThat(histogram.getSnapshot().getCount()).isEqualTo(40001);
+    assertThat(histogram.getSnapshot().getMaxMicros()).isEqualTo(1000);
+  }
+
+  private void assertPercentile(Snapshot snapshot, double percentile, long expectedMicros)
+  {
+    final long micros = snapshot.getValueAtPercentile(percentile);
+    assertThat(micros).isGreaterThanOrEqualTo(expectedMicros);
+    assertThat((double) micros).isLessThanOrEqualTo(expectedMicros * 1.0625);
+  }
+}
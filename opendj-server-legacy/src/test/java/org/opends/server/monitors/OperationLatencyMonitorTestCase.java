@@ -0,0 +1,81 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.monitors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.opends.server.types.NullOutputStream.*;
+
+import com.forgerock.opendj.ldap.tools.LDAPSearch;
+import org.forgerock.opendj.ldap.DN;
+import org.opends.server.TestCaseUtils;
+import org.opends.server.api.MonitorProvider;
+import org.opends.server.core.DirectoryServer;
+import org.opends.server.types.Entry;
+import org.testng.annotations.Test;
+
+/** This class defines a set of tests for the {@link OperationLatencyMonitor} class. */
+@SuppressWarnings("javadoc")
+public class OperationLatencyMonitorTestCase extends GenericMonitorTestCase
+{
+  public OperationLatencyMonitorTestCase() throws Exception
+  {
+    super(null);
+  }
+
+  @Override
+  protected MonitorProvider<?> getMonitorInstance() throws Exception
+  {
+    MonitorProvider<?> provider = DirectoryServer.getMonitorProviders().get("operation latencies");
+    provider.initializeMonitorProvider(null);
+    return provider;
+  }
+
+  @Test
+  public void testSearchLatencies() throws Exception
+  {
+    TestCaseUtils.initializeTestBackend(true);
+    final String monitorDN = "cn=Operation Latencies,cn=monitor";
+    final String backendMonitorDN = "cn=test Backend,cn=monitor";
+    final long searchCount = getLong(monitorDN, "search-indexed-processing-count");
+    final long backendCount = getLong(backendMonitorDN, "search-indexed-backend-count");
+
+    final String[] args =
+    {
+      "--noPropertiesFile",
+      "-h", "127.0.0.1",
+      "-p", String.valueOf(TestCaseUtils.getServerLdapPort()),
+      "-b", "o=test",
+      "-s", "base",
+      "(objectClass=*)"
+    };
+    assertThat(LDAPSearch.run(nullPrintStream(), nullPrintStream(), args)).isEqualTo(0);
+
+    assertThat(getLong(monitorDN, "search-indexed-processing-count")).isGreaterThan(searchCount);
+    assertThat(getLong(monitorDN, "search-indexed-queueing-count")).isGreaterThan(searchCount);
+    assertThat(getLong(monitorDN, "search-indexed-response-write-count")).isGreaterThan(searchCount);
+    assertThat(getLong(monitorDN, "search-indexed-processing-max-micros"))
+        .isGreaterThanOrEqualTo(getLong(monitorDN, "search-indexed-processing-p99-micros"));
+    assertThat(getLong(backendMonitorDN, "search-indexed-backend-count"))
+        .isGreaterThan(backendCount);
+  }
+
+  private long getLong(String dn, String attributeName) throws Exception
+  {
+    final Entry entry = DirectoryServer.getEntry(DN.valueOf(dn));
+    assertThat(entry).isNotNull();
+    return entry.parseAttribute(attributeName).asLong();
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.replication.plugin;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.opends.server.TestCaseUtils.*;
+import static org.opends.server.protocols.internal.InternalClientConnection.*;
+import static org.opends.server.replication.protocol.OperationContext.*;
+import static org.opends.server.util.CollectionUtils.*;
+
+import java.util.List;
+
+import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.ModificationType;
+import org.opends.server.core.ModifyOperationBasis;
+import org.opends.server.replication.ReplicationTestCase;
+import org.opends.server.replication.common.CSN;
+import org.opends.server.replication.protocol.ModifyContext;
+import org.opends.server.types.Attribute;
+import org.opends.server.types.Attributes;
+import org.opends.server.types.Entry;
+import org.opends.server.types.Modification;
+import org.opends.server.workflowelement.localbackend.LocalBackendModifyOperation;
+import org.testng.annotations.Test;
+
+/** Tests the encodings of the historical information by {@link EntryHistorical}. */
+@SuppressWarnings("javadoc")
+public class EntryHistoricalEncodingTest extends ReplicationTestCase
+{
+  private static Entry newEntry(String... histValues) throws Exception
+  {
+    Entry entry = makeEntry(
+        "dn: cn=test," + TEST_ROOT_DN_STRING,
+        "objectClass: top",
+        "objectClass: person",
+        "objectClass: inetOrgPerson",
+        "cn: test",
+        "sn: test");
+    entry.replaceAttribute(Attributes.create(EntryHistorical.HISTORICAL_ATTRIBUTE_NAME, histValues));
+    return entry;
+  }
+
+  private static Entry replaceHistorical(Entry entry, Attribute histAttr)
+  {
+    entry.replaceAttribute(histAttr);
+    return entry;
+  }
+
+  private static boolean replay(EntryHistorical hist, Entry entry, CSN csn, List<Modification> mods)
+  {
+    ModifyOperationBasis modOpBasis = new ModifyOperationBasis(getRootConnection(), 1, 1, null, entry.getName(), mods);
+    LocalBackendModifyOperation modOp = new LocalBackendModifyOperation(modOpBasis);
+    modOp.setAttachment(SYNCHROCONTEXT, new ModifyContext(csn, "uniqueId"));
+    return hist.replayOperation(modOp, entry);
+  }
+
+  @Test
+  public void encodingsAreConvertible() throws Exception
+  {
+    Entry entry = newEntry(
+        "dn:0000014f2d0c9f53000100000001:add",
+        "description:0000014f2d0c9f53000100000002:add:value1",
+        "description:0000014f2d0c9f53000100000003:del:value2",
+        "sn:0000014f2d0c9f53000100000004:repl:test");
+    Attribute strAttr = EntryHistorical.newInstanceFromEntry(entry).encodeAndPurge();
+
+    EntryHistorical hist = EntryHistorical.newInstanceFromEntry(entry);
+    hist.setBinaryEncoding(true);
+    Attribute binAttr = hist.encodeAndPurge();
+    assertThat(binAttr.size()).isEqualTo(strAttr.size());
+    for (ByteString value : binAttr)
+    {
+      assertThat(HistoricalAttributeValue.isBinaryEncoded(value)).isTrue();
+    }
+
+    EntryHistorical binHist = EntryHistorical.newInstanceFromEntry(replaceHistorical(entry, binAttr));
+    assertThat(binHist.getOldestCSN()).isEqualTo(hist.getOldestCSN());
+    assertThat(binHist.encodeAndPurge()).isEqualTo(strAttr);
+  }
+
+  @Test
+  public void onlyModifiedAttributesAreDecoded() throws Exception
+  {
+    Entry entry = newEntry(
+        "description:0000014f2d0c9f53000100000002:add:value1",
+        "sn:0000014f2d0c9f53000100000004:repl:test");
+    EntryHistorical hist = EntryHistorical.newInstanceFromEntry(entry);
+    hist.setBinaryEncoding(true);
+    replaceHistorical(entry, hist.encodeAndPurge());
+
+    EntryHistorical binHist = EntryHistorical.newInstanceFromEntry(entry);
+    binHist.setBinaryEncoding(true);
+    // the replace of sn is older than the one stored in the historical: it must be discarded
+    Modification olderReplace = new Modification(ModificationType.REPLACE, Attributes.create("sn", "older"));
+    List<Modification> mods = newArrayList(olderReplace);
+    assertThat(replay(binHist, entry, new CSN(0x14f2d0c9f52L, 1, 1), mods)).isTrue();
+    assertThat(mods).isEmpty();
+
+    Modification newerAdd = new Modification(ModificationType.ADD, Attributes.create("description", "value2"));
+    mods = newArrayList(newerAdd);
+    CSN csn = new CSN(0x14f2d0c9f54L, 1, 1);
+    assertThat(replay(binHist, entry, csn, mods)).isFalse();
+    assertThat(mods).containsOnly(newerAdd);
+
+    assertThat(binHist.encodeAndPurge()).containsOnly(
+        HistoricalAttributeValue.encode(true, "description", new CSN("0000014f2d0c9f53000100000002"),
+            HistAttrModificationKey.ADD, ByteString.valueOfUtf8("value1")),
+        HistoricalAttributeValue.encode(true, "description", csn, HistAttrModificationKey.ADD,
+            ByteString.valueOfUtf8("value2")),
+        HistoricalAttributeValue.encode(true, "sn", new CSN("0000014f2d0c9f53000100000004"),
+            HistAttrModificationKey.REPL, ByteString.valueOfUtf8("test")));
+  }
+
+  @Test
+  public void supersededValuesAreCompactedOnWrite() throws Exception
+  {
+    Entry entry = newEntry(
+        "description:0000014f2d0c9f53000100000001:add:value1",
+        "description:0000014f2d0c9f53000100000002:del:value2",
+        "description:0000014f2d0c9f53000100000003:attrDel",
+        "description:0000014f2d0c9f53000100000004:add:value3",
+        "displayName:0000014f2d0c9f53000100000001:add:test",
+        "displayName:0000014f2d0c9f53000100000003:attrDel");
+    EntryHistorical hist = EntryHistorical.newInstanceFromEntry(entry);
+    Attribute attr = hist.encodeAndPurge();
+
+    assertThat(attr).containsOnly(
+        ByteString.valueOfUtf8("description:0000014f2d0c9f53000100000003:attrDel"),
+        ByteString.valueOfUtf8("description:0000014f2d0c9f53000100000004:add:value3"),
+        // displayName is single-valued: its historical is kept as is
+        ByteString.valueOfUtf8("displayName:0000014f2d0c9f53000100000001:add:test"),
+        ByteString.valueOfUtf8("displayName:0000014f2d0c9f53000100000003:attrDel"));
+  }
+}
@@ -15,8 +15,13 @@
  */
 package org.opends.server.replication.plugin;
 
+import static org.assertj.core.api.Assertions.*;
+
 import org.assertj.core.api.Assertions;
+import org.forgerock.opendj.ldap.ByteString;
+import org.forgerock.opendj.ldap.schema.Schema;
 import org.opends.server.replication.ReplicationTestCase;
+import org.opends.server.replication.common.CSN;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -47,4 +52,49 @@ public class HistoricalAttributeValueTestCase extends ReplicationTestCase
     HistoricalAttributeValue val = new HistoricalAttributeValue(strVal);
     Assertions.assertThat(strVal).isEqualTo(val.toString());
   }
+
+  @Test(dataProvider = "values")
+  public void testBinaryEncoding(String strVal)
+  {
+    ByteString binVal = new HistoricalAttributeValue(strVal).encode(true);
+    assertThat(HistoricalAttributeValue.isBinaryEncoded(binVal)).isTrue();
+    assertThat(binVal.length()).isLessThan(strVal.length());
+
+    HistoricalAttributeValue val = new HistoricalAttributeValue(binVal);
+    assertThat(val.toString()).isEqualTo(strVal);
+    assertThat(val.encode(true)).isSameAs(binVal);
+    assertThat(val.encode(false)).isEqualTo(ByteString.valueOfUtf8(strVal));
+  }
+
+  @Test(dataProvider = "values")
+  public void testOrderingIsIndependentOfEncoding(String strVal) throws Exception
+  {
+    HistoricalCsnOrderingMatchingRuleImpl matchingRule = new HistoricalCsnOrderingMatchingRuleImpl();
+    Schema schema = Schema.getCoreSchema();
+    ByteString strNormalized = matchingRule.normalizeAttributeValue(schema, ByteString.valueOfUtf8(strVal));
+    ByteString binVal = new HistoricalAttributeValue(strVal).encode(true);
+    assertThat(matchingRule.normalizeAttributeValue(schema, binVal)).isEqualTo(strNormalized);
+  }
+
+  @Test
+  public void testBinaryEncodingPreservesBinaryValues()
+  {
+    ByteString value = ByteString.wrap(new byte[] { 0, (byte) 0xff, ':', (byte) 0xc3 });
+    CSN csn = new CSN(42, 1, 1);
+    ByteString binVal = HistoricalAttributeValue.encode(true, "description", csn, HistAttrModificationKey.ADD, value);
+
+    HistoricalAttributeValue val = new HistoricalAttributeValue(binVal);
+    assertThat(val.getCSN()).isEqualTo(csn);
+    assertThat(val.getHistKey()).isEqualTo(HistAttrModificationKey.ADD);
+    assertThat(val.getAttributeValue()).isEqualTo(value);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testUnsupportedBinaryEncodingVersion()
+  {
+    ByteString binVal = new HistoricalAttributeValue("description:0000014f2d0c9f53000100000001:attrDel").encode(true);
+    byte[] bytes = binVal.toByteArray();
+    bytes[1] = 0x7f;
+    new HistoricalAttributeValue(ByteString.wrap(bytes));
+  }
 }
@@ -24,6 +24,7 @@ import org.forgerock.opendj.config.Configuration;
 import org.forgerock.opendj.config.server.ConfigurationChangeListener;
 import org.forgerock.opendj.config.server.ServerManagedObject;
 import org.forgerock.opendj.ldap.DN;
+import org.forgerock.opendj.server.config.meta.ReplicationServerCfgDefn.ChangelogDurability;
 import org.forgerock.opendj.server.config.server.ReplicationServerCfg;
 
 /**
@@ -60,6 +61,8 @@ public class ReplServerFakeConfiguration implements ReplicationServerCfg
   /** The monitoring publisher period. */
   private long monitoringPeriod = 3000;
   private boolean computeChangenumber;
+  private ChangelogDurability changelogDurability = ChangelogDurability.OS_MANAGED;
+  private long changelogSyncInterval = 5;
 
   /** Constructor without group id, assured info and weight. */
   public ReplServerFakeConfiguration(
@@ -227,6 +230,18 @@ public class ReplServerFakeConfiguration implements ReplicationServerCfg
     return 128;
   }
 
+  @Override
+  public ChangelogDurability getChangelogDurability()
+  {
+    return changelogDurability;
+  }
+
+  @Override
+  public long getChangelogSyncInterval()
+  {
+    return changelogSyncInterval;
+  }
+
   @Override
   public String getCipherTransformation()
   {
@@ -272,6 +287,12 @@ public class ReplServerFakeConfiguration implements ReplicationServerCfg
     this.computeChangenumber = computeChangenumber;
   }
 
+  public void setChangelogDurability(ChangelogDurability changelogDurability, long changelogSyncInterval)
+  {
+    this.changelogDurability = changelogDurability;
+    this.changelogSyncInterval = changelogSyncInterval;
+  }
+
   public void setConfidentialityEnabled(boolean confidentialityEnabled)
   {
     this.confidentialityEnabled = confidentialityEnabled;
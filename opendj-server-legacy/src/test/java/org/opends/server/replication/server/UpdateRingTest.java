@@ -0,0 +1,145 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.replication.server;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.opends.server.DirectoryServerTestCase;
+import org.opends.server.replication.common.CSN;
+import org.opends.server.replication.protocol.UpdateMsg;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class UpdateRingTest extends DirectoryServerTestCase
+{
+  private static final List<Integer> NO_ASSURED_SERVERS = Collections.emptyList();
+  private static final long NO_BYTE_BUDGET = Long.MAX_VALUE;
+
+  private static UpdateMsg newUpdateMsg(int t)
+  {
+    return new UpdateMsg(new CSN(t, t, 1), new byte[1]) {};
+  }
+
+  @Test
+  public void capacityIsRoundedToPowerOfTwo()
+  {
+    assertThat(new UpdateRing(1, NO_BYTE_BUDGET).getCapacity()).isEqualTo(2);
+    assertThat(new UpdateRing(8, NO_BYTE_BUDGET).getCapacity()).isEqualTo(8);
+    assertThat(new UpdateRing(10000, NO_BYTE_BUDGET).getCapacity()).isEqualTo(16384);
+  }
+
+  @Test
+  public void publishedEntriesAreReadInSequence()
+  {
+    final UpdateRing ring = new UpdateRing(4, NO_BYTE_BUDGET);
+    assertThat(ring.get(0)).isNull();
+
+    final UpdateMsg msg1 = newUpdateMsg(1);
+    final UpdateMsg msg2 = newUpdateMsg(2);
+    assertThat(ring.publish(msg1, null, NO_ASSURED_SERVERS, null)).isEqualTo(0);
+    assertThat(ring.publish(msg2, null, NO_ASSURED_SERVERS, null)).isEqualTo(1);
+
+    assertThat(ring.getNextSequence()).isEqualTo(2);
+    assertThat(ring.get(0).getUpdateMsg()).isSameAs(msg1);
+    assertThat(ring.get(1).getUpdateMsg()).isSameAs(msg2);
+    assertThat(ring.get(2)).isNull();
+    assertThat(ring.getNbEntriesFrom(0)).isEqualTo(2);
+    assertThat(ring.getNbEntriesFrom(1)).isEqualTo(1);
+  }
+
+  @Test
+  public void lappedReaderSeesMoreRecentEntry()
+  {
+    final UpdateRing ring = new UpdateRing(4, NO_BYTE_BUDGET);
+    for (int i = 0; i < 6; i++)
+    {
+      ring.publish(newUpdateMsg(i), null, NO_ASSURED_SERVERS, null);
+    }
+
+    // entries 0 and 1 have been overwritten by entries 4 and 5
+    assertThat(ring.get(0).getSequence()).isEqualTo(4);
+    assertThat(ring.get(1).getSequence()).isEqualTo(5);
+    assertThat(ring.get(2).getSequence()).isEqualTo(2);
+    assertThat(ring.getNbEntriesFrom(0)).isEqualTo(4);
+  }
+
+  @Test
+  public void oldestEntriesAreEvictedAboveByteBudget()
+  {
+    // each update takes 11 bytes: keep 5 updates whatever their size, or as many as fit in 66 bytes
+    final UpdateRing ring = new UpdateRing(16, 66);
+    for (int i = 0; i < 6; i++)
+    {
+      ring.publish(newUpdateMsg(i), null, NO_ASSURED_SERVERS, null);
+    }
+    assertThat(ring.get(0).getSequence()).isEqualTo(0);
+    assertThat(ring.getNbBytesFrom(0)).isEqualTo(66);
+    assertThat(ring.getNbBytesFrom(4)).isEqualTo(22);
+
+    ring.publish(newUpdateMsg(6), null, NO_ASSURED_SERVERS, null);
+    // entry 0 has been evicted, its readers must read the changelog
+    assertThat(ring.get(0).getSequence()).isGreaterThan(0);
+    assertThat(ring.get(1).getSequence()).isEqualTo(1);
+    assertThat(ring.getNbBytesFrom(1)).isEqualTo(66);
+
+    final UpdateRing smallRing = new UpdateRing(16, 1);
+    for (int i = 0; i < 10; i++)
+    {
+      smallRing.publish(newUpdateMsg(i), null, NO_ASSURED_SERVERS, null);
+    }
+    assertThat(smallRing.get(4).getSequence()).isGreaterThan(4);
+    assertThat(smallRing.get(5).getSequence()).isEqualTo(5);
+  }
+
+  @Test
+  public void waitForTimesOutWhenNothingIsPublished() throws Exception
+  {
+    final UpdateRing ring = new UpdateRing(4, NO_BYTE_BUDGET);
+    assertThat(ring.waitFor(0, 10, TimeUnit.MILLISECONDS)).isFalse();
+  }
+
+  @Test
+  public void waitForReturnsOncePublished() throws Exception
+  {
+    final UpdateRing ring = new UpdateRing(4, NO_BYTE_BUDGET);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try
+    {
+      final Future<Boolean> waiting = executor.submit(new Callable<Boolean>()
+      {
+        @Override
+        public Boolean call() throws Exception
+        {
+          return ring.waitFor(0, 10, TimeUnit.SECONDS);
+        }
+      });
+      ring.publish(newUpdateMsg(1), null, NO_ASSURED_SERVERS, null);
+      assertThat(waiting.get(10, TimeUnit.SECONDS)).isTrue();
+    }
+    finally
+    {
+      executor.shutdown();
+    }
+  }
+}
@@ -25,6 +25,9 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -251,6 +254,48 @@ public class BlockLogReaderWriterTest extends DirectoryServerTestCase
     }
   }
 
+  @Test(dataProvider = "recordsForSeek")
+  public void testSeekToRecordWithMappedReaderAndKeyIndex(int blockSize, List<Record<Integer, Integer>> records,
+      int key, KeyMatchingStrategy matchingStrategy, PositionStrategy positionStrategy,
+      Record<Integer, Integer> expectedRecord, boolean shouldBeFound) throws Exception
+  {
+    writeRecords(blockSize, records);
+
+    final ByteBuffer mapping = mapTestFile();
+    final LogFileKeyIndex<Integer> index;
+    try (BlockLogReader<Integer, Integer> reader = newMappedReader(mapping, blockSize))
+    {
+      index = LogFileKeyIndex.build(reader, 2);
+    }
+    try (BlockLogReader<Integer, Integer> reader = newMappedReader(mapping, blockSize))
+    {
+      Pair<Boolean, Record<Integer, Integer>> result =
+          reader.seekToRecord(index, key, matchingStrategy, positionStrategy);
+
+      final SoftAssertions softly = new SoftAssertions();
+      softly.assertThat(result.getFirst()).isEqualTo(shouldBeFound);
+      softly.assertThat(result.getSecond()).isEqualTo(expectedRecord);
+      softly.assertAll();
+    }
+  }
+
+  @Test(dataProvider="recordsData")
+  public void testWriteThenReadWithMappedReader(int blockSize, int expectedSizeOfFile,
+      List<Record<Integer, Integer>> records) throws Exception
+  {
+    writeRecords(blockSize, records);
+
+    try (BlockLogReader<Integer, Integer> reader = newMappedReader(mapTestFile(), blockSize))
+    {
+      for (int i = 0; i < records.size(); i++)
+      {
+         assertThat(reader.readRecord()).isEqualTo(records.get(i));
+      }
+      assertThat(reader.readRecord()).isNull();
+      assertThat(reader.getFilePosition()).isEqualTo(expectedSizeOfFile);
+    }
+  }
+
   @Test
   public void testGetClosestBlockStartBeforeOrAtPosition() throws Exception
   {
@@ -518,6 +563,19 @@ public class BlockLogReaderWriterTest extends DirectoryServerTestCase
         RECORD_PARSER, blockSize);
   }
 
+  private BlockLogReader<Integer, Integer> newMappedReader(ByteBuffer mapping, int blockSize)
+  {
+    return BlockLogReader.newMappedReaderForTests(TEST_FILE, mapping, RECORD_PARSER, blockSize);
+  }
+
+  private ByteBuffer mapTestFile() throws IOException
+  {
+    try (RandomAccessFile file = new RandomAccessFile(TEST_FILE, "r"); FileChannel channel = file.getChannel())
+    {
+      return channel.map(MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
   private BlockLogReader<Integer, Integer> newReaderWithNullFile(int blockSize) throws FileNotFoundException
   {
     return BlockLogReader.newReaderForTests(null, null, RECORD_PARSER, blockSize);
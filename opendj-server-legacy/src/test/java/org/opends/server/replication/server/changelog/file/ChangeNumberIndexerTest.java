@@ -16,6 +16,7 @@
 package org.opends.server.replication.server.changelog.file;
 
 import java.lang.Thread.State;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -533,6 +534,23 @@ public class ChangeNumberIndexerTest extends DirectoryServerTestCase
     assertExternalChangelogContent(msg1);
   }
 
+  @Test(dependsOnMethods = { NO_DS })
+  public void backlogIsIndexedInOneBatch() throws Exception
+  {
+    eclEnabledDomains = Arrays.asList(BASE_DN1);
+    addReplica(BASE_DN1, serverId1);
+    final ReplicatedUpdateMsg msg1 = msg(BASE_DN1, serverId1, 1);
+    final ReplicatedUpdateMsg msg2 = msg(BASE_DN1, serverId1, 2);
+    final ReplicatedUpdateMsg msg3 = msg(BASE_DN1, serverId1, 3);
+    publishUpdateMsg(msg1, msg2, msg3);
+    startCNIndexer();
+
+    // wake up the indexer, which catches up with the changes persisted before it started
+    sendHeartbeat(BASE_DN1, serverId1, 4);
+    assertExternalChangelogContent(msg1, msg2, msg3);
+    verify(cnIndexDB, times(1)).addRecords(anyListOf(ChangeNumberIndexRecord.class));
+  }
+
   private void addReplica(DN baseDN, int serverId) throws Exception
   {
     final SequentialDBCursor replicaDBCursor = new SequentialDBCursor();
@@ -685,10 +703,14 @@ public class ChangeNumberIndexerTest extends DirectoryServerTestCase
   private void assertExternalChangelogContent(ReplicatedUpdateMsg... expectedMsgs)
       throws Exception
   {
-    final ArgumentCaptor<ChangeNumberIndexRecord> arg =
-        ArgumentCaptor.forClass(ChangeNumberIndexRecord.class);
-    verify(cnIndexDB, atLeast(0)).addRecord(arg.capture());
-    final List<ChangeNumberIndexRecord> allValues = arg.getAllValues();
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    final ArgumentCaptor<List<ChangeNumberIndexRecord>> arg = (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    verify(cnIndexDB, atLeast(0)).addRecords(arg.capture());
+    final List<ChangeNumberIndexRecord> allValues = new ArrayList<>();
+    for (List<ChangeNumberIndexRecord> batch : arg.getAllValues())
+    {
+      allValues.addAll(batch);
+    }
 
     // check it was not called more than expected
     String desc1 = "actual was:<" + allValues + ">, but expected was:<" + Arrays.toString(expectedMsgs) + ">";
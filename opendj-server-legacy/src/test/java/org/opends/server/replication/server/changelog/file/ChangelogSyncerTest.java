@@ -0,0 +1,175 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.replication.server.changelog.file;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.forgerock.i18n.LocalizableMessage;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.opends.server.DirectoryServerTestCase;
+import org.opends.server.replication.server.changelog.api.ChangelogException;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class ChangelogSyncerTest extends DirectoryServerTestCase
+{
+  /** A replica DB which only counts the synchronizations. */
+  private static FileReplicaDB newCountingReplicaDB(final AtomicInteger nbSyncs) throws ChangelogException
+  {
+    final FileReplicaDB replicaDB = mock(FileReplicaDB.class);
+    doAnswer(new Answer<Void>()
+    {
+      @Override
+      public Void answer(InvocationOnMock invocation)
+      {
+        nbSyncs.incrementAndGet();
+        return null;
+      }
+    }).when(replicaDB).syncToFileSystem();
+    return replicaDB;
+  }
+
+  @Test
+  public void syncPerBatchReturnsOnceSynchronized() throws Exception
+  {
+    final AtomicInteger nbSyncs = new AtomicInteger();
+    final FileReplicaDB replicaDB = newCountingReplicaDB(nbSyncs);
+    final ChangelogSyncer syncer = new ChangelogSyncer(true, 0);
+    syncer.start();
+    try
+    {
+      syncer.changesAdded(replicaDB);
+      assertThat(nbSyncs.get()).isEqualTo(1);
+      syncer.changesAdded(replicaDB);
+      assertThat(nbSyncs.get()).isEqualTo(2);
+    }
+    finally
+    {
+      stop(syncer);
+    }
+  }
+
+  @Test
+  public void syncPerBatchGroupsConcurrentChanges() throws Exception
+  {
+    final int nbThreads = 8;
+    final AtomicInteger nbSyncs = new AtomicInteger();
+    final FileReplicaDB replicaDB = newCountingReplicaDB(nbSyncs);
+    // large window so that all the changes end up in the same batch
+    final ChangelogSyncer syncer = new ChangelogSyncer(true, 1000);
+    syncer.start();
+    final ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+    try
+    {
+      final List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < nbThreads; i++)
+      {
+        futures.add(executor.submit(new Callable<Void>()
+        {
+          @Override
+          public Void call() throws Exception
+          {
+            syncer.changesAdded(replicaDB);
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> future : futures)
+      {
+        future.get();
+      }
+      assertThat(nbSyncs.get()).isBetween(1, 2);
+    }
+    finally
+    {
+      executor.shutdown();
+      stop(syncer);
+    }
+  }
+
+  @Test(expectedExceptions = ChangelogException.class)
+  public void syncPerBatchReportsSyncFailure() throws Exception
+  {
+    final FileReplicaDB replicaDB = mock(FileReplicaDB.class);
+    doThrow(new ChangelogException(LocalizableMessage.raw("sync failed"))).when(replicaDB).syncToFileSystem();
+    final ChangelogSyncer syncer = new ChangelogSyncer(true, 0);
+    syncer.start();
+    try
+    {
+      syncer.changesAdded(replicaDB);
+    }
+    finally
+    {
+      stop(syncer);
+    }
+  }
+
+  @Test
+  public void intervalSynchronizesInTheBackground() throws Exception
+  {
+    final AtomicInteger nbSyncs = new AtomicInteger();
+    final FileReplicaDB replicaDB = newCountingReplicaDB(nbSyncs);
+    final ChangelogSyncer syncer = new ChangelogSyncer(false, 10);
+    syncer.start();
+    try
+    {
+      syncer.changesAdded(replicaDB);
+      final long deadline = System.currentTimeMillis() + 5000;
+      while (nbSyncs.get() == 0 && System.currentTimeMillis() < deadline)
+      {
+        Thread.sleep(10);
+      }
+      assertThat(nbSyncs.get()).isEqualTo(1);
+    }
+    finally
+    {
+      stop(syncer);
+    }
+  }
+
+  @Test
+  public void shutdownSynchronizesPendingChanges() throws Exception
+  {
+    final FileReplicaDB replicaDB = mock(FileReplicaDB.class);
+    final ChangelogSyncer syncer = new ChangelogSyncer(false, 60000);
+    syncer.start();
+    syncer.changesAdded(replicaDB);
+    verify(replicaDB, never()).syncToFileSystem();
+
+    stop(syncer);
+    verify(replicaDB).syncToFileSystem();
+
+    // changes added after shutdown are synchronized directly
+    syncer.changesAdded(replicaDB);
+    verify(replicaDB, times(2)).syncToFileSystem();
+  }
+
+  private void stop(final ChangelogSyncer syncer) throws InterruptedException
+  {
+    syncer.initiateShutdown();
+    syncer.join();
+  }
+}
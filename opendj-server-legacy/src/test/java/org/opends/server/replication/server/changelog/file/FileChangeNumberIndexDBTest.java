@@ -19,6 +19,8 @@ import static org.assertj.core.api.Assertions.*;
 import static org.opends.server.replication.server.changelog.file.FileReplicaDBTest.*;
 import static org.testng.Assert.*;
 
+import java.util.Arrays;
+
 import org.forgerock.opendj.config.server.ConfigException;
 import org.forgerock.opendj.ldap.ByteString;
 import org.forgerock.opendj.server.config.server.ReplicationServerCfg;
@@ -106,6 +108,45 @@ public class FileChangeNumberIndexDBTest extends ReplicationTestCase
     }
   }
 
+  @Test
+  public void testAddRecordsInBatch() throws Exception
+  {
+    ReplicationServer replicationServer = null;
+    try
+    {
+      replicationServer = newReplicationServer(false);
+      final ChangelogDB changelogDB = replicationServer.getChangelogDB();
+      changelogDB.setPurgeDelay(0);
+      final FileChangeNumberIndexDB cnIndexDB = getCNIndexDB(replicationServer);
+
+      final DN baseDN = DN.valueOf("o=test1");
+      final CSN[] csns = generateCSNs(1, 0, 4);
+      final long cn1 = addRecord(cnIndexDB, baseDN, csns[0]);
+      final long cn2 = cnIndexDB.addRecords(Arrays.asList(
+          new ChangeNumberIndexRecord(baseDN, csns[1]),
+          new ChangeNumberIndexRecord(baseDN, csns[2])));
+      final long cn4 = addRecord(cnIndexDB, baseDN, csns[3]);
+
+      assertEquals(cn2, cn1 + 1);
+      assertEquals(cn4, cn1 + 3);
+      assertEquals(cnIndexDB.count(), 4, "Db count");
+      assertEquals(cnIndexDB.getNewestRecord().getChangeNumber(), cn4);
+      try (DBCursor<ChangeNumberIndexRecord> cursor = cnIndexDB.getCursorFrom(cn1))
+      {
+        assertCursorReadsInOrder(cursor, cn1, cn2, cn2 + 1, cn4);
+      }
+      try (DBCursor<ChangeNumberIndexRecord> cursor = cnIndexDB.getCursorFrom(cn2 + 1))
+      {
+        assertTrue(cursor.next());
+        assertEquals(cursor.getRecord().getCSN(), csns[2]);
+      }
+    }
+    finally
+    {
+      remove(replicationServer);
+    }
+  }
+
   @Test
   public void testClear() throws Exception
   {
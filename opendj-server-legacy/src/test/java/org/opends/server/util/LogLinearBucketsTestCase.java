@@ -0,0 +1,89 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.opends.server.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class LogLinearBucketsTestCase extends UtilTestCase
+{
+  @DataProvider
+  public Object[][] buckets()
+  {
+    return new Object[][] {
+      { 3, Long.MAX_VALUE },
+      { 4, (1L << 32) - 1 },
+    };
+  }
+
+  @Test(dataProvider = "buckets")
+  public void testBucketBounds(int precisionBits, long highestValue)
+  {
+    final LogLinearBuckets buckets = new LogLinearBuckets(precisionBits, highestValue);
+    int previousBucket = 0;
+    for (long value = 0; value < (1 << 16); value++)
+    {
+      final int bucket = buckets.bucketOf(value);
+      assertThat(bucket).isBetween(previousBucket, previousBucket + 1);
+      assertThat(value).isBetween(buckets.lowestValueOf(bucket), buckets.highestValueOf(bucket));
+      previousBucket = bucket;
+    }
+  }
+
+  @Test(dataProvider = "buckets")
+  public void testRelativeError(int precisionBits, long highestValue)
+  {
+    final LogLinearBuckets buckets = new LogLinearBuckets(precisionBits, highestValue);
+    final double maxError = 1.0 / (1 << precisionBits);
+    for (long value = 1; value > 0 && value <= highestValue; value = value * 3 + 1)
+    {
+      final int bucket = buckets.bucketOf(value);
+      final long lowest = buckets.lowestValueOf(bucket);
+      final long highest = buckets.highestValueOf(bucket);
+      assertThat(value).isBetween(lowest, highest);
+      assertThat((double) (highest - lowest)).isLessThanOrEqualTo(lowest * maxError + 1);
+    }
+  }
+
+  @Test(dataProvider = "buckets")
+  public void testOutOfRangeValues(int precisionBits, long highestValue)
+  {
+    final LogLinearBuckets buckets = new LogLinearBuckets(precisionBits, highestValue);
+    final int lastBucket = buckets.getNbBuckets() - 1;
+    assertThat(buckets.bucketOf(-1)).isEqualTo(0);
+    assertThat(buckets.bucketOf(Long.MIN_VALUE)).isEqualTo(0);
+    assertThat(buckets.bucketOf(highestValue)).isEqualTo(lastBucket);
+    assertThat(buckets.bucketOf(Long.MAX_VALUE)).isEqualTo(lastBucket);
+    assertThat(buckets.highestValueOf(lastBucket)).isEqualTo(highestValue);
+  }
+
+  @Test
+  public void testSmallValuesHaveTheirOwnBucket()
+  {
+    final LogLinearBuckets buckets = new LogLinearBuckets(4, 1000);
+    for (int value = 0; value < 32; value++)
+    {
+      assertThat(buckets.bucketOf(value)).isEqualTo(value);
+      assertThat(buckets.lowestValueOf(value)).isEqualTo(value);
+      assertThat(buckets.highestValueOf(value)).isEqualTo(value);
+    }
+    assertThat(buckets.bucketOf(32)).isEqualTo(32);
+    assertThat(buckets.highestValueOf(32)).isEqualTo(33);
+  }
+}